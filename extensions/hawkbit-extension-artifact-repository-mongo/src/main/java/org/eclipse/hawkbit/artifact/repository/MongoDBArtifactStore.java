@@ -13,13 +13,16 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.DigestInputStream;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
@@ -27,7 +30,8 @@ import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.gridfs.GridFsOperations;
@@ -43,6 +47,12 @@ import com.mongodb.gridfs.GridFSFile;
 /**
  * The file management which looks up all the file in the file tore.
  *
+ * By default new binaries are spooled into a temporary file while the SHA1
+ * hash is calculated and stored into GridFS under their SHA1 hash afterwards.
+ * In the optional streaming mode they are streamed into GridFS under a
+ * provisional filename while the SHA1 and MD5 hashes are calculated, i.e.
+ * without the temporary file. Afterwards the file is renamed to its SHA1 hash
+ * or, if a file with the same SHA1 hash exists already, deleted again.
  */
 public class MongoDBArtifactStore implements ArtifactRepository {
 
@@ -68,10 +78,30 @@ public class MongoDBArtifactStore implements ArtifactRepository {
 
     private static final String ID = "_id";
 
+    private static final String PROVISIONAL_FILENAME_PREFIX = "provisional-";
+
     @Autowired
     private GridFsOperations gridFs;
 
-    MongoTemplate mongoTemplate;
+    private final boolean streaming;
+
+    /**
+     * Constructor of a store which spools the binaries into a temporary file.
+     */
+    public MongoDBArtifactStore() {
+        this(false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param streaming
+     *            <code>true</code> to stream the binaries into GridFS without
+     *            a temporary file
+     */
+    public MongoDBArtifactStore(final boolean streaming) {
+        this.streaming = streaming;
+    }
 
     /**
      * Retrieves a {@link GridFSDBFile} from the store by it's SHA1 hash.
@@ -105,6 +135,10 @@ public class MongoDBArtifactStore implements ArtifactRepository {
     @Override
     public DbArtifact store(final InputStream content, final String filename, final String contentType,
             final DbArtifactHash hash) {
+        if (streaming) {
+            return storeStreamed(content, filename, contentType, hash);
+        }
+
         File tempFile = null;
         try {
             LOGGER.debug("storing file {} of content {}", filename, contentType);
@@ -132,7 +166,7 @@ public class MongoDBArtifactStore implements ArtifactRepository {
         }
     }
 
-    private void deleteArtifact(final GridFSDBFile dbFile) {
+    private void deleteArtifact(final GridFSFile dbFile) {
         if (dbFile != null) {
             try {
                 gridFs.delete(new Query().addCriteria(Criteria.where(ID).is(dbFile.getId())));
@@ -155,11 +189,10 @@ public class MongoDBArtifactStore implements ArtifactRepository {
                 try (FileInputStream inputStream = new FileInputStream(tempFile)) {
                     final BasicDBObject metadata = new BasicDBObject();
                     metadata.put(SHA1, sha1Hash);
-                    storedArtifact = map(gridFs.store(inputStream, sha1Hash, contentType, metadata));
+                    storedArtifact = deduplicate(gridFs.store(inputStream, sha1Hash, contentType, metadata));
                 }
             } else {
-                LOGGER.info("file with sha1 hash {} already exists in database, increase reference counter", sha1Hash);
-                result.save();
+                LOGGER.info("file with sha1 hash {} already exists in database", sha1Hash);
                 storedArtifact = map(result);
             }
         } catch (final NoSuchAlgorithmException | IOException e) {
@@ -200,6 +233,130 @@ public class MongoDBArtifactStore implements ArtifactRepository {
         return sha1Hash;
     }
 
+    private DbArtifact storeStreamed(final InputStream content, final String filename, final String contentType,
+            final DbArtifactHash hash) {
+        try {
+            LOGGER.debug("streaming file {} of content {}", filename, contentType);
+            final MessageDigest mdSHA1 = messageDigest("SHA-1");
+            final MessageDigest mdMD5 = messageDigest("MD5");
+            try (InputStream digestStream = new DigestInputStream(new DigestInputStream(content, mdMD5), mdSHA1)) {
+                final GridFSDBFile existing = hash != null && hash.getSha1() != null ? findBySha1(hash.getSha1())
+                        : null;
+                if (existing != null) {
+                    // only verify the content as the binary exists already
+                    ByteStreams.copy(digestStream, ByteStreams.nullOutputStream());
+                    checkHashes(hash, encode(mdSHA1), encode(mdMD5));
+                    LOGGER.debug("file with sha1 hash {} already exists in database", hash.getSha1());
+                    return map(existing);
+                }
+
+                return storeStreamed(digestStream, contentType, hash, mdSHA1, mdMD5);
+            }
+        } catch (final IOException | MongoException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        }
+    }
+
+    private DbArtifact storeStreamed(final InputStream content, final String contentType, final DbArtifactHash hash,
+            final MessageDigest mdSHA1, final MessageDigest mdMD5) throws IOException {
+        // streams the chunks directly into GridFS, the final filename is
+        // known afterwards
+        final FailureRecordingInputStream source = new FailureRecordingInputStream(content);
+        final GridFSFile provisional = gridFs.store(source, PROVISIONAL_FILENAME_PREFIX + UUID.randomUUID(),
+                contentType, new BasicDBObject());
+
+        try {
+            source.rethrowFailure();
+            final String sha1Hash = encode(mdSHA1);
+            final String md5Hash = encode(mdMD5);
+            checkHashes(hash, sha1Hash, md5Hash);
+
+            // upload if it does not exist already, check if file exists, not
+            // tenant specific.
+            final GridFSDBFile existing = findBySha1(sha1Hash);
+            if (existing != null) {
+                LOGGER.info("file with sha1 hash {} already exists in database", sha1Hash);
+                deleteArtifact(provisional);
+                return map(existing);
+            }
+
+            // saves the file document through the GridFS bucket of the file
+            provisional.put(FILENAME, sha1Hash);
+            provisional.getMetaData().put(SHA1, sha1Hash);
+            provisional.save();
+        } catch (final IOException | RuntimeException e) {
+            deleteProvisional(provisional, e);
+            throw e;
+        }
+
+        return deduplicate(provisional);
+    }
+
+    /**
+     * Removes the duplicates of a stored file which are left by concurrent
+     * uploads of the same binary. Every upload keeps the oldest file and
+     * deletes all others, so that exactly one file remains regardless of the
+     * order of the uploads. As the binaries are looked up by their SHA1 hash
+     * it does not matter which one remains.
+     *
+     * @return the remaining file
+     */
+    private GridFsArtifact deduplicate(final GridFSFile stored) {
+        final List<GridFSDBFile> files = gridFs.find(new Query()
+                .addCriteria(Criteria.where(FILENAME).is(stored.getFilename())).with(new Sort(Direction.ASC, ID)));
+        if (files.isEmpty()) {
+            return map(stored);
+        }
+
+        final GridFSDBFile first = files.get(0);
+        files.stream().skip(1).forEach(this::deleteArtifact);
+        return first.getId().equals(stored.getId()) ? map(stored) : map(first);
+    }
+
+    private void deleteProvisional(final GridFSFile provisional, final Exception cause) {
+        try {
+            deleteArtifact(provisional);
+        } catch (final RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private GridFSDBFile findBySha1(final String sha1Hash) {
+        final List<GridFSDBFile> files = gridFs.find(
+                new Query().addCriteria(Criteria.where(FILENAME).is(sha1Hash)).with(new Sort(Direction.ASC, ID)));
+        return files.isEmpty() ? null : files.get(0);
+    }
+
+    private static void checkHashes(final DbArtifactHash hash, final String sha1Hash, final String md5Hash) {
+        if (hash == null) {
+            return;
+        }
+        if (hash.getSha1() != null && !hash.getSha1().equalsIgnoreCase(sha1Hash)) {
+            throw new HashNotMatchException(
+                    "The given sha1 hash " + hash.getSha1() + " not matching the calculated sha1 hash " + sha1Hash,
+                    HashNotMatchException.SHA1);
+        }
+        if (hash.getMd5() != null && !hash.getMd5().equalsIgnoreCase(md5Hash)) {
+            throw new HashNotMatchException(
+                    "The given md5 hash " + hash.getMd5() + " not matching the calculated md5 hash " + md5Hash,
+                    HashNotMatchException.MD5);
+        }
+    }
+
+    // Exception squid:S2070 - not used for hashing sensitive data
+    @SuppressWarnings("squid:S2070")
+    private static MessageDigest messageDigest(final String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new ArtifactStoreException(e);
+        }
+    }
+
+    private static String encode(final MessageDigest digest) {
+        return BaseEncoding.base16().lowerCase().encode(digest.digest());
+    }
+
     /**
      * Maps a list of {@link GridFSDBFile} to paged list of {@link DbArtifact}s.
      *
@@ -244,4 +401,52 @@ public class MongoDBArtifactStore implements ArtifactRepository {
         artifact.setHashes(new DbArtifactHash(fsFile.getFilename(), fsFile.getMD5()));
         return artifact;
     }
+
+    /**
+     * Stream which records the failure of the content and ends instead, so
+     * that GridFS completes the provisional file which can be deleted with all
+     * its chunks afterwards.
+     */
+    private static final class FailureRecordingInputStream extends FilterInputStream {
+        private Exception failure;
+
+        private FailureRecordingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (failure != null) {
+                return -1;
+            }
+            try {
+                return super.read();
+            } catch (final IOException | RuntimeException e) {
+                failure = e;
+                return -1;
+            }
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (failure != null) {
+                return -1;
+            }
+            try {
+                return super.read(b, off, len);
+            } catch (final IOException | RuntimeException e) {
+                failure = e;
+                return -1;
+            }
+        }
+
+        private void rethrowFailure() throws IOException {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        }
+    }
 }
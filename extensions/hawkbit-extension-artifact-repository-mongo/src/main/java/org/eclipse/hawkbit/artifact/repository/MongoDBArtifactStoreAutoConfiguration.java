@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,10 +21,14 @@ import org.springframework.context.annotation.Configuration;
 public class MongoDBArtifactStoreAutoConfiguration {
 
     /**
+     * @param streaming
+     *            <code>true</code> to stream the binaries into GridFS without
+     *            a temporary file
      * @return Default {@link ArtifactRepository} implementation.
      */
     @Bean
-    public ArtifactRepository artifactRepository() {
-        return new MongoDBArtifactStore();
+    public ArtifactRepository artifactRepository(
+            @Value("${org.eclipse.hawkbit.artifact.repository.mongo.streaming:false}") final boolean streaming) {
+        return new MongoDBArtifactStore(streaming);
     }
 }
@@ -9,23 +9,40 @@
 package org.eclipse.hawkbit.artifact.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.hawkbit.artifact.TestConfiguration;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.gridfs.GridFsOperations;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -44,6 +61,9 @@ public class MongoDBArtifactStoreTest {
     @Autowired
     private GridFsOperations gridFs;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Test
     @Description("Ensures that search by SHA1 hash (which is used by hawkBit as artifact ID) finds the expected results.")
     public void findArtifactBySHA1Hash() throws NoSuchAlgorithmException {
@@ -70,12 +90,149 @@ public class MongoDBArtifactStoreTest {
                 BaseEncoding.base16().lowerCase().encode(digestInputStream.getMessageDigest().digest()))).isNotNull();
     }
 
+    @Test
+    @Description("Verifies that a binary is stored under its SHA1 hash with the calculated hashes.")
+    public void storedArtifactIsNamedBySha1Hash() throws IOException {
+        final byte[] content = randomBytes(1024 * 1024);
+        final String sha1 = Hashing.sha1().hashBytes(content).toString();
+        final String md5 = Hashing.md5().hashBytes(content).toString();
+
+        final DbArtifact stored = artifactStoreUnderTest.store(new ByteArrayInputStream(content), "file", "bin",
+                new DbArtifactHash(sha1, md5));
+
+        assertThat(stored.getHashes().getSha1()).isEqualTo(sha1);
+        assertThat(stored.getHashes().getMd5()).isEqualTo(md5);
+        assertThat(stored.getSize()).isEqualTo(content.length);
+        final DbArtifact found = artifactStoreUnderTest.getArtifactBySha1(sha1);
+        try (InputStream stream = found.getFileInputStream()) {
+            assertThat(ByteStreams.toByteArray(stream)).isEqualTo(content);
+        }
+        assertThat(gridFs.findOne(new Query().addCriteria(Criteria.where("metadata.sha1").is(sha1)))).isNotNull();
+        assertNoProvisionalFiles();
+    }
+
+    @Test
+    @Description("Verifies that a binary which exists already is not stored twice.")
+    public void existingArtifactIsDeduplicated() {
+        final byte[] content = randomBytes(128);
+        final String sha1 = Hashing.sha1().hashBytes(content).toString();
+
+        final DbArtifact first = artifactStoreUnderTest.store(new ByteArrayInputStream(content), "file", "bin");
+        final DbArtifact second = artifactStoreUnderTest.store(new ByteArrayInputStream(content), "file", "bin");
+        final DbArtifact third = artifactStoreUnderTest.store(new ByteArrayInputStream(content), "file", "bin",
+                new DbArtifactHash(sha1, null));
+
+        assertThat(second.getArtifactId()).isEqualTo(first.getArtifactId());
+        assertThat(third.getArtifactId()).isEqualTo(first.getArtifactId());
+        assertThat(gridFs.find(new Query().addCriteria(Criteria.where("filename").is(sha1)))).hasSize(1);
+        assertNoProvisionalFiles();
+    }
+
+    @Test
+    @Description("Verifies that a binary is not stored if the given hash does not match.")
+    public void artifactWithWrongHashIsNotStored() {
+        final byte[] content = randomBytes(128);
+        final String sha1 = Hashing.sha1().hashBytes(content).toString();
+
+        try {
+            artifactStoreUnderTest.store(new ByteArrayInputStream(content), "file", "bin",
+                    new DbArtifactHash(sha1, "wrong"));
+            fail("Expected an HashNotMatchException, but didn't throw");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.MD5);
+        }
+
+        assertThat(artifactStoreUnderTest.getArtifactBySha1(sha1)).isNull();
+        assertNoProvisionalFiles();
+    }
+
+    @Test
+    @Description("Verifies that nothing is left in GridFS if the content of a binary fails while it is stored.")
+    public void failedArtifactIsNotStored() {
+        final long chunks = mongoTemplate.getCollection("fs.chunks").count();
+
+        try {
+            artifactStoreUnderTest.store(new FailingInputStream(randomBytes(1024 * 1024)), "file", "bin");
+            fail("Expected an ArtifactStoreException, but didn't throw");
+        } catch (final ArtifactStoreException e) {
+            assertThat(e).hasRootCauseInstanceOf(IOException.class);
+        }
+
+        assertNoProvisionalFiles();
+        assertThat(mongoTemplate.getCollection("fs.chunks").count()).isEqualTo(chunks);
+    }
+
+    @Test
+    @Description("Verifies that concurrent uploads of the same binary leave exactly one file in GridFS.")
+    public void concurrentUploadsAreDeduplicated() throws InterruptedException, ExecutionException {
+        final byte[] content = randomBytes(1024 * 1024);
+        final String sha1 = Hashing.sha1().hashBytes(content).toString();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<DbArtifact>> uploads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                uploads.add(executor.submit(
+                        () -> artifactStoreUnderTest.store(new ByteArrayInputStream(content), "file", "bin")));
+            }
+            for (final Future<DbArtifact> upload : uploads) {
+                assertThat(upload.get().getHashes().getSha1()).isEqualTo(sha1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(gridFs.find(new Query().addCriteria(Criteria.where("filename").is(sha1)))).hasSize(1);
+        assertNoProvisionalFiles();
+    }
+
+    private void assertNoProvisionalFiles() {
+        assertThat(gridFs.find(new Query().addCriteria(Criteria.where("filename").regex("^provisional-"))))
+                .isEmpty();
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random().nextBytes(bytes);
+        return bytes;
+    }
+
     private static ByteArrayInputStream generateInputStream(final int length) {
         final byte[] bytes = new byte[length];
         new Random().nextBytes(bytes);
         return new ByteArrayInputStream(bytes);
     }
 
+    /**
+     * Stream which fails after half of its content is read, e.g. like an
+     * aborted upload.
+     */
+    private static final class FailingInputStream extends FilterInputStream {
+        private final int failAt;
+        private int read;
+
+        private FailingInputStream(final byte[] content) {
+            super(new ByteArrayInputStream(content));
+            failAt = content.length / 2;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (read >= failAt) {
+                throw new IOException("upload aborted");
+            }
+            final int count = super.read(b, off, Math.min(len, failAt - read));
+            read += count;
+            return count;
+        }
+    }
+
     private static DigestInputStream digestInputStream(final ByteArrayInputStream stream, final String digest)
             throws NoSuchAlgorithmException {
         return new DigestInputStream(stream, MessageDigest.getInstance(digest));
@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import org.springframework.test.context.TestPropertySource;
+
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Runs the {@link MongoDBArtifactStoreTest} with binaries streamed into GridFS
+ * without a temporary file.
+ */
+@Features("Component Tests - Repository")
+@Stories("Artifact Store MongoDB Streaming")
+@TestPropertySource(properties = "org.eclipse.hawkbit.artifact.repository.mongo.streaming=true")
+public class MongoDBArtifactStreamingStoreTest extends MongoDBArtifactStoreTest {
+
+}
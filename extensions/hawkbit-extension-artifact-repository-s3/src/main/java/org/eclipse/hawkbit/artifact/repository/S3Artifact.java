@@ -11,14 +11,16 @@ package org.eclipse.hawkbit.artifact.repository;
 import java.io.InputStream;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.RangedStreamArtifact;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 
 /**
  * An {@link DbArtifact} implementation which retrieves the {@link InputStream}
  * from the {@link AmazonS3} client.
  */
-public class S3Artifact extends DbArtifact {
+public class S3Artifact extends DbArtifact implements RangedStreamArtifact {
 
     private final AmazonS3 amazonS3;
     private final S3RepositoryProperties s3Properties;
@@ -35,6 +37,19 @@ public class S3Artifact extends DbArtifact {
         return amazonS3.getObject(s3Properties.getBucketName(), sha1).getObjectContent();
     }
 
+    /**
+     * Retrieves only the given range of the object from S3 by means of a
+     * ranged GET.
+     */
+    @Override
+    public InputStream getFileInputStream(final long start, final long length) {
+        final GetObjectRequest request = new GetObjectRequest(s3Properties.getBucketName(), sha1);
+        if (length > 0) {
+            request.setRange(start, start + length - 1);
+        }
+        return amazonS3.getObject(request).getObjectContent();
+    }
+
     @Override
     public String toString() {
         return "S3Artifact [sha1=" + sha1 + ", getArtifactId()=" + getArtifactId() + ", getHashes()=" + getHashes()
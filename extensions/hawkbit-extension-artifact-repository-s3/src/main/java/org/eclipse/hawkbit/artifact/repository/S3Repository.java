@@ -8,17 +8,23 @@
  */
 package org.eclipse.hawkbit.artifact.repository;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PreDestroy;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
@@ -26,14 +32,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.amazonaws.AmazonClientException;
-import com.amazonaws.RequestClientOptions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * An {@link ArtifactRepository} implementation for the AWS S3 service. All
@@ -47,16 +60,43 @@ import com.google.common.io.ByteStreams;
  * can store all of your objects in a single bucket, or you can organize them
  * across several buckets.
  * </p>
+ * 
+ * Binaries smaller than {@link S3RepositoryProperties#getMultipartPartSize()}
+ * are uploaded with a single request. Larger binaries are streamed as
+ * multipart upload with up to
+ * {@link S3RepositoryProperties#getMultipartConcurrency()} concurrent part
+ * uploads while the hashes are calculated. As the SHA1 hash, i.e. the object
+ * key, is only known at the end of the stream, the parts are uploaded to a
+ * temporary key and copied within S3 afterwards. The multipart upload is
+ * aborted as soon as the upload of a part fails.
  */
 public class S3Repository implements ArtifactRepository {
 
     private static final Logger LOG = LoggerFactory.getLogger(S3Repository.class);
 
-    private static final String TEMP_FILE_PREFIX = "tmp";
-    private static final String TEMP_FILE_SUFFIX = "artifactrepo";
+    private static final String TEMP_KEY_PREFIX = "tmp/";
+    private static final String MD5_USER_METADATA = "md5chksum";
+
+    /**
+     * Minimum part size of a multipart upload accepted by S3.
+     */
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * Max size of an object that can be copied with a single request.
+     */
+    private static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+    private static final long COPY_PART_SIZE = 1024L * 1024 * 1024;
+
+    /**
+     * Initial buffer size of the first part, i.e. of binaries that are
+     * uploaded with a single request.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
 
     private final AmazonS3 amazonS3;
     private final S3RepositoryProperties s3Properties;
+    private final ExecutorService uploadExecutor;
 
     /**
      * Constructor.
@@ -70,6 +110,16 @@ public class S3Repository implements ArtifactRepository {
     public S3Repository(final AmazonS3 amazonS3, final S3RepositoryProperties s3Properties) {
         this.amazonS3 = amazonS3;
         this.s3Properties = s3Properties;
+        this.uploadExecutor = Executors.newFixedThreadPool(Math.max(1, s3Properties.getMultipartConcurrency()),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("s3-upload-%d").build());
+    }
+
+    /**
+     * Stops the part upload threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
     }
 
     @Override
@@ -92,32 +142,28 @@ public class S3Repository implements ArtifactRepository {
             throw new ArtifactStoreException(e.getMessage(), e);
         }
 
-        LOG.debug("Creating temporary file to store the inputstream to it");
-
-        final File file = createTempFile();
+        final int partSize = Math.max(MIN_PART_SIZE, s3Properties.getMultipartPartSize());
         LOG.debug("Calculating sha1 and md5 hashes");
-        try (final DigestOutputStream outputstream = openFileOutputStream(file, mdSHA1, mdMD5)) {
-            ByteStreams.copy(content, outputstream);
-            outputstream.flush();
-            final String sha1Hash16 = BaseEncoding.base16().lowerCase().encode(mdSHA1.digest());
-            final String md5Hash16 = BaseEncoding.base16().lowerCase().encode(mdMD5.digest());
-
-            return store(sha1Hash16, md5Hash16, contentType, file, hash);
+        try {
+            final byte[] firstPart = readFirstPart(content, partSize, mdSHA1, mdMD5);
+            if (firstPart.length < partSize) {
+                return storeSinglePart(firstPart, mdSHA1, mdMD5, filename, contentType, hash);
+            }
+            return storeMultipart(content, firstPart, mdSHA1, mdMD5, filename, contentType, hash);
         } catch (final IOException e) {
             throw new ArtifactStoreException(e.getMessage(), e);
-        } finally {
-            if (!file.delete()) {
-                LOG.error("Could not delete temp file {}", file);
-            }
         }
     }
 
-    private DbArtifact store(final String sha1Hash16, final String mdMD5Hash16, final String contentType,
-            final File file, final DbArtifactHash hash) {
-        final S3Artifact s3Artifact = createS3Artifact(sha1Hash16, mdMD5Hash16, contentType, file);
+    private DbArtifact storeSinglePart(final byte[] content, final MessageDigest mdSHA1, final MessageDigest mdMD5,
+            final String filename, final String contentType, final DbArtifactHash hash) {
+        final int length = content.length;
+        final String sha1Hash16 = BaseEncoding.base16().lowerCase().encode(mdSHA1.digest());
+        final String md5Hash16 = BaseEncoding.base16().lowerCase().encode(mdMD5.digest());
+        final S3Artifact s3Artifact = createS3Artifact(sha1Hash16, md5Hash16, contentType, length);
         checkHashes(s3Artifact, hash);
 
-        LOG.info("Storing file {} with length {} to AWS S3 bucket {} as SHA1 {}", file.getName(), file.length(),
+        LOG.info("Storing file {} with length {} to AWS S3 bucket {} as SHA1 {}", filename, length,
                 s3Properties.getBucketName(), sha1Hash16);
 
         if (exists(sha1Hash16)) {
@@ -126,35 +172,174 @@ public class S3Repository implements ArtifactRepository {
             return s3Artifact;
         }
 
-        try (final InputStream inputStream = new BufferedInputStream(new FileInputStream(file),
-                RequestClientOptions.DEFAULT_STREAM_BUFFER_SIZE)) {
-            final ObjectMetadata objectMetadata = createObjectMetadata(mdMD5Hash16, contentType, file);
-            amazonS3.putObject(s3Properties.getBucketName(), sha1Hash16, inputStream, objectMetadata);
+        try {
+            final ObjectMetadata objectMetadata = createObjectMetadata(md5Hash16, contentType);
+            objectMetadata.setContentMD5(toBase64(md5Hash16));
+            objectMetadata.setContentLength(length);
+            amazonS3.putObject(s3Properties.getBucketName(), sha1Hash16, new ByteArrayInputStream(content),
+                    objectMetadata);
+
+            return s3Artifact;
+        } catch (final AmazonClientException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        }
+    }
+
+    private DbArtifact storeMultipart(final InputStream content, final byte[] firstPart, final MessageDigest mdSHA1,
+            final MessageDigest mdMD5, final String filename, final String contentType, final DbArtifactHash hash)
+            throws IOException {
+        final String bucketName = s3Properties.getBucketName();
+        final String tempKey = TEMP_KEY_PREFIX + UUID.randomUUID();
+        final ObjectMetadata uploadMetadata = createObjectMetadata(null, contentType);
+        final String uploadId = amazonS3
+                .initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, tempKey, uploadMetadata))
+                .getUploadId();
+        LOG.debug("Started multipart upload {} of file {} to AWS S3 bucket {}", uploadId, filename, bucketName);
+
+        final List<Future<PartETag>> parts = new ArrayList<>();
+        boolean completed = false;
+        try {
+            final long size = uploadParts(content, firstPart, mdSHA1, mdMD5, tempKey, uploadId, parts);
+            final List<PartETag> partETags = new ArrayList<>(parts.size());
+            for (final Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+
+            final String sha1Hash16 = BaseEncoding.base16().lowerCase().encode(mdSHA1.digest());
+            final String md5Hash16 = BaseEncoding.base16().lowerCase().encode(mdMD5.digest());
+            final S3Artifact s3Artifact = createS3Artifact(sha1Hash16, md5Hash16, contentType, size);
+            checkHashes(s3Artifact, hash);
 
+            LOG.info("Storing file {} with length {} to AWS S3 bucket {} as SHA1 {}", filename, size, bucketName,
+                    sha1Hash16);
+
+            if (exists(sha1Hash16)) {
+                LOG.debug("Artifact {} already exists on S3 bucket {}, don't need to upload twice", sha1Hash16,
+                        bucketName);
+                return s3Artifact;
+            }
+
+            amazonS3.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucketName, tempKey, uploadId, partETags));
+            completed = true;
+            copy(tempKey, sha1Hash16, size, createObjectMetadata(md5Hash16, contentType));
             return s3Artifact;
-        } catch (final IOException | AmazonClientException e) {
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new ArtifactStoreException(e.getMessage(), e);
+        } catch (final ExecutionException e) {
+            throw new ArtifactStoreException(e.getCause().getMessage(), e.getCause());
+        } catch (final AmazonClientException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        } finally {
+            parts.forEach(part -> part.cancel(true));
+            if (completed) {
+                amazonS3.deleteObject(new DeleteObjectRequest(bucketName, tempKey));
+            } else {
+                abort(tempKey, uploadId);
+            }
+        }
+    }
+
+    /**
+     * Reads the content part by part and submits the upload of every part
+     * while the next one is read. The number of parts that are uploaded, i.e.
+     * held in memory, at the same time is limited by
+     * {@link S3RepositoryProperties#getMultipartConcurrency()}. Stops reading
+     * as soon as the upload of a part has failed.
+     * 
+     * @return the size of the content
+     */
+    private long uploadParts(final InputStream content, final byte[] firstPart, final MessageDigest mdSHA1,
+            final MessageDigest mdMD5, final String key, final String uploadId, final List<Future<PartETag>> parts)
+            throws IOException, InterruptedException {
+        final Semaphore permits = new Semaphore(Math.max(1, s3Properties.getMultipartConcurrency()));
+        final AtomicReference<AmazonClientException> failure = new AtomicReference<>();
+        byte[] part = firstPart;
+        int length = part.length;
+        long size = 0;
+
+        while (length > 0) {
+            size += length;
+            final UploadPartRequest request = new UploadPartRequest().withBucketName(s3Properties.getBucketName())
+                    .withKey(key).withUploadId(uploadId).withPartNumber(parts.size() + 1)
+                    .withInputStream(new ByteArrayInputStream(part, 0, length)).withPartSize(length);
+
+            permits.acquire();
+            if (failure.get() != null) {
+                permits.release();
+                throw failure.get();
+            }
+            parts.add(uploadExecutor.submit(() -> {
+                try {
+                    return amazonS3.uploadPart(request).getPartETag();
+                } catch (final AmazonClientException e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                } finally {
+                    permits.release();
+                }
+            }));
+
+            part = new byte[firstPart.length];
+            length = readPart(content, part, mdSHA1, mdMD5);
+        }
+
+        return size;
+    }
+
+    private void copy(final String sourceKey, final String targetKey, final long size, final ObjectMetadata metadata) {
+        final String bucketName = s3Properties.getBucketName();
+        if (size <= MAX_COPY_SIZE) {
+            amazonS3.copyObject(new CopyObjectRequest(bucketName, sourceKey, bucketName, targetKey)
+                    .withNewObjectMetadata(metadata));
+            return;
+        }
+
+        final String uploadId = amazonS3
+                .initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, targetKey, metadata))
+                .getUploadId();
+        try {
+            final List<PartETag> partETags = new ArrayList<>();
+            for (long position = 0; position < size; position += COPY_PART_SIZE) {
+                partETags.add(amazonS3.copyPart(new CopyPartRequest().withSourceBucketName(bucketName)
+                        .withSourceKey(sourceKey).withDestinationBucketName(bucketName)
+                        .withDestinationKey(targetKey).withUploadId(uploadId)
+                        .withPartNumber(partETags.size() + 1).withFirstByte(position)
+                        .withLastByte(Math.min(position + COPY_PART_SIZE, size) - 1)).getPartETag());
+            }
+            amazonS3.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucketName, targetKey, uploadId, partETags));
+        } catch (final AmazonClientException e) {
+            abort(targetKey, uploadId);
+            throw e;
+        }
+    }
+
+    private void abort(final String key, final String uploadId) {
+        try {
+            amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(s3Properties.getBucketName(), key, uploadId));
+        } catch (final AmazonClientException e) {
+            LOG.error("Could not abort multipart upload {} of key {}", uploadId, key, e);
         }
     }
 
     private S3Artifact createS3Artifact(final String sha1Hash16, final String mdMD5Hash16, final String contentType,
-            final File file) {
+            final long size) {
         final S3Artifact s3Artifact = new S3Artifact(amazonS3, s3Properties, sha1Hash16);
-        s3Artifact.setContentType(contentType);
         s3Artifact.setArtifactId(sha1Hash16);
-        s3Artifact.setSize(file.length());
+        s3Artifact.setSize(size);
         s3Artifact.setContentType(contentType);
         s3Artifact.setHashes(new DbArtifactHash(sha1Hash16, mdMD5Hash16));
         return s3Artifact;
     }
 
-    private ObjectMetadata createObjectMetadata(final String mdMD5Hash16, final String contentType, final File file) {
+    private ObjectMetadata createObjectMetadata(final String mdMD5Hash16, final String contentType) {
         final ObjectMetadata objectMetadata = new ObjectMetadata();
-        final String mdMD5Hash64 = BaseEncoding.base64().encode(BaseEncoding.base16().lowerCase().decode(mdMD5Hash16));
-        objectMetadata.setContentMD5(mdMD5Hash64);
         objectMetadata.setContentType(contentType);
-        objectMetadata.setContentLength(file.length());
-        objectMetadata.setHeader("x-amz-meta-md5chksum", mdMD5Hash64);
+        if (mdMD5Hash16 != null) {
+            objectMetadata.addUserMetadata(MD5_USER_METADATA, toBase64(mdMD5Hash16));
+        }
         if (s3Properties.isServerSideEncryption()) {
             objectMetadata.setHeader(Headers.SERVER_SIDE_ENCRYPTION, s3Properties.getServerSideEncryptionAlgorithm());
         }
@@ -169,20 +354,31 @@ public class S3Repository implements ArtifactRepository {
 
     @Override
     public DbArtifact getArtifactBySha1(final String sha1) {
-        LOG.info("Retrieving S3 object from bucket {} and key {}", s3Properties.getBucketName(), sha1);
-        final S3Object s3Object = amazonS3.getObject(s3Properties.getBucketName(), sha1);
-        if (s3Object == null) {
+        LOG.info("Retrieving S3 object metadata from bucket {} and key {}", s3Properties.getBucketName(), sha1);
+        final ObjectMetadata s3ObjectMetadata;
+        try {
+            // HEAD request, the content is retrieved by the S3Artifact on
+            // demand
+            s3ObjectMetadata = amazonS3.getObjectMetadata(s3Properties.getBucketName(), sha1);
+        } catch (final AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return null;
+            }
+            throw e;
+        }
+        if (s3ObjectMetadata == null) {
             return null;
         }
 
-        final ObjectMetadata s3ObjectMetadata = s3Object.getObjectMetadata();
-
         final S3Artifact s3Artifact = new S3Artifact(amazonS3, s3Properties, sha1);
         s3Artifact.setArtifactId(sha1);
         s3Artifact.setSize(s3ObjectMetadata.getContentLength());
-        // the MD5Content is stored in the ETag
+        // the MD5Content is stored in the user meta-data, the ETag only
+        // matches it for objects that have been uploaded with one request
+        final String md5Hash64 = s3ObjectMetadata.getUserMetaDataOf(MD5_USER_METADATA) != null
+                ? s3ObjectMetadata.getUserMetaDataOf(MD5_USER_METADATA) : s3ObjectMetadata.getETag();
         s3Artifact.setHashes(new DbArtifactHash(sha1,
-                BaseEncoding.base16().lowerCase().encode(BaseEncoding.base64().decode(s3ObjectMetadata.getETag()))));
+                BaseEncoding.base16().lowerCase().encode(BaseEncoding.base64().decode(md5Hash64))));
         s3Artifact.setContentType(s3ObjectMetadata.getContentType());
         return s3Artifact;
     }
@@ -203,18 +399,45 @@ public class S3Repository implements ArtifactRepository {
         }
     }
 
-    private static File createTempFile() {
-        try {
-            return File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
-        } catch (final IOException e) {
-            throw new ArtifactStoreException("Cannot create tempfile", e);
+    private static String toBase64(final String hash16) {
+        return BaseEncoding.base64().encode(BaseEncoding.base16().lowerCase().decode(hash16));
+    }
+
+    /**
+     * Reads the first part of the content into a buffer that grows with the
+     * read bytes up to the given part size, i.e. small binaries do not occupy
+     * a complete part.
+     * 
+     * @return the read bytes, a full part if the content is larger
+     */
+    private static byte[] readFirstPart(final InputStream content, final int partSize, final MessageDigest mdSHA1,
+            final MessageDigest mdMD5) throws IOException {
+        byte[] buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, partSize)];
+        int length = 0;
+        while (true) {
+            final int read = ByteStreams.read(content, buffer, length, buffer.length - length);
+            mdSHA1.update(buffer, length, read);
+            mdMD5.update(buffer, length, read);
+            length += read;
+            if (length < buffer.length || buffer.length == partSize) {
+                return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+            }
+            buffer = Arrays.copyOf(buffer, (int) Math.min(2L * buffer.length, partSize));
         }
     }
 
-    private static DigestOutputStream openFileOutputStream(final File file, final MessageDigest mdSHA1,
-            final MessageDigest mdMD5) throws FileNotFoundException {
-        return new DigestOutputStream(
-                new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(file)), mdMD5), mdSHA1);
+    /**
+     * Reads the content until the given part is full or the end of the stream
+     * is reached and updates the given digests.
+     * 
+     * @return number of bytes read into the part
+     */
+    private static int readPart(final InputStream content, final byte[] part, final MessageDigest mdSHA1,
+            final MessageDigest mdMD5) throws IOException {
+        final int length = ByteStreams.read(content, part, 0, part.length);
+        mdSHA1.update(part, 0, length);
+        mdMD5.update(part, 0, length);
+        return length;
     }
 
     private boolean exists(final String sha1) {
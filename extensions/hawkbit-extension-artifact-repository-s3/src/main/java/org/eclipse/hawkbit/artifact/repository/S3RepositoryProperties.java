@@ -22,6 +22,16 @@ public class S3RepositoryProperties {
     private String bucketName = "artifactrepository";
     private boolean serverSideEncryption = false;
     private String serverSideEncryptionAlgorithm = SSEAlgorithm.AES256.getAlgorithm();
+    /**
+     * Size of the parts of a multipart upload in bytes. Binaries smaller than
+     * one part are uploaded with a single request. S3 requires at least 5 MB.
+     */
+    private int multipartPartSize = 8 * 1024 * 1024;
+    /**
+     * Max number of parts of a multipart upload that are uploaded (and held in
+     * memory) concurrently.
+     */
+    private int multipartConcurrency = 4;
 
     public String getBucketName() {
         return bucketName;
@@ -46,4 +56,20 @@ public class S3RepositoryProperties {
     public void setServerSideEncryptionAlgorithm(final String serverSideEncryptionAlgorithm) {
         this.serverSideEncryptionAlgorithm = serverSideEncryptionAlgorithm;
     }
+
+    public int getMultipartPartSize() {
+        return multipartPartSize;
+    }
+
+    public void setMultipartPartSize(final int multipartPartSize) {
+        this.multipartPartSize = multipartPartSize;
+    }
+
+    public int getMultipartConcurrency() {
+        return multipartConcurrency;
+    }
+
+    public void setMultipartConcurrency(final int multipartConcurrency) {
+        this.multipartConcurrency = multipartConcurrency;
+    }
 }
@@ -10,9 +10,11 @@ package org.eclipse.hawkbit.artifact.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.BufferedInputStream;
@@ -24,10 +26,14 @@ import java.io.OutputStream;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -38,10 +44,21 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
 
 import ru.yandex.qatools.allure.annotations.Description;
 import ru.yandex.qatools.allure.annotations.Features;
@@ -78,6 +95,11 @@ public class S3RepositoryTest {
         s3RepositoryUnderTest = new S3Repository(amazonS3Mock, s3Properties);
     }
 
+    @After
+    public void after() {
+        s3RepositoryUnderTest.shutdown();
+    }
+
     @Test
     @Description("Verifies that the amazonS3 client is called to put the object to S3 with the correct inputstream and meta-data")
     public void storeInputStreamCallAmazonS3Client() throws IOException, NoSuchAlgorithmException {
@@ -108,8 +130,7 @@ public class S3RepositoryTest {
         final String knownMdBase16 = BaseEncoding.base16().lowerCase().encode(knownMd5.getBytes());
         final String knownMd5Base64 = BaseEncoding.base64().encode(knownMd5.getBytes());
 
-        when(amazonS3Mock.getObject(anyString(), anyString())).thenReturn(s3ObjectMock);
-        when(s3ObjectMock.getObjectMetadata()).thenReturn(s3ObjectMetadataMock);
+        when(amazonS3Mock.getObjectMetadata(anyString(), anyString())).thenReturn(s3ObjectMetadataMock);
         when(s3ObjectMetadataMock.getContentLength()).thenReturn(knownContentLength);
         when(s3ObjectMetadataMock.getETag()).thenReturn(knownMd5Base64);
         when(s3ObjectMetadataMock.getContentType()).thenReturn(knownContentType);
@@ -123,6 +144,7 @@ public class S3RepositoryTest {
         assertThat(artifactBySha1.getSize()).isEqualTo(knownContentLength);
         assertThat(artifactBySha1.getHashes().getSha1()).isEqualTo(knownSHA1Hash);
         assertThat(artifactBySha1.getHashes().getMd5()).isEqualTo(knownMdBase16);
+        verify(amazonS3Mock, never()).getObject(anyString(), anyString());
     }
 
     @Test
@@ -147,7 +169,9 @@ public class S3RepositoryTest {
     @Description("Verifies that null is returned if the given hash does not exists on S3")
     public void getArtifactBySha1ReturnsNullIfFileDoesNotExists() {
         final String knownSHA1Hash = "0815";
-        when(amazonS3Mock.getObject(s3Properties.getBucketName(), knownSHA1Hash)).thenReturn(null);
+        final AmazonS3Exception notFound = new AmazonS3Exception("Not Found");
+        notFound.setStatusCode(404);
+        when(amazonS3Mock.getObjectMetadata(s3Properties.getBucketName(), knownSHA1Hash)).thenThrow(notFound);
 
         // test
         final DbArtifact artifactBySha1NotExists = s3RepositoryUnderTest.getArtifactBySha1(knownSHA1Hash);
@@ -192,6 +216,140 @@ public class S3RepositoryTest {
         }
     }
 
+    @Test
+    @Description("Verifies that a range of an artifact is retrieved from S3 with a ranged GET")
+    public void rangeOfArtifactIsRetrievedWithRangedGet() throws IOException {
+        final String knownSHA1Hash = "da39a3ee5e6b4b0d3255bfef95601890afd80709";
+        when(amazonS3Mock.getObjectMetadata(anyString(), anyString())).thenReturn(s3ObjectMetadataMock);
+        when(s3ObjectMetadataMock.getETag()).thenReturn(BaseEncoding.base64().encode(new byte[16]));
+        when(amazonS3Mock.getObject(any(GetObjectRequest.class))).thenReturn(s3ObjectMock);
+
+        // test
+        final S3Artifact artifact = (S3Artifact) s3RepositoryUnderTest.getArtifactBySha1(knownSHA1Hash);
+        artifact.getFileInputStream(100, 50);
+
+        // verify
+        final ArgumentCaptor<GetObjectRequest> requestCaptor = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(amazonS3Mock).getObject(requestCaptor.capture());
+        assertThat(requestCaptor.getValue().getKey()).isEqualTo(knownSHA1Hash);
+        assertThat(requestCaptor.getValue().getRange()).containsExactly(100L, 149L);
+    }
+
+    @Test
+    @Description("Verifies that binaries larger than the part size are uploaded in parts to a temporary key and "
+            + "copied to the SHA1 key afterwards")
+    public void largeArtifactIsUploadedInParts() throws IOException, NoSuchAlgorithmException {
+        s3Properties.setMultipartPartSize(S3Repository.MIN_PART_SIZE);
+        final byte[] rndBytes = randomBytes(2 * S3Repository.MIN_PART_SIZE + 4711);
+        final String knownSHA1 = getSha1OfBytes(rndBytes);
+        final Map<Integer, byte[]> uploadedParts = stubMultipartUpload();
+
+        // test
+        final DbArtifact artifact;
+        try (InputStream content = new ByteArrayInputStream(rndBytes)) {
+            artifact = s3RepositoryUnderTest.store(content, "randomBytes", "application/octet-stream", null);
+        }
+
+        // verify
+        assertThat(artifact.getHashes().getSha1()).isEqualTo(knownSHA1);
+        assertThat(artifact.getSize()).isEqualTo(rndBytes.length);
+        assertThat(uploadedParts).hasSize(3);
+        final ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+        for (int partNumber = 1; partNumber <= uploadedParts.size(); partNumber++) {
+            uploaded.write(uploadedParts.get(partNumber));
+        }
+        assertThat(Arrays.equals(uploaded.toByteArray(), rndBytes)).isTrue();
+
+        final ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor = ArgumentCaptor
+                .forClass(CompleteMultipartUploadRequest.class);
+        verify(amazonS3Mock).completeMultipartUpload(completeCaptor.capture());
+        assertThat(completeCaptor.getValue().getPartETags()).hasSize(3);
+
+        final ArgumentCaptor<CopyObjectRequest> copyCaptor = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        verify(amazonS3Mock).copyObject(copyCaptor.capture());
+        final String tempKey = copyCaptor.getValue().getSourceKey();
+        assertThat(copyCaptor.getValue().getDestinationKey()).isEqualTo(knownSHA1);
+        assertThat(copyCaptor.getValue().getNewObjectMetadata().getUserMetaDataOf("md5chksum")).isNotNull();
+
+        final ArgumentCaptor<DeleteObjectRequest> deleteCaptor = ArgumentCaptor.forClass(DeleteObjectRequest.class);
+        verify(amazonS3Mock).deleteObject(deleteCaptor.capture());
+        assertThat(deleteCaptor.getValue().getKey()).isEqualTo(tempKey);
+        verify(amazonS3Mock, never()).putObject(anyString(), anyString(), any(InputStream.class),
+                any(ObjectMetadata.class));
+    }
+
+    @Test
+    @Description("Verifies that a multipart upload is aborted and not copied if the given hash does not match")
+    public void multipartUploadIsAbortedIfHashesAreNotTheSame() throws IOException {
+        s3Properties.setMultipartPartSize(S3Repository.MIN_PART_SIZE);
+        final byte[] rndBytes = randomBytes(S3Repository.MIN_PART_SIZE + 1);
+        stubMultipartUpload();
+
+        // test
+        try {
+            storeRandomBytes(rndBytes, "application/octet-stream", new DbArtifactHash("wrong", "wrong"));
+            fail("Expected an HashNotMatchException, but didn't throw");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.SHA1);
+        }
+
+        // verify
+        verify(amazonS3Mock).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(amazonS3Mock, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(amazonS3Mock, never()).copyObject(any(CopyObjectRequest.class));
+    }
+
+    @Test
+    @Description("Verifies that a multipart upload is aborted as soon as the upload of a part fails without "
+            + "reading the rest of the content")
+    public void multipartUploadIsAbortedIfPartUploadFails() throws IOException {
+        s3Properties.setMultipartPartSize(S3Repository.MIN_PART_SIZE);
+        s3Properties.setMultipartConcurrency(1);
+        s3RepositoryUnderTest.shutdown();
+        s3RepositoryUnderTest = new S3Repository(amazonS3Mock, s3Properties);
+        stubMultipartUpload();
+        when(amazonS3Mock.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonS3Exception("failed"));
+        final CountingInputStream content = new CountingInputStream(
+                ByteStreams.limit(new RandomInputStream(), 20L * S3Repository.MIN_PART_SIZE));
+
+        // test
+        try {
+            s3RepositoryUnderTest.store(content, "randomBytes", "application/octet-stream", null);
+            fail("Expected an ArtifactStoreException, but didn't throw");
+        } catch (final ArtifactStoreException e) {
+            assertThat(e.getCause()).isInstanceOf(AmazonS3Exception.class);
+        }
+
+        // verify
+        assertThat(content.getCount()).isLessThanOrEqualTo(2L * S3Repository.MIN_PART_SIZE);
+        verify(amazonS3Mock).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(amazonS3Mock, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    /**
+     * Stubs the multipart upload of the client by keeping the uploaded parts
+     * in memory.
+     */
+    private Map<Integer, byte[]> stubMultipartUpload() {
+        final Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+        final InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("upload");
+        when(amazonS3Mock.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class)))
+                .thenReturn(initiateResult);
+        when(amazonS3Mock.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            final UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+            final byte[] part = ByteStreams.toByteArray(request.getInputStream());
+            assertThat(part).hasSize((int) request.getPartSize());
+            uploadedParts.put(request.getPartNumber(), part);
+
+            final UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag" + request.getPartNumber());
+            return result;
+        });
+        return uploadedParts;
+    }
+
     private void storeRandomBytes(final byte[] rndBytes, final String contentType)
             throws IOException, NoSuchAlgorithmException {
         storeRandomBytes(rndBytes, contentType, null);
@@ -216,9 +374,33 @@ public class S3RepositoryTest {
     }
 
     private static byte[] randomBytes() {
-        final byte[] randomBytes = new byte[20];
+        return randomBytes(20);
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] randomBytes = new byte[length];
         final Random ran = new Random();
         ran.nextBytes(randomBytes);
         return randomBytes;
     }
+
+    /**
+     * Endless stream of random bytes.
+     */
+    private static final class RandomInputStream extends InputStream {
+        private final Random random = new Random();
+
+        @Override
+        public int read() {
+            return random.nextInt(256);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            final byte[] bytes = new byte[len];
+            random.nextBytes(bytes);
+            System.arraycopy(bytes, 0, b, off, len);
+            return len;
+        }
+    }
 }
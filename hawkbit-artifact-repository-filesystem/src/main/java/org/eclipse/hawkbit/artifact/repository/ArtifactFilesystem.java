@@ -12,17 +12,22 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.FileChannelArtifact;
 
 import com.google.common.base.Throwables;
 
 /**
  * A {@link DbArtifact} implementation which dynamically creates a
- * {@link FileInputStream} on calling {@link #getFileInputStream()}.
+ * {@link FileInputStream} on calling {@link #getFileInputStream()} or a
+ * {@link FileChannel} on calling {@link #openFileChannel()}.
  */
-public class ArtifactFilesystem extends DbArtifact {
+public class ArtifactFilesystem extends DbArtifact implements FileChannelArtifact {
 
     private final File file;
 
@@ -41,4 +46,9 @@ public class ArtifactFilesystem extends DbArtifact {
             throw Throwables.propagate(e);
         }
     }
+
+    @Override
+    public FileChannel openFileChannel() throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
 }
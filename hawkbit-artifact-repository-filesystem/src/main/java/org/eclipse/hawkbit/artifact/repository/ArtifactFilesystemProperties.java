@@ -22,6 +22,29 @@ public class ArtifactFilesystemProperties {
      */
     private String path = "./artifactrepo";
 
+    /**
+     * Set to <code>true</code> to calculate the hashes of uploaded artifacts
+     * on a separate thread while the upload is written to the file-system.
+     */
+    private boolean pipelined = false;
+
+    /**
+     * Size in bytes of the buffers of the upload pipeline.
+     */
+    private int pipelineBufferSize = 1024 * 1024;
+
+    /**
+     * Number of buffers of the upload pipeline, i.e. how far the file-system
+     * writes can run ahead of the hash calculation.
+     */
+    private int pipelineBuffers = 4;
+
+    /**
+     * Set to <code>true</code> to calculate the SHA-256 hash of uploaded
+     * artifacts in addition to the SHA-1 and MD5 hashes.
+     */
+    private boolean sha256 = false;
+
     public String getPath() {
         return path;
     }
@@ -29,4 +52,36 @@ public class ArtifactFilesystemProperties {
     public void setPath(final String path) {
         this.path = path;
     }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public void setPipelined(final boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    public int getPipelineBufferSize() {
+        return pipelineBufferSize;
+    }
+
+    public void setPipelineBufferSize(final int pipelineBufferSize) {
+        this.pipelineBufferSize = pipelineBufferSize;
+    }
+
+    public int getPipelineBuffers() {
+        return pipelineBuffers;
+    }
+
+    public void setPipelineBuffers(final int pipelineBuffers) {
+        this.pipelineBuffers = pipelineBuffers;
+    }
+
+    public boolean isSha256() {
+        return sha256;
+    }
+
+    public void setSha256(final boolean sha256) {
+        this.sha256 = sha256;
+    }
 }
@@ -14,12 +14,21 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.io.FileUtils;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
@@ -30,7 +39,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Splitter;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
-import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Implementation of the {@link ArtifactRepository} to store artifacts on the
@@ -43,6 +52,10 @@ import com.google.common.io.Files;
  * Due the limit of many file-systems of files within one directory, the files
  * are stored in different sub-directories based on the last four digits of the
  * SHA1-hash {@code (/basepath/[two digit sha1]/[two digit sha1])}.
+ * 
+ * Uploads are written to a temporary file in the {@code tmp} sub-directory of
+ * the base directory first, so that the final rename to the SHA1 path does not
+ * cross file-system boundaries.
  */
 public class ArtifactFilesystemRepository implements ArtifactRepository {
 
@@ -50,7 +63,10 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
 
     private static final String TEMP_FILE_PREFIX = "tmp";
     private static final String TEMP_FILE_SUFFIX = "artifactrepo";
+    private static final String TEMP_DIRECTORY = "tmp";
     private final ArtifactFilesystemProperties artifactResourceProperties;
+    private final ExecutorService hashExecutor;
+    private final PipelinedArtifactWriter pipelinedWriter;
 
     /**
      * Constructor.
@@ -61,6 +77,26 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
      */
     public ArtifactFilesystemRepository(final ArtifactFilesystemProperties artifactResourceProperties) {
         this.artifactResourceProperties = artifactResourceProperties;
+        if (artifactResourceProperties.isPipelined()) {
+            this.hashExecutor = Executors.newCachedThreadPool(
+                    new ThreadFactoryBuilder().setNameFormat("artifact-hash-%d").setDaemon(true).build());
+            this.pipelinedWriter = new PipelinedArtifactWriter(hashExecutor,
+                    artifactResourceProperties.getPipelineBufferSize(),
+                    artifactResourceProperties.getPipelineBuffers());
+        } else {
+            this.hashExecutor = null;
+            this.pipelinedWriter = null;
+        }
+    }
+
+    /**
+     * Stops the hash calculation threads of the pipelined store.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (hashExecutor != null) {
+            hashExecutor.shutdownNow();
+        }
     }
 
     @Override
@@ -75,18 +111,25 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
     public ArtifactFilesystem store(final InputStream content, final String filename, final String contentType,
             final DbArtifactHash hash) {
 
-        final MessageDigest mdSHA1;
-        final MessageDigest mdMD5;
+        final List<MessageDigest> digests = new ArrayList<>(3);
         try {
-            mdSHA1 = MessageDigest.getInstance("SHA1");
-            mdMD5 = MessageDigest.getInstance("MD5");
+            digests.add(MessageDigest.getInstance("SHA1"));
+            digests.add(MessageDigest.getInstance("MD5"));
+            if (artifactResourceProperties.isSha256()) {
+                digests.add(MessageDigest.getInstance("SHA-256"));
+            }
         } catch (final NoSuchAlgorithmException e) {
             throw new ArtifactStoreException(e.getMessage(), e);
         }
 
         final File file = createTempFile();
-        final DbArtifact artifact = store(content, contentType, hash, mdSHA1, mdMD5, file);
-        return renameFileToSHA1Naming(file, artifact);
+        try {
+            final DbArtifact artifact = store(content, contentType, hash, digests, file);
+            return renameFileToSHA1Naming(file, artifact);
+        } finally {
+            // the temp file is moved to its final location if stored
+            FileUtils.deleteQuietly(file);
+        }
     }
 
     @Override
@@ -108,45 +151,42 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
     }
 
     private DbArtifact store(final InputStream content, final String contentType, final DbArtifactHash hash,
-            final MessageDigest mdSHA1, final MessageDigest mdMD5, final File file) {
+            final List<MessageDigest> digests, final File file) {
         final DbArtifact artifact = new DbArtifact();
-        try (final DigestOutputStream outputstream = openFileOutputStream(file, mdSHA1, mdMD5)) {
-            final long artifactSize = ByteStreams.copy(content, outputstream);
-            outputstream.flush();
-            final String sha1Hash = BaseEncoding.base16().lowerCase().encode(mdSHA1.digest());
-            final String md5Hash = BaseEncoding.base16().lowerCase().encode(mdMD5.digest());
+        try {
+            final long artifactSize = pipelinedWriter != null ? pipelinedWriter.write(content, file.toPath(), digests)
+                    : write(content, file, digests);
+            final String sha1Hash = BaseEncoding.base16().lowerCase().encode(digests.get(0).digest());
+            final String md5Hash = BaseEncoding.base16().lowerCase().encode(digests.get(1).digest());
+            final String sha256Hash = digests.size() > 2
+                    ? BaseEncoding.base16().lowerCase().encode(digests.get(2).digest()) : null;
             artifact.setArtifactId(sha1Hash);
             artifact.setSize(artifactSize);
             artifact.setContentType(contentType);
-            artifact.setHashes(new DbArtifactHash(sha1Hash, md5Hash));
+            artifact.setHashes(new DbArtifactHash(sha1Hash, md5Hash, sha256Hash));
             checkHashes(artifact, hash);
         } catch (final IOException e) {
             throw new ArtifactStoreException(e.getMessage(), e);
-        } catch (final HashNotMatchException e) {
-            if (!file.delete()) {
-                LOG.error("Could not delete temp file {}", file);
-            }
-            throw e;
         }
         return artifact;
     }
 
+    private static long write(final InputStream content, final File file, final List<MessageDigest> digests)
+            throws IOException {
+        try (final OutputStream outputstream = openFileOutputStream(file, digests)) {
+            final long artifactSize = ByteStreams.copy(content, outputstream);
+            outputstream.flush();
+            return artifactSize;
+        }
+    }
+
     private ArtifactFilesystem renameFileToSHA1Naming(final File file, final DbArtifact artifact) {
         final File fileSHA1Naming = getFile(artifact.getHashes().getSha1());
         final ArtifactFilesystem fileSystemArtifact = new ArtifactFilesystem(fileSHA1Naming);
-        if (fileSHA1Naming.exists()) {
-            FileUtils.deleteQuietly(file);
-        } else {
-            try {
-                Files.move(file, fileSHA1Naming);
-            } catch (final IOException e) {
-                throw new ArtifactStoreException("Could not store the file " + fileSHA1Naming, e);
-            }
+        if (!fileSHA1Naming.exists()) {
+            moveTempFile(file, fileSHA1Naming);
         }
 
-        if (!file.delete()) {
-            LOG.debug("Could not delete temp file {}", file);
-        }
         fileSystemArtifact.setArtifactId(artifact.getArtifactId());
         fileSystemArtifact.setContentType(artifact.getContentType());
         fileSystemArtifact.setHashes(artifact.getHashes());
@@ -154,6 +194,19 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
         return fileSystemArtifact;
     }
 
+    private static void moveTempFile(final File file, final File target) {
+        try {
+            try {
+                Files.move(file.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                LOG.debug("Atomic move to {} not supported, falling back to copy", target, e);
+                Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException e) {
+            throw new ArtifactStoreException("Could not store the file " + target, e);
+        }
+    }
+
     private DbArtifact checkHashes(final DbArtifact artifact, final DbArtifactHash hash) {
         if (hash == null) {
             return artifact;
@@ -168,12 +221,19 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
                     + " does not match with the calcualted md5 hash " + artifact.getHashes().getMd5(),
                     HashNotMatchException.MD5);
         }
+        if (hash.getSha256() != null && !hash.getSha256().equals(artifact.getHashes().getSha256())) {
+            throw new HashNotMatchException("The given sha256 hash " + hash.getSha256()
+                    + " does not match with the calculated sha256 hash " + artifact.getHashes().getSha256(),
+                    HashNotMatchException.SHA256);
+        }
         return artifact;
     }
 
     private File createTempFile() {
         try {
-            return File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+            final Path tempDirectory = Files
+                    .createDirectories(Paths.get(artifactResourceProperties.getPath(), TEMP_DIRECTORY));
+            return Files.createTempFile(tempDirectory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX).toFile();
         } catch (final IOException e) {
             throw new ArtifactStoreException("Cannot create tempfile", e);
         }
@@ -193,9 +253,12 @@ public class ArtifactFilesystemRepository implements ArtifactRepository {
         return Paths.get(artifactResourceProperties.getPath(), folder1, folder2);
     }
 
-    private DigestOutputStream openFileOutputStream(final File file, final MessageDigest mdSHA1,
-            final MessageDigest mdMD5) throws FileNotFoundException {
-        return new DigestOutputStream(
-                new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(file)), mdMD5), mdSHA1);
+    private static OutputStream openFileOutputStream(final File file, final List<MessageDigest> digests)
+            throws FileNotFoundException {
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file));
+        for (final MessageDigest digest : digests) {
+            outputStream = new DigestOutputStream(outputStream, digest);
+        }
+        return outputStream;
     }
 }
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a stream into a file while the hashes of the content are calculated
+ * on a separate thread.
+ *
+ * The content is read into a ring of direct buffers. Each filled buffer is
+ * written to the file by the calling thread with a {@link FileChannel} and
+ * handed over to the hashing thread at the same time. A buffer is refilled
+ * after it has been hashed, i.e. the file-system writes can run ahead of the
+ * hash calculation by the number of buffers.
+ */
+class PipelinedArtifactWriter {
+
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final ExecutorService hashExecutor;
+
+    private final int bufferSize;
+
+    private final int buffers;
+
+    /**
+     * Constructor.
+     *
+     * @param hashExecutor
+     *            to calculate the hashes
+     * @param bufferSize
+     *            size of each buffer in bytes
+     * @param buffers
+     *            number of buffers
+     */
+    PipelinedArtifactWriter(final ExecutorService hashExecutor, final int bufferSize, final int buffers) {
+        this.hashExecutor = hashExecutor;
+        this.bufferSize = bufferSize;
+        this.buffers = Math.max(2, buffers);
+    }
+
+    /**
+     * Writes the content into the given file and updates the given digests
+     * with it.
+     *
+     * @param content
+     *            to write
+     * @param file
+     *            to write into, is created or truncated
+     * @param digests
+     *            to update with the content
+     * @return number of written bytes
+     * @throws IOException
+     *             if reading, writing or hashing failed
+     */
+    long write(final InputStream content, final Path file, final List<MessageDigest> digests) throws IOException {
+        final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(buffers);
+        final BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(buffers + 1);
+        for (int i = 0; i < buffers; i++) {
+            free.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+
+        final Future<?> hashing = hashExecutor.submit(() -> hash(filled, free, digests));
+        boolean completed = false;
+        try (final ReadableByteChannel in = Channels.newChannel(content);
+                final FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = 0;
+            while (true) {
+                final ByteBuffer buffer = takeFreeBuffer(free, hashing);
+                if (!fill(in, buffer)) {
+                    break;
+                }
+                buffer.flip();
+                size += buffer.remaining();
+
+                final ByteBuffer toWrite = buffer.duplicate();
+                filled.add(buffer);
+                while (toWrite.hasRemaining()) {
+                    out.write(toWrite);
+                }
+            }
+
+            filled.add(END_OF_STREAM);
+            awaitHashing(hashing);
+            completed = true;
+            return size;
+        } finally {
+            if (!completed) {
+                hashing.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Fills the buffer until it is full or the end of the stream is reached.
+     *
+     * @return <code>false</code> if the stream has ended and nothing has been
+     *         read
+     */
+    private static boolean fill(final ReadableByteChannel in, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                break;
+            }
+        }
+        return buffer.position() > 0;
+    }
+
+    private static ByteBuffer takeFreeBuffer(final BlockingQueue<ByteBuffer> free, final Future<?> hashing)
+            throws IOException {
+        try {
+            ByteBuffer buffer;
+            do {
+                // the hashing thread does not return buffers if it failed
+                if (hashing.isDone()) {
+                    awaitHashing(hashing);
+                    throw new IOException("Hashing stopped before the end of the stream");
+                }
+                buffer = free.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } while (buffer == null);
+            return buffer;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a buffer");
+        }
+    }
+
+    private static void awaitHashing(final Future<?> hashing) throws IOException {
+        try {
+            hashing.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the hash calculation");
+        } catch (final ExecutionException e) {
+            throw new IOException("Hash calculation failed", e.getCause());
+        }
+    }
+
+    private static Void hash(final BlockingQueue<ByteBuffer> filled, final BlockingQueue<ByteBuffer> free,
+            final List<MessageDigest> digests) throws InterruptedException {
+        while (true) {
+            final ByteBuffer buffer = filled.take();
+            if (buffer == END_OF_STREAM) {
+                return null;
+            }
+            for (final MessageDigest digest : digests) {
+                digest.update(buffer.duplicate());
+            }
+            buffer.clear();
+            free.add(buffer);
+        }
+    }
+}
@@ -11,12 +11,15 @@ package org.eclipse.hawkbit.artifact.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Random;
 
 import org.apache.commons.io.IOUtils;
 import org.assertj.core.api.Assertions;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
 import org.junit.Test;
 
 import ru.yandex.qatools.allure.annotations.Description;
@@ -76,6 +79,75 @@ public class ArtifactFilesystemRepositoryTest {
         }
     }
 
+    @Test
+    @Description("Verfies that the pipelined store calculates the same hashes as the default store including the "
+            + "optional SHA-256 hash")
+    public void pipelinedStoreCalculatesSameHashes() throws IOException {
+        final ArtifactFilesystemProperties pipelinedProperties = new ArtifactFilesystemProperties();
+        pipelinedProperties.setPipelined(true);
+        pipelinedProperties.setPipelineBufferSize(1024);
+        pipelinedProperties.setSha256(true);
+        final ArtifactFilesystemRepository pipelinedRepository = new ArtifactFilesystemRepository(
+                pipelinedProperties);
+
+        final byte[] fileContent = randomBytes(10 * 1024 + 17);
+        final ArtifactFilesystem expected = storeRandomArtifact(fileContent);
+        final ArtifactFilesystem artifact;
+        try {
+            artifact = pipelinedRepository.store(new ByteArrayInputStream(fileContent), "filename.tmp",
+                    "application/txt");
+        } finally {
+            pipelinedRepository.shutdown();
+        }
+
+        assertThat(artifact.getSize()).isEqualTo(fileContent.length);
+        assertThat(artifact.getHashes().getSha1()).isEqualTo(expected.getHashes().getSha1());
+        assertThat(artifact.getHashes().getMd5()).isEqualTo(expected.getHashes().getMd5());
+        assertThat(artifact.getHashes().getSha256()).hasSize(64);
+        assertThat(expected.getHashes().getSha256()).isNull();
+
+        final byte[] readContent = new byte[fileContent.length];
+        IOUtils.read(artifact.getFileInputStream(), readContent);
+        assertThat(readContent).isEqualTo(fileContent);
+    }
+
+    @Test
+    @Description("Verfies that no temporary file is left in the repository if the given hash does not match")
+    public void hashMismatchDeletesTempFile() {
+        final byte[] fileContent = randomBytes();
+        try {
+            artifactFilesystemRepository.store(new ByteArrayInputStream(fileContent), "filename.tmp",
+                    "application/txt", new DbArtifactHash("wrong", null));
+            Assertions.fail("expected HashNotMatchException");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.SHA1);
+        }
+
+        assertThat(new File(artifactResourceProperties.getPath(), "tmp").list()).isEmpty();
+    }
+
+    @Test
+    @Description("Verfies that no temporary file is left in the repository if the pipelined store fails while "
+            + "reading the content")
+    public void failedPipelinedStoreDeletesTempFile() {
+        final ArtifactFilesystemProperties pipelinedProperties = new ArtifactFilesystemProperties();
+        pipelinedProperties.setPipelined(true);
+        pipelinedProperties.setPipelineBufferSize(1024);
+        final ArtifactFilesystemRepository pipelinedRepository = new ArtifactFilesystemRepository(
+                pipelinedProperties);
+
+        try {
+            pipelinedRepository.store(new FailingInputStream(10 * 1024), "filename.tmp", "application/txt");
+            Assertions.fail("expected ArtifactStoreException");
+        } catch (final ArtifactStoreException e) {
+            assertThat(e.getCause()).isInstanceOf(IOException.class);
+        } finally {
+            pipelinedRepository.shutdown();
+        }
+
+        assertThat(new File(artifactResourceProperties.getPath(), "tmp").list()).isEmpty();
+    }
+
     private ArtifactFilesystem storeRandomArtifact(final byte[] fileContent) {
         final String fileName = "filename.tmp";
         final ByteArrayInputStream inputStream = new ByteArrayInputStream(fileContent);
@@ -84,10 +156,77 @@ public class ArtifactFilesystemRepositoryTest {
     }
 
     private static byte[] randomBytes() {
-        final byte[] randomBytes = new byte[20];
+        return randomBytes(20);
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] randomBytes = new byte[length];
         final Random ran = new Random();
         ran.nextBytes(randomBytes);
         return randomBytes;
     }
 
+    /**
+     * Stream of pseudo random content which is not held in memory.
+     */
+    private static final class RandomContentInputStream extends InputStream {
+        private final Random random = new Random();
+        private long remaining;
+
+        private RandomContentInputStream(final long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return random.nextInt(256);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int count = (int) Math.min(len, remaining);
+            final byte[] chunk = new byte[count];
+            random.nextBytes(chunk);
+            System.arraycopy(chunk, 0, b, off, count);
+            remaining -= count;
+            return count;
+        }
+    }
+
+    /**
+     * Stream of pseudo random content which fails after the given number of
+     * bytes.
+     */
+    private static final class FailingInputStream extends InputStream {
+        private final InputStream content;
+
+        private FailingInputStream(final long failAfter) {
+            this.content = new RandomContentInputStream(failAfter);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return check(content.read());
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return check(content.read(b, off, len));
+        }
+
+        private static int check(final int read) throws IOException {
+            if (read < 0) {
+                throw new IOException("connection reset");
+            }
+            return read;
+        }
+    }
+
 }
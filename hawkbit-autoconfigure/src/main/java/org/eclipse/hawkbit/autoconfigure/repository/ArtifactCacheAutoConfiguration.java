@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import java.nio.file.Paths;
+
+import org.eclipse.hawkbit.artifact.repository.ArtifactRepository;
+import org.eclipse.hawkbit.artifact.repository.CachingArtifactRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Auto configuration for the {@link CachingArtifactRepository} which caches
+ * the binaries of the configured {@link ArtifactRepository} in the local
+ * file-system.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "hawkbit.artifact.cache", name = "enabled")
+@EnableConfigurationProperties(ArtifactCacheProperties.class)
+@AutoConfigureAfter(value = ArtifactFilesystemAutoConfiguration.class, name = {
+        "org.eclipse.hawkbit.artifact.repository.S3RepositoryAutoConfiguration",
+        "org.eclipse.hawkbit.artifact.repository.MongoDBArtifactStoreAutoConfiguration" })
+public class ArtifactCacheAutoConfiguration {
+
+    /**
+     * @param artifactRepository
+     *            the cached repository
+     * @param properties
+     *            the cache properties
+     * @return the {@link CachingArtifactRepository} which is used instead of
+     *         the cached repository
+     */
+    @Bean
+    @Primary
+    public CachingArtifactRepository cachingArtifactRepository(
+            @Qualifier("artifactRepository") final ArtifactRepository artifactRepository,
+            final ArtifactCacheProperties properties) {
+        return new CachingArtifactRepository(artifactRepository, Paths.get(properties.getDirectory()),
+                properties.getMaxSize());
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository;
+
+import org.eclipse.hawkbit.artifact.repository.CachingArtifactRepository;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for the {@link CachingArtifactRepository}.
+ *
+ */
+@ConfigurationProperties("hawkbit.artifact.cache")
+public class ArtifactCacheProperties {
+
+    /**
+     * Set to <code>true</code> to cache the binaries of the artifact
+     * repository in the local file-system, e.g. in front of a remote S3 or
+     * MongoDB repository.
+     */
+    private boolean enabled;
+
+    /**
+     * Directory of the cached files. The content of the directory is deleted
+     * on startup.
+     */
+    private String directory = System.getProperty("java.io.tmpdir") + "/hawkbit-artifact-cache";
+
+    /**
+     * Max size of all cached files in bytes.
+     */
+    private long maxSize = 10L * 1024 * 1024 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(final String directory) {
+        this.directory = directory;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+}
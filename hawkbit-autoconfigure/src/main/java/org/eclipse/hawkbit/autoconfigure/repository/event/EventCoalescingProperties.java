@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository.event;
+
+import org.eclipse.hawkbit.event.TargetEventCoalescer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for the {@link TargetEventCoalescer}.
+ *
+ */
+@ConfigurationProperties("hawkbit.events.coalescing")
+public class EventCoalescingProperties {
+
+    /**
+     * Set to <code>true</code> to collapse the poll events of a target within
+     * a time window.
+     */
+    private boolean enabled;
+
+    /**
+     * Time window in milliseconds.
+     */
+    private long window = 1_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    public void setWindow(final long window) {
+        this.window = window;
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.autoconfigure.repository.event;
+
+import org.eclipse.hawkbit.event.EventDispatchPipeline;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for the {@link EventDispatchPipeline}.
+ *
+ */
+@ConfigurationProperties("hawkbit.events.dispatch")
+public class EventDispatchProperties {
+
+    /**
+     * Set to <code>true</code> to dispatch events through the
+     * {@link EventDispatchPipeline} instead of the central async executor.
+     */
+    private boolean enabled;
+
+    /**
+     * Number of event dispatch threads, each with its own ordered lane.
+     */
+    private int threads = 4;
+
+    /**
+     * Max queue size per ordered lane and per type of unordered events.
+     */
+    private int queueCapacity = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+}
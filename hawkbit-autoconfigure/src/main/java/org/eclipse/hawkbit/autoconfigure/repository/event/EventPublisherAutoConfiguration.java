@@ -8,19 +8,26 @@
  */
 package org.eclipse.hawkbit.autoconfigure.repository.event;
 
+import java.util.Optional;
 import java.util.concurrent.Executor;
 
 import org.eclipse.hawkbit.event.BusProtoStuffMessageConverter;
+import org.eclipse.hawkbit.event.EventDispatchPipeline;
+import org.eclipse.hawkbit.event.TargetEventCoalescer;
 import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
 import org.eclipse.hawkbit.repository.model.helper.EventPublisherHolder;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.bus.ConditionalOnBusEnabled;
 import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.ApplicationEventMulticaster;
@@ -28,6 +35,7 @@ import org.springframework.context.event.SimpleApplicationEventMulticaster;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.ResolvableType;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 
 import io.protostuff.ProtostuffIOUtil;
 import io.protostuff.Schema;
@@ -37,6 +45,7 @@ import io.protostuff.Schema;
  *
  */
 @Configuration
+@EnableConfigurationProperties({ EventDispatchProperties.class, EventCoalescingProperties.class })
 @RemoteApplicationEventScan(basePackages = "org.eclipse.hawkbit.repository.event.remote")
 public class EventPublisherAutoConfiguration {
 
@@ -51,16 +60,48 @@ public class EventPublisherAutoConfiguration {
      * Server internal event publisher that allows parallel event processing if
      * the event listener is marked as so.
      *
+     * @param dispatchPipeline
+     *            to dispatch the events through if enabled, otherwise the
+     *            central async executor is used
+     * @param coalescer
+     *            to collapse the target poll events if enabled
+     *
      * @return publisher bean
      */
     @Bean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
-    public ApplicationEventMulticaster applicationEventMulticaster() {
+    public ApplicationEventMulticaster applicationEventMulticaster(
+            final Optional<EventDispatchPipeline> dispatchPipeline, final Optional<TargetEventCoalescer> coalescer) {
         final SimpleApplicationEventMulticaster simpleApplicationEventMulticaster = new TenantAwareApplicationEventPublisher(
-                tenantAware);
-        simpleApplicationEventMulticaster.setTaskExecutor(executor);
+                tenantAware, dispatchPipeline.orElse(null), coalescer.orElse(null));
+        if (!dispatchPipeline.isPresent()) {
+            simpleApplicationEventMulticaster.setTaskExecutor(executor);
+        }
         return simpleApplicationEventMulticaster;
     }
 
+    /**
+     * @param properties
+     *            of the pipeline
+     * @return pipeline with bounded queues per event type that dispatches the
+     *         events on its own threads
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "hawkbit.events.dispatch", name = "enabled")
+    public EventDispatchPipeline eventDispatchPipeline(final EventDispatchProperties properties) {
+        return new EventDispatchPipeline(properties.getThreads(), properties.getQueueCapacity());
+    }
+
+    /**
+     * @param eventPublisher
+     *            to publish the coalesced events
+     * @return coalescer of the target poll events
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.events.coalescing", name = "enabled")
+    public TargetEventCoalescer targetEventCoalescer(final ApplicationEventPublisher eventPublisher) {
+        return new TargetEventCoalescer(eventPublisher);
+    }
+
     /**
      * Bean for creating a singleton instance of the
      * {@link EventPublisherHolder}
@@ -76,6 +117,10 @@ public class EventPublisherAutoConfiguration {
 
         private final TenantAware tenantAware;
 
+        private final EventDispatchPipeline dispatchPipeline;
+
+        private final TargetEventCoalescer coalescer;
+
         @Autowired(required = false)
         private ServiceMatcher serviceMatcher;
 
@@ -84,9 +129,17 @@ public class EventPublisherAutoConfiguration {
          * 
          * @param tenantAware
          *            the tenant ware
+         * @param dispatchPipeline
+         *            to dispatch the events through or <code>null</code>
+         * @param coalescer
+         *            to collapse the target events of this node or
+         *            <code>null</code>
          */
-        protected TenantAwareApplicationEventPublisher(final TenantAware tenantAware) {
+        protected TenantAwareApplicationEventPublisher(final TenantAware tenantAware,
+                final EventDispatchPipeline dispatchPipeline, final TargetEventCoalescer coalescer) {
             this.tenantAware = tenantAware;
+            this.dispatchPipeline = dispatchPipeline;
+            this.coalescer = coalescer;
         }
 
         /**
@@ -95,6 +148,27 @@ public class EventPublisherAutoConfiguration {
          */
         @Override
         public void multicastEvent(final ApplicationEvent event, final ResolvableType eventType) {
+            // events of other nodes have already been coalesced by their
+            // origin
+            if (coalescer != null && isFromSelf(event) && coalescer.offer(event)) {
+                return;
+            }
+            if (dispatchPipeline == null) {
+                multicastTenantAware(event, eventType);
+                return;
+            }
+            // the listeners might rely on the security context of the
+            // publisher
+            dispatchPipeline.dispatch(event,
+                    DelegatingSecurityContextRunnable.create(() -> multicastTenantAware(event, eventType), null));
+        }
+
+        private boolean isFromSelf(final ApplicationEvent event) {
+            return serviceMatcher == null || !(event instanceof RemoteApplicationEvent)
+                    || serviceMatcher.isFromSelf((RemoteApplicationEvent) event);
+        }
+
+        private void multicastTenantAware(final ApplicationEvent event, final ResolvableType eventType) {
             if (serviceMatcher == null || !(event instanceof RemoteTenantAwareEvent)) {
                 super.multicastEvent(event, eventType);
                 return;
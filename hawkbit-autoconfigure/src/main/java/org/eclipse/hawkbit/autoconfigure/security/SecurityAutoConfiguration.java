@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.autoconfigure.security;
 
 import org.eclipse.hawkbit.im.authentication.PermissionService;
+import org.eclipse.hawkbit.security.ControllerAuthenticationCache;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.HawkbitSecurityProperties;
 import org.eclipse.hawkbit.security.SecurityContextTenantAware;
@@ -18,6 +19,7 @@ import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -82,4 +84,17 @@ public class SecurityAutoConfiguration {
         return new SecurityTokenGenerator();
     }
 
+    /**
+     * @param securityProperties
+     *            for the cache configuration
+     * @return {@link ControllerAuthenticationCache} bean
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.security.authenticationCache", name = "enabled")
+    public ControllerAuthenticationCache controllerAuthenticationCache(
+            final HawkbitSecurityProperties securityProperties) {
+        return new ControllerAuthenticationCache(securityProperties.getAuthenticationCache());
+    }
+
 }
@@ -29,6 +29,7 @@ import org.eclipse.hawkbit.mgmt.rest.resource.MgmtApiConfiguration;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.security.ControllerAuthenticationCache;
 import org.eclipse.hawkbit.security.ControllerTenantAwareAuthenticationDetailsSource;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.DosFilter;
@@ -153,6 +154,9 @@ public class SecurityManagedConfiguration {
         @Autowired
         private SystemSecurityContext systemSecurityContext;
 
+        @Autowired(required = false)
+        private ControllerAuthenticationCache authenticationCache;
+
         /**
          * Filter to protect the hawkBit server DDI interface against to many
          * requests.
@@ -187,13 +191,14 @@ public class SecurityManagedConfiguration {
             securityHeaderFilter.setAuthenticationDetailsSource(authenticationDetailsSource);
 
             final HttpControllerPreAuthenticateSecurityTokenFilter securityTokenFilter = new HttpControllerPreAuthenticateSecurityTokenFilter(
-                    tenantConfigurationManagement, tenantAware, controllerManagement, systemSecurityContext);
+                    tenantConfigurationManagement, tenantAware, controllerManagement, systemSecurityContext,
+                    authenticationCache);
             securityTokenFilter.setAuthenticationManager(authenticationManager());
             securityTokenFilter.setCheckForPrincipalChanges(true);
             securityTokenFilter.setAuthenticationDetailsSource(authenticationDetailsSource);
 
             final HttpControllerPreAuthenticatedGatewaySecurityTokenFilter gatewaySecurityTokenFilter = new HttpControllerPreAuthenticatedGatewaySecurityTokenFilter(
-                    tenantConfigurationManagement, tenantAware, systemSecurityContext);
+                    tenantConfigurationManagement, tenantAware, systemSecurityContext, authenticationCache);
             gatewaySecurityTokenFilter.setAuthenticationManager(authenticationManager());
             gatewaySecurityTokenFilter.setCheckForPrincipalChanges(true);
             gatewaySecurityTokenFilter.setAuthenticationDetailsSource(authenticationDetailsSource);
@@ -266,10 +271,11 @@ public class SecurityManagedConfiguration {
 
         final FilterRegistrationBean filterRegBean = new FilterRegistrationBean();
 
-        filterRegBean.setFilter(new DosFilter(securityProperties.getDos().getFilter().getMaxRead(),
-                securityProperties.getDos().getFilter().getMaxWrite(),
-                securityProperties.getDos().getFilter().getWhitelist(), securityProperties.getClients().getBlacklist(),
-                securityProperties.getClients().getRemoteIpHeader()));
+        final HawkbitSecurityProperties.Dos.Filter filterProperties = securityProperties.getDos().getFilter();
+        filterRegBean.setFilter(new DosFilter(filterProperties.getMaxRead(), filterProperties.getMaxWrite(),
+                filterProperties.getWhitelist(), securityProperties.getClients().getBlacklist(),
+                securityProperties.getClients().getRemoteIpHeader(), filterProperties.getClientKey(),
+                filterProperties.getMaxTrackedClients()));
 
         return filterRegBean;
     }
@@ -288,10 +294,12 @@ public class SecurityManagedConfiguration {
         // Exclude the URLs for downloading artifacts, so no eTag is generated
         // in the ShallowEtagHeaderFilter, just using the SH1 hash of the
         // artifact itself as 'ETag', because otherwise the file will be copied
-        // in memory!
+        // in memory! The DDI controller base resource calculates its eTag
+        // itself without rendering the resource.
         filterRegBean.setFilter(new ExcludePathAwareShallowETagFilter(
                 "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download", "/{tenant}/controller/artifacts/**",
-                "/{targetid}/softwaremodules/{softwareModuleId}/artifacts/**", "/api/v1/downloadserver/**"));
+                "/{targetid}/softwaremodules/{softwareModuleId}/artifacts/**", "/api/v1/downloadserver/**",
+                "/{tenant}/controller/v1/{controllerId}"));
 
         return filterRegBean;
     }
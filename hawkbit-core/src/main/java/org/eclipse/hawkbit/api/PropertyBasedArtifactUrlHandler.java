@@ -9,11 +9,13 @@
 package org.eclipse.hawkbit.api;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties.UrlProtocol;
@@ -21,7 +23,6 @@ import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties.UrlProtocol;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
-import com.google.common.collect.Maps;
 import com.google.common.net.UrlEscapers;
 
 /**
@@ -40,31 +41,17 @@ import com.google.common.net.UrlEscapers;
  * {protocol}://{hostname}:{port}/{tenant}/controller/v1/{controllerId}/
  * softwaremodules/{softwareModuleId}/artifacts/{artifactFileName}.MD5SUM
  * 
+ * The patterns are parsed once and only the placeholders they contain are
+ * computed per URL.
  */
 public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
 
-    private static final String PROTOCOL_PLACEHOLDER = "protocol";
-    private static final String CONTROLLER_ID_PLACEHOLDER = "controllerId";
-    private static final String TARGET_ID_BASE10_PLACEHOLDER = "targetId";
-    private static final String TARGET_ID_BASE62_PLACEHOLDER = "targetIdBase62";
-    private static final String IP_PLACEHOLDER = "ip";
-    private static final String PORT_PLACEHOLDER = "port";
-    private static final String HOSTNAME_PLACEHOLDER = "hostname";
-    private static final String HOSTNAME_REQUEST_PLACEHOLDER = "hostnameRequest";
-    private static final String PORT_REQUEST_PLACEHOLDER = "portRequest";
-    private static final String HOSTNAME_WITH_DOMAIN_REQUEST_PLACEHOLDER = "domainRequest";
-    private static final String ARTIFACT_FILENAME_PLACEHOLDER = "artifactFileName";
-    private static final String ARTIFACT_SHA1_PLACEHOLDER = "artifactSHA1";
-    private static final String ARTIFACT_ID_BASE10_PLACEHOLDER = "artifactId";
-    private static final String ARTIFACT_ID_BASE62_PLACEHOLDER = "artifactIdBase62";
-    private static final String TENANT_PLACEHOLDER = "tenant";
-    private static final String TENANT_ID_BASE10_PLACEHOLDER = "tenantId";
-    private static final String TENANT_ID_BASE62_PLACEHOLDER = "tenantIdBase62";
-    private static final String SOFTWARE_MODULE_ID_BASE10_PLACDEHOLDER = "softwareModuleId";
-    private static final String SOFTWARE_MODULE_ID_BASE62_PLACDEHOLDER = "softwareModuleIdBase62";
+    private static final int URL_CAPACITY = 256;
 
     private final ArtifactUrlHandlerProperties urlHandlerProperties;
 
+    private final Map<String, UrlTemplate> templates = new ConcurrentHashMap<>();
+
     /**
      * @param urlHandlerProperties
      *            for URL generation configuration
@@ -80,62 +67,177 @@ public class PropertyBasedArtifactUrlHandler implements ArtifactUrlHandler {
 
     @Override
     public List<ArtifactUrl> getUrls(final URLPlaceholder placeholder, final ApiType api, final URI requestUri) {
+        final List<ArtifactUrl> urls = new ArrayList<>(urlHandlerProperties.getProtocols().size());
+        final StringBuilder url = new StringBuilder(URL_CAPACITY);
 
-        return urlHandlerProperties.getProtocols().entrySet().stream()
-                .filter(entry -> entry.getValue().getSupports().contains(api))
-                .filter(entry -> entry.getValue().isEnabled())
-                .map(entry -> new ArtifactUrl(entry.getValue().getProtocol().toUpperCase(), entry.getValue().getRel(),
-                        generateUrl(entry.getValue(), placeholder, requestUri)))
-                .collect(Collectors.toList());
+        for (final UrlProtocol protocol : urlHandlerProperties.getProtocols().values()) {
+            if (!protocol.getSupports().contains(api) || !protocol.isEnabled()) {
+                continue;
+            }
+            url.setLength(0);
+            templates.computeIfAbsent(protocol.getRef(), UrlTemplate::compile).render(url, protocol, placeholder,
+                    requestUri);
+            urls.add(new ArtifactUrl(protocol.getProtocol().toUpperCase(), protocol.getRel(), url.toString()));
+        }
 
+        return urls;
     }
 
-    private static String generateUrl(final UrlProtocol protocol, final URLPlaceholder placeholder,
-            final URI requestUri) {
-        final Set<Entry<String, String>> entrySet = getReplaceMap(protocol, placeholder, requestUri).entrySet();
+    /**
+     * Placeholders of the {@link UrlProtocol#getRef()} patterns. The values are
+     * only computed for the placeholders that are used by a pattern.
+     */
+    private enum Placeholder {
+        PROTOCOL("protocol", (protocol, placeholder, requestUri) -> protocol.getProtocol()),
 
-        String urlPattern = protocol.getRef();
+        CONTROLLER_ID("controllerId", (protocol, placeholder, requestUri) -> placeholder.getControllerId()),
 
-        for (final Entry<String, String> entry : entrySet) {
-            if (entry.getKey().equals(PORT_PLACEHOLDER)) {
-                urlPattern = urlPattern.replace(":{" + entry.getKey() + "}",
-                        Strings.isNullOrEmpty(entry.getValue()) ? "" : (":" + entry.getValue()));
-            } else {
-                urlPattern = urlPattern.replace("{" + entry.getKey() + "}", entry.getValue());
-            }
+        TARGET_ID_BASE10("targetId", (protocol, placeholder, requestUri) -> String.valueOf(placeholder.getTargetId())),
+
+        TARGET_ID_BASE62("targetIdBase62",
+                (protocol, placeholder, requestUri) -> Base62Util.fromBase10(placeholder.getTargetId())),
+
+        IP("ip", (protocol, placeholder, requestUri) -> protocol.getIp()),
+
+        /**
+         * Only used together with the preceding colon, i.e. ":{port}", which
+         * is removed if no port is configured.
+         */
+        PORT("port", (protocol, placeholder, requestUri) -> getPort(protocol)),
+
+        HOSTNAME("hostname", (protocol, placeholder, requestUri) -> protocol.getHostname()),
+
+        HOSTNAME_REQUEST("hostnameRequest",
+                (protocol, placeholder, requestUri) -> getRequestHost(protocol, requestUri)),
+
+        PORT_REQUEST("portRequest", (protocol, placeholder, requestUri) -> getRequestPort(protocol, requestUri)),
+
+        HOSTNAME_WITH_DOMAIN_REQUEST("domainRequest",
+                (protocol, placeholder, requestUri) -> computeHostWithRequestDomain(protocol, requestUri)),
+
+        ARTIFACT_FILENAME("artifactFileName", (protocol, placeholder, requestUri) -> UrlEscapers
+                .urlFragmentEscaper().escape(placeholder.getSoftwareData().getFilename())),
+
+        ARTIFACT_SHA1("artifactSHA1", (protocol, placeholder, requestUri) -> placeholder.getSoftwareData()
+                .getSha1Hash()),
+
+        ARTIFACT_ID_BASE10("artifactId",
+                (protocol, placeholder, requestUri) -> String.valueOf(placeholder.getSoftwareData().getArtifactId())),
+
+        ARTIFACT_ID_BASE62("artifactIdBase62", (protocol, placeholder, requestUri) -> Base62Util
+                .fromBase10(placeholder.getSoftwareData().getArtifactId())),
+
+        TENANT("tenant", (protocol, placeholder, requestUri) -> placeholder.getTenant()),
+
+        TENANT_ID_BASE10("tenantId", (protocol, placeholder, requestUri) -> String.valueOf(placeholder.getTenantId())),
+
+        TENANT_ID_BASE62("tenantIdBase62",
+                (protocol, placeholder, requestUri) -> Base62Util.fromBase10(placeholder.getTenantId())),
+
+        SOFTWARE_MODULE_ID_BASE10("softwareModuleId", (protocol, placeholder, requestUri) -> String
+                .valueOf(placeholder.getSoftwareData().getSoftwareModuleId())),
+
+        SOFTWARE_MODULE_ID_BASE62("softwareModuleIdBase62", (protocol, placeholder, requestUri) -> Base62Util
+                .fromBase10(placeholder.getSoftwareData().getSoftwareModuleId()));
+
+        private static final Map<String, Placeholder> BY_NAME = Arrays.stream(values())
+                .collect(Collectors.toMap(Placeholder::getName, Function.identity()));
+
+        private final String name;
+        private final PlaceholderValue value;
+
+        Placeholder(final String name, final PlaceholderValue value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        private String getName() {
+            return name;
+        }
+
+        private String getValue(final UrlProtocol protocol, final URLPlaceholder placeholder, final URI requestUri) {
+            return value.get(protocol, placeholder, requestUri);
+        }
+
+        private static Placeholder fromName(final String name) {
+            return BY_NAME.get(name);
         }
-        return urlPattern;
     }
 
-    private static Map<String, String> getReplaceMap(final UrlProtocol protocol, final URLPlaceholder placeholder,
-            final URI requestUri) {
-        final Map<String, String> replaceMap = Maps.newHashMapWithExpectedSize(19);
-        replaceMap.put(IP_PLACEHOLDER, protocol.getIp());
-        replaceMap.put(HOSTNAME_PLACEHOLDER, protocol.getHostname());
-
-        replaceMap.put(HOSTNAME_REQUEST_PLACEHOLDER, getRequestHost(protocol, requestUri));
-        replaceMap.put(PORT_REQUEST_PLACEHOLDER, getRequestPort(protocol, requestUri));
-        replaceMap.put(HOSTNAME_WITH_DOMAIN_REQUEST_PLACEHOLDER, computeHostWithRequestDomain(protocol, requestUri));
-
-        replaceMap.put(ARTIFACT_FILENAME_PLACEHOLDER,
-                UrlEscapers.urlFragmentEscaper().escape(placeholder.getSoftwareData().getFilename()));
-        replaceMap.put(ARTIFACT_SHA1_PLACEHOLDER, placeholder.getSoftwareData().getSha1Hash());
-        replaceMap.put(PROTOCOL_PLACEHOLDER, protocol.getProtocol());
-        replaceMap.put(PORT_PLACEHOLDER, getPort(protocol));
-        replaceMap.put(TENANT_PLACEHOLDER, placeholder.getTenant());
-        replaceMap.put(TENANT_ID_BASE10_PLACEHOLDER, String.valueOf(placeholder.getTenantId()));
-        replaceMap.put(TENANT_ID_BASE62_PLACEHOLDER, Base62Util.fromBase10(placeholder.getTenantId()));
-        replaceMap.put(CONTROLLER_ID_PLACEHOLDER, placeholder.getControllerId());
-        replaceMap.put(TARGET_ID_BASE10_PLACEHOLDER, String.valueOf(placeholder.getTargetId()));
-        replaceMap.put(TARGET_ID_BASE62_PLACEHOLDER, Base62Util.fromBase10(placeholder.getTargetId()));
-        replaceMap.put(ARTIFACT_ID_BASE62_PLACEHOLDER,
-                Base62Util.fromBase10(placeholder.getSoftwareData().getArtifactId()));
-        replaceMap.put(ARTIFACT_ID_BASE10_PLACEHOLDER, String.valueOf(placeholder.getSoftwareData().getArtifactId()));
-        replaceMap.put(SOFTWARE_MODULE_ID_BASE10_PLACDEHOLDER,
-                String.valueOf(placeholder.getSoftwareData().getSoftwareModuleId()));
-        replaceMap.put(SOFTWARE_MODULE_ID_BASE62_PLACDEHOLDER,
-                Base62Util.fromBase10(placeholder.getSoftwareData().getSoftwareModuleId()));
-        return replaceMap;
+    @FunctionalInterface
+    private interface PlaceholderValue {
+        String get(UrlProtocol protocol, URLPlaceholder placeholder, URI requestUri);
+    }
+
+    /**
+     * {@link UrlProtocol#getRef()} pattern that is parsed once into literal
+     * segments and placeholders. Unknown placeholders are kept as they are.
+     */
+    private static final class UrlTemplate {
+        private final List<String> literals;
+        private final List<Placeholder> placeholders;
+
+        private UrlTemplate(final List<String> literals, final List<Placeholder> placeholders) {
+            this.literals = literals;
+            this.placeholders = placeholders;
+        }
+
+        private static UrlTemplate compile(final String ref) {
+            final List<String> literals = new ArrayList<>();
+            final List<Placeholder> placeholders = new ArrayList<>();
+            final StringBuilder literal = new StringBuilder();
+
+            int position = 0;
+            while (position < ref.length()) {
+                final int end = ref.indexOf('}', position);
+                if (end < 0) {
+                    break;
+                }
+                final int start = ref.lastIndexOf('{', end);
+
+                final Placeholder placeholder = start < position ? null
+                        : Placeholder.fromName(ref.substring(start + 1, end));
+                if (placeholder == null || !isPlaceholderAt(placeholder, ref, start)) {
+                    literal.append(ref, position, end + 1);
+                } else {
+                    literal.append(ref, position, start);
+                    if (placeholder == Placeholder.PORT) {
+                        // the colon is part of the port placeholder
+                        literal.setLength(literal.length() - 1);
+                    }
+                    literals.add(literal.toString());
+                    placeholders.add(placeholder);
+                    literal.setLength(0);
+                }
+                position = end + 1;
+            }
+            literal.append(ref, position, ref.length());
+            literals.add(literal.toString());
+
+            return new UrlTemplate(literals, placeholders);
+        }
+
+        private static boolean isPlaceholderAt(final Placeholder placeholder, final String ref, final int start) {
+            return placeholder != Placeholder.PORT || (start > 0 && ref.charAt(start - 1) == ':');
+        }
+
+        private void render(final StringBuilder url, final UrlProtocol protocol, final URLPlaceholder placeholder,
+                final URI requestUri) {
+            for (int i = 0; i < placeholders.size(); i++) {
+                url.append(literals.get(i));
+
+                final Placeholder next = placeholders.get(i);
+                final String value = next.getValue(protocol, placeholder, requestUri);
+                if (next == Placeholder.PORT) {
+                    if (!Strings.isNullOrEmpty(value)) {
+                        url.append(':').append(value);
+                    }
+                } else {
+                    url.append(Strings.nullToEmpty(value));
+                }
+            }
+            url.append(literals.get(placeholders.size()));
+        }
     }
 
     private static String getRequestPort(final UrlProtocol protocol, final URI requestUri) {
@@ -0,0 +1,470 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.eclipse.hawkbit.artifact.repository.model.FileChannelArtifact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+
+/**
+ * An {@link ArtifactRepository} decorator which keeps the binaries of a
+ * remote {@link ArtifactRepository} (e.g. AWS S3 or MongoDB) in a size bounded
+ * local file cache, so that an artifact which is downloaded by many devices
+ * is only fetched once from the remote store.
+ *
+ * <p>
+ * The meta data of an artifact which is not cached yet is served by the
+ * remote store, its binary is only fetched into the cache on the first access
+ * of the content. The cached files are named by the SHA1 hash of the artifact
+ * and a generation, i.e. a file that is deleted on eviction is never one of a
+ * later fetch of the same artifact. Files are evicted in least recently used
+ * order if the configured max size is exceeded. Concurrent cache misses of the
+ * same artifact result in one fetch from the remote store, all other callers
+ * wait for it. Fetched binaries are verified against the
+ * {@link DbArtifactHash} of the remote artifact before they are cached.
+ * Binaries larger than the whole cache are served by the remote store
+ * directly.
+ * </p>
+ *
+ * <p>
+ * Cached artifacts implement {@link FileChannelArtifact}, i.e. requested
+ * ranges of their binary are read by positional reads of the cached file. The
+ * cache is not persistent, left over files are deleted on startup.
+ * </p>
+ */
+public class CachingArtifactRepository implements ArtifactRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingArtifactRepository.class);
+
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
+    private final ArtifactRepository delegate;
+    private final Path directory;
+    private final long maxSize;
+
+    /**
+     * Cached entries in least recently used order, guarded by itself.
+     */
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private long size;
+
+    private final ConcurrentMap<String, CompletableFuture<CacheEntry>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *            the remote repository to cache
+     * @param directory
+     *            the local directory of the cached files, which is cleared
+     * @param maxSize
+     *            max size of all cached files in bytes
+     */
+    public CachingArtifactRepository(final ArtifactRepository delegate, final Path directory, final long maxSize) {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.maxSize = maxSize;
+        clearDirectory();
+    }
+
+    @Override
+    public DbArtifact store(final InputStream content, final String filename, final String contentType) {
+        return delegate.store(content, filename, contentType);
+    }
+
+    @Override
+    public DbArtifact store(final InputStream content, final String filename, final String contentType,
+            final DbArtifactHash hash) {
+        return delegate.store(content, filename, contentType, hash);
+    }
+
+    @Override
+    public void deleteBySha1(final String sha1Hash) {
+        delegate.deleteBySha1(sha1Hash);
+        final CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.remove(sha1Hash);
+            if (entry != null) {
+                size -= entry.size;
+            }
+        }
+        // a later fetch of the artifact uses a file of another generation
+        if (entry != null) {
+            deleteFile(entry.file);
+        }
+    }
+
+    @Override
+    public DbArtifact getArtifactBySha1(final String sha1Hash) {
+        final CacheEntry cached = lookup(sha1Hash);
+        if (cached != null) {
+            return new CachedArtifact(this, cached);
+        }
+
+        final DbArtifact remote = delegate.getArtifactBySha1(sha1Hash);
+        if (remote == null) {
+            return null;
+        }
+        if (remote.getSize() == null || remote.getSize() > maxSize) {
+            LOG.debug("Artifact {} with size {} exceeds the cache size of {}", sha1Hash, remote.getSize(), maxSize);
+            return remote;
+        }
+        return new CachedArtifact(this, sha1Hash, remote);
+    }
+
+    /**
+     * @return number of artifact binaries that have been served by the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of artifact binaries that have been fetched from the
+     *         remote store
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of evicted cache entries
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return number of bytes of the artifacts that have been served by the
+     *         cache instead of the remote store
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * @return current size of all cached files in bytes
+     */
+    public long getSize() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    private void recordHit(final CacheEntry entry) {
+        hits.increment();
+        bytesSaved.add(entry.size);
+    }
+
+    private CacheEntry lookup(final String sha1Hash) {
+        synchronized (entries) {
+            return entries.get(sha1Hash);
+        }
+    }
+
+    private static CacheEntry await(final CompletableFuture<CacheEntry> running) {
+        try {
+            return running.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches the binary of the given remote artifact into the cache unless
+     * it is cached already or fetched by another thread.
+     *
+     * @return the entry of the artifact
+     */
+    private CacheEntry fetch(final String sha1Hash, final DbArtifact remote) {
+        final CompletableFuture<CacheEntry> future = new CompletableFuture<>();
+        final CompletableFuture<CacheEntry> running = loading.putIfAbsent(sha1Hash, future);
+        if (running != null) {
+            // another thread is fetching the artifact
+            final CacheEntry loaded = await(running);
+            recordHit(loaded);
+            return loaded;
+        }
+
+        try {
+            // might have been loaded by another thread meanwhile
+            final CacheEntry raced = lookup(sha1Hash);
+            if (raced != null) {
+                future.complete(raced);
+                recordHit(raced);
+                return raced;
+            }
+
+            misses.increment();
+            final CacheEntry loaded = load(sha1Hash, remote);
+            future.complete(loaded);
+            return loaded;
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(sha1Hash, future);
+        }
+    }
+
+    /**
+     * Fetches the binary of the given remote artifact into the cache.
+     *
+     * @return the new entry
+     */
+    // suppress warning, of not strong enough hashing algorithm, SHA-1 and MD5
+    // is not used security related
+    @SuppressWarnings("squid:S2070")
+    private CacheEntry load(final String sha1Hash, final DbArtifact remote) {
+        final MessageDigest mdSHA1;
+        final MessageDigest mdMD5;
+        try {
+            mdSHA1 = MessageDigest.getInstance("SHA1");
+            mdMD5 = MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new ArtifactStoreException(e.getMessage(), e);
+        }
+
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(directory, sha1Hash, TEMP_FILE_SUFFIX);
+            final long length;
+            try (InputStream content = new DigestInputStream(
+                    new DigestInputStream(new BufferedInputStream(remote.getFileInputStream()), mdMD5), mdSHA1);
+                    OutputStream out = Files.newOutputStream(tempFile)) {
+                length = ByteStreams.copy(content, out);
+            }
+
+            final DbArtifactHash hashes = new DbArtifactHash(
+                    BaseEncoding.base16().lowerCase().encode(mdSHA1.digest()),
+                    BaseEncoding.base16().lowerCase().encode(mdMD5.digest()));
+            checkHashes(sha1Hash, remote.getHashes(), hashes);
+
+            final Path file = directory.resolve(sha1Hash + "." + generation.incrementAndGet());
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+            tempFile = null;
+
+            final CacheEntry entry = new CacheEntry(sha1Hash, hashes, remote.getContentType(), length, file);
+            add(entry);
+            LOG.debug("Cached artifact {} with size {}", sha1Hash, length);
+            return entry;
+        } catch (final IOException e) {
+            throw new ArtifactStoreException("Could not cache artifact " + sha1Hash, e);
+        } finally {
+            if (tempFile != null) {
+                deleteFile(tempFile);
+            }
+        }
+    }
+
+    private void add(final CacheEntry entry) {
+        final CacheEntry replaced;
+        synchronized (entries) {
+            replaced = entries.put(entry.sha1, entry);
+            if (replaced != null) {
+                size -= replaced.size;
+            }
+            size += entry.size;
+        }
+        evict(entry);
+    }
+
+    private void evict(final CacheEntry added) {
+        final List<CacheEntry> evicted = new ArrayList<>();
+        synchronized (entries) {
+            final Iterator<CacheEntry> iterator = entries.values().iterator();
+            while (size > maxSize && iterator.hasNext()) {
+                final CacheEntry eldest = iterator.next();
+                if (eldest != added) {
+                    iterator.remove();
+                    size -= eldest.size;
+                    evicted.add(eldest);
+                }
+            }
+        }
+
+        evicted.forEach(entry -> {
+            LOG.debug("Evicting artifact {} from cache", entry.sha1);
+            evictions.increment();
+            // the file of an open channel is still readable after delete
+            deleteFile(entry.file);
+        });
+    }
+
+    private static void checkHashes(final String sha1Hash, final DbArtifactHash expected,
+            final DbArtifactHash calculated) {
+        if (!sha1Hash.equals(calculated.getSha1())) {
+            throw new HashNotMatchException("The sha1 hash " + sha1Hash
+                    + " does not match with the calculated sha1 hash " + calculated.getSha1(),
+                    HashNotMatchException.SHA1);
+        }
+        if (expected != null && expected.getMd5() != null && !expected.getMd5().equals(calculated.getMd5())) {
+            throw new HashNotMatchException("The md5 hash " + expected.getMd5()
+                    + " does not match with the calculated md5 hash " + calculated.getMd5(),
+                    HashNotMatchException.MD5);
+        }
+    }
+
+    private void clearDirectory() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                files.forEach(CachingArtifactRepository::deleteFile);
+            }
+        } catch (final IOException e) {
+            throw new ArtifactStoreException("Could not initialize artifact cache directory " + directory, e);
+        }
+    }
+
+    private static void deleteFile(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            LOG.error("Could not delete cached file {}", file, e);
+        }
+    }
+
+    /**
+     * Re-fetches an artifact which file has been evicted after it has been
+     * looked up.
+     */
+    private CacheEntry reload(final String sha1Hash) throws NoSuchFileException {
+        final CacheEntry cached = lookup(sha1Hash);
+        if (cached != null) {
+            return cached;
+        }
+        final DbArtifact remote = delegate.getArtifactBySha1(sha1Hash);
+        if (remote == null) {
+            throw new NoSuchFileException(sha1Hash);
+        }
+        return fetch(sha1Hash, remote);
+    }
+
+    private static final class CacheEntry {
+        private final String sha1;
+        private final DbArtifactHash hashes;
+        private final String contentType;
+        private final long size;
+        private final Path file;
+
+        private CacheEntry(final String sha1, final DbArtifactHash hashes, final String contentType,
+                final long size, final Path file) {
+            this.sha1 = sha1;
+            this.hashes = hashes;
+            this.contentType = contentType;
+            this.size = size;
+            this.file = file;
+        }
+    }
+
+    /**
+     * A {@link DbArtifact} which binary is served from the local cache. The
+     * binary of a remote artifact is fetched on the first access.
+     */
+    private static final class CachedArtifact extends DbArtifact implements FileChannelArtifact {
+        private final CachingArtifactRepository cache;
+        private final String sha1;
+        private final DbArtifact remote;
+        private volatile CacheEntry entry;
+
+        private CachedArtifact(final CachingArtifactRepository cache, final CacheEntry entry) {
+            this.cache = cache;
+            this.sha1 = entry.sha1;
+            this.remote = null;
+            this.entry = entry;
+            setArtifactId(entry.sha1);
+            setHashes(entry.hashes);
+            setSize(entry.size);
+            setContentType(entry.contentType);
+        }
+
+        private CachedArtifact(final CachingArtifactRepository cache, final String sha1, final DbArtifact remote) {
+            this.cache = cache;
+            this.sha1 = sha1;
+            this.remote = remote;
+            setArtifactId(remote.getArtifactId());
+            setHashes(remote.getHashes());
+            setSize(remote.getSize());
+            setContentType(remote.getContentType());
+        }
+
+        @Override
+        // suppress warning, this InputStream needs to be closed by the
+        // caller, this cannot be closed in this method
+        @SuppressWarnings("squid:S2095")
+        public InputStream getFileInputStream() {
+            try {
+                return new BufferedInputStream(Channels.newInputStream(openFileChannel()));
+            } catch (final IOException e) {
+                throw new ArtifactStoreException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public FileChannel openFileChannel() throws IOException {
+            // hits are only recorded if the binary is accessed, not on the
+            // lookup of the meta data
+            if (entry == null) {
+                entry = cache.fetch(sha1, remote);
+            } else {
+                cache.recordHit(entry);
+            }
+            try {
+                return FileChannel.open(entry.file, StandardOpenOption.READ);
+            } catch (final NoSuchFileException e) {
+                LOG.debug("Cached file of artifact {} has been evicted meanwhile", sha1, e);
+                entry = cache.reload(sha1);
+                return FileChannel.open(entry.file, StandardOpenOption.READ);
+            }
+        }
+
+    }
+}
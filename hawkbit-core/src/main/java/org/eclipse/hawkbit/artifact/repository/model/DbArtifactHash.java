@@ -18,6 +18,8 @@ public class DbArtifactHash {
 
     private String md5;
 
+    private String sha256;
+
     /**
      * Constructor.
      * 
@@ -27,9 +29,23 @@ public class DbArtifactHash {
      *            the md5 hash
      */
     public DbArtifactHash(final String sha1, final String md5) {
-        super();
+        this(sha1, md5, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param sha1
+     *            the sha1 hash
+     * @param md5
+     *            the md5 hash
+     * @param sha256
+     *            the sha256 hash or <code>null</code> if not available
+     */
+    public DbArtifactHash(final String sha1, final String md5, final String sha256) {
         this.sha1 = sha1;
         this.md5 = md5;
+        this.sha256 = sha256;
     }
 
     public void setSha1(final String sha1) {
@@ -48,4 +64,12 @@ public class DbArtifactHash {
         return md5;
     }
 
+    public void setSha256(final String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
 }
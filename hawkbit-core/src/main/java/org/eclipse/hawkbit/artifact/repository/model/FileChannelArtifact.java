@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository.model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Optional capability of a {@link DbArtifact} which binary is available in the
+ * local file-system. Consumers can read the binary through a
+ * {@link FileChannel} instead of {@link DbArtifact#getFileInputStream()}, e.g.
+ * to serve positional (range) reads without skipping through a stream.
+ */
+@FunctionalInterface
+public interface FileChannelArtifact {
+
+    /**
+     * Opens a new read only {@link FileChannel} on the artifact binary. The
+     * channel has to be closed by the caller.
+     *
+     * @return the opened channel
+     * @throws IOException
+     *             if the file could not be opened
+     */
+    FileChannel openFileChannel() throws IOException;
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Optional capability of a {@link DbArtifact} which storage is able to read a
+ * byte range of the binary natively, e.g. a ranged GET on an object store.
+ * Consumers can read only the requested range instead of skipping through the
+ * stream of {@link DbArtifact#getFileInputStream()}.
+ */
+@FunctionalInterface
+public interface RangedStreamArtifact {
+
+    /**
+     * Opens a new stream on the given range of the artifact binary. The
+     * stream has to be closed by the caller.
+     *
+     * @param start
+     *            offset of the first byte of the range
+     * @param length
+     *            number of bytes of the range
+     * @return the opened stream which ends after the range
+     * @throws IOException
+     *             if the range could not be read
+     */
+    InputStream getFileInputStream(long start, long length) throws IOException;
+}
@@ -62,6 +62,16 @@ public enum SpServerError {
     */
     SP_REST_SORT_PARAM_INVALID_DIRECTION("hawkbit.server.error.rest.param.invalidDirection", "The given sort parameter direction does not exist"),
 
+    /**
+    *
+    */
+    SP_REST_CONTINUATION_PARAM_INVALID("hawkbit.server.error.rest.param.invalidContinuation", "The given continuation parameter is not well formed or does not match the requested resource"),
+
+    /**
+    *
+    */
+    SP_REST_FIELDS_PARAM_INVALID_FIELD("hawkbit.server.error.rest.param.invalidFieldsField", "The given fields parameter field does not exist"),
+
     /**
     *
     */
@@ -191,4 +191,22 @@ public class PropertyBasedArtifactUrlHandlerTest {
                         + SOFTWAREMODULEID + "/artifacts/" + FILENAME)),
                 dmfUrls);
     }
+
+    @Test
+    @Description("Verfies that unknown placeholders are kept and that the port including its colon is omitted if "
+            + "no port is configured.")
+    public void urlGenerationWithUnknownPlaceholderAndWithoutPort() {
+        final UrlProtocol proto = new UrlProtocol();
+        proto.setPort(null);
+        proto.setRef("{protocol}://{hostname}:{port}/{unknown}/{tenant}/{{controllerId}}/{artifactFileName}");
+        properties.getProtocols().put("download-http", proto);
+
+        final List<ArtifactUrl> urls = urlHandlerUnderTest.getUrls(
+                new URLPlaceholder(TENANT, TENANT_ID, CONTROLLER_ID, TARGETID,
+                        new SoftwareData(SOFTWAREMODULEID, "a file#1", ARTIFACTID, SHA1HASH)),
+                ApiType.DDI);
+
+        assertEquals(Lists.newArrayList(new ArtifactUrl("http".toUpperCase(), "download-http",
+                "http://localhost/{unknown}/" + TENANT + "/{" + CONTROLLER_ID + "}/a%20file%231")), urls);
+    }
 }
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.artifact.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifactHash;
+import org.eclipse.hawkbit.artifact.repository.model.FileChannelArtifact;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Artifact Repository")
+@Stories("Caching Artifact Repository")
+public class CachingArtifactRepositoryTest {
+
+    private static final int ARTIFACT_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RemoteRepository remote = new RemoteRepository();
+
+    private CachingArtifactRepository underTest;
+
+    @Before
+    public void before() throws IOException {
+        underTest = new CachingArtifactRepository(remote, folder.newFolder().toPath(), 2L * ARTIFACT_SIZE);
+    }
+
+    @Test
+    @Description("Verifies that an artifact is fetched once from the remote repository and served from the local "
+            + "file afterwards.")
+    public void artifactIsServedFromCache() throws IOException {
+        final byte[] content = remote.add(ARTIFACT_SIZE);
+        final String sha1 = sha1(content);
+
+        final DbArtifact miss = underTest.getArtifactBySha1(sha1);
+        assertThat(read(miss)).isEqualTo(content);
+        final DbArtifact hit = underTest.getArtifactBySha1(sha1);
+
+        // the lookup of the meta data does not count as hit
+        assertThat(underTest.getHits()).isEqualTo(0);
+        assertThat(underTest.getBytesSaved()).isEqualTo(0);
+        assertThat(remote.fetches(sha1)).isEqualTo(1);
+        assertThat(hit).isInstanceOf(FileChannelArtifact.class);
+        assertThat(hit.getHashes().getSha1()).isEqualTo(sha1);
+        assertThat(hit.getSize()).isEqualTo(ARTIFACT_SIZE);
+        try (FileChannel channel = ((FileChannelArtifact) hit).openFileChannel()) {
+            assertThat(ByteStreams.toByteArray(Channels.newInputStream(channel))).isEqualTo(content);
+        }
+
+        assertThat(underTest.getMisses()).isEqualTo(1);
+        assertThat(underTest.getHits()).isEqualTo(1);
+        assertThat(underTest.getBytesSaved()).isEqualTo(ARTIFACT_SIZE);
+        assertThat(underTest.getSize()).isEqualTo(ARTIFACT_SIZE);
+    }
+
+    @Test
+    @Description("Verifies that the meta data of an artifact which is not cached is served by the remote repository "
+            + "without fetching its binary.")
+    public void metadataIsServedWithoutFetch() {
+        final String sha1 = sha1(remote.add(ARTIFACT_SIZE));
+
+        final DbArtifact artifact = underTest.getArtifactBySha1(sha1);
+
+        assertThat(artifact.getHashes().getSha1()).isEqualTo(sha1);
+        assertThat(artifact.getSize()).isEqualTo(ARTIFACT_SIZE);
+        assertThat(remote.fetches(sha1)).isEqualTo(0);
+        assertThat(underTest.getMisses()).isEqualTo(0);
+        assertThat(underTest.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that concurrent cache misses of an artifact result in one remote fetch.")
+    public void concurrentMissesFetchOnce() throws Exception {
+        final String sha1 = sha1(remote.add(ARTIFACT_SIZE));
+        remote.delay = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> read(underTest.getArtifactBySha1(sha1))));
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+            remote.delay.countDown();
+
+            for (final Future<byte[]> result : results) {
+                assertThat(sha1(result.get(5, TimeUnit.SECONDS))).isEqualTo(sha1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(remote.fetches(sha1)).isEqualTo(1);
+        assertThat(underTest.getMisses()).isEqualTo(1);
+        assertThat(underTest.getHits()).isEqualTo(7);
+    }
+
+    @Test
+    @Description("Verifies that the least recently used artifact is evicted if the max size is exceeded and "
+            + "fetched again on demand.")
+    public void leastRecentlyUsedArtifactIsEvicted() throws IOException {
+        final String first = sha1(remote.add(ARTIFACT_SIZE));
+        final String second = sha1(remote.add(ARTIFACT_SIZE));
+        final String third = sha1(remote.add(ARTIFACT_SIZE));
+
+        read(underTest.getArtifactBySha1(first));
+        final DbArtifact evicted = underTest.getArtifactBySha1(second);
+        read(evicted);
+        read(underTest.getArtifactBySha1(first));
+        read(underTest.getArtifactBySha1(third));
+
+        assertThat(underTest.getEvictions()).isEqualTo(1);
+        assertThat(underTest.getSize()).isEqualTo(2L * ARTIFACT_SIZE);
+        read(underTest.getArtifactBySha1(first));
+        assertThat(remote.fetches(first)).isEqualTo(1);
+
+        // the file of second has been evicted and is fetched again on demand
+        assertThat(read(evicted)).hasSize(ARTIFACT_SIZE);
+        assertThat(remote.fetches(second)).isEqualTo(2);
+        assertThat(underTest.getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("Verifies that a corrupted binary of the remote repository is not cached.")
+    public void corruptedArtifactIsNotCached() throws IOException {
+        final String sha1 = sha1(remote.add(ARTIFACT_SIZE));
+        remote.corrupt = true;
+
+        try {
+            read(underTest.getArtifactBySha1(sha1));
+            fail("Expected an HashNotMatchException, but didn't throw");
+        } catch (final HashNotMatchException e) {
+            assertThat(e.getHashFunction()).isEqualTo(HashNotMatchException.SHA1);
+        }
+        assertThat(underTest.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that a deleted artifact is removed from the cache and a later fetch of the same binary "
+            + "is not affected by the deletion of the old file.")
+    public void deletedArtifactIsRemovedFromCache() throws IOException {
+        final byte[] content = remote.add(ARTIFACT_SIZE);
+        final String sha1 = sha1(content);
+        read(underTest.getArtifactBySha1(sha1));
+
+        underTest.deleteBySha1(sha1);
+        assertThat(underTest.getSize()).isEqualTo(0);
+        assertThat(underTest.getArtifactBySha1(sha1)).isNull();
+
+        remote.binaries.put(sha1, content);
+        assertThat(read(underTest.getArtifactBySha1(sha1))).isEqualTo(content);
+        assertThat(remote.fetches(sha1)).isEqualTo(2);
+        assertThat(underTest.getSize()).isEqualTo(ARTIFACT_SIZE);
+    }
+
+    @Test
+    @Description("Verifies that artifacts larger than the cache are served by the remote repository.")
+    public void largeArtifactIsNotCached() {
+        final String sha1 = sha1(remote.add(3 * ARTIFACT_SIZE));
+
+        assertThat(underTest.getArtifactBySha1(sha1)).isNotInstanceOf(FileChannelArtifact.class);
+        assertThat(underTest.getSize()).isEqualTo(0);
+        assertThat(underTest.getArtifactBySha1("unknown")).isNull();
+    }
+
+    private static byte[] read(final DbArtifact artifact) throws IOException {
+        try (InputStream stream = artifact.getFileInputStream()) {
+            return ByteStreams.toByteArray(stream);
+        }
+    }
+
+    private static String sha1(final byte[] content) {
+        return Hashing.sha1().hashBytes(content).toString();
+    }
+
+    /**
+     * In-memory remote {@link ArtifactRepository} which counts the fetches of
+     * the binaries.
+     */
+    private static final class RemoteRepository implements ArtifactRepository {
+        private final Map<String, byte[]> binaries = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> fetches = new ConcurrentHashMap<>();
+        private volatile CountDownLatch delay;
+        private volatile boolean corrupt;
+
+        private byte[] add(final int size) {
+            final byte[] content = new byte[size];
+            new Random().nextBytes(content);
+            binaries.put(sha1(content), content);
+            return content;
+        }
+
+        private int fetches(final String sha1) {
+            return fetches.getOrDefault(sha1, new AtomicInteger()).get();
+        }
+
+        @Override
+        public DbArtifact store(final InputStream content, final String filename, final String contentType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DbArtifact store(final InputStream content, final String filename, final String contentType,
+                final DbArtifactHash hash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteBySha1(final String sha1Hash) {
+            binaries.remove(sha1Hash);
+        }
+
+        @Override
+        public DbArtifact getArtifactBySha1(final String sha1Hash) {
+            final byte[] content = binaries.get(sha1Hash);
+            if (content == null) {
+                return null;
+            }
+
+            final DbArtifact artifact = new DbArtifact() {
+                @Override
+                public InputStream getFileInputStream() {
+                    fetches.computeIfAbsent(sha1Hash, key -> new AtomicInteger()).incrementAndGet();
+                    awaitDelay();
+                    final byte[] served = content.clone();
+                    if (corrupt) {
+                        served[0]++;
+                    }
+                    return new ByteArrayInputStream(served);
+                }
+            };
+            artifact.setArtifactId(sha1Hash);
+            artifact.setHashes(new DbArtifactHash(sha1Hash, null));
+            artifact.setSize((long) content.length);
+            return artifact;
+        }
+
+        private void awaitDelay() {
+            try {
+                if (delay != null) {
+                    delay.await(5, TimeUnit.SECONDS);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.hawkbit.api.ApiType;
@@ -35,8 +36,10 @@ import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
 import org.springframework.http.HttpRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
 
 /**
  * Utility class for the DDI API.
@@ -133,6 +136,47 @@ public final class DataConversionHelper {
         return result;
     }
 
+    /**
+     * Calculates the state of the {@link DdiControllerBase} resource of the
+     * given target without rendering it, i.e. the polling time, the active
+     * action and its state and the controller attribute request flag.
+     *
+     * @param target
+     *            the resource is rendered for
+     * @param action
+     *            oldest active action of the target or <code>null</code>
+     * @param defaultControllerPollTime
+     *            of the tenant
+     * @return the state as hash
+     */
+    static String calculateControllerBaseState(final Target target, final Action action,
+            final String defaultControllerPollTime) {
+        final StringBuilder state = new StringBuilder(defaultControllerPollTime).append('|')
+                .append(target.isRequestControllerAttributes());
+        if (action != null) {
+            state.append('|').append(action.getId()).append('|').append(action.isCancelingOrCanceled()).append('|')
+                    .append(calculateEtag(action));
+        }
+
+        return Hashing.murmur3_128().hashString(state, Charsets.UTF_8).toString();
+    }
+
+    /**
+     * Calculates the ETag of the {@link DdiControllerBase} resource from its
+     * state and the request URI as the links contain the requested host.
+     *
+     * @param request
+     *            of the resource
+     * @param state
+     *            of the resource, see
+     *            {@link #calculateControllerBaseState(Target, Action, String)}
+     * @return the quoted ETag
+     */
+    static String calculateControllerBaseEtag(final HttpServletRequest request, final String state) {
+        final String resourceUri = ServletUriComponentsBuilder.fromRequest(request).toUriString();
+        return "\"" + Hashing.murmur3_128().hashString(resourceUri + '|' + state, Charsets.UTF_8) + "\"";
+    }
+
     /**
      * Calculates an etag for the given {@link Action} based on the entities
      * hashcode and the {@link Action#isHitAutoForceTime(long)} to reflect a
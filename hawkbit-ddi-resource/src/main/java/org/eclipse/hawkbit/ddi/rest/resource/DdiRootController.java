@@ -10,8 +10,10 @@ package org.eclipse.hawkbit.ddi.rest.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
@@ -55,6 +57,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.ServletServerHttpRequest;
@@ -128,11 +131,37 @@ public class DdiRootController implements DdiRootControllerRestApi {
             @PathVariable("controllerId") final String controllerId) {
         LOG.debug("getControllerBase({})", controllerId);
 
-        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(controllerId, IpUtil
-                .getClientIpFromRequest(requestResponseContextHolder.getHttpServletRequest(), securityProperties));
-        return new ResponseEntity<>(DataConversionHelper.fromTarget(target,
-                controllerManagement.findOldestActiveActionByTarget(controllerId).orElse(null),
-                controllerManagement.getPollingTime(), tenantAware), HttpStatus.OK);
+        final HttpServletRequest request = requestResponseContextHolder.getHttpServletRequest();
+        final URI address = IpUtil.getClientIpFromRequest(request, securityProperties);
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        // answer unchanged polls from the cached state without loading the
+        // target and its actions
+        if (ifNoneMatch != null) {
+            final Optional<String> cachedState = controllerManagement.findCachedPollResponseState(controllerId,
+                    address);
+            final String cachedEtag = cachedState
+                    .map(state -> DataConversionHelper.calculateControllerBaseEtag(request, state)).orElse(null);
+            if (cachedEtag != null && RestResourceConversionHelper.matchesHttpHeader(ifNoneMatch, cachedEtag)) {
+                controllerManagement.registerPollOfCachedTarget(controllerId, address);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cachedEtag).build();
+            }
+        }
+
+        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(controllerId, address);
+        final Action action = controllerManagement.findOldestActiveActionByTarget(controllerId).orElse(null);
+        final String pollingTime = controllerManagement.getPollingTime();
+
+        final String state = DataConversionHelper.calculateControllerBaseState(target, action, pollingTime);
+        controllerManagement.cachePollResponseState(target, action, state);
+
+        final String etag = DataConversionHelper.calculateControllerBaseEtag(request, state);
+        if (ifNoneMatch != null && RestResourceConversionHelper.matchesHttpHeader(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        return ResponseEntity.ok().eTag(etag)
+                .body(DataConversionHelper.fromTarget(target, action, pollingTime, tenantAware));
     }
 
     @Override
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.ddi.rest.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Test the root controller resource with the controller poll cache enabled.
+ */
+@Features("Component Tests - Direct Device Integration API")
+@Stories("Root Poll Resource")
+@TestPropertySource(properties = "hawkbit.server.repository.pollCache.enabled=true")
+public class DdiRootControllerPollCacheTest extends AbstractDDiApiIntegrationTest {
+
+    @Test
+    @Description("Ensures that an unchanged poll is answered as not modified from the cached state including the "
+            + "registration of the poll and that a changed state is rendered again.")
+    public void unchangedPollIsAnsweredFromCachedState() throws Exception {
+        final String etag = poll(null).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+        final long firstPoll = targetManagement.findTargetByControllerID("4711").get().getLastTargetQuery();
+
+        Thread.sleep(10);
+        poll(etag).andExpect(status().isNotModified()).andExpect(header().string("ETag", etag));
+        assertThat(targetManagement.findTargetByControllerID("4711").get().getLastTargetQuery())
+                .isGreaterThan(firstPoll);
+
+        final DistributionSet ds = testdataFactory.createDistributionSet("");
+        assignDistributionSet(ds.getId(), "4711");
+        final Action action = deploymentManagement.findActiveActionsByTarget("4711").get(0);
+        awaitStateChange(etag);
+
+        final String etagWithUpdate = poll(etag).andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.deploymentBase.href",
+                        startsWith("http://localhost/" + tenantAware.getCurrentTenant()
+                                + "/controller/v1/4711/deploymentBase/" + action.getId())))
+                .andReturn().getResponse().getHeader("ETag");
+        poll(etagWithUpdate).andExpect(status().isNotModified());
+
+        deploymentManagement.cancelAction(action.getId());
+        awaitStateChange(etagWithUpdate);
+
+        poll(etagWithUpdate).andExpect(status().isOk()).andExpect(jsonPath("$._links.cancelAction.href",
+                startsWith("http://localhost/" + tenantAware.getCurrentTenant() + "/controller/v1/4711/cancelAction/"
+                        + action.getId())));
+    }
+
+    /**
+     * Waits until the cached state is invalidated as the events are delivered
+     * asynchronously.
+     */
+    private void awaitStateChange(final String etag) {
+        Awaitility.await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> poll(etag).andReturn().getResponse().getStatus(), equalTo(HttpStatus.OK.value()));
+    }
+
+    private ResultActions poll(final String etag) throws Exception {
+        if (etag == null) {
+            return mvc.perform(get("/{tenant}/controller/v1/4711", tenantAware.getCurrentTenant())
+                    .accept(MediaType.APPLICATION_JSON)).andDo(MockMvcResultPrinter.print());
+        }
+        return mvc.perform(get("/{tenant}/controller/v1/4711", tenantAware.getCurrentTenant())
+                .header("If-None-Match", etag).accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultPrinter.print());
+    }
+}
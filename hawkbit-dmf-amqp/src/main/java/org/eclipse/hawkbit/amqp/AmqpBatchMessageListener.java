@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.ChannelAwareMessageListener;
+import org.springframework.amqp.rabbit.listener.FatalExceptionStrategy;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.exception.ListenerExecutionFailedException;
+
+import com.rabbitmq.client.Channel;
+
+/**
+ * {@link ChannelAwareMessageListener} that collects the DMF messages of the
+ * receiver queue per tenant and hands them over to the
+ * {@link AmqpMessageHandlerService} as one batch.
+ *
+ * The batches are collected and handled by the consumer thread of the
+ * {@link SimpleMessageListenerContainer} that received the messages, i.e.
+ * the messages are acknowledged on the thread that owns their channel and
+ * none is left unacknowledged when the consumer stops. A batch is handled as
+ * soon as {@link AmqpProperties#getBatchSize()} messages of a tenant are
+ * collected, its oldest message waits longer than the flush interval or the
+ * receive cycle of the consumer ends, see {@link #flushAdvice()}.
+ *
+ * The messages of a tenant are handled in the order of their arrival. Every
+ * message is acknowledged on its own after its batch has been handled, i.e.
+ * the listener has to run in a container with {@link AcknowledgeMode#MANUAL}.
+ * Failed messages are handed over to the {@link AmqpMessageRetryHandler} if
+ * given. Otherwise they are rejected and requeued unless the failure is fatal
+ * according to the {@link FatalExceptionStrategy}.
+ */
+public class AmqpBatchMessageListener implements ChannelAwareMessageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpBatchMessageListener.class);
+
+    private final AmqpMessageHandlerService amqpMessageHandlerService;
+
+    private final FatalExceptionStrategy exceptionStrategy;
+
+    private final AmqpMessageRetryHandler retryHandler;
+
+    private final int batchSize;
+
+    private final long flushInterval;
+
+    /**
+     * Batches of the current consumer thread by tenant.
+     */
+    private final ThreadLocal<Map<String, Batch>> batches = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    /**
+     * Constructor.
+     *
+     * @param amqpMessageHandlerService
+     *            to handle the batches
+     * @param exceptionStrategy
+     *            to decide if failed messages are requeued
+     * @param retryHandler
+     *            to retry failed messages without blocking the consumer,
+     *            <code>null</code> if failed messages are requeued
+     * @param batchSize
+     *            maximum number of messages of a tenant in one batch
+     * @param flushInterval
+     *            maximum time in milliseconds a message waits for its batch
+     */
+    public AmqpBatchMessageListener(final AmqpMessageHandlerService amqpMessageHandlerService,
+            final FatalExceptionStrategy exceptionStrategy, final AmqpMessageRetryHandler retryHandler,
+            final int batchSize, final long flushInterval) {
+        this.amqpMessageHandlerService = amqpMessageHandlerService;
+        this.exceptionStrategy = exceptionStrategy;
+        this.retryHandler = retryHandler;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void onMessage(final Message message, final Channel channel) throws IOException {
+        final Object tenant = message.getMessageProperties().getHeaders().get(MessageHeaderKey.TENANT);
+        if (tenant == null) {
+            LOG.warn("Rejecting message without tenant: {}", message);
+            channel.basicReject(message.getMessageProperties().getDeliveryTag(), false);
+            return;
+        }
+
+        final Map<String, Batch> pending = batches.get();
+        final Batch batch = pending.computeIfAbsent(tenant.toString(), key -> new Batch(channel));
+        batch.messages.add(message);
+        if (batch.messages.size() >= batchSize
+                || System.currentTimeMillis() - batch.createdAt >= flushInterval) {
+            pending.remove(tenant.toString());
+            handle(tenant.toString(), batch);
+        }
+    }
+
+    /**
+     * Creates the advice of the receive cycle of the consumers, see
+     * {@link SimpleMessageListenerContainer#setAdviceChain(org.aopalliance.aop.Advice...)}.
+     * It handles all messages collected by the consumer thread after each
+     * cycle, i.e. after the container's transaction size is reached or the
+     * receive timeout has elapsed without a message.
+     *
+     * @return the advice
+     */
+    public MethodInterceptor flushAdvice() {
+        return invocation -> {
+            try {
+                return invocation.proceed();
+            } finally {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Handles all messages collected by the current thread regardless of the
+     * size of their batches.
+     */
+    void flush() {
+        final Map<String, Batch> pending = batches.get();
+        final Iterator<Map.Entry<String, Batch>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Batch> entry = iterator.next();
+            iterator.remove();
+            handle(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void handle(final String tenant, final Batch batch) {
+        final List<Message> messages = batch.messages;
+
+        Map<Message, RuntimeException> failures;
+        try {
+            failures = amqpMessageHandlerService.onMessages(tenant, messages,
+                    amqpMessageHandlerService.getRabbitTemplate().getConnectionFactory().getVirtualHost());
+        } catch (final RuntimeException e) {
+            LOG.error("Handling of {} messages of tenant {} failed.", messages.size(), tenant, e);
+            failures = new IdentityHashMap<>();
+            for (final Message message : messages) {
+                failures.put(message, e);
+            }
+        }
+
+        for (final Message message : messages) {
+            acknowledge(batch.channel, message, failures.get(message));
+        }
+    }
+
+    private void acknowledge(final Channel channel, final Message message, final RuntimeException failure) {
+        final long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        try {
+            if (failure == null) {
+                channel.basicAck(deliveryTag, false);
+                return;
+            }
+
+            if (retryHandler != null) {
+                retry(channel, message, failure);
+                return;
+            }
+
+            LOG.warn("Execution of DMF message listener failed for message {}", message, failure);
+            channel.basicReject(deliveryTag, shouldRequeue(message, failure));
+        } catch (final IOException | RuntimeException e) {
+            // the broker redelivers the message if the channel is closed
+            LOG.error("Acknowledgement of message {} failed.", message, e);
+        }
+    }
+
+    private void retry(final Channel channel, final Message message, final RuntimeException failure)
+            throws IOException {
+        final long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        try {
+            retryHandler.retryOrReject(message, failure);
+        } catch (final AmqpRejectAndDontRequeueException e) {
+            LOG.warn("Execution of DMF message listener failed for message {}", message, e);
+            channel.basicReject(deliveryTag, false);
+            return;
+        } catch (final RuntimeException e) {
+            LOG.error("Retry of message {} failed, requeueing it.", message, e);
+            channel.basicReject(deliveryTag, true);
+            return;
+        }
+        channel.basicAck(deliveryTag, false);
+    }
+
+    private boolean shouldRequeue(final Message message, final RuntimeException failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AmqpRejectAndDontRequeueException) {
+                return false;
+            }
+        }
+        return !exceptionStrategy
+                .isFatal(new ListenerExecutionFailedException("Listener threw exception", failure, message));
+    }
+
+    private static final class Batch {
+
+        private final Channel channel;
+
+        private final long createdAt = System.currentTimeMillis();
+
+        private final List<Message> messages = new ArrayList<>();
+
+        private Batch(final Channel channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.amqp;
 import java.security.GeneralSecurityException;
 import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -24,11 +25,13 @@ import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.security.ControllerAuthenticationCache;
 import org.eclipse.hawkbit.security.DdiSecurityProperties;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.FanoutExchange;
@@ -80,6 +83,9 @@ public class AmqpConfiguration {
     @Autowired(required = false)
     private ServiceMatcher serviceMatcher;
 
+    @Autowired(required = false)
+    private ControllerAuthenticationCache authenticationCache;
+
     /**
      * Register the bean for the custom error handler.
      *
@@ -149,6 +155,77 @@ public class AmqpConfiguration {
         }
     }
 
+    /**
+     * Consumes the DMF receiver queue in batches instead of the
+     * {@link AmqpMessageHandlerService} bean.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq", name = "batchConsumer")
+    protected static class BatchConsumerConfiguration {
+
+        @Autowired
+        private AmqpProperties amqpProperties;
+
+        @Autowired
+        private ConnectionFactory rabbitConnectionFactory;
+
+        /**
+         * Create the batch listener of the DMF receiver queue.
+         *
+         * @param rabbitTemplate
+         *            for converting messages
+         * @param amqpMessageDispatcherService
+         *            to sending events to DMF client
+         * @param controllerManagement
+         *            for target repo access
+         * @param entityFactory
+         *            to create entities
+         * @return the listener bean
+         */
+        @Bean
+        public AmqpBatchMessageListener amqpBatchMessageListener(final RabbitTemplate rabbitTemplate,
+                final AmqpMessageDispatcherService amqpMessageDispatcherService,
+                final ControllerManagement controllerManagement, final EntityFactory entityFactory) {
+            return new AmqpBatchMessageListener(
+                    new AmqpMessageHandlerService(rabbitTemplate, amqpMessageDispatcherService, controllerManagement,
+                            entityFactory),
+                    new DelayedRequeueExceptionStrategy(amqpProperties.getRequeueDelay()),
+                    createRetryHandler(amqpProperties, rabbitTemplate), amqpProperties.getBatchSize(),
+                    amqpProperties.getBatchFlushInterval());
+        }
+
+        /**
+         * Create the container of the batch listener. The messages are
+         * acknowledged by the listener itself at the end of each receive
+         * cycle of a consumer, which takes up to the batch size messages or
+         * ends if no message is received within the flush interval.
+         *
+         * @param amqpBatchMessageListener
+         *            the listener
+         * @return the container bean
+         */
+        @Bean
+        public SimpleMessageListenerContainer dmfBatchListenerContainer(
+                final AmqpBatchMessageListener amqpBatchMessageListener) {
+            final SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(
+                    rabbitConnectionFactory);
+            container.setQueueNames(amqpProperties.getReceiverQueue());
+            container.setMessageListener(amqpBatchMessageListener);
+            container.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+            container.setTxSize(amqpProperties.getBatchSize());
+            container.setReceiveTimeout(amqpProperties.getBatchFlushInterval());
+            container.setAdviceChain(amqpBatchMessageListener.flushAdvice());
+            container.setMissingQueuesFatal(amqpProperties.isMissingQueuesFatal());
+            container.setConcurrentConsumers(amqpProperties.getInitialConcurrentConsumers());
+            container.setMaxConcurrentConsumers(amqpProperties.getMaxConcurrentConsumers());
+            // a batch can only be filled if the broker sends enough unacked
+            // messages
+            container.setPrefetchCount(Math.max(amqpProperties.getPrefetchCount(), amqpProperties.getBatchSize()));
+            container.setDeclarationRetries(amqpProperties.getDeclarationRetries());
+            return container;
+        }
+    }
+
     /**
      * Create a {@link RabbitAdmin} and ignore declaration exceptions.
      * {@link RabbitAdmin#setIgnoreDeclarationExceptions(boolean)}
@@ -252,6 +329,42 @@ public class AmqpConfiguration {
         return BindingBuilder.bind(authenticationReceiverQueue()).to(authenticationExchange());
     }
 
+    /**
+     * Create the retry queue in which failed DMF messages wait for their
+     * retry. Expired messages are dead-lettered back to the receiver queue.
+     *
+     * @return the retry queue
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq", name = "retryEnabled", matchIfMissing = true)
+    public Queue dmfRetryQueue() {
+        return new Queue(amqpProperties.getRetryQueue(), true, false, false,
+                getRetryQueueArgs(amqpProperties.getReceiverQueue()));
+    }
+
+    /**
+     * Create the retry exchange.
+     *
+     * @return the fanout exchange
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq", name = "retryEnabled", matchIfMissing = true)
+    public FanoutExchange dmfRetryExchange() {
+        return new FanoutExchange(amqpProperties.getRetryExchange());
+    }
+
+    /**
+     * Create the Binding {@link AmqpConfiguration#dmfRetryQueue()} to
+     * {@link AmqpConfiguration#dmfRetryExchange()}.
+     *
+     * @return the binding
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq", name = "retryEnabled", matchIfMissing = true)
+    public Binding bindDmfRetryQueueToDmfRetryExchange() {
+        return BindingBuilder.bind(dmfRetryQueue()).to(dmfRetryExchange());
+    }
+
     /**
      * Create dead letter queue.
      *
@@ -297,11 +410,18 @@ public class AmqpConfiguration {
      * @return handler service bean
      */
     @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq", name = "batchConsumer", havingValue = "false",
+            matchIfMissing = true)
     public AmqpMessageHandlerService amqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
             final AmqpMessageDispatcherService amqpMessageDispatcherService,
             final ControllerManagement controllerManagement, final EntityFactory entityFactory) {
         return new AmqpMessageHandlerService(rabbitTemplate, amqpMessageDispatcherService, controllerManagement,
-                entityFactory);
+                entityFactory, createRetryHandler(amqpProperties, rabbitTemplate));
+    }
+
+    private static AmqpMessageRetryHandler createRetryHandler(final AmqpProperties amqpProperties,
+            final RabbitTemplate rabbitTemplate) {
+        return amqpProperties.isRetryEnabled() ? new AmqpMessageRetryHandler(rabbitTemplate, amqpProperties) : null;
     }
 
     /**
@@ -331,13 +451,21 @@ public class AmqpConfiguration {
     }
 
     /**
-     * Create default amqp sender service bean.
+     * Create default amqp sender service bean. The
+     * {@link BatchingAmqpSenderService} is used if
+     * {@link AmqpProperties#isSenderBatching()} is enabled.
      *
      * @return the default amqp sender service bean
      */
     @Bean
     @ConditionalOnMissingBean
     public AmqpSenderService amqpSenderServiceBean() {
+        if (amqpProperties.isSenderBatching()) {
+            // own template as a template supports only one confirm callback
+            final RabbitTemplate senderTemplate = new RabbitTemplate(rabbitConnectionFactory);
+            senderTemplate.setMessageConverter(new Jackson2JsonMessageConverter());
+            return new BatchingAmqpSenderService(senderTemplate, amqpProperties);
+        }
         return new DefaultAmqpSenderService(rabbitTemplate());
     }
 
@@ -379,7 +507,7 @@ public class AmqpConfiguration {
             final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
             final DdiSecurityProperties ddiSecruityProperties, final SystemSecurityContext systemSecurityContext) {
         return new AmqpControllerAuthentication(systemManagement, controllerManagement, tenantConfigurationManagement,
-                tenantAware, ddiSecruityProperties, systemSecurityContext);
+                tenantAware, ddiSecruityProperties, systemSecurityContext, authenticationCache);
     }
 
     /**
@@ -397,6 +525,8 @@ public class AmqpConfiguration {
      *            the systemManagement
      * @param targetManagement
      *            to access target information
+     * @param updateMessageTemplateCache
+     *            to render the update messages from templates if enabled
      * @return the bean
      */
     @Bean
@@ -404,9 +534,31 @@ public class AmqpConfiguration {
     public AmqpMessageDispatcherService amqpMessageDispatcherService(final RabbitTemplate rabbitTemplate,
             final AmqpSenderService amqpSenderService, final ArtifactUrlHandler artifactUrlHandler,
             final SystemSecurityContext systemSecurityContext, final SystemManagement systemManagement,
-            final TargetManagement targetManagement) {
+            final TargetManagement targetManagement,
+            final Optional<UpdateMessageTemplateCache> updateMessageTemplateCache) {
         return new AmqpMessageDispatcherService(rabbitTemplate, amqpSenderService, artifactUrlHandler,
-                systemSecurityContext, systemManagement, targetManagement, serviceMatcher);
+                systemSecurityContext, systemManagement, targetManagement, serviceMatcher,
+                updateMessageTemplateCache.orElse(null));
+    }
+
+    /**
+     * Create the cache of the download and update message templates.
+     *
+     * @return the cache bean
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "hawkbit.dmf.rabbitmq", name = "updateMessageTemplates", matchIfMissing = true)
+    public UpdateMessageTemplateCache updateMessageTemplateCache() {
+        return new UpdateMessageTemplateCache(amqpProperties.getUpdateMessageTemplateCacheSize());
+    }
+
+    private static Map<String, Object> getRetryQueueArgs(final String receiverQueue) {
+        final Map<String, Object> args = Maps.newHashMapWithExpectedSize(2);
+        // the default exchange routes to the queue with the routing key as
+        // name
+        args.put("x-dead-letter-exchange", "");
+        args.put("x-dead-letter-routing-key", receiverQueue);
+        return args;
     }
 
     private static Map<String, Object> getTTLMaxArgsAuthenticationQueue() {
@@ -17,6 +17,7 @@ import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.SystemManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.security.ControllerAuthenticationCache;
 import org.eclipse.hawkbit.security.ControllerPreAuthenticateSecurityTokenFilter;
 import org.eclipse.hawkbit.security.ControllerPreAuthenticatedAnonymousDownload;
 import org.eclipse.hawkbit.security.ControllerPreAuthenticatedAnonymousFilter;
@@ -58,6 +59,8 @@ public class AmqpControllerAuthentication {
 
     private final SystemSecurityContext systemSecurityContext;
 
+    private final ControllerAuthenticationCache authenticationCache;
+
     /**
      * Constructor.
      * 
@@ -75,6 +78,32 @@ public class AmqpControllerAuthentication {
             final ControllerManagement controllerManagement,
             final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
             final DdiSecurityProperties ddiSecruityProperties, final SystemSecurityContext systemSecurityContext) {
+        this(systemManagement, controllerManagement, tenantConfigurationManagement, tenantAware, ddiSecruityProperties,
+                systemSecurityContext, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param systemManagement
+     * @param controllerManagement
+     * @param tenantConfigurationManagement
+     * @param tenantAware
+     *            current tenant
+     * @param ddiSecruityProperties
+     *            security configurations
+     * @param systemSecurityContext
+     *            security context
+     * @param authenticationCache
+     *            to cache the authentication decisions, might be
+     *            <code>null</code>
+     */
+    public AmqpControllerAuthentication(final SystemManagement systemManagement,
+            final ControllerManagement controllerManagement,
+            final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
+            final DdiSecurityProperties ddiSecruityProperties, final SystemSecurityContext systemSecurityContext,
+            final ControllerAuthenticationCache authenticationCache) {
+        this.authenticationCache = authenticationCache;
         this.controllerManagement = controllerManagement;
         this.systemManagement = systemManagement;
         this.tenantConfigurationManagement = tenantConfigurationManagement;
@@ -95,7 +124,7 @@ public class AmqpControllerAuthentication {
         filterChain = Lists.newArrayListWithExpectedSize(5);
 
         final ControllerPreAuthenticatedGatewaySecurityTokenFilter gatewaySecurityTokenFilter = new ControllerPreAuthenticatedGatewaySecurityTokenFilter(
-                tenantConfigurationManagement, tenantAware, systemSecurityContext);
+                tenantConfigurationManagement, tenantAware, systemSecurityContext, authenticationCache);
         filterChain.add(gatewaySecurityTokenFilter);
 
         final ControllerPreAuthenticatedSecurityHeaderFilter securityHeaderFilter = new ControllerPreAuthenticatedSecurityHeaderFilter(
@@ -104,7 +133,8 @@ public class AmqpControllerAuthentication {
         filterChain.add(securityHeaderFilter);
 
         final ControllerPreAuthenticateSecurityTokenFilter securityTokenFilter = new ControllerPreAuthenticateSecurityTokenFilter(
-                tenantConfigurationManagement, controllerManagement, tenantAware, systemSecurityContext);
+                tenantConfigurationManagement, controllerManagement, tenantAware, systemSecurityContext,
+                authenticationCache);
         filterChain.add(securityTokenFilter);
 
         final ControllerPreAuthenticatedAnonymousDownload anonymousDownloadFilter = new ControllerPreAuthenticatedAnonymousDownload(
@@ -14,6 +14,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.eclipse.hawkbit.amqp.UpdateMessageTemplateCache.MessageFactory;
 import org.eclipse.hawkbit.api.ApiType;
 import org.eclipse.hawkbit.api.ArtifactUrl;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
@@ -31,6 +32,7 @@ import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantMetaData;
 import org.eclipse.hawkbit.security.SystemSecurityContext;
 import org.eclipse.hawkbit.util.IpUtil;
 import org.slf4j.Logger;
@@ -60,6 +62,7 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
     private final SystemManagement systemManagement;
     private final TargetManagement targetManagement;
     private final ServiceMatcher serviceMatcher;
+    private final UpdateMessageTemplateCache updateMessageTemplateCache;
 
     /**
      * Constructor.
@@ -84,6 +87,36 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             final ArtifactUrlHandler artifactUrlHandler, final SystemSecurityContext systemSecurityContext,
             final SystemManagement systemManagement, final TargetManagement targetManagement,
             final ServiceMatcher serviceMatcher) {
+        this(rabbitTemplate, amqpSenderService, artifactUrlHandler, systemSecurityContext, systemManagement,
+                targetManagement, serviceMatcher, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            the rabbitTemplate
+     * @param amqpSenderService
+     *            to send AMQP message
+     * @param artifactUrlHandler
+     *            for generating download URLs
+     * @param systemSecurityContext
+     *            for execution with system permissions
+     * @param systemManagement
+     *            the systemManagement
+     * @param targetManagement
+     *            to access target information
+     * @param serviceMatcher
+     *            to check in cluster case if the message is from the same
+     *            cluster node
+     * @param updateMessageTemplateCache
+     *            to render the update messages from templates,
+     *            <code>null</code> if every message is created on its own
+     */
+    public AmqpMessageDispatcherService(final RabbitTemplate rabbitTemplate, final AmqpSenderService amqpSenderService,
+            final ArtifactUrlHandler artifactUrlHandler, final SystemSecurityContext systemSecurityContext,
+            final SystemManagement systemManagement, final TargetManagement targetManagement,
+            final ServiceMatcher serviceMatcher, final UpdateMessageTemplateCache updateMessageTemplateCache) {
         super(rabbitTemplate);
         this.artifactUrlHandler = artifactUrlHandler;
         this.amqpSenderService = amqpSenderService;
@@ -91,6 +124,7 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         this.systemManagement = systemManagement;
         this.targetManagement = targetManagement;
         this.serviceMatcher = serviceMatcher;
+        this.updateMessageTemplateCache = updateMessageTemplateCache;
     }
 
     /**
@@ -123,20 +157,38 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
             return;
         }
 
+        final String targetSecurityToken = systemSecurityContext.runAsSystem(target::getSecurityToken);
+        final MessageFactory messageFactory = (messageActionId, messageSecurityToken, controllerId,
+                targetId) -> createUpdateMessage(tenant, modules, messageActionId, messageSecurityToken, controllerId,
+                        targetId);
+
+        final Message message;
+        if (updateMessageTemplateCache == null) {
+            message = messageFactory.createMessage(actionId, targetSecurityToken, target.getControllerId(),
+                    target.getId());
+        } else {
+            message = updateMessageTemplateCache.getMessage(tenant, modules, actionId, targetSecurityToken,
+                    target.getControllerId(), target.getId(), messageFactory);
+        }
+        amqpSenderService.sendMessage(message, targetAdress);
+    }
+
+    private Message createUpdateMessage(final String tenant,
+            final Collection<org.eclipse.hawkbit.repository.model.SoftwareModule> modules, final Long actionId,
+            final String targetSecurityToken, final String controllerId, final Long targetId) {
         final DownloadAndUpdateRequest downloadAndUpdateRequest = new DownloadAndUpdateRequest();
         downloadAndUpdateRequest.setActionId(actionId);
-
-        final String targetSecurityToken = systemSecurityContext.runAsSystem(target::getSecurityToken);
         downloadAndUpdateRequest.setTargetSecurityToken(targetSecurityToken);
 
+        final TenantMetaData tenantMetaData = systemManagement.getTenantMetadata();
         for (final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule : modules) {
-            final SoftwareModule amqpSoftwareModule = convertToAmqpSoftwareModule(target, softwareModule);
+            final SoftwareModule amqpSoftwareModule = convertToAmqpSoftwareModule(tenantMetaData, controllerId,
+                    targetId, softwareModule);
             downloadAndUpdateRequest.addSoftwareModule(amqpSoftwareModule);
         }
 
-        final Message message = getMessageConverter().toMessage(downloadAndUpdateRequest,
-                createConnectorMessageProperties(tenant, target.getControllerId(), EventTopic.DOWNLOAD_AND_INSTALL));
-        amqpSenderService.sendMessage(message, targetAdress);
+        return getMessageConverter().toMessage(downloadAndUpdateRequest,
+                createConnectorMessageProperties(tenant, controllerId, EventTopic.DOWNLOAD_AND_INSTALL));
     }
 
     /**
@@ -189,35 +241,38 @@ public class AmqpMessageDispatcherService extends BaseAmqpService {
         return messageProperties;
     }
 
-    private SoftwareModule convertToAmqpSoftwareModule(final Target target,
+    private SoftwareModule convertToAmqpSoftwareModule(final TenantMetaData tenantMetaData,
+            final String controllerId, final Long targetId,
             final org.eclipse.hawkbit.repository.model.SoftwareModule softwareModule) {
         final SoftwareModule amqpSoftwareModule = new SoftwareModule();
         amqpSoftwareModule.setModuleId(softwareModule.getId());
         amqpSoftwareModule.setModuleType(softwareModule.getType().getKey());
         amqpSoftwareModule.setModuleVersion(softwareModule.getVersion());
 
-        final List<Artifact> artifacts = convertArtifacts(target, softwareModule.getArtifacts());
+        final List<Artifact> artifacts = convertArtifacts(tenantMetaData, controllerId, targetId,
+                softwareModule.getArtifacts());
         amqpSoftwareModule.setArtifacts(artifacts);
         return amqpSoftwareModule;
     }
 
-    private List<Artifact> convertArtifacts(final Target target,
-            final List<org.eclipse.hawkbit.repository.model.Artifact> localArtifacts) {
+    private List<Artifact> convertArtifacts(final TenantMetaData tenantMetaData, final String controllerId,
+            final Long targetId, final List<org.eclipse.hawkbit.repository.model.Artifact> localArtifacts) {
         if (localArtifacts.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return localArtifacts.stream().map(localArtifact -> convertArtifact(target, localArtifact))
+        return localArtifacts.stream()
+                .map(localArtifact -> convertArtifact(tenantMetaData, controllerId, targetId, localArtifact))
                 .collect(Collectors.toList());
     }
 
-    private Artifact convertArtifact(final Target target,
-            final org.eclipse.hawkbit.repository.model.Artifact localArtifact) {
+    private Artifact convertArtifact(final TenantMetaData tenantMetaData, final String controllerId,
+            final Long targetId, final org.eclipse.hawkbit.repository.model.Artifact localArtifact) {
         final Artifact artifact = new Artifact();
 
         artifact.setUrls(artifactUrlHandler
-                .getUrls(new URLPlaceholder(systemManagement.getTenantMetadata().getTenant(),
-                        systemManagement.getTenantMetadata().getId(), target.getControllerId(), target.getId(),
+                .getUrls(new URLPlaceholder(tenantMetaData.getTenant(), tenantMetaData.getId(), controllerId,
+                        targetId,
                         new SoftwareData(localArtifact.getSoftwareModule().getId(), localArtifact.getFilename(),
                                 localArtifact.getId(), localArtifact.getSha1Hash())),
                         ApiType.DMF)
@@ -10,8 +10,13 @@ package org.eclipse.hawkbit.amqp;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -46,6 +51,8 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
 
+import com.google.common.collect.Maps;
+
 /**
  *
  * {@link AmqpMessageHandlerService} handles all incoming target interaction
@@ -63,6 +70,8 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
 
     private final EntityFactory entityFactory;
 
+    private final AmqpMessageRetryHandler retryHandler;
+
     /**
      * Constructor.
      * 
@@ -78,10 +87,33 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
     public AmqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
             final AmqpMessageDispatcherService amqpMessageDispatcherService,
             final ControllerManagement controllerManagement, final EntityFactory entityFactory) {
+        this(rabbitTemplate, amqpMessageDispatcherService, controllerManagement, entityFactory, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param rabbitTemplate
+     *            for converting messages
+     * @param amqpMessageDispatcherService
+     *            to sending events to DMF client
+     * @param controllerManagement
+     *            for target repo access
+     * @param entityFactory
+     *            to create entities
+     * @param retryHandler
+     *            to retry failed messages without blocking the consumer,
+     *            <code>null</code> if failed messages are requeued
+     */
+    public AmqpMessageHandlerService(final RabbitTemplate rabbitTemplate,
+            final AmqpMessageDispatcherService amqpMessageDispatcherService,
+            final ControllerManagement controllerManagement, final EntityFactory entityFactory,
+            final AmqpMessageRetryHandler retryHandler) {
         super(rabbitTemplate);
         this.amqpMessageDispatcherService = amqpMessageDispatcherService;
         this.controllerManagement = controllerManagement;
         this.entityFactory = entityFactory;
+        this.retryHandler = retryHandler;
     }
 
     /**
@@ -99,7 +131,15 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
     @RabbitListener(queues = "${hawkbit.dmf.rabbitmq.receiverQueue:dmf_receiver}", containerFactory = "listenerContainerFactory")
     public Message onMessage(final Message message, @Header(MessageHeaderKey.TYPE) final String type,
             @Header(MessageHeaderKey.TENANT) final String tenant) {
-        return onMessage(message, type, tenant, getRabbitTemplate().getConnectionFactory().getVirtualHost());
+        try {
+            return onMessage(message, type, tenant, getRabbitTemplate().getConnectionFactory().getVirtualHost());
+        } catch (final RuntimeException e) {
+            if (retryHandler == null) {
+                throw e;
+            }
+            retryHandler.retryOrReject(message, e);
+            return null;
+        }
     }
 
     /**
@@ -142,6 +182,163 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         return null;
     }
 
+    /**
+     * Handles a batch of DMF messages of one tenant in the order of their
+     * arrival. Consecutive target registrations and consecutive action status
+     * updates are each written in one shared transaction, all other messages
+     * are handled one by one like
+     * {@link #onMessage(Message, String, String, String)}. If a shared
+     * transaction fails its messages are handled one by one so that only the
+     * invalid messages fail.
+     *
+     * @param tenant
+     *            the tenant of all messages
+     * @param messages
+     *            the messages in the order of their arrival
+     * @param virtualHost
+     *            the virtual host
+     * @return the failed messages mapped to their failure. Messages that are
+     *         not contained have been handled successfully.
+     */
+    public Map<Message, RuntimeException> onMessages(final String tenant, final List<Message> messages,
+            final String virtualHost) {
+        final Map<Message, RuntimeException> failures = new IdentityHashMap<>();
+        final List<Message> registrations = new ArrayList<>();
+        final List<Message> statusUpdates = new ArrayList<>();
+
+        final SecurityContext oldContext = SecurityContextHolder.getContext();
+        try {
+            setTenantSecurityContext(tenant);
+            for (final Message message : messages) {
+                final Map<String, Object> headers = message.getMessageProperties().getHeaders();
+                final Object type = headers.get(MessageHeaderKey.TYPE);
+                if (MessageType.THING_CREATED.name().equals(type)) {
+                    if (!statusUpdates.isEmpty()) {
+                        handlePending(registrations, statusUpdates, virtualHost, failures);
+                    }
+                    registrations.add(message);
+                } else if (MessageType.EVENT.name().equals(type)
+                        && EventTopic.UPDATE_ACTION_STATUS.name().equals(headers.get(MessageHeaderKey.TOPIC))) {
+                    if (!registrations.isEmpty()) {
+                        handlePending(registrations, statusUpdates, virtualHost, failures);
+                    }
+                    statusUpdates.add(message);
+                } else {
+                    handlePending(registrations, statusUpdates, virtualHost, failures);
+                    handleOrRecordFailure(message, failures, () -> onMessage(message,
+                            getStringHeaderKey(message, MessageHeaderKey.TYPE, "Type is null"), tenant, virtualHost));
+                }
+            }
+            handlePending(registrations, statusUpdates, virtualHost, failures);
+        } finally {
+            SecurityContextHolder.setContext(oldContext);
+        }
+        return failures;
+    }
+
+    /**
+     * Handles the collected registrations or status updates, only one of them
+     * is collected at a time.
+     */
+    private void handlePending(final List<Message> registrations, final List<Message> statusUpdates,
+            final String virtualHost, final Map<Message, RuntimeException> failures) {
+        registerTargets(registrations, virtualHost, failures);
+        registrations.clear();
+        updateActionStatuses(statusUpdates, failures);
+        statusUpdates.clear();
+    }
+
+    private static void handleOrRecordFailure(final Message message, final Map<Message, RuntimeException> failures,
+            final Runnable handler) {
+        try {
+            handler.run();
+        } catch (final IllegalArgumentException ex) {
+            failures.put(message, new AmqpRejectAndDontRequeueException("Invalid message!", ex));
+        } catch (final RuntimeException ex) {
+            failures.put(message, ex);
+        }
+    }
+
+    private void registerTargets(final List<Message> messages, final String virtualHost,
+            final Map<Message, RuntimeException> failures) {
+        final List<Message> valid = new ArrayList<>(messages.size());
+        final List<String> thingIds = new ArrayList<>(messages.size());
+        final Map<String, URI> targets = new LinkedHashMap<>();
+        for (final Message message : messages) {
+            handleOrRecordFailure(message, failures, () -> {
+                checkContentTypeJson(message);
+                final String thingId = getStringHeaderKey(message, MessageHeaderKey.THING_ID, "ThingId is null");
+                targets.put(thingId, IpUtil.createAmqpUri(virtualHost, getReplyTo(message)));
+                valid.add(message);
+                thingIds.add(thingId);
+            });
+        }
+
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        final List<Target> registered;
+        try {
+            registered = controllerManagement.findOrRegisterTargetsIfTheyDoNotExist(targets);
+        } catch (final RuntimeException e) {
+            LOG.warn("Registration of {} targets in one transaction failed, registering them one by one.",
+                    targets.size(), e);
+            valid.forEach(message -> handleOrRecordFailure(message, failures,
+                    () -> registerTarget(message, virtualHost)));
+            return;
+        }
+        LOG.debug("{} targets reported online state.", registered.size());
+
+        // the targets are returned in the order of the thing IDs
+        final Map<String, Target> targetsByThingId = Maps.newHashMapWithExpectedSize(registered.size());
+        final Iterator<String> registeredIds = targets.keySet().iterator();
+        registered.forEach(target -> targetsByThingId.put(registeredIds.next(), target));
+
+        for (int i = 0; i < valid.size(); i++) {
+            final Target target = targetsByThingId.get(thingIds.get(i));
+            handleOrRecordFailure(valid.get(i), failures, () -> lookIfUpdateAvailable(target));
+        }
+    }
+
+    private void updateActionStatuses(final List<Message> messages, final Map<Message, RuntimeException> failures) {
+        final List<Message> valid = new ArrayList<>(messages.size());
+        final List<Action> actions = new ArrayList<>(messages.size());
+        final List<ActionStatusCreate> creates = new ArrayList<>(messages.size());
+        for (final Message message : messages) {
+            handleOrRecordFailure(message, failures, () -> {
+                checkContentTypeJson(message);
+                final ActionUpdateStatus actionUpdateStatus = convertMessage(message, ActionUpdateStatus.class);
+                final Action action = checkActionExist(message, actionUpdateStatus);
+                final Status status = mapStatus(message, actionUpdateStatus, action);
+                creates.add(createActionStatus(message, actionUpdateStatus, action, status));
+                actions.add(action);
+                valid.add(message);
+            });
+        }
+
+        if (creates.isEmpty()) {
+            return;
+        }
+
+        final List<Action> updated;
+        try {
+            updated = controllerManagement.addActionStatuses(creates);
+        } catch (final RuntimeException e) {
+            LOG.warn("Update of {} action status in one transaction failed, updating them one by one.",
+                    creates.size(), e);
+            valid.forEach(message -> handleOrRecordFailure(message, failures, () -> updateActionStatus(message)));
+            return;
+        }
+
+        for (int i = 0; i < valid.size(); i++) {
+            if (!updated.get(i).isActive()) {
+                final Target target = actions.get(i).getTarget();
+                handleOrRecordFailure(valid.get(i), failures, () -> lookIfUpdateAvailable(target));
+            }
+        }
+    }
+
     private static void setSecurityContext(final Authentication authentication) {
         final SecurityContextImpl securityContextImpl = new SecurityContextImpl();
         securityContextImpl.setAuthentication(authentication);
@@ -166,17 +363,20 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
      */
     private void registerTarget(final Message message, final String virtualHost) {
         final String thingId = getStringHeaderKey(message, MessageHeaderKey.THING_ID, "ThingId is null");
+        final URI amqpUri = IpUtil.createAmqpUri(virtualHost, getReplyTo(message));
+        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(thingId, amqpUri);
+        LOG.debug("Target {} reported online state.", thingId);
+
+        lookIfUpdateAvailable(target);
+    }
+
+    private static String getReplyTo(final Message message) {
         final String replyTo = message.getMessageProperties().getReplyTo();
 
         if (StringUtils.isEmpty(replyTo)) {
             logAndThrowMessageError(message, "No ReplyTo was set for the createThing message.");
         }
-
-        final URI amqpUri = IpUtil.createAmqpUri(virtualHost, replyTo);
-        final Target target = controllerManagement.findOrRegisterTargetIfItDoesNotexist(thingId, amqpUri);
-        LOG.debug("Target {} reported online state.", thingId);
-
-        lookIfUpdateAvailable(target);
+        return replyTo;
     }
 
     private void lookIfUpdateAvailable(final Target target) {
@@ -239,17 +439,10 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         final ActionUpdateStatus actionUpdateStatus = convertMessage(message, ActionUpdateStatus.class);
         final Action action = checkActionExist(message, actionUpdateStatus);
 
-        final List<String> messages = actionUpdateStatus.getMessage();
-        if (ArrayUtils.isNotEmpty(message.getMessageProperties().getCorrelationId())) {
-            messages.add(RepositoryConstants.SERVER_MESSAGE_PREFIX + "DMF message correlation-id "
-                    + convertCorrelationId(message));
-        }
-
         updateLastPollTime(action.getTarget());
 
         final Status status = mapStatus(message, actionUpdateStatus, action);
-        final ActionStatusCreate actionStatus = entityFactory.actionStatus().create(action.getId()).status(status)
-                .messages(messages);
+        final ActionStatusCreate actionStatus = createActionStatus(message, actionUpdateStatus, action, status);
 
         final Action addUpdateActionStatus = getUpdateActionStatus(status, actionStatus);
 
@@ -258,6 +451,17 @@ public class AmqpMessageHandlerService extends BaseAmqpService {
         }
     }
 
+    private ActionStatusCreate createActionStatus(final Message message, final ActionUpdateStatus actionUpdateStatus,
+            final Action action, final Status status) {
+        final List<String> messages = actionUpdateStatus.getMessage();
+        if (ArrayUtils.isNotEmpty(message.getMessageProperties().getCorrelationId())) {
+            messages.add(RepositoryConstants.SERVER_MESSAGE_PREFIX + "DMF message correlation-id "
+                    + convertCorrelationId(message));
+        }
+
+        return entityFactory.actionStatus().create(action.getId()).status(status).messages(messages);
+    }
+
     private Status mapStatus(final Message message, final ActionUpdateStatus actionUpdateStatus, final Action action) {
         Status status = null;
         switch (actionUpdateStatus.getActionStatus()) {
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.FatalExceptionStrategy;
+import org.springframework.amqp.rabbit.listener.exception.ListenerExecutionFailedException;
+
+/**
+ * Retries failed DMF messages without blocking the consumer. A failed message
+ * is published to the retry exchange with a retry counter in its headers and
+ * an exponentially growing expiration. The retry queue dead-letters the
+ * message back to the receiver queue once it has expired. Messages that
+ * cannot succeed or exceeded {@link AmqpProperties#getRetryMaxAttempts()} are
+ * rejected, i.e. routed to the dead letter queue.
+ *
+ * As RabbitMQ expires messages only at the head of a queue a message with a
+ * short delay might wait behind a message with a longer delay.
+ */
+public class AmqpMessageRetryHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AmqpMessageRetryHandler.class);
+
+    /**
+     * Header with the number of retries of a message.
+     */
+    public static final String RETRY_COUNT_HEADER = "x-hawkbit-retry-count";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final AmqpProperties amqpProperties;
+
+    private final FatalExceptionStrategy exceptionStrategy;
+
+    /**
+     * Constructor.
+     *
+     * @param rabbitTemplate
+     *            to publish the messages to the retry exchange
+     * @param amqpProperties
+     *            with the retry configuration
+     */
+    public AmqpMessageRetryHandler(final RabbitTemplate rabbitTemplate, final AmqpProperties amqpProperties) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpProperties = amqpProperties;
+        // classifies the failures without delay
+        this.exceptionStrategy = new DelayedRequeueExceptionStrategy(0);
+    }
+
+    /**
+     * Publishes the failed message to the retry exchange. The failed delivery
+     * can be acknowledged afterwards.
+     *
+     * @param message
+     *            that failed
+     * @param failure
+     *            of the message
+     *
+     * @throws AmqpRejectAndDontRequeueException
+     *             if the message is not retried and has to be rejected
+     */
+    public void retryOrReject(final Message message, final RuntimeException failure) {
+        if (failure instanceof AmqpRejectAndDontRequeueException) {
+            throw failure;
+        }
+        if (exceptionStrategy.isFatal(new ListenerExecutionFailedException("Listener threw exception", failure,
+                message))) {
+            throw new AmqpRejectAndDontRequeueException("Invalid message!", failure);
+        }
+
+        final MessageProperties messageProperties = message.getMessageProperties();
+        final int retries = getRetryCount(messageProperties);
+        if (retries >= amqpProperties.getRetryMaxAttempts()) {
+            throw new AmqpRejectAndDontRequeueException("Message failed after " + retries + " retries", failure);
+        }
+
+        final long delay = getDelay(retries);
+        LOG.warn("Message failed, retry {} in {} ms: {}", retries + 1, delay, message, failure);
+
+        messageProperties.setHeader(RETRY_COUNT_HEADER, retries + 1);
+        messageProperties.setExpiration(Long.toString(delay));
+        if (messageProperties.getReceivedDeliveryMode() != null) {
+            messageProperties.setDeliveryMode(messageProperties.getReceivedDeliveryMode());
+        }
+        rabbitTemplate.send(amqpProperties.getRetryExchange(), "", message);
+    }
+
+    /**
+     * @param retries
+     *            number of retries so far
+     * @return the delay of the next retry in milliseconds
+     */
+    long getDelay(final int retries) {
+        final double delay = amqpProperties.getRetryInitialDelay()
+                * Math.pow(amqpProperties.getRetryMultiplier(), retries);
+        return (long) Math.min(delay, amqpProperties.getRetryMaxDelay());
+    }
+
+    private static int getRetryCount(final MessageProperties messageProperties) {
+        final Object retries = messageProperties.getHeaders().get(RETRY_COUNT_HEADER);
+        if (retries instanceof Number) {
+            return ((Number) retries).intValue();
+        }
+        return retries == null ? 0 : NumberUtils.toInt(retries.toString());
+    }
+}
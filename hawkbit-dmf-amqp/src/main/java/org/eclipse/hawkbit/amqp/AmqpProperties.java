@@ -32,6 +32,30 @@ public class AmqpProperties {
 
     private static final long DEFAULT_REQUEUE_DELAY = 0;
 
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final long DEFAULT_BATCH_FLUSH_INTERVAL = 50;
+
+    private static final int DEFAULT_RETRY_MAX_ATTEMPTS = 5;
+
+    private static final long DEFAULT_RETRY_INITIAL_DELAY = 1_000;
+
+    private static final double DEFAULT_RETRY_MULTIPLIER = 2.0;
+
+    private static final long DEFAULT_RETRY_MAX_DELAY = 60_000;
+
+    private static final int DEFAULT_SENDER_QUEUE_CAPACITY = 10_000;
+
+    private static final int DEFAULT_SENDER_BATCH_SIZE = 100;
+
+    private static final int DEFAULT_SENDER_MAX_IN_FLIGHT = 1_000;
+
+    private static final int DEFAULT_SENDER_MAX_RETRIES = 3;
+
+    private static final long DEFAULT_SENDER_OFFER_TIMEOUT = 1_000;
+
+    private static final int DEFAULT_UPDATE_MESSAGE_TEMPLATE_CACHE_SIZE = 1_000;
+
     /**
      * Enable DMF API based on AMQP 0.9
      */
@@ -94,10 +118,258 @@ public class AmqpProperties {
     private int declarationRetries = DEFAULT_QUEUE_DECLARATION_RETRIES;
 
     /**
-     * Delay for messages that are requeued in milliseconds.
+     * Delay for messages that are requeued in milliseconds. Blocks the
+     * consumer, i.e. only used for messages that are not retried through the
+     * retry queue.
      */
     private long requeueDelay = DEFAULT_REQUEUE_DELAY;
 
+    /**
+     * Retry failed messages of the receiver queue through the retry queue
+     * instead of requeueing them with {@link #requeueDelay}.
+     */
+    private boolean retryEnabled = true;
+
+    /**
+     * Exchange of the retry queue.
+     */
+    private String retryExchange = "dmf.receiver.retry";
+
+    /**
+     * Queue in which failed messages wait for their retry. The messages are
+     * dead-lettered back to the receiver queue once their delay has expired.
+     */
+    private String retryQueue = "dmf_receiver_retry";
+
+    /**
+     * Number of retries of a failed message before it is routed to the dead
+     * letter queue.
+     */
+    private int retryMaxAttempts = DEFAULT_RETRY_MAX_ATTEMPTS;
+
+    /**
+     * Delay of the first retry in milliseconds.
+     */
+    private long retryInitialDelay = DEFAULT_RETRY_INITIAL_DELAY;
+
+    /**
+     * Factor by which the delay is increased with every retry.
+     */
+    private double retryMultiplier = DEFAULT_RETRY_MULTIPLIER;
+
+    /**
+     * Upper limit of the retry delay in milliseconds.
+     */
+    private long retryMaxDelay = DEFAULT_RETRY_MAX_DELAY;
+
+    /**
+     * Send the DMF messages through a bounded outbound queue in batches with
+     * asynchronous tracking of the publisher confirms. Requires a connection
+     * factory with publisher confirms enabled.
+     */
+    private boolean senderBatching;
+
+    /**
+     * Capacity of the outbound queue.
+     */
+    private int senderQueueCapacity = DEFAULT_SENDER_QUEUE_CAPACITY;
+
+    /**
+     * Maximum number of messages that are published as one batch.
+     */
+    private int senderBatchSize = DEFAULT_SENDER_BATCH_SIZE;
+
+    /**
+     * Maximum number of published messages that are not confirmed by the
+     * broker yet.
+     */
+    private int senderMaxInFlight = DEFAULT_SENDER_MAX_IN_FLIGHT;
+
+    /**
+     * Number of times a message is published again after it has been nacked
+     * by the broker.
+     */
+    private int senderMaxRetries = DEFAULT_SENDER_MAX_RETRIES;
+
+    /**
+     * Time in milliseconds a sender waits for space in the full outbound
+     * queue before it publishes the message on its own.
+     */
+    private long senderOfferTimeout = DEFAULT_SENDER_OFFER_TIMEOUT;
+
+    /**
+     * Render the download and update messages of the targets from templates
+     * per tenant and software module content.
+     */
+    private boolean updateMessageTemplates = true;
+
+    /**
+     * Maximum number of cached download and update message templates.
+     */
+    private int updateMessageTemplateCacheSize = DEFAULT_UPDATE_MESSAGE_TEMPLATE_CACHE_SIZE;
+
+    /**
+     * Consume the DMF messages of the receiver queue in batches, i.e. target
+     * registrations and action status updates of a tenant are stored in
+     * shared transactions.
+     */
+    private boolean batchConsumer;
+
+    /**
+     * Maximum number of messages of a tenant that are handled as one batch.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Maximum time in milliseconds a message waits for its batch to be
+     * filled.
+     */
+    private long batchFlushInterval = DEFAULT_BATCH_FLUSH_INTERVAL;
+
+    public boolean isUpdateMessageTemplates() {
+        return updateMessageTemplates;
+    }
+
+    public void setUpdateMessageTemplates(final boolean updateMessageTemplates) {
+        this.updateMessageTemplates = updateMessageTemplates;
+    }
+
+    public int getUpdateMessageTemplateCacheSize() {
+        return updateMessageTemplateCacheSize;
+    }
+
+    public void setUpdateMessageTemplateCacheSize(final int updateMessageTemplateCacheSize) {
+        this.updateMessageTemplateCacheSize = updateMessageTemplateCacheSize;
+    }
+
+    public boolean isSenderBatching() {
+        return senderBatching;
+    }
+
+    public void setSenderBatching(final boolean senderBatching) {
+        this.senderBatching = senderBatching;
+    }
+
+    public int getSenderQueueCapacity() {
+        return senderQueueCapacity;
+    }
+
+    public void setSenderQueueCapacity(final int senderQueueCapacity) {
+        this.senderQueueCapacity = senderQueueCapacity;
+    }
+
+    public int getSenderBatchSize() {
+        return senderBatchSize;
+    }
+
+    public void setSenderBatchSize(final int senderBatchSize) {
+        this.senderBatchSize = senderBatchSize;
+    }
+
+    public int getSenderMaxInFlight() {
+        return senderMaxInFlight;
+    }
+
+    public void setSenderMaxInFlight(final int senderMaxInFlight) {
+        this.senderMaxInFlight = senderMaxInFlight;
+    }
+
+    public int getSenderMaxRetries() {
+        return senderMaxRetries;
+    }
+
+    public void setSenderMaxRetries(final int senderMaxRetries) {
+        this.senderMaxRetries = senderMaxRetries;
+    }
+
+    public long getSenderOfferTimeout() {
+        return senderOfferTimeout;
+    }
+
+    public void setSenderOfferTimeout(final long senderOfferTimeout) {
+        this.senderOfferTimeout = senderOfferTimeout;
+    }
+
+    public boolean isRetryEnabled() {
+        return retryEnabled;
+    }
+
+    public void setRetryEnabled(final boolean retryEnabled) {
+        this.retryEnabled = retryEnabled;
+    }
+
+    public String getRetryExchange() {
+        return retryExchange;
+    }
+
+    public void setRetryExchange(final String retryExchange) {
+        this.retryExchange = retryExchange;
+    }
+
+    public String getRetryQueue() {
+        return retryQueue;
+    }
+
+    public void setRetryQueue(final String retryQueue) {
+        this.retryQueue = retryQueue;
+    }
+
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public void setRetryMaxAttempts(final int retryMaxAttempts) {
+        this.retryMaxAttempts = retryMaxAttempts;
+    }
+
+    public long getRetryInitialDelay() {
+        return retryInitialDelay;
+    }
+
+    public void setRetryInitialDelay(final long retryInitialDelay) {
+        this.retryInitialDelay = retryInitialDelay;
+    }
+
+    public double getRetryMultiplier() {
+        return retryMultiplier;
+    }
+
+    public void setRetryMultiplier(final double retryMultiplier) {
+        this.retryMultiplier = retryMultiplier;
+    }
+
+    public long getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public void setRetryMaxDelay(final long retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
+    public boolean isBatchConsumer() {
+        return batchConsumer;
+    }
+
+    public void setBatchConsumer(final boolean batchConsumer) {
+        this.batchConsumer = batchConsumer;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchFlushInterval() {
+        return batchFlushInterval;
+    }
+
+    public void setBatchFlushInterval(final long batchFlushInterval) {
+        this.batchFlushInterval = batchFlushInterval;
+    }
+
     public long getRequeueDelay() {
         return requeueDelay;
     }
@@ -0,0 +1,420 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.util.IpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.PublisherCallbackChannelConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.CorrelationData;
+
+/**
+ * {@link AmqpSenderService} for high message rates. Messages are put into a
+ * bounded outbound queue and published by a sender thread in batches, i.e.
+ * the messages of a batch are grouped by exchange and published on one
+ * channel each. The publisher confirms are tracked asynchronously and nacked
+ * messages are published again up to {@link AmqpProperties#getSenderMaxRetries()}
+ * times.
+ *
+ * Backpressure is applied by limiting the number of unconfirmed messages. If
+ * the outbound queue stays full for {@link AmqpProperties#getSenderOfferTimeout()}
+ * the calling thread publishes the message on its own and is thereby throttled
+ * by the broker.
+ *
+ * The given {@link RabbitTemplate} is exclusively used by this service as it
+ * registers its own confirm callback. Its connection factory must have
+ * publisher confirms enabled as the unconfirmed messages are only released by
+ * the confirmations of the broker.
+ */
+public class BatchingAmqpSenderService implements AmqpSenderService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingAmqpSenderService.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final RabbitTemplate internalAmqpTemplate;
+
+    private final BlockingQueue<OutboundMessage> outboundQueue;
+
+    private final Map<String, OutboundMessage> pendingConfirms = new ConcurrentHashMap<>();
+
+    private final Semaphore inFlight;
+
+    private final int batchSize;
+
+    private final int maxRetries;
+
+    private final long offerTimeout;
+
+    private final LongAdder confirms = new LongAdder();
+
+    private final LongAdder confirmLatencyNanos = new LongAdder();
+
+    private final LongAccumulator maxConfirmLatencyNanos = new LongAccumulator(Long::max, 0);
+
+    private final AtomicLong nacks = new AtomicLong();
+
+    private final AtomicLong retries = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+
+    private Thread senderThread;
+
+    /**
+     * Constructor.
+     *
+     * @param internalAmqpTemplate
+     *            the amqp template, must not be shared as the service
+     *            registers its confirm callback
+     * @param amqpProperties
+     *            to configure the queue, batches and retries
+     * @throws IllegalArgumentException
+     *             if the connection factory of the template has no publisher
+     *             confirms enabled
+     */
+    public BatchingAmqpSenderService(final RabbitTemplate internalAmqpTemplate,
+            final AmqpProperties amqpProperties) {
+        if (!isPublisherConfirms(internalAmqpTemplate.getConnectionFactory())) {
+            throw new IllegalArgumentException("Batching of DMF messages requires a connection factory with "
+                    + "publisher confirms, disable hawkbit.dmf.rabbitmq.senderBatching or enable publisher confirms.");
+        }
+        this.internalAmqpTemplate = internalAmqpTemplate;
+        this.outboundQueue = new ArrayBlockingQueue<>(amqpProperties.getSenderQueueCapacity());
+        this.batchSize = Math.max(1, amqpProperties.getSenderBatchSize());
+        this.inFlight = new Semaphore(Math.max(1, amqpProperties.getSenderMaxInFlight()));
+        this.maxRetries = amqpProperties.getSenderMaxRetries();
+        this.offerTimeout = amqpProperties.getSenderOfferTimeout();
+        internalAmqpTemplate.setConfirmCallback(this::onConfirm);
+    }
+
+    private static boolean isPublisherConfirms(final ConnectionFactory connectionFactory) {
+        return connectionFactory instanceof PublisherCallbackChannelConnectionFactory
+                && ((PublisherCallbackChannelConnectionFactory) connectionFactory).isPublisherConfirms();
+    }
+
+    /**
+     * Starts the sender thread.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        senderThread = new Thread(this::run, "amqp-sender");
+        senderThread.setDaemon(true);
+        senderThread.start();
+    }
+
+    /**
+     * Stops the sender thread after the queued messages have been published.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (senderThread == null) {
+            return;
+        }
+        try {
+            senderThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (senderThread.isAlive()) {
+            LOGGER.warn("Sender thread did not finish in time, {} messages are not sent.", outboundQueue.size());
+            senderThread.interrupt();
+        }
+    }
+
+    @Override
+    public void sendMessage(final Message message, final URI replyTo) {
+        if (!IpUtil.isAmqpUri(replyTo)) {
+            return;
+        }
+
+        final String correlationId = UUID.randomUUID().toString();
+        final String exchange = extractExchange(replyTo);
+        message.getMessageProperties().setCorrelationId(correlationId.getBytes(StandardCharsets.UTF_8));
+
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Queueing message {} to exchange {} with correlationId {}", message, exchange, correlationId);
+        } else {
+            LOGGER.debug("Queueing message to exchange {} with correlationId {}", exchange, correlationId);
+        }
+
+        final OutboundMessage outbound = new OutboundMessage(correlationId, exchange, message);
+        if (!offer(outbound)) {
+            // the broker does not keep up, i.e. the caller is throttled by
+            // publishing on its own
+            try {
+                publish(internalAmqpTemplate, outbound);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+                LOGGER.error("Interrupted while sending message to exchange {} with correlationId {}", exchange,
+                        correlationId);
+            }
+        }
+    }
+
+    private boolean offer(final OutboundMessage outbound) {
+        if (!running) {
+            return false;
+        }
+        try {
+            return outboundQueue.offer(outbound, offerTimeout, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void run() {
+        final List<OutboundMessage> batch = new ArrayList<>(batchSize);
+        while (running || !outboundQueue.isEmpty()) {
+            try {
+                final OutboundMessage first = outboundQueue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                outboundQueue.drainTo(batch, batchSize - 1);
+                publishBatch(batch);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publishBatch(final List<OutboundMessage> batch) {
+        final Map<String, List<OutboundMessage>> byExchange = new LinkedHashMap<>();
+        batch.forEach(outbound -> byExchange.computeIfAbsent(outbound.getExchange(), key -> new ArrayList<>())
+                .add(outbound));
+
+        for (final List<OutboundMessage> messages : byExchange.values()) {
+            try {
+                // all messages of an exchange are published on one channel
+                internalAmqpTemplate.invoke(operations -> {
+                    for (final OutboundMessage outbound : messages) {
+                        publishUninterruptibly(operations, outbound);
+                    }
+                    return null;
+                });
+            } catch (final AmqpException e) {
+                LOGGER.error("Publishing to exchange {} failed.", messages.get(0).getExchange(), e);
+                messages.stream().filter(outbound -> !outbound.isPublished())
+                        .forEach(outbound -> retryOrDrop(outbound, e.getMessage()));
+            }
+        }
+    }
+
+    private void publishUninterruptibly(final RabbitOperations operations, final OutboundMessage outbound) {
+        try {
+            publish(operations, outbound);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while waiting for publisher confirms", e);
+        }
+    }
+
+    private void publish(final RabbitOperations operations, final OutboundMessage outbound)
+            throws InterruptedException {
+        inFlight.acquire();
+        outbound.markPublished();
+        pendingConfirms.put(outbound.getCorrelationId(), outbound);
+        try {
+            operations.send(outbound.getExchange(), null, outbound.getMessage(),
+                    new CorrelationData(outbound.getCorrelationId()));
+        } catch (final AmqpException e) {
+            if (pendingConfirms.remove(outbound.getCorrelationId()) != null) {
+                inFlight.release();
+                retryOrDrop(outbound, e.getMessage());
+            }
+        }
+    }
+
+    private void onConfirm(final CorrelationData correlationData, final boolean ack, final String cause) {
+        if (correlationData == null) {
+            return;
+        }
+        final OutboundMessage outbound = pendingConfirms.remove(correlationData.getId());
+        if (outbound == null) {
+            return;
+        }
+        inFlight.release();
+
+        if (ack) {
+            final long latency = System.nanoTime() - outbound.getPublishedAt();
+            confirms.increment();
+            confirmLatencyNanos.add(latency);
+            maxConfirmLatencyNanos.accumulate(latency);
+            LOGGER.debug("Message with correlationId {} confirmed by broker.", outbound.getCorrelationId());
+            return;
+        }
+
+        nacks.incrementAndGet();
+        LOGGER.warn("Broker is unable to handle message with correlationId {} : {}", outbound.getCorrelationId(),
+                cause);
+        retryOrDrop(outbound, cause);
+    }
+
+    private void retryOrDrop(final OutboundMessage outbound, final String cause) {
+        // called from the connection thread as well, i.e. must not block
+        if (outbound.getAttempts() <= maxRetries && running && outboundQueue.offer(outbound.nextAttempt())) {
+            retries.incrementAndGet();
+            return;
+        }
+
+        dropped.incrementAndGet();
+        LOGGER.error("Message to exchange {} with correlationId {} dropped after {} attempts: {}",
+                outbound.getExchange(), outbound.getCorrelationId(), outbound.getAttempts(), cause);
+    }
+
+    /**
+     * @return number of messages that wait in the outbound queue
+     */
+    public int getQueueDepth() {
+        return outboundQueue.size();
+    }
+
+    /**
+     * @return number of published messages that are not confirmed yet
+     */
+    public int getInFlightCount() {
+        return pendingConfirms.size();
+    }
+
+    /**
+     * @return number of messages that have been confirmed by the broker
+     */
+    public long getConfirmCount() {
+        return confirms.sum();
+    }
+
+    /**
+     * @return average time between publishing and confirmation of a message
+     *         in milliseconds
+     */
+    public double getAverageConfirmLatencyMillis() {
+        final long count = confirms.sum();
+        return count == 0 ? 0 : confirmLatencyNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return maximum time between publishing and confirmation of a message
+     *         in milliseconds
+     */
+    public long getMaxConfirmLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxConfirmLatencyNanos.get());
+    }
+
+    /**
+     * @return number of messages that have been nacked by the broker
+     */
+    public long getNackCount() {
+        return nacks.get();
+    }
+
+    /**
+     * @return number of messages that have been published again
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * @return number of messages that could not be sent
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private static final class OutboundMessage {
+
+        private final String correlationId;
+
+        private final String exchange;
+
+        private final Message message;
+
+        private volatile int attempts = 1;
+
+        private volatile boolean published;
+
+        private volatile long publishedAt;
+
+        private OutboundMessage(final String correlationId, final String exchange, final Message message) {
+            this.correlationId = correlationId;
+            this.exchange = exchange;
+            this.message = message;
+        }
+
+        private String getCorrelationId() {
+            return correlationId;
+        }
+
+        private String getExchange() {
+            return exchange;
+        }
+
+        private Message getMessage() {
+            return message;
+        }
+
+        private int getAttempts() {
+            return attempts;
+        }
+
+        private boolean isPublished() {
+            return published;
+        }
+
+        private long getPublishedAt() {
+            return publishedAt;
+        }
+
+        private void markPublished() {
+            published = true;
+            publishedAt = System.nanoTime();
+        }
+
+        private OutboundMessage nextAttempt() {
+            attempts++;
+            published = false;
+            return this;
+        }
+    }
+}
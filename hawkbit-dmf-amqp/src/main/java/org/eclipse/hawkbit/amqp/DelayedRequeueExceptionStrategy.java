@@ -31,6 +31,10 @@ import org.springframework.messaging.MessageHandlingException;
  * by means of blocking the processing thread for a certain amount of time. That
  * avoids a back and forth between broker and hawkBit at maximum speed.
  *
+ * Messages of the DMF receiver queue are retried by the
+ * {@link AmqpMessageRetryHandler} without blocking unless
+ * {@link AmqpProperties#isRetryEnabled()} is switched off.
+ *
  */
 public class DelayedRequeueExceptionStrategy extends ConditionalRejectingErrorHandler.DefaultExceptionStrategy {
     private static final Logger LOG = LoggerFactory.getLogger(DelayedRequeueExceptionStrategy.class);
@@ -51,6 +55,10 @@ public class DelayedRequeueExceptionStrategy extends ConditionalRejectingErrorHa
             return true;
         }
 
+        if (delay <= 0) {
+            return false;
+        }
+
         LOG.error("Found a message that has to be requeued. Processing with delay of {}ms: ", delay, cause);
 
         try {
@@ -0,0 +1,360 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.Base62Util;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.eclipse.hawkbit.repository.model.SoftwareModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Cache of pre-rendered DMF {@link EventTopic#DOWNLOAD_AND_INSTALL} messages.
+ * The messages of all targets that get the same software modules assigned only
+ * differ in the action ID, the security token, the controller ID and the target
+ * ID (as part of the download URLs). So the message is rendered once per tenant
+ * and software module content with unique marker values for these fields and
+ * split at the markers. The messages of the targets are created by splicing in
+ * their values.
+ *
+ * A template is only used if it renders exactly the message the
+ * {@link MessageFactory} creates for a second set of marker values. Otherwise,
+ * e.g. if the {@link ArtifactUrlHandler} encodes one of the fields, every
+ * message is created by the {@link MessageFactory}.
+ */
+public class UpdateMessageTemplateCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UpdateMessageTemplateCache.class);
+
+    private final Cache<TemplateKey, Optional<MessageTemplate>> templates;
+
+    /**
+     * Creates the message of a target without template.
+     */
+    @FunctionalInterface
+    public interface MessageFactory {
+
+        /**
+         * @param actionId
+         *            of the update
+         * @param targetSecurityToken
+         *            of the target
+         * @param controllerId
+         *            of the target
+         * @param targetId
+         *            of the target
+         * @return the message
+         */
+        Message createMessage(Long actionId, String targetSecurityToken, String controllerId, Long targetId);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize
+     *            maximum number of cached templates
+     */
+    public UpdateMessageTemplateCache(final int maxSize) {
+        this.templates = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+    }
+
+    /**
+     * Returns the message of the target that is rendered from the template of
+     * the given software modules.
+     *
+     * @param tenant
+     *            of the target
+     * @param modules
+     *            that are assigned to the target
+     * @param actionId
+     *            of the update
+     * @param targetSecurityToken
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param targetId
+     *            of the target
+     * @param messageFactory
+     *            to render the template and to create the message if no
+     *            template can be used
+     * @return the message
+     */
+    public Message getMessage(final String tenant, final Collection<SoftwareModule> modules, final Long actionId,
+            final String targetSecurityToken, final String controllerId, final Long targetId,
+            final MessageFactory messageFactory) {
+        final TargetValues values = new TargetValues(actionId, targetSecurityToken, controllerId, targetId);
+        if (!values.isComplete()) {
+            return values.createMessage(messageFactory);
+        }
+
+        final TemplateKey key = new TemplateKey(tenant, modules);
+        Optional<MessageTemplate> template = templates.getIfPresent(key);
+        if (template == null) {
+            // concurrent compilations of the same template are harmless
+            template = compile(messageFactory);
+            templates.put(key, template);
+        }
+
+        return template.map(compiled -> compiled.render(values))
+                .orElseGet(() -> values.createMessage(messageFactory));
+    }
+
+    /**
+     * @return statistics of the template lookups
+     */
+    public CacheStats getStats() {
+        return templates.stats();
+    }
+
+    /**
+     * Removes all templates.
+     */
+    public void invalidateAll() {
+        templates.invalidateAll();
+    }
+
+    private static Optional<MessageTemplate> compile(final MessageFactory messageFactory) {
+        final TargetValues markers = TargetValues.randomMarkers("");
+        final Message message = markers.createMessage(messageFactory);
+        final String contentType = message.getMessageProperties().getContentType();
+        if (contentType == null || !contentType.contains("json")) {
+            return Optional.empty();
+        }
+
+        final MessageTemplate template = MessageTemplate.compile(message, markers);
+
+        // values that have to be escaped in JSON
+        final TargetValues check = TargetValues.randomMarkers("\"\\ä");
+        if (!template.matches(check.createMessage(messageFactory), check)) {
+            LOG.debug("Message cannot be rendered from template, creating it for every target.");
+            return Optional.empty();
+        }
+        return Optional.of(template);
+    }
+
+    /**
+     * Fields of the message that differ per target.
+     */
+    private enum Field {
+        ACTION_ID {
+            @Override
+            String render(final TargetValues values) {
+                return String.valueOf(values.actionId);
+            }
+        },
+        TARGET_SECURITY_TOKEN {
+            @Override
+            String render(final TargetValues values) {
+                return escape(values.targetSecurityToken);
+            }
+        },
+        CONTROLLER_ID {
+            @Override
+            String render(final TargetValues values) {
+                return escape(values.controllerId);
+            }
+        },
+        TARGET_ID {
+            @Override
+            String render(final TargetValues values) {
+                return String.valueOf(values.targetId);
+            }
+        },
+        TARGET_ID_BASE62 {
+            @Override
+            String render(final TargetValues values) {
+                return Base62Util.fromBase10(values.targetId);
+            }
+        };
+
+        abstract String render(TargetValues values);
+
+        private static String escape(final String value) {
+            return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+        }
+    }
+
+    private static final class TargetValues {
+        private final Long actionId;
+        private final String targetSecurityToken;
+        private final String controllerId;
+        private final Long targetId;
+
+        private TargetValues(final Long actionId, final String targetSecurityToken, final String controllerId,
+                final Long targetId) {
+            this.actionId = actionId;
+            this.targetSecurityToken = targetSecurityToken;
+            this.controllerId = controllerId;
+            this.targetId = targetId;
+        }
+
+        private static TargetValues randomMarkers(final String suffix) {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            // 19 digits, i.e. the markers cannot be part of each other
+            return new TargetValues(random.nextLong(1_000_000_000_000_000_000L, Long.MAX_VALUE),
+                    randomString() + suffix, randomString() + suffix,
+                    random.nextLong(1_000_000_000_000_000_000L, Long.MAX_VALUE));
+        }
+
+        private static String randomString() {
+            return UUID.randomUUID().toString().replace("-", "");
+        }
+
+        private boolean isComplete() {
+            return actionId != null && targetSecurityToken != null && controllerId != null && targetId != null;
+        }
+
+        private Message createMessage(final MessageFactory messageFactory) {
+            return messageFactory.createMessage(actionId, targetSecurityToken, controllerId, targetId);
+        }
+    }
+
+    private static final class MessageTemplate {
+        private final List<String> literals;
+        private final List<Field> fields;
+        private final MessageProperties prototype;
+        private final String controllerIdMarker;
+        private final Charset charset;
+        private final int length;
+
+        private MessageTemplate(final List<String> literals, final List<Field> fields,
+                final MessageProperties prototype, final String controllerIdMarker, final Charset charset) {
+            this.literals = literals;
+            this.fields = fields;
+            this.prototype = prototype;
+            this.controllerIdMarker = controllerIdMarker;
+            this.charset = charset;
+            this.length = literals.stream().mapToInt(String::length).sum();
+        }
+
+        private static MessageTemplate compile(final Message message, final TargetValues markers) {
+            final MessageProperties properties = message.getMessageProperties();
+            final Charset charset = properties.getContentEncoding() == null ? StandardCharsets.UTF_8
+                    : Charset.forName(properties.getContentEncoding());
+            final String body = new String(message.getBody(), charset);
+
+            final List<String> literals = new ArrayList<>();
+            final List<Field> fields = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                Field next = null;
+                int nextIndex = body.length();
+                for (final Field field : Field.values()) {
+                    final int index = body.indexOf(field.render(markers), position);
+                    if (index >= 0 && index < nextIndex) {
+                        next = field;
+                        nextIndex = index;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                literals.add(body.substring(position, nextIndex));
+                fields.add(next);
+                position = nextIndex + next.render(markers).length();
+            }
+            literals.add(body.substring(position));
+
+            return new MessageTemplate(Collections.unmodifiableList(literals), Collections.unmodifiableList(fields),
+                    properties, markers.controllerId, charset);
+        }
+
+        private Message render(final TargetValues values) {
+            final StringBuilder body = new StringBuilder(length + fields.size() * 32);
+            for (int i = 0; i < fields.size(); i++) {
+                body.append(literals.get(i)).append(fields.get(i).render(values));
+            }
+            body.append(literals.get(fields.size()));
+            final byte[] bytes = body.toString().getBytes(charset);
+
+            final MessageProperties properties = new MessageProperties();
+            properties.setContentType(prototype.getContentType());
+            properties.setContentEncoding(prototype.getContentEncoding());
+            properties.setContentLength(bytes.length);
+            for (final Map.Entry<String, Object> header : prototype.getHeaders().entrySet()) {
+                properties.setHeader(header.getKey(),
+                        controllerIdMarker.equals(header.getValue()) ? values.controllerId : header.getValue());
+            }
+            return new Message(bytes, properties);
+        }
+
+        private boolean matches(final Message expected, final TargetValues values) {
+            final Message actual = render(values);
+            final MessageProperties expectedProperties = expected.getMessageProperties();
+            final MessageProperties actualProperties = actual.getMessageProperties();
+            return Arrays.equals(expected.getBody(), actual.getBody())
+                    && Objects.equals(expectedProperties.getContentType(), actualProperties.getContentType())
+                    && Objects.equals(expectedProperties.getContentEncoding(), actualProperties.getContentEncoding())
+                    && expectedProperties.getHeaders().equals(actualProperties.getHeaders());
+        }
+    }
+
+    /**
+     * Identifies the software module content of a message, i.e. the modules
+     * with their revision and the artifacts.
+     */
+    private static final class TemplateKey {
+        private final String tenant;
+        private final List<Object> content;
+
+        private TemplateKey(final String tenant, final Collection<SoftwareModule> modules) {
+            this.tenant = tenant;
+            this.content = new ArrayList<>(modules.size() * 4);
+            for (final SoftwareModule module : modules) {
+                content.add(module.getId());
+                content.add(module.getOptLockRevision());
+                for (final Artifact artifact : module.getArtifacts()) {
+                    content.add(artifact.getId());
+                    content.add(artifact.getSha1Hash());
+                }
+                // separates the artifacts of the modules
+                content.add(null);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, content);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final TemplateKey other = (TemplateKey) obj;
+            return Objects.equals(tenant, other.tenant) && content.equals(other.content);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.FatalExceptionStrategy;
+
+import com.rabbitmq.client.Channel;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Amqp Batch Message Listener Test")
+public class AmqpBatchMessageListenerTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    private static final String VIRTUAL_HOST = "vHost";
+
+    private static final long FLUSH_INTERVAL = 60_000;
+
+    @Mock
+    private AmqpMessageHandlerService amqpMessageHandlerService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private FatalExceptionStrategy exceptionStrategy;
+
+    @Mock
+    private Channel channel;
+
+    @Mock
+    private MethodInvocation receiveCycle;
+
+    private final List<List<Message>> handledBatches = new ArrayList<>();
+
+    private final Map<Message, RuntimeException> failures = new IdentityHashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        when(amqpMessageHandlerService.getRabbitTemplate()).thenReturn(rabbitTemplate);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.getVirtualHost()).thenReturn(VIRTUAL_HOST);
+        when(amqpMessageHandlerService.onMessages(eq(TENANT), anyListOf(Message.class), eq(VIRTUAL_HOST)))
+                .thenAnswer(invocation -> {
+                    handledBatches.add(new ArrayList<>((List<Message>) invocation.getArguments()[1]));
+                    return failures;
+                });
+    }
+
+    @Test
+    @Description("Verifies that the messages of a receive cycle are handled as one batch in the order of their "
+            + "arrival and acknowledged by the consumer thread at the end of the cycle.")
+    public void batchIsHandledAtTheEndOfTheReceiveCycle() throws Throwable {
+        final AmqpBatchMessageListener listener = createListener(10);
+        final List<Message> messages = Arrays.asList(createMessage(1), createMessage(2), createMessage(3));
+
+        when(receiveCycle.proceed()).thenAnswer(invocation -> {
+            for (final Message message : messages) {
+                listener.onMessage(message, channel);
+            }
+            verify(channel, never()).basicAck(anyLong(), anyBoolean());
+            return true;
+        });
+        listener.flushAdvice().invoke(receiveCycle);
+
+        assertThat(handledBatches).containsExactly(messages);
+        final InOrder inOrder = inOrder(channel);
+        inOrder.verify(channel).basicAck(1, false);
+        inOrder.verify(channel).basicAck(2, false);
+        inOrder.verify(channel).basicAck(3, false);
+    }
+
+    @Test
+    @Description("Verifies that a full batch is handled as soon as its last message arrives.")
+    public void fullBatchIsHandledImmediately() throws Exception {
+        final AmqpBatchMessageListener listener = createListener(2);
+
+        listener.onMessage(createMessage(1), channel);
+        assertThat(handledBatches).isEmpty();
+        listener.onMessage(createMessage(2), channel);
+
+        assertThat(handledBatches).hasSize(1);
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+    }
+
+    @Test
+    @Description("Verifies that a failed message of a batch is rejected and requeued while the other messages "
+            + "are acknowledged.")
+    public void failedMessageIsRejected() throws Throwable {
+        final AmqpBatchMessageListener listener = createListener(10);
+        final Message failed = createMessage(2);
+        failures.put(failed, new IllegalStateException("failed"));
+        when(exceptionStrategy.isFatal(any(Throwable.class))).thenReturn(false);
+
+        when(receiveCycle.proceed()).thenAnswer(invocation -> {
+            listener.onMessage(createMessage(1), channel);
+            listener.onMessage(failed, channel);
+            return true;
+        });
+        listener.flushAdvice().invoke(receiveCycle);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicReject(2, true);
+    }
+
+    @Test
+    @Description("Verifies that the collected messages are handled even if the receive cycle fails, i.e. no "
+            + "message is left unacknowledged if the consumer stops.")
+    public void batchIsHandledIfReceiveCycleFails() throws Throwable {
+        final AmqpBatchMessageListener listener = createListener(10);
+
+        when(receiveCycle.proceed()).thenAnswer(invocation -> {
+            listener.onMessage(createMessage(1), channel);
+            throw new IllegalStateException("consumer cancelled");
+        });
+        try {
+            listener.flushAdvice().invoke(receiveCycle);
+            fail("expected IllegalStateException");
+        } catch (final IllegalStateException e) {
+            assertThat(e).hasMessage("consumer cancelled");
+        }
+
+        verify(channel).basicAck(1, false);
+    }
+
+    private AmqpBatchMessageListener createListener(final int batchSize) {
+        return new AmqpBatchMessageListener(amqpMessageHandlerService, exceptionStrategy, null, batchSize,
+                FLUSH_INTERVAL);
+    }
+
+    private static Message createMessage(final long deliveryTag) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TENANT, TENANT);
+        messageProperties.setDeliveryTag(deliveryTag);
+        return new Message(new byte[0], messageProperties);
+    }
+}
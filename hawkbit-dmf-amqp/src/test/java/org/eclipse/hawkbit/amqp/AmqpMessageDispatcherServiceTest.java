@@ -19,12 +19,16 @@ import static org.mockito.Mockito.when;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.eclipse.hawkbit.api.ArtifactUrl;
 import org.eclipse.hawkbit.api.ArtifactUrlHandler;
+import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties;
+import org.eclipse.hawkbit.api.ArtifactUrlHandlerProperties.UrlProtocol;
+import org.eclipse.hawkbit.api.PropertyBasedArtifactUrlHandler;
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
 import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
 import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
@@ -215,6 +219,69 @@ public class AmqpMessageDispatcherServiceTest extends AbstractIntegrationTest {
         }
     }
 
+    @Test
+    @Description("Verfies that the download and install messages that are rendered from a template are the same as "
+            + "the messages that are created for every target")
+    public void testSendDownloadRequestFromTemplate() {
+        final Collection<SoftwareModule> modules = createDistributionSetWithArtifacts().getModules();
+        final List<Target> targets = createAmqpTargets("template", 3);
+
+        final UpdateMessageTemplateCache templateCache = new UpdateMessageTemplateCache(10);
+        final AmqpMessageDispatcherService templateDispatcher = createDispatcherWithUrlHandler(templateCache);
+        final AmqpMessageDispatcherService plainDispatcher = createDispatcherWithUrlHandler(null);
+
+        long actionId = 1;
+        for (final Target target : targets) {
+            templateDispatcher.sendUpdateMessageToTarget(TENANT, target, actionId, modules);
+            plainDispatcher.sendUpdateMessageToTarget(TENANT, target, actionId, modules);
+            actionId++;
+        }
+
+        final ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(senderService, Mockito.times(targets.size() * 2)).sendMessage(messages.capture(),
+                eq(AMQP_URI));
+        for (int i = 0; i < targets.size(); i++) {
+            final Message fromTemplate = messages.getAllValues().get(i * 2);
+            final Message created = messages.getAllValues().get(i * 2 + 1);
+            assertThat(new String(fromTemplate.getBody())).isEqualTo(new String(created.getBody()))
+                    .contains(targets.get(i).getControllerId());
+            assertThat(fromTemplate.getMessageProperties().getHeaders())
+                    .isEqualTo(created.getMessageProperties().getHeaders());
+        }
+        assertThat(templateCache.getStats().missCount()).isEqualTo(1);
+        assertThat(templateCache.getStats().hitCount()).isEqualTo(targets.size() - 1);
+    }
+
+    private DistributionSet createDistributionSetWithArtifacts() {
+        final DistributionSet ds = testdataFactory.createDistributionSet(UUID.randomUUID().toString());
+        for (final SoftwareModule module : ds.getModules()) {
+            testdataFactory.createArtifacts(module.getId());
+        }
+        return distributionSetManagement.findDistributionSetById(ds.getId()).get();
+    }
+
+    private List<Target> createAmqpTargets(final String prefix, final int number) {
+        final List<Target> targets = new ArrayList<>(number);
+        for (int i = 0; i < number; i++) {
+            targets.add(targetManagement.createTarget(entityFactory.target().create().controllerId(prefix + i)
+                    .securityToken(TEST_TOKEN + "\"" + i).address(AMQP_URI.toString())));
+        }
+        return targets;
+    }
+
+    private AmqpMessageDispatcherService createDispatcherWithUrlHandler(
+            final UpdateMessageTemplateCache templateCache) {
+        final UrlProtocol protocol = new UrlProtocol();
+        protocol.setRef("{protocol}://{hostname}:{port}/{tenant}/{controllerId}/{targetId}/{targetIdBase62}/"
+                + "{softwareModuleId}/{artifactId}/{artifactFileName}");
+        final ArtifactUrlHandlerProperties urlHandlerProperties = new ArtifactUrlHandlerProperties();
+        urlHandlerProperties.getProtocols().put("download-http", protocol);
+
+        return new AmqpMessageDispatcherService(rabbitTemplate, senderService,
+                new PropertyBasedArtifactUrlHandler(urlHandlerProperties), systemSecurityContext, systemManagement,
+                targetManagement, serviceMatcher, templateCache);
+    }
+
     @Test
     @Description("Verfies that send cancel event works")
     public void testSendCancelRequest() {
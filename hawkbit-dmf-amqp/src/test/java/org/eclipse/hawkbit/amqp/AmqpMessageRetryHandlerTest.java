@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.QueryTimeoutException;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("AmqpMessage Retry Handler Test")
+public class AmqpMessageRetryHandlerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private final AmqpProperties amqpProperties = new AmqpProperties();
+
+    private AmqpMessageRetryHandler underTest;
+
+    @Before
+    public void before() {
+        amqpProperties.setRetryMaxAttempts(3);
+        amqpProperties.setRetryInitialDelay(100);
+        amqpProperties.setRetryMultiplier(2.0);
+        amqpProperties.setRetryMaxDelay(300);
+        underTest = new AmqpMessageRetryHandler(rabbitTemplate, amqpProperties);
+    }
+
+    @Test
+    @Description("Verifies that a failed message is published to the retry exchange with an increased retry count "
+            + "and an exponentially growing delay.")
+    public void failedMessageIsRetriedWithBackoff() {
+        final Message message = createMessage();
+
+        underTest.retryOrReject(message, new QueryTimeoutException("timeout"));
+        assertThat(message.getMessageProperties().getHeaders().get(AmqpMessageRetryHandler.RETRY_COUNT_HEADER))
+                .isEqualTo(1);
+        assertThat(message.getMessageProperties().getExpiration()).isEqualTo("100");
+
+        underTest.retryOrReject(message, new QueryTimeoutException("timeout"));
+        assertThat(message.getMessageProperties().getExpiration()).isEqualTo("200");
+
+        underTest.retryOrReject(message, new QueryTimeoutException("timeout"));
+        assertThat(message.getMessageProperties().getHeaders().get(AmqpMessageRetryHandler.RETRY_COUNT_HEADER))
+                .isEqualTo(3);
+        // limited by the maximum delay
+        assertThat(message.getMessageProperties().getExpiration()).isEqualTo("300");
+
+        verify(rabbitTemplate, times(3)).send(amqpProperties.getRetryExchange(), "", message);
+    }
+
+    @Test
+    @Description("Verifies that a message is rejected once the maximum number of retries is reached.")
+    public void messageIsRejectedAfterMaxAttempts() {
+        final Message message = createMessage();
+        message.getMessageProperties().setHeader(AmqpMessageRetryHandler.RETRY_COUNT_HEADER, 3);
+
+        assertRejected(message, new QueryTimeoutException("timeout"));
+    }
+
+    @Test
+    @Description("Verifies that messages that cannot succeed are rejected without retry.")
+    public void invalidMessageIsRejectedWithoutRetry() {
+        assertRejected(createMessage(), new EntityNotFoundException(Action.class, 1L));
+        assertRejected(createMessage(), new AmqpRejectAndDontRequeueException("invalid"));
+    }
+
+    private void assertRejected(final Message message, final RuntimeException failure) {
+        try {
+            underTest.retryOrReject(message, failure);
+            fail("AmqpRejectAndDontRequeueException was expected");
+        } catch (final AmqpRejectAndDontRequeueException e) {
+            verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class));
+        }
+    }
+
+    private static Message createMessage() {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return new Message(new byte[] { 1 }, messageProperties);
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.amqp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitOperations.OperationsCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate.ConfirmCallback;
+import org.springframework.amqp.rabbit.support.CorrelationData;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Batching Amqp Sender Service Test")
+public class BatchingAmqpSenderServiceTest {
+
+    private static final URI REPLY_TO = URI.create("amqp://vHost/exchange");
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private BatchingAmqpSenderService underTest;
+
+    private ConfirmCallback confirmCallback;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory(true));
+        doAnswer(invocation -> ((OperationsCallback<Object>) invocation.getArguments()[0]).doInRabbit(rabbitTemplate))
+                .when(rabbitTemplate).invoke(any(OperationsCallback.class));
+
+        final AmqpProperties amqpProperties = new AmqpProperties();
+        amqpProperties.setSenderMaxRetries(1);
+        underTest = new BatchingAmqpSenderService(rabbitTemplate, amqpProperties);
+
+        final ArgumentCaptor<ConfirmCallback> callbackCaptor = ArgumentCaptor.forClass(ConfirmCallback.class);
+        verify(rabbitTemplate).setConfirmCallback(callbackCaptor.capture());
+        confirmCallback = callbackCaptor.getValue();
+
+        underTest.start();
+    }
+
+    @After
+    public void after() {
+        underTest.stop();
+    }
+
+    @Test
+    @Description("Verifies that a queued message is published with correlation data and that the confirmation of "
+            + "the broker is tracked.")
+    public void confirmedMessageIsTracked() {
+        final Message message = createMessage();
+        underTest.sendMessage(message, REPLY_TO);
+
+        final CorrelationData correlationData = verifySent(message, 1);
+        assertThat(message.getMessageProperties().getCorrelationId()).isNotNull();
+        assertThat(underTest.getInFlightCount()).isEqualTo(1);
+
+        confirmCallback.confirm(correlationData, true, null);
+
+        assertThat(underTest.getInFlightCount()).isEqualTo(0);
+        assertThat(underTest.getConfirmCount()).isEqualTo(1);
+        assertThat(underTest.getNackCount()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that a nacked message is published again and dropped after the maximum number of "
+            + "retries.")
+    public void nackedMessageIsRetried() {
+        final Message message = createMessage();
+        underTest.sendMessage(message, REPLY_TO);
+
+        confirmCallback.confirm(verifySent(message, 1), false, "nack");
+        assertThat(underTest.getRetryCount()).isEqualTo(1);
+
+        confirmCallback.confirm(verifySent(message, 2), false, "nack");
+        assertThat(underTest.getNackCount()).isEqualTo(2);
+        assertThat(underTest.getDroppedCount()).isEqualTo(1);
+        assertThat(underTest.getInFlightCount()).isEqualTo(0);
+        assertThat(underTest.getQueueDepth()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that the service is not created for a connection factory without publisher confirms as "
+            + "the unconfirmed messages would never be released.")
+    public void connectionFactoryWithoutConfirmsIsRejected() {
+        final RabbitTemplate template = new RabbitTemplate(connectionFactory(false));
+        try {
+            new BatchingAmqpSenderService(template, new AmqpProperties());
+            fail("Expected an IllegalArgumentException, but didn't throw");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e).hasMessageContaining("publisher confirms");
+        }
+    }
+
+    @Test
+    @Description("Verifies that messages with a reply to address that is not an amqp uri are not sent.")
+    public void nonAmqpReplyToIsIgnored() {
+        underTest.sendMessage(createMessage(), URI.create("http://vHost/exchange"));
+
+        assertThat(underTest.getQueueDepth()).isEqualTo(0);
+        verify(rabbitTemplate, never()).invoke(any(OperationsCallback.class));
+    }
+
+    private CorrelationData verifySent(final Message message, final int attempts) {
+        final ArgumentCaptor<CorrelationData> correlationCaptor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, timeout(2_000).times(attempts)).send(eq("exchange"), (String) isNull(), eq(message),
+                correlationCaptor.capture());
+        return correlationCaptor.getValue();
+    }
+
+    private static ConnectionFactory connectionFactory(final boolean publisherConfirms) {
+        final CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
+        connectionFactory.setPublisherConfirms(publisherConfirms);
+        return connectionFactory;
+    }
+
+    private static Message createMessage() {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return new Message(new byte[] { 1 }, messageProperties);
+    }
+}
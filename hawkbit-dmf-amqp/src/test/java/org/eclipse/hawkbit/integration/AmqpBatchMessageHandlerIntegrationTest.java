@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.hawkbit.amqp.AmqpMessageDispatcherService;
+import org.eclipse.hawkbit.amqp.AmqpMessageHandlerService;
+import org.eclipse.hawkbit.dmf.amqp.api.EventTopic;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageHeaderKey;
+import org.eclipse.hawkbit.dmf.amqp.api.MessageType;
+import org.eclipse.hawkbit.dmf.json.model.ActionStatus;
+import org.eclipse.hawkbit.dmf.json.model.ActionUpdateStatus;
+import org.eclipse.hawkbit.dmf.json.model.AttributeUpdate;
+import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
+import org.eclipse.hawkbit.repository.jpa.RepositoryApplicationConfiguration;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.test.util.AbstractIntegrationTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+/**
+ * Drives the {@link AmqpMessageHandlerService} directly with DMF messages, i.e.
+ * no broker is needed.
+ */
+@SpringApplicationConfiguration(classes = RepositoryApplicationConfiguration.class)
+@Features("Component Tests - Device Management Federation API")
+@Stories("Amqp Message Handler Service Batches")
+public class AmqpBatchMessageHandlerIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String VIRTUAL_HOST = "vHost";
+
+    private static final String REPLY_TO = "MyTest";
+
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+    private AmqpMessageHandlerService amqpMessageHandlerService;
+
+    @Before
+    public void createHandler() {
+        final RabbitTemplate rabbitTemplate = new RabbitTemplate();
+        rabbitTemplate.setMessageConverter(messageConverter);
+        amqpMessageHandlerService = new AmqpMessageHandlerService(rabbitTemplate,
+                mock(AmqpMessageDispatcherService.class), controllerManagement, entityFactory);
+    }
+
+    @Test
+    @Description("Verifies that new and existing targets are registered by one batch of messages and that invalid "
+            + "messages of the batch fail on their own.")
+    public void registerTargetsInBatch() {
+        testdataFactory.createTarget("existing");
+
+        final List<Message> messages = new ArrayList<>();
+        messages.add(createThingCreatedMessage("existing"));
+        messages.add(createThingCreatedMessage("new1"));
+        messages.add(createThingCreatedMessage("new2"));
+        final Message invalid = createThingCreatedMessage("invalid");
+        invalid.getMessageProperties().setReplyTo(null);
+        messages.add(invalid);
+
+        final Map<Message, RuntimeException> failures = amqpMessageHandlerService.onMessages(getTenant(), messages,
+                VIRTUAL_HOST);
+
+        assertThat(failures).containsOnlyKeys(invalid);
+        assertThat(failures.get(invalid)).isInstanceOf(AmqpRejectAndDontRequeueException.class);
+        for (final String controllerId : new String[] { "existing", "new1", "new2" }) {
+            final Target target = controllerManagement.findByControllerId(controllerId).get();
+            assertThat(target.getAddress().toString()).isEqualTo("amqp://" + VIRTUAL_HOST + "/" + REPLY_TO);
+            assertThat(target.getLastTargetQuery()).isNotNull();
+        }
+        assertThat(controllerManagement.findByControllerId("invalid")).isNotPresent();
+    }
+
+    @Test
+    @Description("Verifies that the messages of a batch are handled in the order of their arrival, i.e. the "
+            + "attributes of a target can be updated right after its registration in the same batch.")
+    public void messagesOfBatchAreHandledInOrder() {
+        final List<Message> messages = new ArrayList<>();
+        messages.add(createThingCreatedMessage("ordered"));
+        messages.add(createAttributeUpdateMessage("ordered", "revision", "1.1"));
+        messages.add(createThingCreatedMessage("ordered2"));
+
+        final Map<Message, RuntimeException> failures = amqpMessageHandlerService.onMessages(getTenant(), messages,
+                VIRTUAL_HOST);
+
+        assertThat(failures).isEmpty();
+        assertThat(controllerManagement.findByControllerId("ordered2")).isPresent();
+        assertThat(targetManagement.getControllerAttributes("ordered")).containsEntry("revision", "1.1");
+    }
+
+    @Test
+    @Description("Verifies that the action status updates of one batch are stored and that a failing update does "
+            + "not prevent the other updates of the batch.")
+    public void updateActionStatusInBatch() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("batch");
+        final List<Target> targets = testdataFactory.createTargets(3, "batch");
+        final List<Long> actionIds = assignDistributionSet(ds, targets).getActions();
+
+        final List<Message> messages = actionIds.stream()
+                .map(actionId -> createActionStatusMessage(actionId, ActionStatus.FINISHED))
+                .collect(Collectors.toList());
+        // cancellation of an action that is not canceled fails the shared
+        // transaction
+        final Message invalid = createActionStatusMessage(actionIds.get(0), ActionStatus.CANCELED);
+        messages.add(1, invalid);
+
+        final Map<Message, RuntimeException> failures = amqpMessageHandlerService.onMessages(getTenant(), messages,
+                VIRTUAL_HOST);
+
+        assertThat(failures).containsOnlyKeys(invalid);
+        assertThat(failures.get(invalid)).isInstanceOf(CancelActionNotAllowedException.class);
+        for (final Long actionId : actionIds) {
+            final Action action = controllerManagement.findActionWithDetails(actionId).get();
+            assertThat(action.isActive()).isFalse();
+            assertThat(action.getStatus()).isEqualTo(Status.FINISHED);
+            assertThat(action.getTarget().getLastTargetQuery()).isNotNull();
+        }
+    }
+
+    private String getTenant() {
+        return tenantAware.getCurrentTenant();
+    }
+
+    private Message createThingCreatedMessage(final String controllerId) {
+        final MessageProperties messageProperties = createMessageProperties(MessageType.THING_CREATED);
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, controllerId);
+        return messageConverter.toMessage(new byte[0], messageProperties);
+    }
+
+    private Message createAttributeUpdateMessage(final String controllerId, final String key, final String value) {
+        final MessageProperties messageProperties = createMessageProperties(MessageType.EVENT);
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ATTRIBUTES.name());
+        messageProperties.setHeader(MessageHeaderKey.THING_ID, controllerId);
+        final AttributeUpdate attributeUpdate = new AttributeUpdate();
+        attributeUpdate.getAttributes().put(key, value);
+        return messageConverter.toMessage(attributeUpdate, messageProperties);
+    }
+
+    private Message createActionStatusMessage(final Long actionId, final ActionStatus status) {
+        final MessageProperties messageProperties = createMessageProperties(MessageType.EVENT);
+        messageProperties.setHeader(MessageHeaderKey.TOPIC, EventTopic.UPDATE_ACTION_STATUS.name());
+        return messageConverter.toMessage(new ActionUpdateStatus(actionId, status), messageProperties);
+    }
+
+    private MessageProperties createMessageProperties(final MessageType type) {
+        final MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setHeader(MessageHeaderKey.TYPE, type.name());
+        messageProperties.setHeader(MessageHeaderKey.TENANT, getTenant());
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messageProperties.setReplyTo(REPLY_TO);
+        return messageProperties;
+    }
+}
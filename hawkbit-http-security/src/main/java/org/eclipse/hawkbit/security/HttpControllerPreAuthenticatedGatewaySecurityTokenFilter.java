@@ -24,6 +24,8 @@ import org.eclipse.hawkbit.tenancy.TenantAware;
 public class HttpControllerPreAuthenticatedGatewaySecurityTokenFilter
         extends AbstractHttpControllerAuthenticationFilter {
 
+    private final ControllerAuthenticationCache authenticationCache;
+
     /**
      * Constructor.
      * 
@@ -39,13 +41,36 @@ public class HttpControllerPreAuthenticatedGatewaySecurityTokenFilter
     public HttpControllerPreAuthenticatedGatewaySecurityTokenFilter(
             final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
             final SystemSecurityContext systemSecurityContext) {
+        this(tenantConfigurationManagement, tenantAware, systemSecurityContext, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param tenantConfigurationManagement
+     *            the system management service to retrieve configuration
+     *            properties
+     * @param tenantAware
+     *            the tenant aware service to get configuration for the specific
+     *            tenant
+     * @param systemSecurityContext
+     *            the system security context
+     * @param authenticationCache
+     *            to cache the authentication decisions, might be
+     *            <code>null</code>
+     */
+    public HttpControllerPreAuthenticatedGatewaySecurityTokenFilter(
+            final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
+            final SystemSecurityContext systemSecurityContext,
+            final ControllerAuthenticationCache authenticationCache) {
         super(tenantConfigurationManagement, tenantAware, systemSecurityContext);
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
     protected PreAuthentificationFilter createControllerAuthenticationFilter() {
         return new ControllerPreAuthenticatedGatewaySecurityTokenFilter(tenantConfigurationManagement, tenantAware,
-                systemSecurityContext);
+                systemSecurityContext, authenticationCache);
     }
 
 }
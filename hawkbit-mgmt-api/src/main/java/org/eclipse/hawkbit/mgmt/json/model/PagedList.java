@@ -34,11 +34,18 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @JsonInclude(Include.NON_NULL)
 public class PagedList<T> extends ResourceSupport {
 
+    /**
+     * Total of a list for which the client opted out of counting the elements.
+     */
+    public static final long TOTAL_NOT_COUNTED = -1;
+
     @JsonProperty
     private final List<T> content;
     @JsonProperty
     private final long total;
     private final int size;
+    @JsonProperty
+    private final String next;
 
     /**
      * creates a new paged list with the given {@code content} and {@code total}
@@ -51,11 +58,31 @@ public class PagedList<T> extends ResourceSupport {
      * @throws NullPointerException
      *             in case {@code content} is {@code null}.
      */
+    public PagedList(@NotNull final List<T> content, final long total) {
+        this(content, total, null);
+    }
+
+    /**
+     * creates a new paged list with the given {@code content}, {@code total}
+     * and continuation token of the {@code next} page.
+     *
+     * @param content
+     *            the actual content of the list
+     * @param total
+     *            the total amount of elements or {@link #TOTAL_NOT_COUNTED}
+     * @param next
+     *            the token to continue behind the last element of this page,
+     *            {@code null} if there is no next page
+     * @throws NullPointerException
+     *             in case {@code content} is {@code null}.
+     */
     @JsonCreator
-    public PagedList(@JsonProperty("content") @NotNull final List<T> content, @JsonProperty("total") final long total) {
+    public PagedList(@JsonProperty("content") @NotNull final List<T> content, @JsonProperty("total") final long total,
+            @JsonProperty("next") final String next) {
         this.size = content.size();
         this.total = total;
         this.content = content;
+        this.next = next;
     }
 
     /**
@@ -66,12 +93,20 @@ public class PagedList<T> extends ResourceSupport {
     }
 
     /**
-     * @return the total amount of elements
+     * @return the total amount of elements or {@link #TOTAL_NOT_COUNTED}
      */
     public long getTotal() {
         return total;
     }
 
+    /**
+     * @return the token to continue behind the last element of this page, or
+     *         {@code null} if there is no next page
+     */
+    public String getNext() {
+        return next;
+    }
+
     public List<T> getContent() {
         return Collections.unmodifiableList(content);
     }
@@ -89,6 +89,16 @@ public final class MgmtRestConstants {
      */
     public static final String TARGET_V1_REQUEST_MAPPING = BASE_V1_REQUEST_MAPPING + "/targets";
 
+    /**
+     * The target bulk export URL mapping rest resource.
+     */
+    public static final String TARGET_EXPORT_V1_REQUEST_MAPPING = BASE_V1_REQUEST_MAPPING + "/export/targets";
+
+    /**
+     * Media type of newline delimited JSON, i.e. one JSON object per line.
+     */
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
     /**
      * The tag URL mapping rest resource.
      */
@@ -151,6 +161,26 @@ public final class MgmtRestConstants {
      */
     public static final String REQUEST_PARAMETER_SEARCH = "q";
 
+    /**
+     * The request parameter for continuing a paged request behind the last
+     * element of the previous page. The value is the opaque {@code next}
+     * token of the previous page and takes precedence over the offset and
+     * sort parameters. The total elements of continued pages are not counted.
+     */
+    public static final String REQUEST_PARAMETER_CONTINUATION = "continuation";
+
+    /**
+     * The request parameter to opt out of counting the total elements of a
+     * paged request, e.g. {@code count=false}.
+     */
+    public static final String REQUEST_PARAMETER_COUNT = "count";
+
+    /**
+     * The request parameter for the comma separated fields of a projection,
+     * e.g. {@code fields=controllerId,attributes}.
+     */
+    public static final String REQUEST_PARAMETER_FIELDS = "fields";
+
     /**
      * The software module type URL mapping rest resource.
      */
@@ -146,6 +146,13 @@ public interface MgmtRolloutRestApi {
      * @param rsqlParam
      *            the search parameter in the request URL, syntax
      *            {@code q=name==abc}
+     * @param continuationParam
+     *            the {@code next} token of the previous page to continue
+     *            behind its last element without counting the total, might
+     *            not be present in the rest request
+     * @param countParam
+     *            {@code false} to skip counting the total elements, might not
+     *            be present in the rest request then the elements are counted
      * @return a list of all rollout groups referred to a rollout for a defined
      *         or default page request with status OK. The response is always
      *         paged. In any failure the JsonResponseExceptionHandler is
@@ -158,7 +165,9 @@ public interface MgmtRolloutRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam);
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, required = false) final String continuationParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_COUNT, required = false) final Boolean countParam);
 
     /**
      * Handles the GET request for retrieving a single rollout group.
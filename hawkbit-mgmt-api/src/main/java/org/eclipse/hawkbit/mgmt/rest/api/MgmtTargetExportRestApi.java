@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.rest.api;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * REST API for the bulk export of targets.
+ *
+ */
+@RequestMapping(MgmtRestConstants.TARGET_EXPORT_V1_REQUEST_MAPPING)
+@FunctionalInterface
+public interface MgmtTargetExportRestApi {
+
+    /**
+     * Handles the GET request of exporting all targets with their controller
+     * attributes and assigned and installed distribution sets. The targets
+     * are streamed as newline delimited JSON
+     * ({@link MgmtRestConstants#MEDIA_TYPE_NDJSON}) in the order of their
+     * creation, i.e. without paging and links.
+     *
+     * @param rsqlParam
+     *            the search parameter in the request URL, syntax
+     *            {@code q=name==abc}, might not be present in the rest
+     *            request then all targets are exported
+     * @param fieldsParam
+     *            the comma separated fields to export, syntax
+     *            {@code fields=controllerId,attributes}, might not be present
+     *            in the rest request then all fields are exported
+     *
+     * @return status OK after the targets have been written to the response.
+     *         In any failure before the first target is written the
+     *         JsonResponseExceptionHandler is handling the response.
+     */
+    // the content type MgmtRestConstants#MEDIA_TYPE_NDJSON is set on the
+    // response as error responses are still JSON
+    @RequestMapping(method = RequestMethod.GET)
+    @ResponseBody
+    ResponseEntity<Void> exportTargets(
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_FIELDS, required = false) final String fieldsParam);
+
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.hawkbit.mgmt.json.model.PagedList;
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
+import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
+import org.eclipse.hawkbit.repository.model.BaseEntity;
+import org.eclipse.hawkbit.rest.exception.ContinuationParameterInvalidException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+
+/**
+ * Keyset (seek) pagination of a REST resource. A full page sorted by one of
+ * the registered key properties gets an opaque continuation token which
+ * encodes the sort key and ID of its last element. The next page is then
+ * queried behind that key instead of skipping an offset.
+ *
+ * @param <T>
+ *            type of the paged entities
+ */
+final class KeysetPaging<T extends BaseEntity> {
+
+    private static final String SEPARATOR = ":";
+
+    private final Map<String, Key<T, ?>> keys = new HashMap<>();
+
+    KeysetPaging() {
+        longKey(KeysetPageRequest.ID_PROPERTY, BaseEntity::getId);
+    }
+
+    /**
+     * Registers a non-null {@link String} property as sort key.
+     */
+    KeysetPaging<T> stringKey(final String property, final Function<T, String> getter) {
+        keys.put(property, new Key<>(getter, Function.identity()));
+        return this;
+    }
+
+    /**
+     * Registers a non-null {@link Long} property as sort key.
+     */
+    KeysetPaging<T> longKey(final String property, final Function<T, Long> getter) {
+        keys.put(property, new Key<>(getter, Long::valueOf));
+        return this;
+    }
+
+    /**
+     * Creates the page request of a REST request. A continuation token takes
+     * precedence over the given offset and sort. Continued pages and pages for
+     * which the client opted out of counting are requested as
+     * {@link KeysetPageRequest}, i.e. without count query.
+     *
+     * @param offset
+     *            the sanitized offset
+     * @param limit
+     *            the sanitized limit
+     * @param sort
+     *            the sanitized sort
+     * @param continuation
+     *            token of the previous page, might be {@code null}
+     * @param count
+     *            {@code false} to skip the count query
+     * @return the page request
+     *
+     * @throws ContinuationParameterInvalidException
+     *             if the continuation token has not been issued by this
+     *             resource
+     */
+    Pageable pageRequest(final int offset, final int limit, final Sort sort, final String continuation,
+            final Boolean count) {
+        if (continuation != null) {
+            return decode(continuation, limit);
+        }
+
+        final Order keyOrder = sort.iterator().next();
+        final Sort tieBrokenSort = isSingleKeyOrder(sort, keyOrder) ? KeysetPageRequest.withIdTieBreaker(keyOrder)
+                : sort;
+        if (Boolean.FALSE.equals(count)) {
+            return new KeysetPageRequest(offset, limit, tieBrokenSort);
+        }
+        return new OffsetBasedPageRequest(offset, limit, tieBrokenSort);
+    }
+
+    /**
+     * @param pageable
+     *            created by
+     *            {@link #pageRequest(int, int, Sort, String, Boolean)}
+     * @return {@code true} if the total elements have to be counted for the
+     *         page, otherwise the total is {@link PagedList#TOTAL_NOT_COUNTED}
+     */
+    static boolean isCounted(final Pageable pageable) {
+        return !(pageable instanceof KeysetPageRequest);
+    }
+
+    /**
+     * @param slice
+     *            the content of the page
+     * @param pageable
+     *            the request of the page
+     * @return the continuation token of the next page or {@code null} if the
+     *         page is not full or not sorted by a key
+     */
+    String next(final Slice<? extends T> slice, final Pageable pageable) {
+        final List<? extends T> content = slice.getContent();
+        if (content.isEmpty() || content.size() < pageable.getPageSize() || pageable.getSort() == null) {
+            return null;
+        }
+
+        final Order keyOrder = pageable.getSort().iterator().next();
+        if (!pageable.getSort().equals(KeysetPageRequest.withIdTieBreaker(keyOrder))
+                || !keys.containsKey(keyOrder.getProperty())) {
+            return null;
+        }
+
+        final T last = content.get(content.size() - 1);
+        final String token = keyOrder.getProperty() + SEPARATOR + keyOrder.getDirection() + SEPARATOR
+                + last.getId() + SEPARATOR + keys.get(keyOrder.getProperty()).getter.apply(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean isSingleKeyOrder(final Sort sort, final Order keyOrder) {
+        final Iterator<Order> orders = sort.iterator();
+        orders.next();
+        return !orders.hasNext() && keys.containsKey(keyOrder.getProperty());
+    }
+
+    private KeysetPageRequest decode(final String continuation, final int limit) {
+        try {
+            final String[] token = new String(Base64.getUrlDecoder().decode(continuation), StandardCharsets.UTF_8)
+                    .split(SEPARATOR, 4);
+            final Key<T, ?> key = token.length == 4 ? keys.get(token[0]) : null;
+            if (key == null) {
+                throw new ContinuationParameterInvalidException();
+            }
+            return new KeysetPageRequest(limit, new Order(Direction.fromString(token[1]), token[0]),
+                    key.parser.apply(token[3]), Long.valueOf(token[2]));
+        } catch (final IllegalArgumentException e) {
+            throw new ContinuationParameterInvalidException(e);
+        }
+    }
+
+    private static final class Key<T, K extends Comparable<K>> {
+        private final Function<T, K> getter;
+        private final Function<String, K> parser;
+
+        private Key(final Function<T, K> getter, final Function<String, K> parser) {
+            this.getter = getter;
+            this.parser = parser;
+        }
+    }
+}
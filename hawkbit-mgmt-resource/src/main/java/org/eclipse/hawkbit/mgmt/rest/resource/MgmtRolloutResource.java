@@ -21,6 +21,7 @@ import org.eclipse.hawkbit.mgmt.rest.api.MgmtRolloutRestApi;
 import org.eclipse.hawkbit.repository.DistributionSetManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
 import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
+import org.eclipse.hawkbit.repository.RolloutGroupFields;
 import org.eclipse.hawkbit.repository.RolloutGroupManagement;
 import org.eclipse.hawkbit.repository.RolloutManagement;
 import org.eclipse.hawkbit.repository.TargetFilterQueryManagement;
@@ -50,6 +51,10 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 public class MgmtRolloutResource implements MgmtRolloutRestApi {
+
+    private static final KeysetPaging<RolloutGroup> ROLLOUT_GROUP_PAGING = new KeysetPaging<RolloutGroup>()
+            .stringKey(RolloutGroupFields.NAME.getFieldName(), RolloutGroup::getName);
+
     @Autowired
     private RolloutManagement rolloutManagement;
 
@@ -158,12 +163,15 @@ public class MgmtRolloutResource implements MgmtRolloutRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, required = false) final String continuationParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_COUNT, required = false) final Boolean countParam) {
         final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
         final Sort sorting = PagingUtility.sanitizeRolloutGroupSortParam(sortParam);
 
-        final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
+        final Pageable pageable = ROLLOUT_GROUP_PAGING.pageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting,
+                continuationParam, countParam);
 
         final Page<RolloutGroup> findRolloutGroupsAll;
         if (rsqlParam != null) {
@@ -174,7 +182,11 @@ public class MgmtRolloutResource implements MgmtRolloutRestApi {
 
         final List<MgmtRolloutGroupResponseBody> rest = MgmtRolloutMapper
                 .toResponseRolloutGroup(findRolloutGroupsAll.getContent());
-        return new ResponseEntity<>(new PagedList<>(rest, findRolloutGroupsAll.getTotalElements()), HttpStatus.OK);
+        final long total = KeysetPaging.isCounted(pageable) ? findRolloutGroupsAll.getTotalElements()
+                : PagedList.TOTAL_NOT_COUNTED;
+        return new ResponseEntity<>(
+                new PagedList<>(rest, total, ROLLOUT_GROUP_PAGING.next(findRolloutGroupsAll, pageable)),
+                HttpStatus.OK);
     }
 
     @Override
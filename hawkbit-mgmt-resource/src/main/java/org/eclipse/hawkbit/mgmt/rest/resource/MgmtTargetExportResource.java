@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtTargetExportRestApi;
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
+import org.eclipse.hawkbit.repository.TargetManagement;
+import org.eclipse.hawkbit.repository.model.TargetExportEntry;
+import org.eclipse.hawkbit.rest.exception.FieldsParameterUnsupportedFieldException;
+import org.eclipse.hawkbit.rest.util.RequestResponseContextHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * REST Resource handling the bulk export of targets. The targets are
+ * retrieved in batches, each starting behind the last ID of the previous
+ * batch, and written to the response with a {@link JsonGenerator} directly,
+ * i.e. the memory footprint of the export does not depend on the number of
+ * exported targets.
+ */
+@RestController
+@Scope(value = WebApplicationContext.SCOPE_REQUEST)
+public class MgmtTargetExportResource implements MgmtTargetExportRestApi {
+    private static final Logger LOG = LoggerFactory.getLogger(MgmtTargetExportResource.class);
+
+    /**
+     * Number of targets retrieved per batch.
+     */
+    static final int EXPORT_BATCH_SIZE = MgmtRestConstants.REQUEST_PARAMETER_PAGING_MAX_LIMIT;
+
+    private static final Order BY_ID = new Order(Direction.ASC, KeysetPageRequest.ID_PROPERTY);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    @Autowired
+    private TargetManagement targetManagement;
+
+    @Autowired
+    private RequestResponseContextHolder requestResponseContextHolder;
+
+    @Override
+    @ResponseBody
+    public ResponseEntity<Void> exportTargets(
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_FIELDS, required = false) final String fieldsParam) {
+        final Set<Field> fields = Field.parse(fieldsParam);
+        final boolean withAttributes = fields.contains(Field.ATTRIBUTES);
+
+        // the first batch is retrieved before the response is committed, i.e.
+        // an invalid query is still answered as bad request
+        Slice<TargetExportEntry> batch = targetManagement.findTargetExportEntries(rsqlParam,
+                new KeysetPageRequest(0, EXPORT_BATCH_SIZE, new Sort(BY_ID)), withAttributes);
+
+        final HttpServletResponse response = requestResponseContextHolder.getHttpServletResponse();
+        response.setContentType(MgmtRestConstants.MEDIA_TYPE_NDJSON);
+        response.setCharacterEncoding("UTF-8");
+
+        long exported = 0;
+        try (final JsonGenerator generator = JSON_FACTORY.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            while (true) {
+                for (final TargetExportEntry entry : batch) {
+                    write(generator, entry, fields);
+                }
+                generator.flush();
+                exported += batch.getNumberOfElements();
+
+                if (!batch.hasNext()) {
+                    break;
+                }
+                final List<TargetExportEntry> content = batch.getContent();
+                final Long lastId = content.get(content.size() - 1).getId();
+                batch = targetManagement.findTargetExportEntries(rsqlParam,
+                        new KeysetPageRequest(EXPORT_BATCH_SIZE, BY_ID, lastId, lastId), withAttributes);
+            }
+        } catch (final IOException e) {
+            LOG.warn("Export of targets failed after {} targets", exported, e);
+            throw new UncheckedIOException(e);
+        }
+
+        LOG.debug("Exported {} targets", exported);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    private static void write(final JsonGenerator generator, final TargetExportEntry entry, final Set<Field> fields)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(Field.CONTROLLER_ID.jsonName, entry.getControllerId());
+        for (final Field field : fields) {
+            field.write(generator, entry);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    /**
+     * Fields of the export, named as the fields of the target resource.
+     */
+    private enum Field {
+        CONTROLLER_ID("controllerId") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) {
+                // always written as key of the target
+            }
+        },
+        NAME("name") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeString(generator, jsonName, entry.getName());
+            }
+        },
+        DESCRIPTION("description") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeString(generator, jsonName, entry.getDescription());
+            }
+        },
+        ADDRESS("address") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeString(generator, jsonName, entry.getAddress());
+            }
+        },
+        UPDATE_STATUS("updateStatus") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                if (entry.getUpdateStatus() != null) {
+                    generator.writeStringField(jsonName, entry.getUpdateStatus().name().toLowerCase());
+                }
+            }
+        },
+        LAST_CONTROLLER_REQUEST_AT("lastControllerRequestAt") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeLong(generator, jsonName, entry.getLastTargetQuery());
+            }
+        },
+        INSTALLED_AT("installedAt") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeLong(generator, jsonName, entry.getInstallationDate());
+            }
+        },
+        CREATED_BY("createdBy") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeString(generator, jsonName, entry.getCreatedBy());
+            }
+        },
+        CREATED_AT("createdAt") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeLong(generator, jsonName, entry.getCreatedAt());
+            }
+        },
+        LAST_MODIFIED_BY("lastModifiedBy") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeString(generator, jsonName, entry.getLastModifiedBy());
+            }
+        },
+        LAST_MODIFIED_AT("lastModifiedAt") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeLong(generator, jsonName, entry.getLastModifiedAt());
+            }
+        },
+        ATTRIBUTES("attributes") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                generator.writeObjectFieldStart(jsonName);
+                for (final Map.Entry<String, String> attribute : entry.getControllerAttributes().entrySet()) {
+                    generator.writeStringField(attribute.getKey(), attribute.getValue());
+                }
+                generator.writeEndObject();
+            }
+        },
+        ASSIGNED_DISTRIBUTION_SET("assignedDistributionSet") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeDistributionSet(generator, jsonName, entry.getAssignedDistributionSetName(),
+                        entry.getAssignedDistributionSetVersion());
+            }
+        },
+        INSTALLED_DISTRIBUTION_SET("installedDistributionSet") {
+            @Override
+            void write(final JsonGenerator generator, final TargetExportEntry entry) throws IOException {
+                writeDistributionSet(generator, jsonName, entry.getInstalledDistributionSetName(),
+                        entry.getInstalledDistributionSetVersion());
+            }
+        };
+
+        protected final String jsonName;
+
+        Field(final String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        abstract void write(JsonGenerator generator, TargetExportEntry entry) throws IOException;
+
+        private static Set<Field> parse(final String fieldsParam) {
+            if (fieldsParam == null) {
+                return EnumSet.allOf(Field.class);
+            }
+
+            final Set<Field> fields = EnumSet.noneOf(Field.class);
+            for (final String fieldName : fieldsParam.split(",")) {
+                fields.add(Arrays.stream(values()).filter(field -> field.jsonName.equals(fieldName.trim())).findAny()
+                        .orElseThrow(FieldsParameterUnsupportedFieldException::new));
+            }
+            return fields;
+        }
+
+        private static void writeString(final JsonGenerator generator, final String name, final String value)
+                throws IOException {
+            if (value != null) {
+                generator.writeStringField(name, value);
+            }
+        }
+
+        private static void writeLong(final JsonGenerator generator, final String name, final Long value)
+                throws IOException {
+            if (value != null) {
+                generator.writeNumberField(name, value);
+            }
+        }
+
+        private static void writeDistributionSet(final JsonGenerator generator, final String name,
+                final String dsName, final String dsVersion) throws IOException {
+            if (dsName != null) {
+                generator.writeObjectFieldStart(name);
+                generator.writeStringField("name", dsName);
+                generator.writeStringField("version", dsVersion);
+                generator.writeEndObject();
+            }
+        }
+    }
+}
@@ -30,7 +30,7 @@ import org.eclipse.hawkbit.mgmt.rest.api.MgmtTargetRestApi;
 import org.eclipse.hawkbit.repository.ActionStatusFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
 import org.eclipse.hawkbit.repository.EntityFactory;
-import org.eclipse.hawkbit.repository.OffsetBasedPageRequest;
+import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.model.Action;
@@ -61,6 +61,16 @@ import com.google.common.collect.Lists;
 public class MgmtTargetResource implements MgmtTargetRestApi {
     private static final Logger LOG = LoggerFactory.getLogger(MgmtTargetResource.class);
 
+    private static final KeysetPaging<Target> TARGET_PAGING = new KeysetPaging<Target>()
+            .stringKey(TargetFields.CONTROLLERID.getFieldName(), Target::getControllerId)
+            .stringKey(TargetFields.NAME.getFieldName(), Target::getName)
+            .longKey(TargetFields.CREATEDAT.getFieldName(), Target::getCreatedAt);
+
+    private static final KeysetPaging<Action> ACTION_PAGING = new KeysetPaging<>();
+
+    private static final KeysetPaging<ActionStatus> ACTION_STATUS_PAGING = new KeysetPaging<ActionStatus>()
+            .longKey(ActionStatusFields.REPORTEDAT.getFieldName(), ActionStatus::getCreatedAt);
+
     @Autowired
     private TargetManagement targetManagement;
 
@@ -86,26 +96,32 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, required = false) final String continuationParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_COUNT, required = false) final Boolean countParam) {
 
         final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
         final Sort sorting = PagingUtility.sanitizeTargetSortParam(sortParam);
 
-        final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
+        final Pageable pageable = TARGET_PAGING.pageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting,
+                continuationParam, countParam);
         final Slice<Target> findTargetsAll;
-        final Long countTargetsAll;
+        final long countTargetsAll;
         if (rsqlParam != null) {
             final Page<Target> findTargetPage = this.targetManagement.findTargetsAll(rsqlParam, pageable);
-            countTargetsAll = findTargetPage.getTotalElements();
+            countTargetsAll = KeysetPaging.isCounted(pageable) ? findTargetPage.getTotalElements()
+                    : PagedList.TOTAL_NOT_COUNTED;
             findTargetsAll = findTargetPage;
         } else {
             findTargetsAll = this.targetManagement.findTargetsAll(pageable);
-            countTargetsAll = this.targetManagement.countTargetsAll();
+            countTargetsAll = KeysetPaging.isCounted(pageable) ? this.targetManagement.countTargetsAll()
+                    : PagedList.TOTAL_NOT_COUNTED;
         }
 
         final List<MgmtTarget> rest = MgmtTargetMapper.toResponse(findTargetsAll.getContent());
-        return new ResponseEntity<>(new PagedList<>(rest, countTargetsAll), HttpStatus.OK);
+        return new ResponseEntity<>(
+                new PagedList<>(rest, countTargetsAll, TARGET_PAGING.next(findTargetsAll, pageable)), HttpStatus.OK);
     }
 
     @Override
@@ -154,28 +170,34 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SEARCH, required = false) final String rsqlParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, required = false) final String continuationParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_COUNT, required = false) final Boolean countParam) {
 
         findTargetWithExceptionIfNotFound(controllerId);
 
         final int sanitizedOffsetParam = PagingUtility.sanitizeOffsetParam(pagingOffsetParam);
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
         final Sort sorting = PagingUtility.sanitizeActionSortParam(sortParam);
-        final Pageable pageable = new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting);
+        final Pageable pageable = ACTION_PAGING.pageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting,
+                continuationParam, countParam);
 
         final Slice<Action> activeActions;
-        final Long totalActionCount;
+        final long totalActionCount;
         if (rsqlParam != null) {
             activeActions = this.deploymentManagement.findActionsByTarget(rsqlParam, controllerId, pageable);
-            totalActionCount = this.deploymentManagement.countActionsByTarget(rsqlParam, controllerId);
+            totalActionCount = KeysetPaging.isCounted(pageable)
+                    ? this.deploymentManagement.countActionsByTarget(rsqlParam, controllerId)
+                    : PagedList.TOTAL_NOT_COUNTED;
         } else {
             activeActions = this.deploymentManagement.findActionsByTarget(controllerId, pageable);
-            totalActionCount = this.deploymentManagement.countActionsByTarget(controllerId);
+            totalActionCount = KeysetPaging.isCounted(pageable)
+                    ? this.deploymentManagement.countActionsByTarget(controllerId) : PagedList.TOTAL_NOT_COUNTED;
         }
 
         return new ResponseEntity<>(
                 new PagedList<>(MgmtTargetMapper.toResponse(controllerId, activeActions.getContent()),
-                        totalActionCount),
+                        totalActionCount, ACTION_PAGING.next(activeActions, pageable)),
                 HttpStatus.OK);
     }
 
@@ -203,7 +225,7 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
 
         result.add(linkTo(methodOn(MgmtTargetRestApi.class).getActionStatusList(controllerId, action.getId(), 0,
                 MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT_VALUE,
-                ActionStatusFields.ID.getFieldName() + ":" + SortDirection.DESC))
+                ActionStatusFields.ID.getFieldName() + ":" + SortDirection.DESC, null, null))
                         .withRel(MgmtRestConstants.TARGET_V1_ACTION_STATUS));
 
         return new ResponseEntity<>(result, HttpStatus.OK);
@@ -237,7 +259,9 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
             @PathVariable("controllerId") final String controllerId, @PathVariable("actionId") final Long actionId,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_OFFSET, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_OFFSET) final int pagingOffsetParam,
             @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, defaultValue = MgmtRestConstants.REQUEST_PARAMETER_PAGING_DEFAULT_LIMIT) final int pagingLimitParam,
-            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam) {
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_SORTING, required = false) final String sortParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, required = false) final String continuationParam,
+            @RequestParam(value = MgmtRestConstants.REQUEST_PARAMETER_COUNT, required = false) final Boolean countParam) {
 
         final Target target = findTargetWithExceptionIfNotFound(controllerId);
 
@@ -253,12 +277,15 @@ public class MgmtTargetResource implements MgmtTargetRestApi {
         final int sanitizedLimitParam = PagingUtility.sanitizePageLimitParam(pagingLimitParam);
         final Sort sorting = PagingUtility.sanitizeActionStatusSortParam(sortParam);
 
-        final Page<ActionStatus> statusList = this.deploymentManagement.findActionStatusByActionWithMessages(
-                new OffsetBasedPageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting), action.getId());
+        final Pageable pageable = ACTION_STATUS_PAGING.pageRequest(sanitizedOffsetParam, sanitizedLimitParam, sorting,
+                continuationParam, countParam);
+        final Page<ActionStatus> statusList = this.deploymentManagement.findActionStatusByActionWithMessages(pageable,
+                action.getId());
 
         return new ResponseEntity<>(
                 new PagedList<>(MgmtTargetMapper.toActionStatusRestResponse(statusList.getContent()),
-                        statusList.getTotalElements()),
+                        KeysetPaging.isCounted(pageable) ? statusList.getTotalElements() : PagedList.TOTAL_NOT_COUNTED,
+                        ACTION_STATUS_PAGING.next(statusList, pageable)),
                 HttpStatus.OK);
 
     }
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.mgmt.rest.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.hawkbit.exception.SpServerError;
+import org.eclipse.hawkbit.mgmt.rest.api.MgmtRestConstants;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.rest.json.model.ExceptionInfo;
+import org.eclipse.hawkbit.rest.util.MockMvcResultPrinter;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Management API")
+@Stories("Target Export Resource")
+public class MgmtTargetExportResourceTest extends AbstractManagementApiIntegrationTest {
+
+    @Test
+    @Description("Ensures that the targets are exported as one JSON object per line including their controller "
+            + "attributes and distribution sets but without links.")
+    public void exportTargetsWithAttributesAndDistributionSets() throws Exception {
+        final DistributionSet ds = testdataFactory.createDistributionSet("export");
+        final List<Target> targets = testdataFactory.createTargets(3, "export", "export");
+        assignDistributionSet(ds, targets.get(0));
+        controllerManagement.updateControllerAttributes(targets.get(0).getControllerId(),
+                Collections.singletonMap("revision", "1.1"));
+
+        final MvcResult mvcResult = mvc.perform(get(MgmtRestConstants.TARGET_EXPORT_V1_REQUEST_MAPPING))
+                .andExpect(status().isOk()).andReturn();
+        assertThat(mvcResult.getResponse().getContentType()).startsWith(MgmtRestConstants.MEDIA_TYPE_NDJSON);
+
+        final List<JSONObject> lines = readLines(mvcResult.getResponse());
+        assertThat(lines).hasSize(3);
+
+        final JSONObject first = lines.get(0);
+        assertThat(first.getString("controllerId")).isEqualTo(targets.get(0).getControllerId());
+        assertThat(first.getString("name")).isEqualTo(targets.get(0).getName());
+        assertThat(first.getString("description")).isEqualTo("export0");
+        assertThat(first.getString("updateStatus")).isEqualTo("pending");
+        assertThat(first.getJSONObject("attributes").getString("revision")).isEqualTo("1.1");
+        assertThat(first.getJSONObject("assignedDistributionSet").getString("name")).isEqualTo(ds.getName());
+        assertThat(first.getJSONObject("assignedDistributionSet").getString("version")).isEqualTo(ds.getVersion());
+        assertThat(first.has("installedDistributionSet")).isFalse();
+        assertThat(first.has("_links")).isFalse();
+
+        final JSONObject last = lines.get(2);
+        assertThat(last.getString("controllerId")).isEqualTo(targets.get(2).getControllerId());
+        assertThat(last.getJSONObject("attributes").length()).isEqualTo(0);
+        assertThat(last.has("assignedDistributionSet")).isFalse();
+    }
+
+    @Test
+    @Description("Ensures that the export of more targets than one batch is filtered by the given query and "
+            + "projected to the given fields.")
+    public void exportTargetsWithQueryAndFields() throws Exception {
+        final int exported = MgmtTargetExportResource.EXPORT_BATCH_SIZE + 1;
+        testdataFactory.createTargets(exported, "batch", "batch");
+        testdataFactory.createTargets(2, "other", "other");
+
+        final List<JSONObject> lines = export(get(MgmtRestConstants.TARGET_EXPORT_V1_REQUEST_MAPPING)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "controllerId==batch*")
+                .param(MgmtRestConstants.REQUEST_PARAMETER_FIELDS, "name, description"));
+
+        assertThat(lines).hasSize(exported);
+        final Set<String> controllerIds = new HashSet<>();
+        for (final JSONObject line : lines) {
+            assertThat(line.getString("controllerId")).startsWith("batch");
+            assertThat(line.length()).isEqualTo(3);
+            controllerIds.add(line.getString("controllerId"));
+        }
+        assertThat(controllerIds).hasSize(exported);
+    }
+
+    @Test
+    @Description("Ensures that an unknown field or an invalid query is rejected before the export starts.")
+    public void exportTargetsWithInvalidParametersIsBadRequest() throws Exception {
+        testdataFactory.createTargets(2, "export", "export");
+
+        MvcResult mvcResult = mvc
+                .perform(get(MgmtRestConstants.TARGET_EXPORT_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_FIELDS, "name,securityToken"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isBadRequest()).andReturn();
+        ExceptionInfo exceptionInfo = ResourceUtility.convertException(mvcResult.getResponse().getContentAsString());
+        assertThat(exceptionInfo.getErrorCode()).isEqualTo(SpServerError.SP_REST_FIELDS_PARAM_INVALID_FIELD.getKey());
+
+        mvcResult = mvc
+                .perform(get(MgmtRestConstants.TARGET_EXPORT_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_SEARCH, "unknown==export*"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isBadRequest()).andReturn();
+        exceptionInfo = ResourceUtility.convertException(mvcResult.getResponse().getContentAsString());
+        assertThat(exceptionInfo.getErrorCode()).isEqualTo(SpServerError.SP_REST_RSQL_PARAM_INVALID_FIELD.getKey());
+    }
+
+    private List<JSONObject> export(final RequestBuilder request) throws Exception {
+        return readLines(mvc.perform(request).andExpect(status().isOk()).andReturn().getResponse());
+    }
+
+    private static List<JSONObject> readLines(final MockHttpServletResponse response) throws Exception {
+        final List<JSONObject> lines = new ArrayList<>();
+        for (final String line : response.getContentAsString().split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(new JSONObject(line));
+            }
+        }
+        return lines;
+    }
+}
@@ -24,6 +24,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.UnsupportedEncodingException;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -511,6 +513,89 @@ public class MgmtTargetResourceTest extends AbstractManagementApiIntegrationTest
                 .andExpect(jsonPath("$.content.[?(@.name==" + idE + ")].updateStatus", contains("registered")));
     }
 
+    @Test
+    @Description("Ensures that all targets are returned page by page if the continuation token of the previous page "
+            + "is given and that the total is not counted if the client opts out.")
+    public void getTargetsWithContinuation() throws Exception {
+        final int limitSize = 2;
+        createTargetsAlphabetical(5);
+
+        MvcResult mvcResult = mvc
+                .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, String.valueOf(limitSize))
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_COUNT, "false"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(-1)))
+                .andExpect(jsonPath("content.[0].name", equalTo("a")))
+                .andExpect(jsonPath("content.[1].name", equalTo("b"))).andExpect(jsonPath("next", notNullValue()))
+                .andReturn();
+
+        mvcResult = mvc
+                .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, String.valueOf(limitSize))
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, readNext(mvcResult)))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(-1)))
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_SIZE, equalTo(limitSize)))
+                .andExpect(jsonPath("content.[0].name", equalTo("c")))
+                .andExpect(jsonPath("content.[1].name", equalTo("d"))).andReturn();
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                .param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, String.valueOf(limitSize))
+                .param(MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, readNext(mvcResult)))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_SIZE, equalTo(1)))
+                .andExpect(jsonPath("content.[0].name", equalTo("e"))).andExpect(jsonPath("next").doesNotExist());
+    }
+
+    @Test
+    @Description("Ensures that the actions of a target are returned page by page in descending order if the "
+            + "continuation token of the previous page is given.")
+    public void getActionHistoryWithContinuation() throws Exception {
+        final String knownTargetId = "targetId";
+        final List<Action> actions = generateTargetWithTwoUpdatesWithOneOverride(knownTargetId);
+
+        final MvcResult mvcResult = mvc
+                .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownTargetId + "/"
+                        + MgmtRestConstants.TARGET_V1_ACTIONS).param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT,
+                                "1"))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(2)))
+                .andExpect(jsonPath("content.[0].id", equalTo(actions.get(1).getId().intValue())))
+                .andExpect(jsonPath("next", notNullValue())).andReturn();
+
+        mvc.perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING + "/" + knownTargetId + "/"
+                + MgmtRestConstants.TARGET_V1_ACTIONS).param(MgmtRestConstants.REQUEST_PARAMETER_PAGING_LIMIT, "1")
+                        .param(MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, readNext(mvcResult)))
+                .andDo(MockMvcResultPrinter.print()).andExpect(status().isOk())
+                .andExpect(jsonPath(JSON_PATH_PAGED_LIST_TOTAL, equalTo(-1)))
+                .andExpect(jsonPath("content.[0].id", equalTo(actions.get(0).getId().intValue())));
+    }
+
+    @Test
+    @Description("Ensures that a continuation token which has not been issued for the resource is rejected.")
+    public void getTargetsWithInvalidContinuationIsBadRequest() throws Exception {
+        final String[] invalidTokens = { "%%%", Base64.getUrlEncoder().encodeToString("description:ASC:1:a".getBytes()),
+                Base64.getUrlEncoder().encodeToString("name:UP:1:a".getBytes()),
+                Base64.getUrlEncoder().encodeToString("createdAt:ASC:1:a".getBytes()) };
+
+        for (final String invalidToken : invalidTokens) {
+            final MvcResult mvcResult = mvc
+                    .perform(get(MgmtRestConstants.TARGET_V1_REQUEST_MAPPING)
+                            .param(MgmtRestConstants.REQUEST_PARAMETER_CONTINUATION, invalidToken))
+                    .andDo(MockMvcResultPrinter.print()).andExpect(status().isBadRequest()).andReturn();
+
+            final ExceptionInfo exceptionInfo = ResourceUtility
+                    .convertException(mvcResult.getResponse().getContentAsString());
+            assertThat(exceptionInfo.getErrorCode())
+                    .isEqualTo(SpServerError.SP_REST_CONTINUATION_PARAM_INVALID.getKey());
+        }
+    }
+
+    private static String readNext(final MvcResult mvcResult) throws UnsupportedEncodingException {
+        return JsonPath.compile("next").read(mvcResult.getResponse().getContentAsString()).toString();
+    }
+
     @Test
     @Description("Ensures that the get request for a target works.")
     public void getSingleTarget() throws Exception {
@@ -9,6 +9,7 @@
 package org.eclipse.hawkbit.repository;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -17,6 +18,7 @@ import javax.validation.constraints.NotNull;
 import org.eclipse.hawkbit.im.authentication.SpPermission.SpringEvalExpressions;
 import org.eclipse.hawkbit.repository.builder.ActionStatusCreate;
 import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.exception.ToManyAttributeEntriesException;
@@ -113,6 +115,30 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Action addUpdateActionStatus(@NotNull ActionStatusCreate create);
 
+    /**
+     * Adds multiple {@link ActionStatus} entries in one transaction. Entries
+     * with {@link Status#CANCELED} are added like
+     * {@link #addCancelActionStatus(ActionStatusCreate)}, all others like
+     * {@link #addUpdateActionStatus(ActionStatusCreate)}. The time of the
+     * last query of the targets of the actions is refreshed in the same
+     * transaction. Nothing is added if one of the entries fails.
+     *
+     * @param creates
+     *            to be added in the given order
+     * @return the updated {@link Action}s in the order of the entries
+     *
+     * @throws TooManyStatusEntriesException
+     *             if more than the allowed number of status entries are
+     *             inserted
+     * @throws EntityNotFoundException
+     *             if one of the actions does not exist
+     * @throws CancelActionNotAllowedException
+     *             if a cancel status is added to an action that is not
+     *             canceling
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    List<Action> addActionStatuses(@NotNull List<ActionStatusCreate> creates);
+
     /**
      * Retrieves oldest {@link Action} that is active and assigned to a
      * {@link Target}.
@@ -127,6 +153,56 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Optional<Action> findOldestActiveActionByTarget(@NotNull String controllerId);
 
+    /**
+     * Retrieves the state of the response to polls of the {@link Target} as
+     * cached by {@link #cachePollResponseState(Target, Action, String)}
+     * without loading the target or its actions. The state is only returned
+     * if the poll can be registered by
+     * {@link #registerPollOfCachedTarget(String, URI)}, i.e. if the given
+     * address is the cached address of the target.
+     *
+     * @param controllerId
+     *            of the polling target
+     * @param address
+     *            the client address of the target, might be {@code null}
+     * @return the cached state or empty if it is not cached
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    Optional<String> findCachedPollResponseState(@NotEmpty String controllerId, URI address);
+
+    /**
+     * Caches the state of the response to polls of the {@link Target} until
+     * the target or its oldest active {@link Action} changes. Nothing is
+     * cached if the action has changed since it has been retrieved by
+     * {@link #findOldestActiveActionByTarget(String)} or if its state changes
+     * by time, i.e. a {@link Action.ActionType#TIMEFORCED} action.
+     *
+     * @param target
+     *            the state has been calculated from
+     * @param action
+     *            oldest active action the state has been calculated from or
+     *            {@code null} if the target has no active action
+     * @param state
+     *            of the poll response
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    void cachePollResponseState(@NotNull Target target, Action action, @NotEmpty String state);
+
+    /**
+     * Refreshes the time of the last time the controller has been connected to
+     * the server like {@link #updateLastTargetQuery(String, URI)} but without
+     * loading the target. Only applicable to targets which poll response
+     * state has been found by
+     * {@link #findCachedPollResponseState(String, URI)}.
+     *
+     * @param controllerId
+     *            of the polling target
+     * @param address
+     *            the client address of the target, might be {@code null}
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    void registerPollOfCachedTarget(@NotEmpty String controllerId, URI address);
+
     /**
      * Get the {@link Action} entity for given actionId with all lazy
      * attributes.
@@ -150,6 +226,20 @@ public interface ControllerManagement {
     @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
     Target findOrRegisterTargetIfItDoesNotexist(@NotEmpty String controllerId, URI address);
 
+    /**
+     * Registers multiple targets in one transaction like
+     * {@link #findOrRegisterTargetIfItDoesNotexist(String, URI)}, i.e. new
+     * targets are created and existing targets are updated. Nothing is
+     * registered if one of the targets fails.
+     *
+     * @param targets
+     *            controller IDs of the targets mapped to their client
+     *            addresses, an address might be {@code null}
+     * @return target references in the iteration order of the given map
+     */
+    @PreAuthorize(SpringEvalExpressions.IS_CONTROLLER)
+    List<Target> findOrRegisterTargetsIfTheyDoNotExist(@NotNull Map<String, URI> targets);
+
     /**
      * Retrieves last {@link Action} for a download of an artifact of given
      * module and target if exists and is not canceled.
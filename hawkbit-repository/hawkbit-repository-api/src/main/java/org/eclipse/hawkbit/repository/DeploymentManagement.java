@@ -230,7 +230,8 @@ public interface DeploymentManagement {
      * @param controllerId
      *            the target which must be assigned to the actions
      * @param pageable
-     *            the page request
+     *            the page request, the page of a {@link KeysetPageRequest} is
+     *            not counted and starts behind its last key
      * @return a slice of actions assigned to the specific target and the
      *         specification
      * 
@@ -251,7 +252,8 @@ public interface DeploymentManagement {
      * @param controllerId
      *            the target to find actions for
      * @param pageable
-     *            the pageable request to limit, sort the actions
+     *            the pageable request to limit, sort the actions, the page of
+     *            a {@link KeysetPageRequest} starts behind its last key
      * @return a slice of actions found for a specific target
      * 
      */
@@ -279,7 +281,9 @@ public interface DeploymentManagement {
      * {@link Action}.
      * 
      * @param pageable
-     *            the page request parameter for paging and sorting the result
+     *            the page request parameter for paging and sorting the result,
+     *            the page of a {@link KeysetPageRequest} is not counted and
+     *            starts behind its last key
      * @param actionId
      *            the {@link Action} to retrieve the {@link ActionStatus} from
      * @return a page of {@link ActionStatus} by a speciifc {@link Action}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository;
+
+import java.util.Objects;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+
+/**
+ * A {@link PageRequest} for which the repository does not execute a count
+ * query, i.e. the total elements of the returned page are not counted.
+ * Optionally the page starts behind the given last sort key and ID of the
+ * previous page (keyset or seek pagination), which can be served by an index
+ * instead of scanning and skipping all elements up to an offset.
+ *
+ * The sort of the request is defined by one {@link Order} on a non-null
+ * property and the entity ID in the same direction as tie breaker.
+ */
+public final class KeysetPageRequest extends PageRequest {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Name of the ID property which is used as tie breaker.
+     */
+    public static final String ID_PROPERTY = "id";
+
+    private final int offset;
+    private final Order keyOrder;
+    private final Comparable<?> lastKey;
+    private final Long lastId;
+
+    /**
+     * Creates a new {@link KeysetPageRequest} starting at the given offset.
+     *
+     * @param offset
+     *            zero-based offset index.
+     * @param limit
+     *            the limit of the page to be returned.
+     * @param sort
+     *            sort can be {@literal null}.
+     */
+    public KeysetPageRequest(final int offset, final int limit, final Sort sort) {
+        super(0, limit, sort);
+        this.offset = offset;
+        this.keyOrder = null;
+        this.lastKey = null;
+        this.lastId = null;
+    }
+
+    /**
+     * Creates a new {@link KeysetPageRequest} starting behind the given key.
+     *
+     * @param limit
+     *            the limit of the page to be returned.
+     * @param keyOrder
+     *            the order on the key property
+     * @param lastKey
+     *            the key of the last element of the previous page
+     * @param lastId
+     *            the ID of the last element of the previous page
+     */
+    public KeysetPageRequest(final int limit, final Order keyOrder, final Comparable<?> lastKey, final Long lastId) {
+        super(0, limit, withIdTieBreaker(keyOrder));
+        this.offset = 0;
+        this.keyOrder = keyOrder;
+        this.lastKey = Objects.requireNonNull(lastKey);
+        this.lastId = Objects.requireNonNull(lastId);
+    }
+
+    /**
+     * @param order
+     *            the order on the key property
+     * @return {@link Sort} on the given order and the ID in the same direction
+     *         if the order is not on the ID itself
+     */
+    public static Sort withIdTieBreaker(final Order order) {
+        if (ID_PROPERTY.equals(order.getProperty())) {
+            return new Sort(order);
+        }
+        return new Sort(order, new Order(order.getDirection(), ID_PROPERTY));
+    }
+
+    @Override
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return <code>true</code> if the page starts behind the last key of a
+     *         previous page
+     */
+    public boolean isSeeking() {
+        return lastId != null;
+    }
+
+    /**
+     * @return the property of the key, or <code>null</code> if not seeking
+     */
+    public String getKeyProperty() {
+        return keyOrder == null ? null : keyOrder.getProperty();
+    }
+
+    /**
+     * @return the direction of the key, or <code>null</code> if not seeking
+     */
+    public Direction getKeyDirection() {
+        return keyOrder == null ? null : keyOrder.getDirection();
+    }
+
+    /**
+     * @return the key of the last element of the previous page, or
+     *         <code>null</code> if not seeking
+     */
+    public Comparable<?> getLastKey() {
+        return lastKey;
+    }
+
+    /**
+     * @return the ID of the last element of the previous page, or
+     *         <code>null</code> if not seeking
+     */
+    public Long getLastId() {
+        return lastId;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPageRequest [offset=" + offset + ", getPageSize()=" + getPageSize() + ", keyOrder=" + keyOrder
+                + ", lastKey=" + lastKey + ", lastId=" + lastId + "]";
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Objects.hash(offset, keyOrder, lastKey, lastId);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!super.equals(obj)) {
+            return false;
+        }
+        if (!(obj instanceof KeysetPageRequest)) {
+            return false;
+        }
+        final KeysetPageRequest other = (KeysetPageRequest) obj;
+        return offset == other.offset && Objects.equals(keyOrder, other.keyOrder)
+                && Objects.equals(lastKey, other.lastKey) && Objects.equals(lastId, other.lastId);
+    }
+
+}
@@ -26,6 +26,38 @@ public class RepositoryProperties {
      */
     private boolean rejectActionStatusForClosedAction = false;
 
+    /**
+     * Set to <code>true</code> to embed a snapshot of the entity state into
+     * remote entity events where supported (currently target events). Remote
+     * nodes can then process these events without reloading the entity from
+     * the database.
+     */
+    private boolean embedEventSnapshots = false;
+
+    private final PollStatusWriteBehind pollStatusWriteBehind = new PollStatusWriteBehind();
+
+    private final DownloadProgressAggregation downloadProgressAggregation = new DownloadProgressAggregation();
+
+    private final PollCache pollCache = new PollCache();
+
+    private final ArtifactAssignmentCache artifactAssignmentCache = new ArtifactAssignmentCache();
+
+    public PollStatusWriteBehind getPollStatusWriteBehind() {
+        return pollStatusWriteBehind;
+    }
+
+    public DownloadProgressAggregation getDownloadProgressAggregation() {
+        return downloadProgressAggregation;
+    }
+
+    public PollCache getPollCache() {
+        return pollCache;
+    }
+
+    public ArtifactAssignmentCache getArtifactAssignmentCache() {
+        return artifactAssignmentCache;
+    }
+
     public boolean isRejectActionStatusForClosedAction() {
         return rejectActionStatusForClosedAction;
     }
@@ -34,4 +66,212 @@ public class RepositoryProperties {
         this.rejectActionStatusForClosedAction = rejectActionStatusForClosedAction;
     }
 
+    public boolean isEmbedEventSnapshots() {
+        return embedEventSnapshots;
+    }
+
+    public void setEmbedEventSnapshots(final boolean embedEventSnapshots) {
+        this.embedEventSnapshots = embedEventSnapshots;
+    }
+
+    /**
+     * Write-behind of target poll status updates, i.e. the last target query
+     * time. If enabled, polls that do not change anything else on the target
+     * are buffered in memory and written in batches.
+     *
+     */
+    public static class PollStatusWriteBehind {
+
+        /**
+         * Set to <code>true</code> to buffer poll time updates in memory and
+         * write them in periodic batches.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Delay in milliseconds between two flushes of the buffer.
+         */
+        private long flushInterval = 10_000;
+
+        /**
+         * Maximum number of targets that are updated in one statement.
+         */
+        private int maxBatchSize = 500;
+
+        /**
+         * Maximum number of buffered poll times per tenant. If reached further
+         * polls are written synchronously until the next flush.
+         */
+        private int maxPending = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(final long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(final int maxPending) {
+            this.maxPending = maxPending;
+        }
+    }
+
+    /**
+     * Aggregation of download progress reports. If enabled, the shipped bytes
+     * are summed up per tenant and published as one download progress event
+     * per tenant and interval instead of one event per report.
+     *
+     */
+    public static class DownloadProgressAggregation {
+
+        /**
+         * Set to <code>true</code> to aggregate download progress events.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Interval in milliseconds in which the aggregated events are
+         * published.
+         */
+        private long interval = 5_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getInterval() {
+            return interval;
+        }
+
+        public void setInterval(final long interval) {
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Cache for the state that is needed to answer controller polls, i.e. the
+     * oldest active action per target and the polling time per tenant. The
+     * action state is invalidated by assignment, cancel and action update
+     * events, so polls might see a change with the delay of the event
+     * delivery.
+     *
+     */
+    public static class PollCache {
+
+        /**
+         * Set to <code>true</code> to cache the poll state.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Time in milliseconds after which a cached entry is reloaded even if
+         * it has not been invalidated by an event.
+         */
+        private long ttl = 60_000;
+
+        /**
+         * Maximum number of targets for which the action state is cached.
+         */
+        private long maxSize = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(final long ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * Cache for the SHA1 hashes of the artifacts that are assigned to a target,
+     * i.e. for the download authorization checks. An artifact that is not
+     * found in the cached set is always checked against the repository again.
+     *
+     */
+    public static class ArtifactAssignmentCache {
+
+        /**
+         * Set to <code>true</code> to cache the assigned artifacts.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Time in milliseconds after which a cached entry is reloaded even if
+         * it has not been invalidated by an event.
+         */
+        private long ttl = 60_000;
+
+        /**
+         * Maximum number of targets for which the assigned artifacts are
+         * cached.
+         */
+        private long maxSize = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(final long ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
 }
@@ -88,7 +88,9 @@ public interface RolloutGroupManagement {
      *            the specification to filter the result set based on attributes
      *            of the {@link RolloutGroup}
      * @param pageable
-     *            the page request to sort and limit the result
+     *            the page request to sort and limit the result, the page of a
+     *            {@link KeysetPageRequest} is not counted and starts behind
+     *            its last key
      * @return a page of found {@link RolloutGroup}s
      * 
      * @throws RSQLParameterUnsupportedFieldException
@@ -108,7 +110,9 @@ public interface RolloutGroupManagement {
      * @param rolloutId
      *            the ID of the rollout to filter the {@link RolloutGroup}s
      * @param pageable
-     *            the page request to sort and limit the result
+     *            the page request to sort and limit the result, the page of a
+     *            {@link KeysetPageRequest} is not counted and starts behind
+     *            its last key
      * @return a page of found {@link RolloutGroup}s
      */
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_ROLLOUT_MANAGEMENT_READ)
@@ -26,6 +26,7 @@ import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.Tag;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetExportEntry;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.model.TargetTagAssignmentResult;
@@ -449,7 +450,8 @@ public interface TargetManagement {
      * and {@link Target#getActions()} possible
      *
      * @param pageable
-     *            pagination parameter
+     *            pagination parameter, the page of a
+     *            {@link KeysetPageRequest} starts behind its last key
      * @return the found {@link Target}s
      */
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
@@ -464,7 +466,9 @@ public interface TargetManagement {
      *            in RSQL notation
      * 
      * @param pageable
-     *            pagination parameter
+     *            pagination parameter, the page of a
+     *            {@link KeysetPageRequest} is not counted and starts behind
+     *            its last key
      *
      * @return the found {@link Target}s, never {@code null}
      * 
@@ -478,6 +482,38 @@ public interface TargetManagement {
     @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
     Page<Target> findTargetsAll(@NotNull String rsqlParam, @NotNull Pageable pageable);
 
+    /**
+     * Retrieves a batch of targets for a bulk export as
+     * {@link TargetExportEntry}s which are not managed by the persistence
+     * context. The name and version of the assigned and installed
+     * {@link DistributionSet}s are retrieved within the same query and the
+     * controller attributes of the whole batch with one additional query,
+     * i.e. the number of queries does not depend on the size of the batch.
+     *
+     * The whole export is retrieved batch by batch with
+     * {@link KeysetPageRequest}s on {@link KeysetPageRequest#ID_PROPERTY},
+     * each starting behind the last ID of the previous batch.
+     *
+     * @param rsqlParam
+     *            in RSQL notation, {@code null} to export all targets
+     * @param pageable
+     *            the batch, which is not counted and starts behind its last
+     *            key
+     * @param withControllerAttributes
+     *            {@code true} to retrieve the controller attributes as well
+     *
+     * @return the found {@link TargetExportEntry}s, never {@code null}
+     *
+     * @throws RSQLParameterUnsupportedFieldException
+     *             if a field in the RSQL string is used but not provided by the
+     *             given {@code fieldNameProvider}
+     * @throws RSQLParameterSyntaxException
+     *             if the RSQL syntax is wrong
+     */
+    @PreAuthorize(SpringEvalExpressions.HAS_AUTH_READ_TARGET)
+    Slice<TargetExportEntry> findTargetExportEntries(String rsqlParam, @NotNull KeysetPageRequest pageable,
+            boolean withControllerAttributes);
+
     /**
      * Retrieves all targets without details, i.e. NO {@link Target#getTags()}
      * and {@link Target#getActions()} possible based on
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+/**
+ * TenantAwareEvent that is published once for a batch of scheduled actions
+ * which have been created for a rollout group in bulk, i.e. without an
+ * ActionCreatedEvent per action.
+ *
+ */
+public class RolloutActionsCreatedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long rolloutId;
+
+    private Long rolloutGroupId;
+
+    private int numberOfActions;
+
+    /**
+     * Default constructor.
+     */
+    public RolloutActionsCreatedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the tenant
+     * @param rolloutId
+     *            the rollout the actions have been created for
+     * @param rolloutGroupId
+     *            the rollout group the actions have been created for
+     * @param numberOfActions
+     *            number of created actions
+     * @param applicationId
+     *            the application id.
+     */
+    public RolloutActionsCreatedEvent(final String tenant, final Long rolloutId, final Long rolloutGroupId,
+            final int numberOfActions, final String applicationId) {
+        super(rolloutId, tenant, applicationId);
+        this.rolloutId = rolloutId;
+        this.rolloutGroupId = rolloutGroupId;
+        this.numberOfActions = numberOfActions;
+    }
+
+    public Long getRolloutId() {
+        return rolloutId;
+    }
+
+    public Long getRolloutGroupId() {
+        return rolloutGroupId;
+    }
+
+    public int getNumberOfActions() {
+        return numberOfActions;
+    }
+
+}
@@ -18,6 +18,8 @@ public class TargetDeletedEvent extends RemoteIdEvent {
 
     private static final long serialVersionUID = 1L;
 
+    private String controllerId;
+
     /**
      * Default constructor.
      */
@@ -42,4 +44,32 @@ public class TargetDeletedEvent extends RemoteIdEvent {
         super(entityId, tenant, entityClass, applicationId);
     }
 
+    /**
+     * Constructor.
+     * 
+     * @param tenant
+     *            the tenant
+     * @param entityId
+     *            the entity id
+     * @param controllerId
+     *            the controller ID of the target
+     * @param entityClass
+     *            the entity class
+     * @param applicationId
+     *            the origin application id
+     */
+    public TargetDeletedEvent(final String tenant, final Long entityId, final String controllerId,
+            final String entityClass, final String applicationId) {
+        super(entityId, tenant, entityClass, applicationId);
+        this.controllerId = controllerId;
+    }
+
+    /**
+     * @return the controller ID of the target or <code>null</code> if not
+     *         known
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
 }
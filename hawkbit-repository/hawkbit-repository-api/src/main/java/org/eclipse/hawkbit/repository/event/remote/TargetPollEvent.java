@@ -32,6 +32,25 @@ public class TargetPollEvent extends RemoteTenantAwareEvent {
         this.targetAdress = target.getAddress().toString();
     }
 
+    /**
+     * Constructor for polls of targets which are not loaded.
+     *
+     * @param controllerId
+     *            of the polling target
+     * @param targetAdress
+     *            the client address of the target
+     * @param tenant
+     *            of the target
+     * @param applicationId
+     *            the origin application id
+     */
+    public TargetPollEvent(final String controllerId, final String targetAdress, final String tenant,
+            final String applicationId) {
+        super(controllerId, tenant, applicationId);
+        this.controllerId = controllerId;
+        this.targetAdress = targetAdress;
+    }
+
     public String getControllerId() {
         return controllerId;
     }
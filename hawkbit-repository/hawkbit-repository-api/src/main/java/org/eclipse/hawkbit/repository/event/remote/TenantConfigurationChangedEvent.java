@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote;
+
+/**
+ * TenantAwareEvent that is published when a tenant configuration value has
+ * been added, updated or deleted.
+ *
+ */
+public class TenantConfigurationChangedEvent extends RemoteTenantAwareEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private String configurationKey;
+
+    /**
+     * Default constructor.
+     */
+    public TenantConfigurationChangedEvent() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tenant
+     *            the tenant
+     * @param configurationKey
+     *            the key of the changed configuration value
+     * @param applicationId
+     *            the application id.
+     */
+    public TenantConfigurationChangedEvent(final String tenant, final String configurationKey,
+            final String applicationId) {
+        super(configurationKey, tenant, applicationId);
+        this.configurationKey = configurationKey;
+    }
+
+    public String getConfigurationKey() {
+        return configurationKey;
+    }
+
+}
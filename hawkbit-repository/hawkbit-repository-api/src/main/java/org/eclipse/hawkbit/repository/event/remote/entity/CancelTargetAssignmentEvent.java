@@ -20,6 +20,10 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
 
     private Long actionId;
 
+    private String controllerId;
+
+    private TargetEventSnapshot snapshot;
+
     /**
      * Default constructor.
      */
@@ -39,9 +43,31 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
      */
     public CancelTargetAssignmentEvent(final Target baseEntity, final Long actionId, final String applicationId) {
         super(baseEntity, applicationId);
+        this.controllerId = baseEntity.getControllerId();
         this.actionId = actionId;
     }
 
+    /**
+     * Constructor which embeds a snapshot of the target into the event.
+     * 
+     * @param baseEntity
+     *            the target
+     * @param actionId
+     *            the actionId
+     * @param snapshot
+     *            of the target or <code>null</code> if the event should not
+     *            carry a snapshot
+     * @param applicationId
+     *            the origin application id
+     */
+    public CancelTargetAssignmentEvent(final Target baseEntity, final Long actionId, final TargetEventSnapshot snapshot,
+            final String applicationId) {
+        super(baseEntity, applicationId);
+        this.controllerId = baseEntity.getControllerId();
+        this.actionId = actionId;
+        this.snapshot = snapshot;
+    }
+
     /**
      * @return the action id of the assignment
      */
@@ -49,4 +75,24 @@ public class CancelTargetAssignmentEvent extends RemoteEntityEvent<Target> {
         return actionId;
     }
 
+    /**
+     * @return the controller ID of the target
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    /**
+     * @return the snapshot of the target embedded into the event or
+     *         <code>null</code>
+     */
+    public TargetEventSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    protected Target getEntitySnapshot() {
+        return snapshot == null ? null : snapshot.withEntityLoader(this::reloadEntityFromRepository);
+    }
+
 }
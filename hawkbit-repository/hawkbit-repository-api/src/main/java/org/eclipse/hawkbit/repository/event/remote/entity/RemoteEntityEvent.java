@@ -52,16 +52,39 @@ public class RemoteEntityEvent<E extends TenantAwareBaseEntity> extends RemoteId
         this.entity = baseEntity;
     }
 
+    /**
+     * Returns the entity of the event. On the node where the event has been
+     * published this is the original entity. On remote nodes the entity is
+     * taken from the snapshot embedded into the event if available, otherwise
+     * it is reloaded from the repository.
+     * 
+     * @return the entity or <code>null</code> if it does not exist anymore
+     */
     @JsonIgnore
     public E getEntity() {
         if (entity == null) {
-            entity = reloadEntityFromRepository();
+            final E snapshot = getEntitySnapshot();
+            entity = snapshot != null ? snapshot : reloadEntityFromRepository();
         }
         return entity;
     }
 
+    /**
+     * Can be overridden by events that embed the state of their entity into
+     * the event in order to avoid the repository lookup on remote nodes.
+     * 
+     * @return the entity snapshot embedded into the event or <code>null</code>
+     *         if the event carries no snapshot
+     */
+    protected E getEntitySnapshot() {
+        return null;
+    }
+
+    /**
+     * @return the entity loaded from the repository
+     */
     @SuppressWarnings("unchecked")
-    private E reloadEntityFromRepository() {
+    protected E reloadEntityFromRepository() {
         try {
             final Class<E> clazz = (Class<E>) ClassUtils.getClass(getEntityClass());
             return EventEntityManagerHolder.getInstance().getEventEntityManager().findEntity(getTenant(), getEntityId(),
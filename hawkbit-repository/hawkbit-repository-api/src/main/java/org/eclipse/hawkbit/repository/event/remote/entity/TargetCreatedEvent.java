@@ -17,6 +17,10 @@ import org.eclipse.hawkbit.repository.model.Target;
 public class TargetCreatedEvent extends RemoteEntityEvent<Target> {
     private static final long serialVersionUID = 1L;
 
+    private String controllerId;
+
+    private TargetEventSnapshot snapshot;
+
     /**
      * Default constructor.
      */
@@ -34,6 +38,45 @@ public class TargetCreatedEvent extends RemoteEntityEvent<Target> {
      */
     public TargetCreatedEvent(final Target baseEntity, final String applicationId) {
         super(baseEntity, applicationId);
+        this.controllerId = baseEntity.getControllerId();
+    }
+
+    /**
+     * Constructor which embeds a snapshot of the target into the event.
+     * 
+     * @param baseEntity
+     *            the target
+     * @param snapshot
+     *            of the target or <code>null</code> if the event should not
+     *            carry a snapshot
+     * @param applicationId
+     *            the origin application id
+     */
+    public TargetCreatedEvent(final Target baseEntity, final TargetEventSnapshot snapshot,
+            final String applicationId) {
+        super(baseEntity, applicationId);
+        this.controllerId = baseEntity.getControllerId();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return the controller ID of the target
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    /**
+     * @return the snapshot of the target embedded into the event or
+     *         <code>null</code>
+     */
+    public TargetEventSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    protected Target getEntitySnapshot() {
+        return snapshot == null ? null : snapshot.withEntityLoader(this::reloadEntityFromRepository);
     }
 
 }
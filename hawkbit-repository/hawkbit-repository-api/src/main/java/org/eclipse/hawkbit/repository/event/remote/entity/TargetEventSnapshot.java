@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.event.remote.entity;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+import org.eclipse.hawkbit.repository.model.PollStatus;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetUpdateStatus;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+
+/**
+ * A compact, read only copy of the state of a {@link Target} which is embedded
+ * into target events so that remote nodes do not have to reload the target
+ * from the repository.
+ *
+ * The security token is not embedded in order to not distribute it over the
+ * event bus. {@link #getSecurityToken()} loads the target from the repository
+ * on first access instead.
+ */
+@JsonAutoDetect(fieldVisibility = Visibility.ANY, getterVisibility = Visibility.NONE, isGetterVisibility = Visibility.NONE)
+public class TargetEventSnapshot implements Target {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String tenant;
+    private String controllerId;
+    private String name;
+    private String description;
+    private String address;
+    private Long lastTargetQuery;
+    private Long nextPollAt;
+    private Long overdueAt;
+    private Long installationDate;
+    private TargetUpdateStatus updateStatus;
+    private boolean requestControllerAttributes;
+    private Long createdAt;
+    private String createdBy;
+    private Long lastModifiedAt;
+    private String lastModifiedBy;
+    private int optLockRevision;
+
+    private transient Supplier<Target> entityLoader;
+
+    /**
+     * Default constructor.
+     */
+    public TargetEventSnapshot() {
+        // for serialization libs like jackson
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param target
+     *            to take the snapshot from
+     */
+    public TargetEventSnapshot(final Target target) {
+        this.id = target.getId();
+        this.tenant = target.getTenant();
+        this.controllerId = target.getControllerId();
+        this.name = target.getName();
+        this.description = target.getDescription();
+        this.address = target.getAddress() == null ? null : target.getAddress().toString();
+        this.lastTargetQuery = target.getLastTargetQuery();
+        this.installationDate = target.getInstallationDate();
+        this.updateStatus = target.getUpdateStatus();
+        this.requestControllerAttributes = target.isRequestControllerAttributes();
+        this.createdAt = target.getCreatedAt();
+        this.createdBy = target.getCreatedBy();
+        this.lastModifiedAt = target.getLastModifiedAt();
+        this.lastModifiedBy = target.getLastModifiedBy();
+        this.optLockRevision = target.getOptLockRevision();
+
+        final PollStatus pollStatus = target.getPollStatus();
+        if (pollStatus != null) {
+            this.nextPollAt = toEpochMilli(pollStatus.getNextPollDate());
+            this.overdueAt = toEpochMilli(pollStatus.getOverdueDate());
+        }
+    }
+
+    /**
+     * @param entityLoader
+     *            to load the complete target for the state which is not
+     *            embedded into the snapshot
+     * @return this snapshot
+     */
+    TargetEventSnapshot withEntityLoader(final Supplier<Target> entityLoader) {
+        this.entityLoader = entityLoader;
+        return this;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getTenant() {
+        return tenant;
+    }
+
+    @Override
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String getSecurityToken() {
+        if (entityLoader == null) {
+            return null;
+        }
+        final Target target = entityLoader.get();
+        return target == null ? null : target.getSecurityToken();
+    }
+
+    @Override
+    public URI getAddress() {
+        return address == null ? null : URI.create(address);
+    }
+
+    @Override
+    public Long getLastTargetQuery() {
+        return lastTargetQuery;
+    }
+
+    @Override
+    public Long getInstallationDate() {
+        return installationDate;
+    }
+
+    @Override
+    public TargetUpdateStatus getUpdateStatus() {
+        return updateStatus;
+    }
+
+    @Override
+    public PollStatus getPollStatus() {
+        if (lastTargetQuery == null || nextPollAt == null || overdueAt == null) {
+            return null;
+        }
+        return new PollStatus(toLocalDateTime(lastTargetQuery), toLocalDateTime(nextPollAt),
+                toLocalDateTime(overdueAt), LocalDateTime.now());
+    }
+
+    @Override
+    public boolean isRequestControllerAttributes() {
+        return requestControllerAttributes;
+    }
+
+    @Override
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    @Override
+    public Long getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    @Override
+    public String getLastModifiedBy() {
+        return lastModifiedBy;
+    }
+
+    @Override
+    public int getOptLockRevision() {
+        return optLockRevision;
+    }
+
+    private static long toEpochMilli(final LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(final long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    @Override
+    public String toString() {
+        return "TargetEventSnapshot [id=" + id + ", controllerId=" + controllerId + "]";
+    }
+}
@@ -18,6 +18,10 @@ public class TargetUpdatedEvent extends RemoteEntityEvent<Target> {
 
     private static final long serialVersionUID = 1L;
 
+    private String controllerId;
+
+    private TargetEventSnapshot snapshot;
+
     /**
      * Default constructor.
      */
@@ -35,6 +39,45 @@ public class TargetUpdatedEvent extends RemoteEntityEvent<Target> {
      */
     public TargetUpdatedEvent(final Target baseEntity, final String applicationId) {
         super(baseEntity, applicationId);
+        this.controllerId = baseEntity.getControllerId();
+    }
+
+    /**
+     * Constructor which embeds a snapshot of the target into the event.
+     * 
+     * @param baseEntity
+     *            the target
+     * @param snapshot
+     *            of the target or <code>null</code> if the event should not
+     *            carry a snapshot
+     * @param applicationId
+     *            the origin application id
+     */
+    public TargetUpdatedEvent(final Target baseEntity, final TargetEventSnapshot snapshot,
+            final String applicationId) {
+        super(baseEntity, applicationId);
+        this.controllerId = baseEntity.getControllerId();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return the controller ID of the target
+     */
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    /**
+     * @return the snapshot of the target embedded into the event or
+     *         <code>null</code>
+     */
+    public TargetEventSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    protected Target getEntitySnapshot() {
+        return snapshot == null ? null : snapshot.withEntityLoader(this::reloadEntityFromRepository);
     }
 
 }
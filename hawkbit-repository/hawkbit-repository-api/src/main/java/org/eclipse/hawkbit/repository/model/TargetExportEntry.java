@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Flat snapshot of a {@link Target} with the name and version of its assigned
+ * and installed {@link DistributionSet} for bulk exports. In contrast to a
+ * {@link Target} the entry is not managed by the persistence context, i.e.
+ * exporting a large number of entries does not accumulate entities.
+ *
+ */
+public class TargetExportEntry {
+
+    private final Long id;
+
+    private final String controllerId;
+
+    private String name;
+
+    private String description;
+
+    private String address;
+
+    private TargetUpdateStatus updateStatus;
+
+    private Long lastTargetQuery;
+
+    private Long installationDate;
+
+    private String createdBy;
+
+    private Long createdAt;
+
+    private String lastModifiedBy;
+
+    private Long lastModifiedAt;
+
+    private String assignedDistributionSetName;
+
+    private String assignedDistributionSetVersion;
+
+    private String installedDistributionSetName;
+
+    private String installedDistributionSetVersion;
+
+    private Map<String, String> controllerAttributes = Collections.emptyMap();
+
+    /**
+     * Constructor.
+     *
+     * @param id
+     *            of the {@link Target}
+     * @param controllerId
+     *            of the {@link Target}
+     */
+    public TargetExportEntry(final Long id, final String controllerId) {
+        this.id = id;
+        this.controllerId = controllerId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getControllerId() {
+        return controllerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(final String description) {
+        this.description = description;
+    }
+
+    /**
+     * @return the address as reported by the controller, not validated as
+     *         {@link Target#getAddress()}
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(final String address) {
+        this.address = address;
+    }
+
+    public TargetUpdateStatus getUpdateStatus() {
+        return updateStatus;
+    }
+
+    public void setUpdateStatus(final TargetUpdateStatus updateStatus) {
+        this.updateStatus = updateStatus;
+    }
+
+    public Long getLastTargetQuery() {
+        return lastTargetQuery;
+    }
+
+    public void setLastTargetQuery(final Long lastTargetQuery) {
+        this.lastTargetQuery = lastTargetQuery;
+    }
+
+    public Long getInstallationDate() {
+        return installationDate;
+    }
+
+    public void setInstallationDate(final Long installationDate) {
+        this.installationDate = installationDate;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(final String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(final Long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getLastModifiedBy() {
+        return lastModifiedBy;
+    }
+
+    public void setLastModifiedBy(final String lastModifiedBy) {
+        this.lastModifiedBy = lastModifiedBy;
+    }
+
+    public Long getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(final Long lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    /**
+     * @return name of the assigned {@link DistributionSet} or {@code null} if
+     *         none is assigned
+     */
+    public String getAssignedDistributionSetName() {
+        return assignedDistributionSetName;
+    }
+
+    /**
+     * @return version of the assigned {@link DistributionSet} or {@code null}
+     *         if none is assigned
+     */
+    public String getAssignedDistributionSetVersion() {
+        return assignedDistributionSetVersion;
+    }
+
+    /**
+     * @param name
+     *            of the assigned {@link DistributionSet}
+     * @param version
+     *            of the assigned {@link DistributionSet}
+     */
+    public void setAssignedDistributionSet(final String name, final String version) {
+        this.assignedDistributionSetName = name;
+        this.assignedDistributionSetVersion = version;
+    }
+
+    /**
+     * @return name of the installed {@link DistributionSet} or {@code null} if
+     *         none is installed
+     */
+    public String getInstalledDistributionSetName() {
+        return installedDistributionSetName;
+    }
+
+    /**
+     * @return version of the installed {@link DistributionSet} or
+     *         {@code null} if none is installed
+     */
+    public String getInstalledDistributionSetVersion() {
+        return installedDistributionSetVersion;
+    }
+
+    /**
+     * @param name
+     *            of the installed {@link DistributionSet}
+     * @param version
+     *            of the installed {@link DistributionSet}
+     */
+    public void setInstalledDistributionSet(final String name, final String version) {
+        this.installedDistributionSetName = name;
+        this.installedDistributionSetVersion = version;
+    }
+
+    /**
+     * @return the controller attributes, empty if not retrieved
+     */
+    public Map<String, String> getControllerAttributes() {
+        return controllerAttributes;
+    }
+
+    public void setControllerAttributes(final Map<String, String> controllerAttributes) {
+        this.controllerAttributes = controllerAttributes;
+    }
+
+}
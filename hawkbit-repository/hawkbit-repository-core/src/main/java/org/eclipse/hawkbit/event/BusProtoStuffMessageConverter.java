@@ -8,6 +8,8 @@
  */
 package org.eclipse.hawkbit.event;
 
+import java.io.IOException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
@@ -18,9 +20,10 @@ import org.springframework.messaging.converter.MessageConversionException;
 import org.springframework.util.MimeType;
 
 import io.protostuff.LinkedBuffer;
-import io.protostuff.ProtobufIOUtil;
 import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.ProtostuffOutput;
 import io.protostuff.Schema;
+import io.protostuff.WireFormat;
 import io.protostuff.runtime.RuntimeSchema;
 
 /**
@@ -44,6 +47,20 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
      */
     private static final byte EVENT_TYPE_LENGTH = 2;
 
+    private static final int EVENT_TYPE_FIELD_NUMBER = 1;
+
+    /**
+     * Tag of the value field of {@link EventType} with varint wire type.
+     */
+    private static final byte EVENT_TYPE_TAG = (byte) WireFormat.makeTag(EVENT_TYPE_FIELD_NUMBER,
+            WireFormat.WIRETYPE_VARINT);
+
+    /**
+     * Reused per thread for serialization, grows in chunks for larger events.
+     */
+    private static final ThreadLocal<LinkedBuffer> BUFFER = ThreadLocal
+            .withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
+
     /**
      * Constructor.
      */
@@ -63,11 +80,8 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
         if (objectPayload instanceof byte[]) {
 
             final byte[] payload = (byte[]) objectPayload;
-            final byte[] clazzHeader = extractClazzHeader(payload);
-            final byte[] content = extraxtContent(payload);
-
-            final EventType eventType = readClassHeader(clazzHeader);
-            return readContent(eventType, content);
+            final EventType eventType = readClassHeader(payload);
+            return readContent(eventType, payload);
         }
         return null;
     }
@@ -76,81 +90,55 @@ public class BusProtoStuffMessageConverter extends AbstractMessageConverter {
     protected Object convertToInternal(final Object payload, final MessageHeaders headers,
             final Object conversionHint) {
 
-        final byte[] clazzHeader = writeClassHeader(payload.getClass());
-
-        final byte[] writeContent = writeContent(payload);
+        final EventType clazzEventType = EventType.from(payload.getClass());
+        if (clazzEventType == null) {
+            LOG.error("There is no mapping to EventType for the given clazz {}", payload.getClass());
+            throw new MessageConversionException("Missing EventType for given class : " + payload.getClass());
+        }
 
-        return mergeClassHeaderAndContent(clazzHeader, writeContent);
+        final LinkedBuffer buffer = BUFFER.get();
+        try {
+            final ProtostuffOutput output = new ProtostuffOutput(buffer);
+            // same encoding as the protostuff schema of EventType
+            output.writeInt32(EVENT_TYPE_FIELD_NUMBER, clazzEventType.getValue(), false);
+            schemaOf(payload.getClass()).writeTo(output, payload);
+            return output.toByteArray();
+        } catch (final IOException e) {
+            throw new MessageConversionException("Failed to serialize event " + payload.getClass(), e);
+        } finally {
+            buffer.clear();
+        }
     }
 
-    private static Object readContent(final EventType eventType, final byte[] content) {
+    private static Object readContent(final EventType eventType, final byte[] payload) {
         final Class<?> targetClass = eventType.getTargetClass();
         if (targetClass == null) {
             LOG.error("Cannot read clazz header for given EventType value {}, missing mapping", eventType.getValue());
             throw new MessageConversionException("Missing mapping of EventType for value " + eventType.getValue());
         }
-        @SuppressWarnings("unchecked")
-        final Schema<Object> schema = (Schema<Object>) RuntimeSchema.getSchema(targetClass);
+        final Schema<Object> schema = schemaOf(targetClass);
         final Object deserializeEvent = schema.newMessage();
-        ProtobufIOUtil.mergeFrom(content, deserializeEvent, schema);
+        // the events are written in protostuff format, i.e. nested messages
+        // as groups
+        ProtostuffIOUtil.mergeFrom(payload, EVENT_TYPE_LENGTH, payload.length - EVENT_TYPE_LENGTH, deserializeEvent,
+                schema);
         return deserializeEvent;
     }
 
-    private static byte[] mergeClassHeaderAndContent(final byte[] clazzHeader, final byte[] writeContent) {
-        final byte[] body = new byte[clazzHeader.length + writeContent.length];
-        System.arraycopy(clazzHeader, 0, body, 0, clazzHeader.length);
-        System.arraycopy(writeContent, 0, body, clazzHeader.length, writeContent.length);
-        return body;
-    }
-
-    private static byte[] extractClazzHeader(final byte[] payload) {
-        final byte[] clazzHeader = new byte[EVENT_TYPE_LENGTH];
-        System.arraycopy(payload, 0, clazzHeader, 0, EVENT_TYPE_LENGTH);
-        return clazzHeader;
-    }
-
-    private static byte[] extraxtContent(final byte[] payload) {
-        final byte[] content = new byte[payload.length - EVENT_TYPE_LENGTH];
-        System.arraycopy(payload, EVENT_TYPE_LENGTH, content, 0, content.length);
-        return content;
-    }
-
-    private static EventType readClassHeader(final byte[] typeInformation) {
-        final Schema<EventType> schema = RuntimeSchema.getSchema(EventType.class);
-        final EventType deserializedType = schema.newMessage();
-        ProtobufIOUtil.mergeFrom(typeInformation, deserializedType, schema);
-        return deserializedType;
-    }
-
-    private static byte[] writeContent(final Object payload) {
-        final Class<? extends Object> serializeClass = payload.getClass();
-        @SuppressWarnings("unchecked")
-        final Schema<Object> schema = (Schema<Object>) RuntimeSchema.getSchema(serializeClass);
-        final LinkedBuffer buffer = LinkedBuffer.allocate();
-        return writeProtoBuf(payload, schema, buffer);
-    }
-
-    private static byte[] writeClassHeader(final Class<?> clazz) {
-        final EventType clazzEventType = EventType.from(clazz);
-        if (clazzEventType == null) {
-            LOG.error("There is no mapping to EventType for the given clazz {}", clazzEventType);
-            throw new MessageConversionException("Missing EventType for given class : " + clazz);
+    /**
+     * Reads the header that is written by the protostuff schema of
+     * {@link EventType}, i.e. the tag of the value field followed by the
+     * value as one byte varint.
+     */
+    private static EventType readClassHeader(final byte[] payload) {
+        if (payload.length < EVENT_TYPE_LENGTH || payload[0] != EVENT_TYPE_TAG || (payload[1] & 0x80) != 0) {
+            throw new MessageConversionException("Invalid EventType header of message");
         }
-        @SuppressWarnings("unchecked")
-        final Schema<Object> schema = (Schema<Object>) RuntimeSchema
-                .getSchema((Class<? extends Object>) EventType.class);
-        final LinkedBuffer buffer = LinkedBuffer.allocate();
-        return writeProtoBuf(clazzEventType, schema, buffer);
+        return new EventType(payload[1]);
     }
 
-    private static byte[] writeProtoBuf(final Object payload, final Schema<Object> schema, final LinkedBuffer buffer) {
-        final byte[] serializeByte;
-        try {
-            serializeByte = ProtostuffIOUtil.toByteArray(payload, schema, buffer);
-        } finally {
-            buffer.clear();
-        }
-
-        return serializeByte;
+    @SuppressWarnings("unchecked")
+    private static Schema<Object> schemaOf(final Class<?> clazz) {
+        return (Schema<Object>) RuntimeSchema.getSchema(clazz);
     }
 }
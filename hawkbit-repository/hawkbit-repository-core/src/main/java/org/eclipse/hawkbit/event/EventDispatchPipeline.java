@@ -0,0 +1,622 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.event.remote.RemoteIdEvent;
+import org.eclipse.hawkbit.repository.event.remote.RemoteTenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetTagUpdateEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.DistributionSetUpdateEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RemoteEntityEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.RolloutUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.SoftwareModuleUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetTagUpdateEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Dispatches events on dedicated worker threads instead of the shared async
+ * executor.
+ *
+ * Events of an entity are dispatched in the order of their publication, one
+ * after another. They are routed by their ordering key, i.e. the tenant and
+ * the ID of the entity, into the ordered lane of one worker. All events of a
+ * target, i.e. its creation, updates, assignments, cancellations and its
+ * deletion, are ordered by its controller ID.
+ *
+ * Events without an entity, e.g. download progress and poll events, have no
+ * ordering guarantee. They are queued per event type and taken by any worker
+ * by their {@link Priority} after the ordered events of its lane, i.e.
+ * assignments and cancellations overtake download progress and poll events.
+ *
+ * A pending update event of an entity is replaced by a newer update event of
+ * the same entity if no other event of the entity has been queued in between,
+ * so that the listeners are only notified once about the latest state.
+ *
+ * If a queue is full, events of {@link Priority#LOW} are dropped and all
+ * other events are dispatched by the publishing thread, i.e. out of order.
+ */
+public class EventDispatchPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventDispatchPipeline.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final Set<Class<?>> HIGH_PRIORITY_EVENTS = ImmutableSet.of(TargetAssignDistributionSetEvent.class,
+            CancelTargetAssignmentEvent.class);
+
+    private static final Set<Class<?>> LOW_PRIORITY_EVENTS = ImmutableSet.of(DownloadProgressEvent.class,
+            TargetPollEvent.class);
+
+    private static final Set<Class<?>> COALESCED_EVENTS = ImmutableSet.of(TargetUpdatedEvent.class,
+            ActionUpdatedEvent.class, DistributionSetUpdateEvent.class, SoftwareModuleUpdatedEvent.class,
+            RolloutUpdatedEvent.class, RolloutGroupUpdatedEvent.class, TargetTagUpdateEvent.class,
+            DistributionSetTagUpdateEvent.class);
+
+    /**
+     * Dispatch priority of an event type.
+     */
+    public enum Priority {
+        /**
+         * Events that trigger the rollout of software, e.g. assignments.
+         */
+        HIGH,
+
+        /**
+         * All other events.
+         */
+        NORMAL,
+
+        /**
+         * Frequent events that are only of informational value, e.g. download
+         * progress. Dropped if the queue of the type is full.
+         */
+        LOW;
+    }
+
+    private final int threads;
+
+    private final int queueCapacity;
+
+    private final Map<Class<?>, TypeQueue> queues = new ConcurrentHashMap<>();
+
+    private final Map<Priority, List<TypeQueue>> queuesByPriority = new EnumMap<>(Priority.class);
+
+    private final List<Lane> lanes;
+
+    /**
+     * Latest queued event per ordering key.
+     */
+    private final Map<Key, Task> latestTasks = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextQueue = new AtomicInteger();
+
+    private ExecutorService workers;
+
+    private volatile boolean running;
+
+    /**
+     * Constructor.
+     *
+     * @param threads
+     *            number of worker threads, each with its own ordered lane
+     * @param queueCapacity
+     *            maximum number of queued events per ordered lane and per
+     *            type of unordered events
+     */
+    public EventDispatchPipeline(final int threads, final int queueCapacity) {
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = queueCapacity;
+        for (final Priority priority : Priority.values()) {
+            queuesByPriority.put(priority, new CopyOnWriteArrayList<>());
+        }
+        final List<Lane> workerLanes = new ArrayList<>(this.threads);
+        for (int i = 0; i < this.threads; i++) {
+            workerLanes.add(new Lane(queueCapacity));
+        }
+        this.lanes = Collections.unmodifiableList(workerLanes);
+    }
+
+    /**
+     * Starts the worker threads.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        workers = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("event-dispatch-%d").setDaemon(true).build());
+        lanes.forEach(lane -> workers.execute(() -> work(lane)));
+    }
+
+    /**
+     * Stops the worker threads. Queued events are dispatched by the calling
+     * thread, events that are published afterwards by the publishing thread.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        drain();
+    }
+
+    /**
+     * Queues the dispatch of an event.
+     *
+     * @param event
+     *            to dispatch
+     * @param invocation
+     *            that notifies the listeners about the event
+     */
+    public void dispatch(final Object event, final Runnable invocation) {
+        if (!running) {
+            invocation.run();
+            return;
+        }
+
+        final TypeQueue queue = queues.computeIfAbsent(event.getClass(), this::createQueue);
+        final Key orderingKey = orderingKey(event);
+        final Key coalescingKey = coalescingKey(event);
+
+        if (coalescingKey != null && orderingKey != null) {
+            final Task latest = latestTasks.get(orderingKey);
+            if (latest != null && latest.queue == queue && coalescingKey.equals(latest.coalescingKey)
+                    && latest.replace(invocation)) {
+                queue.coalesced.increment();
+                return;
+            }
+        }
+
+        final Task task = new Task(queue, orderingKey, coalescingKey, invocation);
+        final BlockingQueue<Task> tasks;
+        final Lane lane;
+        if (orderingKey == null) {
+            tasks = queue.tasks;
+            lane = null;
+        } else {
+            lane = lanes.get((orderingKey.hashCode() & Integer.MAX_VALUE) % threads);
+            tasks = lane.tasks;
+            latestTasks.put(orderingKey, task);
+        }
+
+        queue.queued.incrementAndGet();
+        if (tasks.offer(task)) {
+            signal(lane);
+            if (!running) {
+                // stopped in between
+                drain();
+            }
+            return;
+        }
+
+        queue.queued.decrementAndGet();
+        if (orderingKey != null) {
+            latestTasks.remove(orderingKey, task);
+        }
+        if (queue.priority == Priority.LOW) {
+            queue.dropped.increment();
+            LOG.debug("Event queue of {} is full, dropping event.", queue.eventType.getSimpleName());
+            return;
+        }
+        queue.callerRuns.increment();
+        LOG.warn("Event queue of {} is full, caller has to dispatch the event.", queue.eventType.getSimpleName());
+        invocation.run();
+    }
+
+    /**
+     * @return statistics of all event types that have been dispatched
+     */
+    public List<TypeStatistics> getStatistics() {
+        final List<TypeStatistics> statistics = new ArrayList<>(queues.size());
+        queues.values().forEach(queue -> statistics.add(new TypeStatistics(queue)));
+        return Collections.unmodifiableList(statistics);
+    }
+
+    /**
+     * @return total number of queued events
+     */
+    public int getQueueDepth() {
+        return queues.values().stream().mapToInt(queue -> queue.queued.get()).sum();
+    }
+
+    /**
+     * @param eventType
+     *            of the event
+     * @return the dispatch priority of the event type
+     */
+    public static Priority priorityOf(final Class<?> eventType) {
+        if (HIGH_PRIORITY_EVENTS.contains(eventType)) {
+            return Priority.HIGH;
+        }
+        if (LOW_PRIORITY_EVENTS.contains(eventType)) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    /**
+     * @return the key of the entity the event belongs to or <code>null</code>
+     *         if the event is not ordered
+     */
+    private static Key orderingKey(final Object event) {
+        if (LOW_PRIORITY_EVENTS.contains(event.getClass())) {
+            return null;
+        }
+        final String controllerId = controllerIdOf(event);
+        if (controllerId != null) {
+            return Key.of(((RemoteTenantAwareEvent) event).getTenant(), controllerId);
+        }
+        if (event instanceof RemoteEntityEvent) {
+            final RemoteEntityEvent<?> entityEvent = (RemoteEntityEvent<?>) event;
+            return Key.of(entityEvent.getTenant(), entityEvent.getEntityId());
+        }
+        if (event instanceof RemoteIdEvent) {
+            final RemoteIdEvent idEvent = (RemoteIdEvent) event;
+            return Key.of(idEvent.getTenant(), idEvent.getEntityId());
+        }
+        return null;
+    }
+
+    /**
+     * @return the controller ID of the target the event belongs to or
+     *         <code>null</code> if the event does not belong to a target
+     */
+    private static String controllerIdOf(final Object event) {
+        if (event instanceof TargetAssignDistributionSetEvent) {
+            return ((TargetAssignDistributionSetEvent) event).getControllerId();
+        }
+        if (event instanceof CancelTargetAssignmentEvent) {
+            return ((CancelTargetAssignmentEvent) event).getControllerId();
+        }
+        if (event instanceof TargetCreatedEvent) {
+            return ((TargetCreatedEvent) event).getControllerId();
+        }
+        if (event instanceof TargetUpdatedEvent) {
+            return ((TargetUpdatedEvent) event).getControllerId();
+        }
+        if (event instanceof TargetDeletedEvent) {
+            return ((TargetDeletedEvent) event).getControllerId();
+        }
+        return null;
+    }
+
+    private static Key coalescingKey(final Object event) {
+        if (!COALESCED_EVENTS.contains(event.getClass())) {
+            return null;
+        }
+        final RemoteEntityEvent<?> entityEvent = (RemoteEntityEvent<?>) event;
+        return Key.of(entityEvent.getTenant(), entityEvent.getEntityId());
+    }
+
+    private TypeQueue createQueue(final Class<?> eventType) {
+        final TypeQueue queue = new TypeQueue(eventType, priorityOf(eventType), queueCapacity);
+        queuesByPriority.get(queue.priority).add(queue);
+        return queue;
+    }
+
+    /**
+     * Wakes up the worker of the lane or all workers for an unordered event.
+     */
+    private void signal(final Lane lane) {
+        if (lane != null) {
+            lane.signal.release();
+            return;
+        }
+        lanes.forEach(idle -> idle.signal.release());
+    }
+
+    private void work(final Lane lane) {
+        while (running) {
+            final Task task = poll(lane);
+            if (task != null) {
+                task.run();
+                continue;
+            }
+
+            try {
+                if (lane.signal.tryAcquire(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    lane.signal.drainPermits();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        for (final Lane lane : lanes) {
+            Task task;
+            while ((task = poll(lane)) != null) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * @return the next unordered event of high priority, the next event of
+     *         the lane or the next unordered event of lower priority
+     */
+    private Task poll(final Lane lane) {
+        final int offset = nextQueue.getAndIncrement() & Integer.MAX_VALUE;
+        for (final Priority priority : Priority.values()) {
+            if (priority == Priority.NORMAL) {
+                final Task task = lane.tasks.poll();
+                if (task != null) {
+                    return task;
+                }
+            }
+            final List<TypeQueue> candidates = queuesByPriority.get(priority);
+            final int size = candidates.size();
+            // round robin between the types of the same priority
+            for (int i = 0; i < size; i++) {
+                final Task task = candidates.get((offset + i) % size).tasks.poll();
+                if (task != null) {
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Statistics of the dispatch of an event type.
+     */
+    public static final class TypeStatistics {
+        private final Class<?> eventType;
+        private final Priority priority;
+        private final int queueDepth;
+        private final long dispatched;
+        private final long coalesced;
+        private final long dropped;
+        private final long callerRuns;
+        private final long averageLatency;
+        private final long maxLatency;
+
+        private TypeStatistics(final TypeQueue queue) {
+            this.eventType = queue.eventType;
+            this.priority = queue.priority;
+            this.queueDepth = queue.queued.get();
+            this.dispatched = queue.dispatched.sum();
+            this.coalesced = queue.coalesced.sum();
+            this.dropped = queue.dropped.sum();
+            this.callerRuns = queue.callerRuns.sum();
+            this.averageLatency = dispatched == 0 ? 0
+                    : TimeUnit.NANOSECONDS.toMillis(queue.totalLatency.sum() / dispatched);
+            this.maxLatency = TimeUnit.NANOSECONDS.toMillis(queue.maxLatency.get());
+        }
+
+        public Class<?> getEventType() {
+            return eventType;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * @return number of currently queued events
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * @return number of events that have been dispatched by the workers
+         */
+        public long getDispatched() {
+            return dispatched;
+        }
+
+        /**
+         * @return number of events that have replaced a pending event
+         */
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        /**
+         * @return number of events that have been dropped as the queue was
+         *         full
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * @return number of events that have been dispatched by the
+         *         publishing thread as the queue was full
+         */
+        public long getCallerRuns() {
+            return callerRuns;
+        }
+
+        /**
+         * @return average time in milliseconds between queueing and dispatch
+         */
+        public long getAverageLatency() {
+            return averageLatency;
+        }
+
+        /**
+         * @return maximum time in milliseconds between queueing and dispatch
+         */
+        public long getMaxLatency() {
+            return maxLatency;
+        }
+    }
+
+    private static final class TypeQueue {
+        private final Class<?> eventType;
+        private final Priority priority;
+        /**
+         * Unordered events of the type.
+         */
+        private final BlockingQueue<Task> tasks;
+        /**
+         * Queued events of the type, ordered and unordered ones.
+         */
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder dispatched = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder callerRuns = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        private TypeQueue(final Class<?> eventType, final Priority priority, final int capacity) {
+            this.eventType = eventType;
+            this.priority = priority;
+            this.tasks = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void recordDispatch(final long latency) {
+            queued.decrementAndGet();
+            dispatched.increment();
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Ordered events of the entities that are routed to a worker.
+     */
+    private static final class Lane {
+        private final BlockingQueue<Task> tasks;
+        private final Semaphore signal = new Semaphore(0);
+
+        private Lane(final int capacity) {
+            this.tasks = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private final class Task {
+        private final TypeQueue queue;
+        private final Key orderingKey;
+        private final Key coalescingKey;
+        private final long queuedAt = System.nanoTime();
+        private final AtomicReference<Runnable> invocation;
+
+        private Task(final TypeQueue queue, final Key orderingKey, final Key coalescingKey,
+                final Runnable invocation) {
+            this.queue = queue;
+            this.orderingKey = orderingKey;
+            this.coalescingKey = coalescingKey;
+            this.invocation = new AtomicReference<>(invocation);
+        }
+
+        /**
+         * @return <code>false</code> if the task has already been started
+         */
+        private boolean replace(final Runnable newer) {
+            Runnable current;
+            do {
+                current = invocation.get();
+                if (current == null) {
+                    return false;
+                }
+            } while (!invocation.compareAndSet(current, newer));
+            return true;
+        }
+
+        private void run() {
+            final Runnable latest = invocation.getAndSet(null);
+            if (orderingKey != null) {
+                latestTasks.remove(orderingKey, this);
+            }
+            queue.recordDispatch(System.nanoTime() - queuedAt);
+
+            try {
+                latest.run();
+            } catch (final RuntimeException e) {
+                LOG.error("Failed to dispatch event of type {}", queue.eventType.getSimpleName(), e);
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String tenant;
+        private final Object id;
+
+        private Key(final String tenant, final Object id) {
+            this.tenant = tenant.toUpperCase();
+            this.id = id;
+        }
+
+        /**
+         * @return the key or <code>null</code> if the event does not contain
+         *         the ID of an entity
+         */
+        private static Key of(final String tenant, final Object id) {
+            if (tenant == null || id == null) {
+                return null;
+            }
+            return new Key(tenant, id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, id);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return tenant.equals(other.tenant) && id.equals(other.id);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Collapses the {@link TargetPollEvent}s of a target that are published within
+ * a time window into the latest one per target and tenant. The pending poll
+ * events of a target are dropped if the target is updated as the
+ * {@link TargetUpdatedEvent} already carries the state of the target. Poll
+ * events that are published after the update are held back again.
+ *
+ * The {@link TargetUpdatedEvent}s themselves are never held back, i.e. their
+ * listeners, e.g. the authentication cache of the controllers, are notified
+ * immediately.
+ *
+ * The window can be configured using the property from
+ * {#PROP_WINDOW_PLACEHOLDER}.
+ */
+public class TargetEventCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TargetEventCoalescer.class);
+
+    private static final String PROP_WINDOW_PLACEHOLDER = "${hawkbit.events.coalescing.window:1000}";
+
+    private final Map<String, TenantWindow> windows = new ConcurrentHashMap<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Set while the coalesced events are published, so that they are not
+     * offered again.
+     */
+    private final ThreadLocal<Boolean> publishing = new ThreadLocal<>();
+
+    private final LongAdder offered = new LongAdder();
+
+    private final LongAdder published = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param eventPublisher
+     *            to publish the coalesced events
+     */
+    public TargetEventCoalescer(final ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Holds back the given event until the end of the current window if it is
+     * a {@link TargetPollEvent}. A {@link TargetUpdatedEvent} is not held back
+     * but drops the pending poll events of its target.
+     *
+     * @param event
+     *            that is about to be published
+     * @return <code>true</code> if the event has been held back and must not
+     *         be published by the caller
+     */
+    public boolean offer(final Object event) {
+        if (publishing.get() != null) {
+            return false;
+        }
+
+        if (event instanceof TargetPollEvent) {
+            final TargetPollEvent pollEvent = (TargetPollEvent) event;
+            if (pollEvent.getTenant() == null || pollEvent.getControllerId() == null) {
+                return false;
+            }
+            window(pollEvent.getTenant()).addPoll(pollEvent.getControllerId(), pollEvent);
+            offered.increment();
+            return true;
+        }
+
+        if (event instanceof TargetUpdatedEvent) {
+            final TargetUpdatedEvent updateEvent = (TargetUpdatedEvent) event;
+            if (updateEvent.getTenant() != null && updateEvent.getControllerId() != null) {
+                window(updateEvent.getTenant()).addUpdate(updateEvent.getControllerId());
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Publishes the coalesced events of all tenants. Called by the spring
+     * scheduling mechanism.
+     */
+    @Scheduled(initialDelayString = PROP_WINDOW_PLACEHOLDER, fixedDelayString = PROP_WINDOW_PLACEHOLDER)
+    public void publish() {
+        publishing.set(Boolean.TRUE);
+        try {
+            windows.forEach(this::publish);
+        } finally {
+            publishing.remove();
+        }
+    }
+
+    /**
+     * Publishes the pending events before shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        publish();
+    }
+
+    /**
+     * @return number of events that have been held back
+     */
+    public long getOfferedCount() {
+        return offered.sum();
+    }
+
+    /**
+     * @return number of events that have been published for the held back
+     *         events
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    private TenantWindow window(final String tenant) {
+        return windows.computeIfAbsent(tenant.toUpperCase(), key -> new TenantWindow());
+    }
+
+    private void publish(final String tenant, final TenantWindow window) {
+        final Map<String, TargetPollEvent> pending = window.drain();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        pending.values().forEach(this::doPublish);
+
+        LOGGER.trace("Published coalesced poll events of {} targets of tenant {}", pending.size(), tenant);
+    }
+
+    private void doPublish(final Object event) {
+        published.increment();
+        eventPublisher.publishEvent(event);
+    }
+
+    private static final class TenantWindow {
+        private Map<String, TargetPollEvent> pending = new LinkedHashMap<>();
+
+        private synchronized void addPoll(final String controllerId, final TargetPollEvent event) {
+            pending.put(controllerId, event);
+        }
+
+        private synchronized void addUpdate(final String controllerId) {
+            // only the polls before the update are covered by its state
+            pending.remove(controllerId);
+        }
+
+        private synchronized Map<String, TargetPollEvent> drain() {
+            if (pending.isEmpty()) {
+                return pending;
+            }
+            final Map<String, TargetPollEvent> drained = pending;
+            pending = new LinkedHashMap<>();
+            return drained;
+        }
+    }
+}
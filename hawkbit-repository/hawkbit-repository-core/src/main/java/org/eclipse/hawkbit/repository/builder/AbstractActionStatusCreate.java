@@ -30,6 +30,10 @@ public abstract class AbstractActionStatusCreate<T> {
         return actionId;
     }
 
+    public Status getStatus() {
+        return status;
+    }
+
     public T status(final Status status) {
         this.status = status;
 
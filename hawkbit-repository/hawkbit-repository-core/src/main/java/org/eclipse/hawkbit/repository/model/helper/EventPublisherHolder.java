@@ -8,6 +8,7 @@
  */
 package org.eclipse.hawkbit.repository.model.helper;
 
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
@@ -28,6 +29,9 @@ public final class EventPublisherHolder {
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired(required = false)
+    private RepositoryProperties repositoryProperties;
+
     private EventPublisherHolder() {
 
     }
@@ -50,4 +54,13 @@ public final class EventPublisherHolder {
         return applicationContext.getId();
     }
 
+    /**
+     * @return <code>true</code> if entity snapshots are embedded into remote
+     *         events
+     * @see RepositoryProperties#isEmbedEventSnapshots()
+     */
+    public boolean isEmbedEventSnapshots() {
+        return repositoryProperties != null && repositoryProperties.isEmbedEventSnapshots();
+    }
+
 }
@@ -11,11 +11,15 @@ package org.eclipse.hawkbit.event;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.assertj.core.api.Assertions;
 import org.eclipse.hawkbit.repository.event.remote.entity.RemoteEntityEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetEventSnapshot;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.model.Target;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,6 +31,9 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.converter.MessageConversionException;
 
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.runtime.RuntimeSchema;
 import ru.yandex.qatools.allure.annotations.Description;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -61,6 +68,39 @@ public class BusProtoStuffMessageConverterTest {
         assertThat(deserializedEvent).isEqualTo(targetCreatedEvent);
     }
 
+    @Test
+    @Description("Verifies that all registered events can be serialized and deserialized and that the event-type "
+            + "header is encoded like the protostuff schema of the EventType")
+    public void allRegisteredEventsCanBeSerializedAndDeserialized() {
+        for (final Map.Entry<Integer, Class<?>> type : EventType.getTypes().entrySet()) {
+            final Object event = RuntimeSchema.getSchema(type.getValue()).newMessage();
+
+            final byte[] serializedEvent = (byte[]) underTest.convertToInternal(event,
+                    new MessageHeaders(new HashMap<>()), null);
+            assertThat(Arrays.copyOf(serializedEvent, 2)).isEqualTo(ProtostuffIOUtil.toByteArray(
+                    new EventType(type.getKey()), RuntimeSchema.getSchema(EventType.class), LinkedBuffer.allocate()));
+
+            when(messageMock.getPayload()).thenReturn(serializedEvent);
+            assertThat(underTest.convertFromInternal(messageMock, RemoteApplicationEvent.class, null))
+                    .isInstanceOf(type.getValue());
+        }
+    }
+
+    @Test
+    @Description("Verifies that an event with an embedded snapshot can be serialized and deserialized")
+    public void successfullySerializeAndDeserializeEventWithSnapshot() {
+        final TargetUpdatedEvent targetUpdatedEvent = new TargetUpdatedEvent(targetMock,
+                new TargetEventSnapshot(targetMock), "1");
+
+        when(messageMock.getPayload()).thenReturn(
+                underTest.convertToInternal(targetUpdatedEvent, new MessageHeaders(new HashMap<>()), null));
+        final TargetUpdatedEvent deserializedEvent = (TargetUpdatedEvent) underTest.convertFromInternal(messageMock,
+                RemoteApplicationEvent.class, null);
+
+        assertThat(deserializedEvent.getEntityId()).isEqualTo(1L);
+        assertThat(deserializedEvent.getSnapshot().getId()).isEqualTo(1L);
+    }
+
     @Test
     @Description("Verifies that a MessageConversationException is thrown on missing event-type information encoding")
     public void missingEventTypeMappingThrowsMessageConversationException() {
@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.eclipse.hawkbit.event.EventDispatchPipeline.Priority;
+import org.eclipse.hawkbit.event.EventDispatchPipeline.TypeStatistics;
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Unit Tests - Repository")
+@Stories("Event Dispatch Pipeline")
+public class EventDispatchPipelineTest {
+
+    private static final String TENANT = "default";
+
+    @Mock
+    private Target targetMock;
+
+    private final EventDispatchPipeline underTest = new EventDispatchPipeline(1, 2);
+
+    private final List<String> dispatched = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void before() throws InterruptedException {
+        when(targetMock.getId()).thenReturn(1L);
+        when(targetMock.getTenant()).thenReturn(TENANT);
+
+        underTest.start();
+        // occupies the only worker
+        underTest.dispatch(new Object(), () -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(blocked.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @After
+    public void after() {
+        release.countDown();
+        underTest.stop();
+    }
+
+    @Test
+    @Description("Verifies that assignment events are dispatched before pending events of lower priority without "
+            + "overtaking the pending events of another entity in the lane of the worker.")
+    public void highPriorityEventsAreDispatchedFirst() throws InterruptedException {
+        underTest.dispatch(new DownloadProgressEvent(TENANT, 1L, "node"), () -> dispatched.add("progress"));
+        underTest.dispatch(new TargetUpdatedEvent(targetMock, "node"), () -> dispatched.add("update"));
+        underTest.dispatch(new TargetAssignDistributionSetEvent(TENANT, 1L, 1L, "4711", "node"),
+                () -> dispatched.add("assignment"));
+
+        awaitDispatch(3);
+        assertThat(dispatched).containsExactly("update", "assignment", "progress");
+    }
+
+    @Test
+    @Description("Verifies that pending update events of the same entity are coalesced into the latest one.")
+    public void pendingUpdateEventsAreCoalesced() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            final String name = "update" + i;
+            underTest.dispatch(new TargetUpdatedEvent(targetMock, "node"), () -> dispatched.add(name));
+        }
+
+        awaitDispatch(1);
+        assertThat(dispatched).containsExactly("update4");
+        assertThat(statisticsOf(TargetUpdatedEvent.class).getCoalesced()).isEqualTo(4);
+        assertThat(statisticsOf(TargetUpdatedEvent.class).getDispatched()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that update events of an entity are not coalesced across other events of the entity.")
+    public void updateEventsAreNotCoalescedAcrossOtherEvents() throws InterruptedException {
+        when(targetMock.getControllerId()).thenReturn("4711");
+
+        underTest.dispatch(new TargetUpdatedEvent(targetMock, "node"), () -> dispatched.add("update0"));
+        underTest.dispatch(new TargetAssignDistributionSetEvent(TENANT, 1L, 1L, "4711", "node"),
+                () -> dispatched.add("assignment"));
+        underTest.dispatch(new TargetUpdatedEvent(targetMock, "node"), () -> dispatched.add("update1"));
+
+        awaitDispatch(3);
+        assertThat(dispatched).containsExactly("update0", "assignment", "update1");
+        assertThat(statisticsOf(TargetUpdatedEvent.class).getCoalesced()).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that the events of an entity are dispatched in the order of their publication by "
+            + "several workers.")
+    public void eventsOfAnEntityAreDispatchedInOrder() throws InterruptedException {
+        final EventDispatchPipeline pipeline = new EventDispatchPipeline(4, 1_000);
+        final Map<String, List<Long>> dispatchedActions = new ConcurrentHashMap<>();
+        final CountDownLatch done = new CountDownLatch(10 * 50);
+        pipeline.start();
+        try {
+            for (long actionId = 0; actionId < 50; actionId++) {
+                for (int target = 0; target < 10; target++) {
+                    final String controllerId = "target" + target;
+                    final long id = actionId;
+                    pipeline.dispatch(new TargetAssignDistributionSetEvent(TENANT, id, 1L, controllerId, "node"),
+                            () -> {
+                                dispatchedActions
+                                        .computeIfAbsent(controllerId, key -> new CopyOnWriteArrayList<>())
+                                        .add(id);
+                                done.countDown();
+                            });
+                }
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pipeline.stop();
+        }
+
+        final List<Long> expected = LongStream.range(0, 50).boxed().collect(Collectors.toList());
+        assertThat(dispatchedActions).hasSize(10);
+        dispatchedActions.forEach(
+                (controllerId, actions) -> assertThat(actions).as(controllerId).containsExactlyElementsOf(expected));
+    }
+
+    @Test
+    @Description("Verifies that all events of a target without embedded snapshots are dispatched in the order of "
+            + "their publication by several workers, i.e. they are ordered by the controller ID of the target.")
+    public void eventsOfATargetAreDispatchedInOrder() throws InterruptedException {
+        final EventDispatchPipeline pipeline = new EventDispatchPipeline(4, 1_000);
+        final Map<String, List<String>> dispatchedEvents = new ConcurrentHashMap<>();
+        final CountDownLatch done = new CountDownLatch(10 * 20 * 3 + 10);
+        pipeline.start();
+        try {
+            for (int i = 0; i < 10; i++) {
+                final Target target = mock(Target.class);
+                final String controllerId = "target" + i;
+                when(target.getId()).thenReturn(100L + i);
+                when(target.getTenant()).thenReturn(TENANT);
+                when(target.getControllerId()).thenReturn(controllerId);
+                final List<String> events = dispatchedEvents.computeIfAbsent(controllerId,
+                        key -> new CopyOnWriteArrayList<>());
+
+                for (long actionId = 0; actionId < 20; actionId++) {
+                    final long id = actionId;
+                    pipeline.dispatch(new TargetAssignDistributionSetEvent(TENANT, id, 1L, controllerId, "node"),
+                            () -> record(events, "assignment" + id, done));
+                    pipeline.dispatch(new CancelTargetAssignmentEvent(target, id, "node"),
+                            () -> record(events, "cancel" + id, done));
+                    pipeline.dispatch(new TargetUpdatedEvent(target, "node"),
+                            () -> record(events, "update" + id, done));
+                }
+                pipeline.dispatch(new TargetDeletedEvent(TENANT, target.getId(), controllerId,
+                        Target.class.getName(), "node"), () -> record(events, "delete", done));
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            pipeline.stop();
+        }
+
+        final List<String> expected = new ArrayList<>();
+        for (long actionId = 0; actionId < 20; actionId++) {
+            expected.add("assignment" + actionId);
+            expected.add("cancel" + actionId);
+            expected.add("update" + actionId);
+        }
+        expected.add("delete");
+        assertThat(dispatchedEvents).hasSize(10);
+        dispatchedEvents.forEach(
+                (controllerId, events) -> assertThat(events).as(controllerId).containsExactlyElementsOf(expected));
+    }
+
+    @Test
+    @Description("Verifies that low priority events are dropped and other events are dispatched by the caller if "
+            + "the queue is full.")
+    public void fullQueueDropsLowPriorityEvents() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            underTest.dispatch(new DownloadProgressEvent(TENANT, 1L, "node"), () -> dispatched.add("progress"));
+        }
+        for (long i = 0; i < 3; i++) {
+            underTest.dispatch(new TargetAssignDistributionSetEvent(TENANT, i, 1L, "4711", "node"),
+                    () -> dispatched.add(Thread.currentThread().getName()));
+        }
+
+        // third assignment was dispatched by the caller
+        assertThat(dispatched).containsExactly(Thread.currentThread().getName());
+        assertThat(statisticsOf(DownloadProgressEvent.class).getDropped()).isEqualTo(1);
+        assertThat(statisticsOf(TargetAssignDistributionSetEvent.class).getCallerRuns()).isEqualTo(1);
+        assertThat(statisticsOf(TargetAssignDistributionSetEvent.class).getPriority()).isEqualTo(Priority.HIGH);
+        assertThat(underTest.getQueueDepth()).isEqualTo(4);
+
+        awaitDispatch(5);
+        assertThat(underTest.getQueueDepth()).isEqualTo(0);
+    }
+
+    private static void record(final List<String> events, final String event, final CountDownLatch done) {
+        events.add(event);
+        done.countDown();
+    }
+
+    private void awaitDispatch(final int count) throws InterruptedException {
+        release.countDown();
+        final long deadline = System.currentTimeMillis() + 2_000;
+        while (dispatched.size() < count && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(dispatched).hasSize(count);
+    }
+
+    private TypeStatistics statisticsOf(final Class<?> eventType) {
+        return underTest.getStatistics().stream().filter(statistics -> statistics.getEventType() == eventType)
+                .findFirst().orElseThrow(() -> new AssertionError("No statistics of " + eventType));
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.List;
+
+import org.eclipse.hawkbit.repository.event.remote.TargetPollEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@RunWith(MockitoJUnitRunner.class)
+@Features("Unit Tests - Repository")
+@Stories("Target Event Coalescer")
+public class TargetEventCoalescerTest {
+
+    private static final String TENANT = "default";
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    @Description("Verifies that the poll events of a target within a window are collapsed into the latest one.")
+    public void pollEventsAreCollapsed() {
+        final TargetEventCoalescer underTest = new TargetEventCoalescer(eventPublisher);
+
+        assertThat(underTest.offer(new TargetPollEvent(mockTarget(1L, "4711"), "node"))).isTrue();
+        assertThat(underTest.offer(new TargetPollEvent(mockTarget(2L, "4712"), "node"))).isTrue();
+        final TargetPollEvent latest = new TargetPollEvent(mockTarget(1L, "4711"), "node");
+        assertThat(underTest.offer(latest)).isTrue();
+        assertThat(underTest.offer(new TargetCreatedEvent(mockTarget(1L, "4711"), "node"))).isFalse();
+
+        underTest.publish();
+
+        final List<Object> published = publishedEvents();
+        assertThat(published).hasSize(2);
+        assertThat(published.get(0)).isSameAs(latest);
+        assertThat(((TargetPollEvent) published.get(1)).getControllerId()).isEqualTo("4712");
+        assertThat(underTest.getOfferedCount()).isEqualTo(3);
+        assertThat(underTest.getPublishedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("Verifies that update events are not held back and drop the pending poll events of their target "
+            + "while later poll events are still published.")
+    public void updateEventsArePassedThrough() {
+        final TargetEventCoalescer underTest = new TargetEventCoalescer(eventPublisher);
+        final Target target = mockTarget(1L, "4711");
+
+        assertThat(underTest.offer(new TargetPollEvent(target, "node"))).isTrue();
+        assertThat(underTest.offer(new TargetUpdatedEvent(target, "node"))).isFalse();
+
+        underTest.publish();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        final TargetPollEvent later = new TargetPollEvent(target, "node");
+        assertThat(underTest.offer(new TargetPollEvent(target, "node"))).isTrue();
+        assertThat(underTest.offer(new TargetUpdatedEvent(target, "node"))).isFalse();
+        assertThat(underTest.offer(later)).isTrue();
+
+        underTest.publish();
+
+        assertThat(publishedEvents()).containsExactly(later);
+        assertThat(underTest.getOfferedCount()).isEqualTo(3);
+        assertThat(underTest.getPublishedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that events that are published by the coalescer itself are not held back again.")
+    public void coalescedEventsAreNotOfferedAgain() {
+        final TargetEventCoalescer underTest = new TargetEventCoalescer(eventPublisher);
+        doAnswer(invocation -> {
+            assertThat(underTest.offer(invocation.getArguments()[0])).isFalse();
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        underTest.offer(new TargetPollEvent(mockTarget(1L, "4711"), "node"));
+        underTest.publish();
+
+        verify(eventPublisher).publishEvent((Object) any(TargetPollEvent.class));
+        assertThat(underTest.getOfferedCount()).isEqualTo(1);
+    }
+
+    private List<Object> publishedEvents() {
+        final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static Target mockTarget(final Long id, final String controllerId) {
+        final Target target = mock(Target.class);
+        when(target.getId()).thenReturn(id);
+        when(target.getTenant()).thenReturn(TENANT);
+        when(target.getControllerId()).thenReturn(controllerId);
+        when(target.getAddress()).thenReturn(URI.create("http://127.0.0.1"));
+        return target;
+    }
+}
@@ -132,6 +132,18 @@ public interface ActionRepository extends BaseEntityRepository<JpaAction, Long>,
     List<Action> findActionByTargetAndSoftwareModule(@Param("target") final String targetId,
             @Param("module") Long moduleId);
 
+    /**
+     * Retrieves the SHA1 hashes of the artifacts of all
+     * {@link DistributionSet}s that are or have been assigned to the given
+     * target by any of its {@link Action}s.
+     *
+     * @param targetId
+     *            of the target
+     * @return the SHA1 hashes of the assigned artifacts
+     */
+    @Query("SELECT DISTINCT art.sha1Hash FROM JpaAction a JOIN a.distributionSet ds JOIN ds.modules modul JOIN modul.artifacts art WHERE a.target.id = :target")
+    List<String> findAssignedArtifactSha1HashesByTarget(@Param("target") Long targetId);
+
     /**
      * Retrieves all {@link Action}s which are referring the given
      * {@link DistributionSet} and {@link Target}.
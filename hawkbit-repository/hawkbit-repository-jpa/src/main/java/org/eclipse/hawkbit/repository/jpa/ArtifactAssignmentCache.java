@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Caches the SHA1 hashes of the artifacts that are assigned to a target for
+ * {@link ControllerManagement#hasTargetArtifactAssigned(Long, String)}, so that
+ * repeated download authorizations of a target, e.g. resumed downloads, do not
+ * hit the repository. Additionally the IDs of the targets are cached by
+ * controller ID.
+ *
+ * As artifacts are never removed from the set of a target by new assignments
+ * (all actions are considered) a hash that is not part of the cached set is
+ * checked against the repository again, i.e. a missed assignment event cannot
+ * deny a download. The artifacts of a target are invalidated by
+ * {@link TargetAssignDistributionSetEvent}s and
+ * {@link CancelTargetAssignmentEvent}s of the target. Both entries of a target
+ * are invalidated by its {@link TargetDeletedEvent}. All entries expire after
+ * {@link RepositoryProperties.ArtifactAssignmentCache#getTtl()} as a fallback,
+ * e.g. for deleted artifacts.
+ */
+public class ArtifactAssignmentCache {
+
+    private final Cache<String, Set<String>> assignedArtifacts;
+
+    private final Cache<String, Long> targetIds;
+
+    /**
+     * Index of the cached target IDs to the controller ID keys of the targets.
+     */
+    private final Map<String, String> controllerIdIndex = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            the cache configuration
+     */
+    public ArtifactAssignmentCache(final RepositoryProperties.ArtifactAssignmentCache properties) {
+        this.assignedArtifacts = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).recordStats().build();
+        this.targetIds = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).recordStats()
+                .removalListener(this::onTargetIdRemoval).build();
+    }
+
+    /**
+     * @return stamp to pass to
+     *         {@link #putAssignedArtifacts(String, Long, Set, long)} which has
+     *         to be taken before the artifacts are loaded from the repository
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @return the cached ID of the target or <code>null</code> if not cached
+     */
+    public Long getTargetId(final String tenant, final String controllerId) {
+        return targetIds.getIfPresent(controllerIdKey(tenant, controllerId));
+    }
+
+    /**
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param targetId
+     *            ID of the target
+     */
+    public void putTargetId(final String tenant, final String controllerId, final Long targetId) {
+        final String key = controllerIdKey(tenant, controllerId);
+        controllerIdIndex.put(targetKey(tenant, targetId), key);
+        targetIds.put(key, targetId);
+    }
+
+    /**
+     * @param tenant
+     *            of the target
+     * @param targetId
+     *            of the target
+     * @return the cached SHA1 hashes of the artifacts that are assigned to the
+     *         target or <code>null</code> if not cached
+     */
+    public Set<String> getAssignedArtifacts(final String tenant, final Long targetId) {
+        return assignedArtifacts.getIfPresent(targetKey(tenant, targetId));
+    }
+
+    /**
+     * Caches the artifacts of a target unless any target has been invalidated
+     * since the given stamp has been taken.
+     *
+     * @param tenant
+     *            of the target
+     * @param targetId
+     *            of the target
+     * @param sha1Hashes
+     *            of the artifacts that are assigned to the target
+     * @param stamp
+     *            taken by {@link #stamp()} before the artifacts have been
+     *            loaded
+     */
+    public void putAssignedArtifacts(final String tenant, final Long targetId, final Set<String> sha1Hashes,
+            final long stamp) {
+        final String key = targetKey(tenant, targetId);
+        assignedArtifacts.put(key, sha1Hashes);
+
+        // an invalidation might have been missed in between
+        if (invalidations.get() != stamp) {
+            assignedArtifacts.invalidate(key);
+        }
+    }
+
+    /**
+     * Invalidates the cached artifacts of the given target.
+     *
+     * @param tenant
+     *            of the target
+     * @param targetId
+     *            of the target
+     */
+    public void invalidateTarget(final String tenant, final Long targetId) {
+        invalidations.incrementAndGet();
+        assignedArtifacts.invalidate(targetKey(tenant, targetId));
+    }
+
+    /**
+     * Invalidates the cached artifacts of the assigned target if its ID is
+     * cached.
+     *
+     * @param event
+     *            of the assignment
+     */
+    @EventListener(classes = TargetAssignDistributionSetEvent.class)
+    public void onTargetAssignDistributionSet(final TargetAssignDistributionSetEvent event) {
+        invalidations.incrementAndGet();
+        final Long targetId = getTargetId(event.getTenant(), event.getControllerId());
+        if (targetId != null) {
+            invalidateTarget(event.getTenant(), targetId);
+        }
+    }
+
+    /**
+     * Invalidates the cached artifacts of the target of the canceled action.
+     *
+     * @param event
+     *            of the cancellation
+     */
+    @EventListener(classes = CancelTargetAssignmentEvent.class)
+    public void onCancelTargetAssignment(final CancelTargetAssignmentEvent event) {
+        invalidateTarget(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Invalidates all cached entries of the deleted target.
+     *
+     * @param event
+     *            of the deletion
+     */
+    @EventListener(classes = TargetDeletedEvent.class)
+    public void onTargetDeleted(final TargetDeletedEvent event) {
+        invalidateTarget(event.getTenant(), event.getEntityId());
+        final String key = controllerIdIndex.remove(targetKey(event.getTenant(), event.getEntityId()));
+        if (key != null) {
+            targetIds.invalidate(key);
+        }
+    }
+
+    /**
+     * @return hit and miss statistics of the artifact cache
+     */
+    public CacheStats getAssignedArtifactStats() {
+        return assignedArtifacts.stats();
+    }
+
+    /**
+     * @return hit and miss statistics of the target ID cache
+     */
+    public CacheStats getTargetIdStats() {
+        return targetIds.stats();
+    }
+
+    private void onTargetIdRemoval(final RemovalNotification<String, Long> notification) {
+        // a replaced entry might be replaced with the same target
+        if (notification.getCause() != RemovalCause.REPLACED && notification.getValue() != null) {
+            final String tenant = notification.getKey().substring(0, notification.getKey().indexOf('/'));
+            controllerIdIndex.remove(targetKey(tenant, notification.getValue()), notification.getKey());
+        }
+    }
+
+    private static String controllerIdKey(final String tenant, final String controllerId) {
+        return tenant.toUpperCase() + "/" + controllerId;
+    }
+
+    private static String targetKey(final String tenant, final Long targetId) {
+        return tenant.toUpperCase() + "/" + targetId;
+    }
+}
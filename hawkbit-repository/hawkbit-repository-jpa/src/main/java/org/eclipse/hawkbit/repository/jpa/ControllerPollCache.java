@@ -0,0 +1,419 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.RepositoryProperties.PollCache;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantConfigurationChangedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Caches the state that is needed to answer controller polls, i.e. the ID of
+ * the oldest active action per target (see
+ * {@link ControllerManagement#findOldestActiveActionByTarget(String)}) and the
+ * polling time per tenant (see {@link ControllerManagement#getPollingTime()}).
+ *
+ * The action state of a target is invalidated by
+ * {@link TargetAssignDistributionSetEvent}s and {@link TargetDeletedEvent}s of
+ * the target and by {@link ActionUpdatedEvent}s and
+ * {@link CancelTargetAssignmentEvent}s of the cached action. Updates of other
+ * actions cannot change the oldest active action of a target without an
+ * assignment event. The polling time of a tenant is invalidated by a
+ * {@link TenantConfigurationChangedEvent} of the polling time configuration.
+ * All entries expire after {@link PollCache#getTtl()} as a fallback.
+ *
+ * Additionally the state of the response to polls of a target can be attached
+ * to its action state (see
+ * {@link ControllerManagement#cachePollResponseState(Target, Action, String)}).
+ * It is dropped together with the action state and additionally by a change
+ * of the polling time or of the controller attribute request flag of the
+ * target (see {@link TargetUpdatedEvent}).
+ */
+public class ControllerPollCache {
+
+    private final Cache<String, ActiveActionState> activeActions;
+
+    private final Cache<String, String> pollingTimes;
+
+    /**
+     * Index of the cached action IDs to the keys of the targets.
+     */
+    private final Map<String, String> actionIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Index of the IDs of the cached targets to their keys.
+     */
+    private final Map<String, String> targetIndex = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            the cache configuration
+     */
+    public ControllerPollCache(final PollCache properties) {
+        this.activeActions = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).recordStats()
+                .removalListener(this::onActiveActionRemoval).build();
+        this.pollingTimes = CacheBuilder.newBuilder().expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS)
+                .recordStats().build();
+    }
+
+    /**
+     * @return stamp to pass to
+     *         {@link #putOldestActiveAction(String, String, Long, Optional, long)}
+     *         which has to be taken before the state is loaded from the
+     *         repository
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @return the cached ID of the oldest active action of the target, an
+     *         empty {@link Optional} if the target has no active action or
+     *         <code>null</code> if the state is not cached
+     */
+    // Exception squid:S2789 - null means not cached in contrast to an empty
+    // optional which is a cached state
+    @SuppressWarnings("squid:S2789")
+    public Optional<Long> getOldestActiveActionId(final String tenant, final String controllerId) {
+        final ActiveActionState state = activeActions.getIfPresent(targetKey(tenant, controllerId));
+        return state != null ? state.actionId : null;
+    }
+
+    /**
+     * Caches the oldest active action of a target unless any state has been
+     * invalidated since the given stamp has been taken.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param targetId
+     *            of the target
+     * @param action
+     *            the oldest active action or empty if the target has no
+     *            active action
+     * @param stamp
+     *            taken by {@link #stamp()} before the state has been loaded
+     */
+    public void putOldestActiveAction(final String tenant, final String controllerId, final Long targetId,
+            final Optional<Action> action, final long stamp) {
+        final String key = targetKey(tenant, controllerId);
+        action.ifPresent(active -> actionIndex.put(idKey(tenant, active.getId()), key));
+        targetIndex.put(idKey(tenant, targetId), key);
+        activeActions.put(key, new ActiveActionState(targetId, action));
+
+        // an invalidation might have been missed in between
+        if (invalidations.get() != stamp) {
+            activeActions.invalidate(key);
+        }
+    }
+
+    /**
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param address
+     *            of the polling target or <code>null</code> if unknown
+     * @return the cached state of the poll response of the target or empty if
+     *         it is not cached or if the target is cached with another
+     *         address
+     */
+    public Optional<String> getPollResponseState(final String tenant, final String controllerId,
+            final String address) {
+        final ActiveActionState state = activeActions.getIfPresent(targetKey(tenant, controllerId));
+        final PollResponseState pollResponse = state != null ? state.pollResponse : null;
+        if (pollResponse == null || (address != null && !address.equals(pollResponse.address))) {
+            return Optional.empty();
+        }
+        return Optional.of(pollResponse.state);
+    }
+
+    /**
+     * Attaches the state of the poll response to the cached action state of
+     * the target if the action state is still the one the poll response has
+     * been calculated from.
+     *
+     * @param tenant
+     *            of the target
+     * @param target
+     *            the poll response has been calculated from
+     * @param action
+     *            the poll response has been calculated from or
+     *            <code>null</code> if the target has no active action
+     * @param state
+     *            of the poll response
+     */
+    public void putPollResponseState(final String tenant, final Target target, final Action action,
+            final String state) {
+        final ActiveActionState actionState = activeActions.asMap().get(targetKey(tenant, target.getControllerId()));
+        if (actionState != null && actionState.isStateOf(action)) {
+            actionState.pollResponse = new PollResponseState(state,
+                    target.getAddress() != null ? target.getAddress().toString() : null,
+                    target.isRequestControllerAttributes());
+        }
+    }
+
+    /**
+     * Invalidates the cached action state of the given target.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     */
+    public void invalidateTarget(final String tenant, final String controllerId) {
+        invalidations.incrementAndGet();
+        activeActions.invalidate(targetKey(tenant, controllerId));
+    }
+
+    /**
+     * Invalidates the cached action state of the target the given action is
+     * cached for, if any.
+     *
+     * @param tenant
+     *            of the action
+     * @param actionId
+     *            of the action
+     */
+    public void invalidateAction(final String tenant, final Long actionId) {
+        invalidations.incrementAndGet();
+        final String key = actionIndex.remove(idKey(tenant, actionId));
+        if (key != null) {
+            activeActions.invalidate(key);
+        }
+    }
+
+    /**
+     * Invalidates the cached action state of the target with the given ID, if
+     * any.
+     *
+     * @param tenant
+     *            of the target
+     * @param targetId
+     *            of the target
+     */
+    public void invalidateTargetId(final String tenant, final Long targetId) {
+        invalidations.incrementAndGet();
+        final String key = targetIndex.remove(idKey(tenant, targetId));
+        if (key != null) {
+            activeActions.invalidate(key);
+        }
+    }
+
+    /**
+     * Returns the polling time of the tenant from the cache or loads it.
+     *
+     * @param tenant
+     *            to get the polling time for
+     * @param loader
+     *            to load the polling time in case it is not cached
+     * @return the polling time
+     */
+    public String getPollingTime(final String tenant, final Supplier<String> loader) {
+        final String key = tenant.toUpperCase();
+        final String cached = pollingTimes.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final String pollingTime = loader.get();
+        if (pollingTime != null) {
+            pollingTimes.put(key, pollingTime);
+        }
+        return pollingTime;
+    }
+
+    /**
+     * Invalidates the action state of the assigned target.
+     *
+     * @param event
+     *            of the assignment
+     */
+    @EventListener(classes = TargetAssignDistributionSetEvent.class)
+    public void onTargetAssignDistributionSet(final TargetAssignDistributionSetEvent event) {
+        invalidateTarget(event.getTenant(), event.getControllerId());
+    }
+
+    /**
+     * Invalidates the action state of the deleted target, i.e. polls of the
+     * target are not answered from the cache anymore.
+     *
+     * @param event
+     *            of the deletion
+     */
+    @EventListener(classes = TargetDeletedEvent.class)
+    public void onTargetDeleted(final TargetDeletedEvent event) {
+        invalidateTargetId(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Drops the cached poll response of the updated target if its controller
+     * attribute request flag has been changed.
+     *
+     * @param event
+     *            of the target update
+     */
+    @EventListener(classes = TargetUpdatedEvent.class)
+    public void onTargetUpdated(final TargetUpdatedEvent event) {
+        final String key = targetIndex.get(idKey(event.getTenant(), event.getEntityId()));
+        final ActiveActionState state = key != null ? activeActions.asMap().get(key) : null;
+        final PollResponseState pollResponse = state != null ? state.pollResponse : null;
+        if (pollResponse != null && (event.getSnapshot() == null || event.getSnapshot()
+                .isRequestControllerAttributes() != pollResponse.requestControllerAttributes)) {
+            state.pollResponse = null;
+        }
+    }
+
+    /**
+     * Invalidates the action state of the target of the canceled action.
+     *
+     * @param event
+     *            of the cancellation
+     */
+    @EventListener(classes = CancelTargetAssignmentEvent.class)
+    public void onCancelTargetAssignment(final CancelTargetAssignmentEvent event) {
+        invalidateAction(event.getTenant(), event.getActionId());
+    }
+
+    /**
+     * Invalidates the action state of the target of the updated action.
+     *
+     * @param event
+     *            of the action update
+     */
+    @EventListener(classes = ActionUpdatedEvent.class)
+    public void onActionUpdated(final ActionUpdatedEvent event) {
+        invalidateAction(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Invalidates the polling time of the tenant if it has been changed.
+     *
+     * @param event
+     *            of the configuration change
+     */
+    @EventListener(classes = TenantConfigurationChangedEvent.class)
+    public void onTenantConfigurationChanged(final TenantConfigurationChangedEvent event) {
+        if (TenantConfigurationKey.POLLING_TIME_INTERVAL.equals(event.getConfigurationKey())) {
+            final String tenant = event.getTenant().toUpperCase();
+            pollingTimes.invalidate(tenant);
+            // the poll responses contain the polling time
+            activeActions.asMap().forEach((key, state) -> {
+                if (key.startsWith(tenant + "/")) {
+                    state.pollResponse = null;
+                }
+            });
+        }
+    }
+
+    /**
+     * @return hit and miss statistics of the action state cache
+     */
+    public CacheStats getActiveActionStats() {
+        return activeActions.stats();
+    }
+
+    /**
+     * @return hit and miss statistics of the polling time cache
+     */
+    public CacheStats getPollingTimeStats() {
+        return pollingTimes.stats();
+    }
+
+    private void onActiveActionRemoval(final RemovalNotification<String, ActiveActionState> notification) {
+        // a replaced entry might be replaced with the same action and target
+        final ActiveActionState state = notification.getValue();
+        if (notification.getCause() == RemovalCause.REPLACED || state == null) {
+            return;
+        }
+        final String tenant = notification.getKey().substring(0, notification.getKey().indexOf('/'));
+        targetIndex.remove(idKey(tenant, state.targetId), notification.getKey());
+        state.actionId.ifPresent(actionId -> actionIndex.remove(idKey(tenant, actionId), notification.getKey()));
+    }
+
+    private static String targetKey(final String tenant, final String controllerId) {
+        return tenant.toUpperCase() + "/" + controllerId;
+    }
+
+    private static String idKey(final String tenant, final Long id) {
+        return tenant.toUpperCase() + "/" + id;
+    }
+
+    /**
+     * Cached oldest active action of a target together with the target ID
+     * which is needed to invalidate the state on deletion of the target.
+     */
+    private static final class ActiveActionState {
+        private final Long targetId;
+        private final Optional<Long> actionId;
+        private final int actionRevision;
+        private volatile PollResponseState pollResponse;
+
+        private ActiveActionState(final Long targetId, final Optional<Action> action) {
+            this.targetId = targetId;
+            this.actionId = action.map(Action::getId);
+            this.actionRevision = action.map(Action::getOptLockRevision).orElse(0);
+        }
+
+        private boolean isStateOf(final Action action) {
+            if (action == null) {
+                return !actionId.isPresent();
+            }
+            return actionId.isPresent() && actionId.get().equals(action.getId())
+                    && actionRevision == action.getOptLockRevision();
+        }
+    }
+
+    /**
+     * Cached state of the poll response of a target together with the target
+     * state it depends on.
+     */
+    private static final class PollResponseState {
+        private final String state;
+        private final String address;
+        private final boolean requestControllerAttributes;
+
+        private PollResponseState(final String state, final String address,
+                final boolean requestControllerAttributes) {
+            this.state = state;
+            this.address = address;
+            this.requestControllerAttributes = requestControllerAttributes;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Aggregates the download progress reports of
+ * {@link ControllerManagement#downloadProgress(Long, Long, Long, Long)} per
+ * tenant and publishes one {@link DownloadProgressEvent} per tenant and
+ * interval with the bytes shipped since the last event.
+ *
+ * The memory footprint is bounded by the number of tenants, i.e. two counters
+ * per tenant. Besides the pending bytes the overall number of bytes served per
+ * tenant is kept for monitoring.
+ *
+ * The interval can be configured using the property from
+ * {#PROP_INTERVAL_PLACEHOLDER}.
+ */
+public class DownloadProgressAggregator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadProgressAggregator.class);
+
+    private static final String PROP_INTERVAL_PLACEHOLDER = "${hawkbit.server.repository.downloadProgressAggregation.interval:5000}";
+
+    private final Map<String, TenantCounter> counters = new ConcurrentHashMap<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final String applicationId;
+
+    /**
+     * Constructor.
+     *
+     * @param eventPublisher
+     *            to publish the aggregated events
+     * @param applicationId
+     *            of this node as origin of the events
+     */
+    public DownloadProgressAggregator(final ApplicationEventPublisher eventPublisher, final String applicationId) {
+        this.eventPublisher = eventPublisher;
+        this.applicationId = applicationId;
+    }
+
+    /**
+     * Adds shipped bytes of a download of the given tenant.
+     *
+     * @param tenant
+     *            of the download
+     * @param shippedBytes
+     *            since the last report of the download
+     */
+    public void add(final String tenant, final long shippedBytes) {
+        final TenantCounter counter = counters.computeIfAbsent(tenant, key -> new TenantCounter());
+        counter.pending.addAndGet(shippedBytes);
+        counter.served.addAndGet(shippedBytes);
+    }
+
+    /**
+     * @param tenant
+     *            to get the counter for
+     * @return overall number of bytes served for the given tenant since
+     *         startup
+     */
+    public long getBytesServed(final String tenant) {
+        final TenantCounter counter = counters.get(tenant);
+        return counter == null ? 0 : counter.served.get();
+    }
+
+    /**
+     * @return overall number of bytes served per tenant since startup
+     */
+    public Map<String, Long> getBytesServed() {
+        return Collections.unmodifiableMap(counters.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().served.get())));
+    }
+
+    /**
+     * Publishes one {@link DownloadProgressEvent} for every tenant with
+     * shipped bytes since the last run. Called by the spring scheduling
+     * mechanism.
+     */
+    @Scheduled(initialDelayString = PROP_INTERVAL_PLACEHOLDER, fixedDelayString = PROP_INTERVAL_PLACEHOLDER)
+    public void publish() {
+        counters.forEach((tenant, counter) -> {
+            final long shipped = counter.pending.getAndSet(0);
+            if (shipped > 0) {
+                LOGGER.trace("Publishing download progress of {} bytes for tenant {}", shipped, tenant);
+                eventPublisher.publishEvent(new DownloadProgressEvent(tenant, shipped, applicationId));
+            }
+        });
+    }
+
+    /**
+     * Publishes the pending progress before shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        publish();
+    }
+
+    private static final class TenantCounter {
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong served = new AtomicLong();
+    }
+}
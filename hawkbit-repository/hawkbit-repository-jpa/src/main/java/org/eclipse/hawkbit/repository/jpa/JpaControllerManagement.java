@@ -9,9 +9,15 @@
 package org.eclipse.hawkbit.repository.jpa;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -42,6 +48,7 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
 import org.eclipse.hawkbit.repository.jpa.specifications.ActionSpecifications;
 import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
 import org.eclipse.hawkbit.repository.model.Action.Status;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.SoftwareModule;
@@ -119,8 +126,27 @@ public class JpaControllerManagement implements ControllerManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired(required = false)
+    private PollStatusWriteBehindBuffer pollStatusWriteBehindBuffer;
+
+    @Autowired(required = false)
+    private DownloadProgressAggregator downloadProgressAggregator;
+
+    @Autowired(required = false)
+    private ControllerPollCache controllerPollCache;
+
+    @Autowired(required = false)
+    private ArtifactAssignmentCache artifactAssignmentCache;
+
     @Override
     public String getPollingTime() {
+        if (controllerPollCache != null) {
+            return controllerPollCache.getPollingTime(tenantAware.getCurrentTenant(), this::loadPollingTime);
+        }
+        return loadPollingTime();
+    }
+
+    private String loadPollingTime() {
         return systemSecurityContext.runAsSystem(() -> tenantConfigurationManagement
                 .getConfigurationValue(TenantConfigurationKey.POLLING_TIME_INTERVAL, String.class).getValue());
     }
@@ -135,6 +161,30 @@ public class JpaControllerManagement implements ControllerManagement {
         return updateTargetStatus(target, null, System.currentTimeMillis(), address);
     }
 
+    private void updateLastTargetQueries(final Collection<String> controllerIds) {
+        final Map<String, JpaTarget> targets = findTargetsByControllerIds(controllerIds);
+        final long lastTargetQuery = System.currentTimeMillis();
+
+        controllerIds.stream().distinct().forEach(controllerId -> {
+            final JpaTarget target = Optional.ofNullable(targets.get(controllerId))
+                    .orElseGet(() -> (JpaTarget) targetRepository.findByControllerId(controllerId)
+                            .orElseThrow(() -> new EntityNotFoundException(Target.class, controllerId)));
+            updateTargetStatus(target, null, lastTargetQuery, null);
+        });
+    }
+
+    private Map<String, JpaTarget> findTargetsByControllerIds(final Collection<String> controllerIds) {
+        if (controllerIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Specification<JpaTarget> spec = (targetRoot, query, cb) -> targetRoot.get(JpaTarget_.controllerId)
+                .in(controllerIds);
+
+        return targetRepository.findAll(spec).stream()
+                .collect(Collectors.toMap(JpaTarget::getControllerId, Function.identity(), (first, second) -> first));
+    }
+
     @Override
     public Optional<Action> getActionForDownloadByTargetAndSoftwareModule(final String controllerId,
             final Long moduleId) {
@@ -170,20 +220,124 @@ public class JpaControllerManagement implements ControllerManagement {
 
     @Override
     public boolean hasTargetArtifactAssigned(final String controllerId, final String sha1Hash) {
-        throwExceptionIfTargetDoesNotExist(controllerId);
-        return actionRepository.count(ActionSpecifications.hasTargetAssignedArtifact(controllerId, sha1Hash)) > 0;
+        if (artifactAssignmentCache == null) {
+            throwExceptionIfTargetDoesNotExist(controllerId);
+            return actionRepository
+                    .count(ActionSpecifications.hasTargetAssignedArtifact(controllerId, sha1Hash)) > 0;
+        }
+
+        final String tenant = tenantAware.getCurrentTenant();
+        Long targetId = artifactAssignmentCache.getTargetId(tenant, controllerId);
+        if (targetId == null) {
+            targetId = targetRepository.findIdByControllerId(controllerId);
+            if (targetId == null) {
+                throw new EntityNotFoundException(Target.class, controllerId);
+            }
+            artifactAssignmentCache.putTargetId(tenant, controllerId, targetId);
+        }
+        return hasCachedTargetArtifactAssigned(tenant, targetId, sha1Hash);
     }
 
     @Override
     public boolean hasTargetArtifactAssigned(final Long targetId, final String sha1Hash) {
+        if (artifactAssignmentCache == null) {
+            throwExceptionIfTargetDoesNotExist(targetId);
+            return actionRepository.count(ActionSpecifications.hasTargetAssignedArtifact(targetId, sha1Hash)) > 0;
+        }
+
+        return hasCachedTargetArtifactAssigned(tenantAware.getCurrentTenant(), targetId, sha1Hash);
+    }
+
+    private boolean hasCachedTargetArtifactAssigned(final String tenant, final Long targetId,
+            final String sha1Hash) {
+        final Set<String> cached = artifactAssignmentCache.getAssignedArtifacts(tenant, targetId);
+        if (cached != null && cached.contains(sha1Hash)) {
+            return true;
+        }
+
+        // not cached or assigned in the meantime
         throwExceptionIfTargetDoesNotExist(targetId);
-        return actionRepository.count(ActionSpecifications.hasTargetAssignedArtifact(targetId, sha1Hash)) > 0;
+        final long stamp = artifactAssignmentCache.stamp();
+        final Set<String> assigned = new HashSet<>(actionRepository.findAssignedArtifactSha1HashesByTarget(targetId));
+        artifactAssignmentCache.putAssignedArtifacts(tenant, targetId, assigned, stamp);
+        return assigned.contains(sha1Hash);
     }
 
     @Override
     public Optional<Action> findOldestActiveActionByTarget(final String controllerId) {
+        if (controllerPollCache == null) {
+            return loadOldestActiveActionByTarget(controllerId);
+        }
+
+        final String tenant = tenantAware.getCurrentTenant();
+        final Optional<Long> cachedActionId = controllerPollCache.getOldestActiveActionId(tenant, controllerId);
+        if (cachedActionId != null) {
+            if (!cachedActionId.isPresent()) {
+                return Optional.empty();
+            }
+            final Action cachedAction = actionRepository.findOne(cachedActionId.get());
+            if (cachedAction != null && cachedAction.isActive()) {
+                return Optional.of(cachedAction);
+            }
+            controllerPollCache.invalidateTarget(tenant, controllerId);
+        }
+
+        final long stamp = controllerPollCache.stamp();
+        // the target ID is cached to invalidate the state on deletion of the
+        // target
+        final Long targetId = targetRepository.findIdByControllerId(controllerId);
+        if (targetId == null) {
+            throw new EntityNotFoundException(Target.class, controllerId);
+        }
+        final Optional<Action> action = findOldestActiveAction(controllerId);
+        controllerPollCache.putOldestActiveAction(tenant, controllerId, targetId, action, stamp);
+        return action;
+    }
+
+    @Override
+    public Optional<String> findCachedPollResponseState(final String controllerId, final URI address) {
+        if (controllerPollCache == null) {
+            return Optional.empty();
+        }
+        return controllerPollCache.getPollResponseState(tenantAware.getCurrentTenant(), controllerId,
+                address != null ? address.toString() : null);
+    }
+
+    @Override
+    public void cachePollResponseState(final Target target, final Action action, final String state) {
+        // the state of a time forced action changes by time
+        if (controllerPollCache == null || (action != null && ActionType.TIMEFORCED.equals(action.getActionType())
+                && !action.isHitAutoForceTime(System.currentTimeMillis()))) {
+            return;
+        }
+        controllerPollCache.putPollResponseState(tenantAware.getCurrentTenant(), target, action, state);
+    }
+
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public void registerPollOfCachedTarget(final String controllerId, final URI address) {
+        final String tenant = tenantAware.getCurrentTenant();
+        final long lastTargetQuery = System.currentTimeMillis();
+
+        // the cached target is known to exist and to be registered already
+        if (pollStatusWriteBehindBuffer == null
+                || !pollStatusWriteBehindBuffer.offer(tenant, controllerId, lastTargetQuery)) {
+            targetRepository.setLastTargetQuery(lastTargetQuery, Collections.singletonList(controllerId));
+        }
+
+        if (address != null) {
+            afterCommit.afterCommit(() -> eventPublisher.publishEvent(
+                    new TargetPollEvent(controllerId, address.toString(), tenant, applicationContext.getId())));
+        }
+    }
+
+    private Optional<Action> loadOldestActiveActionByTarget(final String controllerId) {
         throwExceptionIfTargetDoesNotExist(controllerId);
+        return findOldestActiveAction(controllerId);
+    }
 
+    private Optional<Action> findOldestActiveAction(final String controllerId) {
         // used in favorite to findFirstByTargetAndActiveOrderByIdAsc due to
         // DATAJPA-841 issue.
         return actionRepository.findFirstByTargetControllerIdAndActive(new Sort(Direction.ASC, "id"), controllerId,
@@ -219,8 +373,32 @@ public class JpaControllerManagement implements ControllerManagement {
         return updateTargetStatus(target, null, System.currentTimeMillis(), address);
     }
 
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    public List<Target> findOrRegisterTargetsIfTheyDoNotExist(final Map<String, URI> targets) {
+        // existing targets are loaded with one query, the others are
+        // registered one by one
+        final Map<String, JpaTarget> existing = findTargetsByControllerIds(targets.keySet());
+        final long lastTargetQuery = System.currentTimeMillis();
+
+        return targets.entrySet().stream().map(entry -> {
+            final JpaTarget target = existing.get(entry.getKey());
+            if (target == null) {
+                return findOrRegisterTargetIfItDoesNotexist(entry.getKey(), entry.getValue());
+            }
+            return updateTargetStatus(target, null, lastTargetQuery, entry.getValue());
+        }).collect(Collectors.toList());
+    }
+
     private Target updateTargetStatus(final JpaTarget toUpdate, final TargetUpdateStatus status,
             final Long lastTargetQuery, final URI address) {
+        if (status == null && lastTargetQuery != null && isPollStatusOnlyUpdate(toUpdate, address)
+                && pollStatusWriteBehindBuffer.offer(tenantAware.getCurrentTenant(), toUpdate.getControllerId(),
+                        lastTargetQuery)) {
+            return bufferedTargetStatus(toUpdate, lastTargetQuery, address);
+        }
+
         if (status != null) {
             toUpdate.setUpdateStatus(status);
         }
@@ -241,6 +419,30 @@ public class JpaControllerManagement implements ControllerManagement {
         return targetRepository.save(toUpdate);
     }
 
+    /**
+     * @return <code>true</code> if the poll write-behind is enabled and the
+     *         poll does not change the address or the status of the target,
+     *         i.e. only {@link Target#getLastTargetQuery()} has to be updated
+     */
+    private boolean isPollStatusOnlyUpdate(final JpaTarget target, final URI address) {
+        return pollStatusWriteBehindBuffer != null && !TargetUpdateStatus.UNKNOWN.equals(target.getUpdateStatus())
+                && (address == null || address.equals(target.getAddress()));
+    }
+
+    private Target bufferedTargetStatus(final JpaTarget target, final Long lastTargetQuery, final URI address) {
+        // detached so that the new poll time does not end up in an entity
+        // update at commit. It is written by the write-behind buffer instead.
+        entityManager.detach(target);
+        target.setLastTargetQuery(lastTargetQuery);
+
+        if (address != null) {
+            afterCommit.afterCommit(
+                    () -> eventPublisher.publishEvent(new TargetPollEvent(target, applicationContext.getId())));
+        }
+
+        return target;
+    }
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_COMMITTED)
@@ -306,6 +508,22 @@ public class JpaControllerManagement implements ControllerManagement {
         return handleAddUpdateActionStatus(actionStatus, action);
     }
 
+    @Override
+    @Modifying
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<Action> addActionStatuses(final List<ActionStatusCreate> creates) {
+        final List<Action> updated = creates.stream().map(create -> {
+            if (Status.CANCELED.equals(((JpaActionStatusCreate) create).getStatus())) {
+                return addCancelActionStatus(create);
+            }
+            return addUpdateActionStatus(create);
+        }).collect(Collectors.toList());
+
+        updateLastTargetQueries(
+                updated.stream().map(action -> action.getTarget().getControllerId()).collect(Collectors.toList()));
+        return updated;
+    }
+
     private boolean actionIsNotActiveButIntermediateFeedbackStillAllowed(final ActionStatus actionStatus,
             final boolean actionActive) {
         return !actionActive && (repositoryProperties.isRejectActionStatusForClosedAction()
@@ -404,6 +622,11 @@ public class JpaControllerManagement implements ControllerManagement {
         target.setLastTargetQuery(System.currentTimeMillis());
         target.setRequestControllerAttributes(false);
 
+        // the cached poll response requests the attributes
+        if (controllerPollCache != null) {
+            controllerPollCache.invalidateTarget(tenantAware.getCurrentTenant(), controllerId);
+        }
+
         return targetRepository.save(target);
     }
 
@@ -489,6 +712,11 @@ public class JpaControllerManagement implements ControllerManagement {
     @Override
     public void downloadProgress(final Long statusId, final Long requestedBytes, final Long shippedBytesSinceLast,
             final Long shippedBytesOverall) {
+        if (downloadProgressAggregator != null) {
+            downloadProgressAggregator.add(tenantAware.getCurrentTenant(), shippedBytesSinceLast);
+            return;
+        }
+
         eventPublisher.publishEvent(new DownloadProgressEvent(tenantAware.getCurrentTenant(), shippedBytesSinceLast,
                 applicationContext.getId()));
     }
@@ -30,10 +30,13 @@ import javax.validation.constraints.NotNull;
 
 import org.eclipse.hawkbit.repository.ActionFields;
 import org.eclipse.hawkbit.repository.DeploymentManagement;
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
 import org.eclipse.hawkbit.repository.RepositoryConstants;
+import org.eclipse.hawkbit.repository.RepositoryProperties;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.CancelTargetAssignmentEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetEventSnapshot;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.exception.CancelActionNotAllowedException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
@@ -120,6 +123,9 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     @Autowired
     private ActionStatusRepository actionStatusRepository;
 
+    @Autowired
+    private NoCountPagingRepository criteriaNoCountDao;
+
     @Autowired
     private TargetManagement targetManagement;
 
@@ -141,6 +147,9 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     @Autowired
     private PlatformTransactionManager txManager;
 
+    @Autowired
+    private RepositoryProperties repositoryProperties;
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
@@ -313,7 +322,8 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         entityManager.detach(target);
 
         afterCommit.afterCommit(
-                () -> eventPublisher.publishEvent(new TargetUpdatedEvent(target, applicationContext.getId())));
+                () -> eventPublisher.publishEvent(
+                        new TargetUpdatedEvent(target, createEventSnapshot(target), applicationContext.getId())));
         afterCommit.afterCommit(() -> eventPublisher
                 .publishEvent(new TargetAssignDistributionSetEvent(action, applicationContext.getId())));
     }
@@ -388,7 +398,12 @@ public class JpaDeploymentManagement implements DeploymentManagement {
      */
     private void cancelAssignDistributionSetEvent(final Target target, final Long actionId) {
         afterCommit.afterCommit(() -> eventPublisher
-                .publishEvent(new CancelTargetAssignmentEvent(target, actionId, applicationContext.getId())));
+                .publishEvent(new CancelTargetAssignmentEvent(target, actionId, createEventSnapshot(target),
+                        applicationContext.getId())));
+    }
+
+    private TargetEventSnapshot createEventSnapshot(final Target target) {
+        return repositoryProperties.isEmbedEventSnapshots() ? new TargetEventSnapshot(target) : null;
     }
 
     @Override
@@ -537,6 +552,12 @@ public class JpaDeploymentManagement implements DeploymentManagement {
     @Override
     public Slice<Action> findActionsByTarget(final String controllerId, final Pageable pageable) {
         throwExceptionIfTargetDoesNotExist(controllerId);
+        if (pageable instanceof KeysetPageRequest) {
+            return convertAcPage(criteriaNoCountDao.seek(
+                    (root, query, cb) -> cb.equal(root.get(JpaAction_.target).get(JpaTarget_.controllerId),
+                            controllerId),
+                    (KeysetPageRequest) pageable, JpaAction.class), pageable);
+        }
         return actionRepository.findByTargetControllerId(pageable, controllerId);
     }
 
@@ -571,7 +592,9 @@ public class JpaDeploymentManagement implements DeploymentManagement {
         throwExceptionIfTargetDoesNotExist(controllerId);
 
         final Specification<JpaAction> byTargetSpec = createSpecificationFor(controllerId, rsqlParam);
-        final Page<JpaAction> actions = actionRepository.findAll(byTargetSpec, pageable);
+        final Page<JpaAction> actions = pageable instanceof KeysetPageRequest
+                ? criteriaNoCountDao.seek(byTargetSpec, (KeysetPageRequest) pageable, JpaAction.class)
+                : actionRepository.findAll(byTargetSpec, pageable);
         return convertAcPage(actions, pageable);
     }
 
@@ -654,6 +677,13 @@ public class JpaDeploymentManagement implements DeploymentManagement {
             throw new EntityNotFoundException(Action.class, actionId);
         }
 
+        if (pageReq instanceof KeysetPageRequest) {
+            final Page<JpaActionStatus> statusList = criteriaNoCountDao.seek(
+                    (root, query, cb) -> cb.equal(root.get(JpaActionStatus_.action).get(JpaAction_.id), actionId),
+                    (KeysetPageRequest) pageReq, JpaActionStatus.class, "ActionStatus.withMessages");
+            return new PageImpl<>(new ArrayList<>(statusList.getContent()), pageReq, statusList.getTotalElements());
+        }
+
         return actionStatusRepository.getByActionId(pageReq, actionId);
     }
 
@@ -23,6 +23,7 @@ import javax.persistence.criteria.ListJoin;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
 import org.eclipse.hawkbit.repository.RolloutGroupFields;
 import org.eclipse.hawkbit.repository.RolloutGroupManagement;
 import org.eclipse.hawkbit.repository.TargetFields;
@@ -80,6 +81,9 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
     @Autowired
     private VirtualPropertyReplacer virtualPropertyReplacer;
 
+    @Autowired
+    private NoCountPagingRepository criteriaNoCountDao;
+
     @Override
     public Optional<RolloutGroup> findRolloutGroupById(final Long rolloutGroupId) {
         return Optional.ofNullable(rolloutGroupRepository.findOne(rolloutGroupId));
@@ -87,9 +91,18 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
 
     @Override
     public Page<RolloutGroup> findRolloutGroupsByRolloutId(final Long rolloutId, final Pageable pageable) {
+        if (pageable instanceof KeysetPageRequest) {
+            return convertPage(criteriaNoCountDao.seek(byRolloutId(rolloutId), (KeysetPageRequest) pageable,
+                    JpaRolloutGroup.class), pageable);
+        }
         return convertPage(rolloutGroupRepository.findByRolloutId(rolloutId, pageable), pageable);
     }
 
+    private static Specification<JpaRolloutGroup> byRolloutId(final Long rolloutId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder
+                .equal(root.get(JpaRolloutGroup_.rollout).get(JpaRollout_.id), rolloutId);
+    }
+
     private static Page<RolloutGroup> convertPage(final Page<JpaRolloutGroup> findAll, final Pageable pageable) {
         return new PageImpl<>(Collections.unmodifiableList(findAll.getContent()), pageable, findAll.getTotalElements());
     }
@@ -105,15 +118,16 @@ public class JpaRolloutGroupManagement implements RolloutGroupManagement {
         final Specification<JpaRolloutGroup> specification = RSQLUtility.parse(rsqlParam, RolloutGroupFields.class,
                 virtualPropertyReplacer);
 
-        return convertPage(
-                rolloutGroupRepository
-                        .findAll(
-                                (root, query,
-                                        criteriaBuilder) -> criteriaBuilder.and(criteriaBuilder.equal(
-                                                root.get(JpaRolloutGroup_.rollout).get(JpaRollout_.id), rolloutId),
-                                                specification.toPredicate(root, query, criteriaBuilder)),
-                                pageable),
-                pageable);
+        final Specification<JpaRolloutGroup> byRolloutAndRsql = (root, query,
+                criteriaBuilder) -> criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get(JpaRolloutGroup_.rollout).get(JpaRollout_.id), rolloutId),
+                        specification.toPredicate(root, query, criteriaBuilder));
+
+        if (pageable instanceof KeysetPageRequest) {
+            return convertPage(criteriaNoCountDao.seek(byRolloutAndRsql, (KeysetPageRequest) pageable,
+                    JpaRolloutGroup.class), pageable);
+        }
+        return convertPage(rolloutGroupRepository.findAll(byRolloutAndRsql, pageable), pageable);
     }
 
     @Override
@@ -12,10 +12,16 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.validation.ConstraintDeclarationException;
 
 import org.apache.commons.lang3.StringUtils;
@@ -31,6 +37,7 @@ import org.eclipse.hawkbit.repository.builder.GenericRolloutUpdate;
 import org.eclipse.hawkbit.repository.builder.RolloutCreate;
 import org.eclipse.hawkbit.repository.builder.RolloutGroupCreate;
 import org.eclipse.hawkbit.repository.builder.RolloutUpdate;
+import org.eclipse.hawkbit.repository.event.remote.RolloutActionsCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutUpdatedEvent;
 import org.eclipse.hawkbit.repository.exception.ConstraintViolationException;
@@ -42,6 +49,9 @@ import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRollout;
 import org.eclipse.hawkbit.repository.jpa.model.JpaRolloutGroup;
 import org.eclipse.hawkbit.repository.jpa.model.RolloutTargetGroup;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutBulkWriter;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutHandlingTracker;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutSchedulerProperties;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupActionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rollout.condition.RolloutGroupConditionEvaluator;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
@@ -80,6 +90,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.integration.support.locks.LockRegistry;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Isolation;
@@ -88,7 +99,9 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.validation.annotation.Validated;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * JPA implementation of {@link RolloutManagement}.
@@ -123,6 +136,17 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     @Autowired
     private AfterTransactionCommitExecutor afterCommit;
 
+    @Autowired
+    private RolloutHandlingTracker rolloutHandlingTracker;
+
+    @Autowired
+    private RolloutSchedulerProperties rolloutSchedulerProperties;
+
+    @Autowired
+    private RolloutBulkWriter rolloutBulkWriter;
+
+    private ExecutorService rolloutHandlerExecutor;
+
     JpaRolloutManagement(final TargetManagement targetManagement, final DeploymentManagement deploymentManagement,
             final RolloutGroupManagement rolloutGroupManagement,
             final DistributionSetManagement distributionSetManagement, final ApplicationContext context,
@@ -133,6 +157,22 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
                 eventPublisher, virtualPropertyReplacer, txManager, tenantAware, lockRegistry);
     }
 
+    @PostConstruct
+    void initRolloutHandlerExecutor() {
+        if (rolloutSchedulerProperties.getThreads() > 1) {
+            rolloutHandlerExecutor = new DelegatingSecurityContextExecutorService(
+                    Executors.newFixedThreadPool(rolloutSchedulerProperties.getThreads(),
+                            new ThreadFactoryBuilder().setNameFormat("rollout-handler-pool-%d").build()));
+        }
+    }
+
+    @PreDestroy
+    void shutdownRolloutHandlerExecutor() {
+        if (rolloutHandlerExecutor != null) {
+            rolloutHandlerExecutor.shutdown();
+        }
+    }
+
     @Override
     public Page<Rollout> findAll(final Pageable pageable, final boolean deleted) {
         final Specification<JpaRollout> spec = RolloutSpecification.isDeleted(deleted);
@@ -390,6 +430,11 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     }
 
     private void createAssignmentOfTargetsToGroup(final Page<Target> targets, final RolloutGroup group) {
+        if (rolloutSchedulerProperties.isBulkPersistence()) {
+            rolloutBulkWriter.insertRolloutTargetGroups(group.getId(),
+                    targets.getContent().stream().map(Target::getId).collect(Collectors.toList()));
+            return;
+        }
         targets.forEach(target -> rolloutTargetGroupRepository.save(new RolloutTargetGroup(group, target)));
     }
 
@@ -525,6 +570,15 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         // created.
         final List<Long> targetIds = targets.stream().map(Target::getId).collect(Collectors.toList());
         actionRepository.switchStatus(Action.Status.CANCELED, targetIds, false, Action.Status.SCHEDULED);
+
+        if (rolloutSchedulerProperties.isBulkPersistence()) {
+            rolloutBulkWriter.insertScheduledActions(targetIds, distributionSet.getId(), actionType, forcedTime,
+                    rollout.getId(), rolloutGroup.getId());
+            afterCommit.afterCommit(() -> eventPublisher.publishEvent(new RolloutActionsCreatedEvent(
+                    rollout.getTenant(), rollout.getId(), rolloutGroup.getId(), targetIds.size(), context.getId())));
+            return;
+        }
+
         targets.forEach(target -> {
             final JpaAction action = new JpaAction();
             action.setTarget(target);
@@ -568,6 +622,7 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
         rollout.setStatus(RolloutStatus.RUNNING);
         rolloutRepository.save(rollout);
+        rolloutHandlingTracker.markDirty(tenantAware.getCurrentTenant(), rolloutId);
     }
 
     private void handleRunningRollout(final JpaRollout rollout) {
@@ -715,10 +770,34 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
     // No transaction, will be created per handled rollout
     @Transactional(propagation = Propagation.NEVER)
     public void handleRollouts() {
-        rolloutRepository
-                .findByStatusIn(Lists.newArrayList(RolloutStatus.CREATING, RolloutStatus.DELETING,
-                        RolloutStatus.STARTING, RolloutStatus.READY, RolloutStatus.RUNNING))
-                .forEach(this::handleRollout);
+        final List<Long> rollouts = rolloutRepository.findByStatusIn(Lists.newArrayList(RolloutStatus.CREATING,
+                RolloutStatus.DELETING, RolloutStatus.STARTING, RolloutStatus.READY, RolloutStatus.RUNNING));
+        rolloutHandlingTracker.retain(tenantAware.getCurrentTenant(), rollouts);
+
+        if (rolloutHandlerExecutor == null || rollouts.size() < 2) {
+            rollouts.forEach(this::handleRollout);
+            return;
+        }
+
+        // rollouts are independent from each other and locked separately so
+        // they can be handled in parallel
+        final List<Future<?>> handlers = rollouts.stream()
+                .map(rolloutId -> rolloutHandlerExecutor.submit(() -> handleRollout(rolloutId)))
+                .collect(Collectors.toList());
+        waitUntilHandlersAreComplete(handlers);
+    }
+
+    private static void waitUntilHandlersAreComplete(final List<Future<?>> handlers) {
+        for (final Future<?> handler : handlers) {
+            try {
+                handler.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Throwables.propagate(e);
+            } catch (final ExecutionException e) {
+                LOGGER.error("Rollout handler failed", e.getCause());
+            }
+        }
     }
 
     private void handleRollout(final Long rolloutId) {
@@ -733,15 +812,28 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
         }
 
         try {
-            runInNewTransaction(handlerId, status -> executeFittingHandler(rolloutId));
+            runInNewTransaction(handlerId, status -> executeFittingHandler(tenant, rolloutId));
+        } catch (final RuntimeException e) {
+            // the dirty mark has been reset by the failed handler run, mark
+            // the rollout again so that it is re-evaluated by the next run
+            rolloutHandlingTracker.markDirty(tenant, rolloutId);
+            throw e;
         } finally {
             lock.unlock();
         }
     }
 
-    private int executeFittingHandler(final Long rolloutId) {
+    private int executeFittingHandler(final String tenant, final Long rolloutId) {
         final JpaRollout rollout = rolloutRepository.findOne(rolloutId);
 
+        if (RolloutStatus.RUNNING.equals(rollout.getStatus())
+                && !rolloutHandlingTracker.checkAndResetDirty(tenant, rolloutId)) {
+            LOGGER.trace("Rollout {} has not changed since the last check", rolloutId);
+            return 0;
+        }
+
+        final long start = System.currentTimeMillis();
+
         switch (rollout.getStatus()) {
         case CREATING:
             handleCreateRollout(rollout);
@@ -763,6 +855,7 @@ public class JpaRolloutManagement extends AbstractRolloutManagement {
             break;
         }
 
+        rolloutHandlingTracker.recordHandling(tenant, rolloutId, System.currentTimeMillis() - start);
         return 0;
     }
 
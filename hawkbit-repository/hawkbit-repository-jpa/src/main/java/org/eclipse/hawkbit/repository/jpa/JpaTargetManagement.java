@@ -11,6 +11,7 @@ package org.eclipse.hawkbit.repository.jpa;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,12 +21,16 @@ import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.MapJoin;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.hawkbit.repository.FilterParams;
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
 import org.eclipse.hawkbit.repository.TargetFields;
 import org.eclipse.hawkbit.repository.TargetManagement;
 import org.eclipse.hawkbit.repository.TimestampCalculator;
@@ -36,16 +41,19 @@ import org.eclipse.hawkbit.repository.exception.EntityAlreadyExistsException;
 import org.eclipse.hawkbit.repository.exception.EntityNotFoundException;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaTargetCreate;
 import org.eclipse.hawkbit.repository.jpa.builder.JpaTargetUpdate;
+import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet;
 import org.eclipse.hawkbit.repository.jpa.model.JpaDistributionSet_;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTargetTag;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTarget_;
 import org.eclipse.hawkbit.repository.jpa.rsql.RSQLUtility;
+import org.eclipse.hawkbit.repository.jpa.specifications.KeysetSpecifications;
 import org.eclipse.hawkbit.repository.jpa.specifications.SpecificationsBuilder;
 import org.eclipse.hawkbit.repository.jpa.specifications.TargetSpecifications;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.RolloutGroup;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TargetExportEntry;
 import org.eclipse.hawkbit.repository.model.TargetFilterQuery;
 import org.eclipse.hawkbit.repository.model.TargetTag;
 import org.eclipse.hawkbit.repository.model.TargetTagAssignmentResult;
@@ -61,7 +69,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -127,6 +137,10 @@ public class JpaTargetManagement implements TargetManagement {
 
     @Override
     public Slice<Target> findTargetsAll(final Pageable pageable) {
+        if (pageable instanceof KeysetPageRequest) {
+            return convertPage(criteriaNoCountDao.seek(null, (KeysetPageRequest) pageable, JpaTarget.class),
+                    pageable);
+        }
         return convertPage(criteriaNoCountDao.findAll(pageable, JpaTarget.class), pageable);
     }
 
@@ -146,9 +160,92 @@ public class JpaTargetManagement implements TargetManagement {
     }
 
     private Page<Target> findTargetsBySpec(final Specification<JpaTarget> spec, final Pageable pageable) {
+        if (pageable instanceof KeysetPageRequest) {
+            return convertPage(criteriaNoCountDao.seek(spec, (KeysetPageRequest) pageable, JpaTarget.class),
+                    pageable);
+        }
         return convertPage(targetRepository.findAll(spec, pageable), pageable);
     }
 
+    @Override
+    public Slice<TargetExportEntry> findTargetExportEntries(final String rsqlParam,
+            final KeysetPageRequest pageable, final boolean withControllerAttributes) {
+        final Specification<JpaTarget> rsqlSpec = rsqlParam == null ? null
+                : RSQLUtility.parse(rsqlParam, TargetFields.class, virtualPropertyReplacer);
+        final Specification<JpaTarget> spec = Specifications.where(rsqlSpec)
+                .and(KeysetSpecifications.<JpaTarget> seek(pageable));
+
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        final Join<JpaTarget, JpaDistributionSet> assignedSet = targetRoot.join(JpaTarget_.assignedDistributionSet,
+                JoinType.LEFT);
+        final Join<JpaTarget, JpaDistributionSet> installedSet = targetRoot
+                .join(JpaTarget_.installedDistributionSet, JoinType.LEFT);
+
+        // scalar multiselect, i.e. no entities are loaded into the
+        // persistence context and no distribution set is loaded per target
+        query.multiselect(targetRoot.get(JpaTarget_.id), targetRoot.get(JpaTarget_.controllerId),
+                targetRoot.get(JpaTarget_.name), targetRoot.get(JpaTarget_.description),
+                targetRoot.get(JpaTarget_.address), targetRoot.get(JpaTarget_.updateStatus),
+                targetRoot.get(JpaTarget_.lastTargetQuery), targetRoot.get(JpaTarget_.installationDate),
+                targetRoot.get(JpaTarget_.createdBy), targetRoot.get(JpaTarget_.createdAt),
+                targetRoot.get(JpaTarget_.lastModifiedBy), targetRoot.get(JpaTarget_.lastModifiedAt),
+                assignedSet.get(JpaDistributionSet_.name), assignedSet.get(JpaDistributionSet_.version),
+                installedSet.get(JpaDistributionSet_.name), installedSet.get(JpaDistributionSet_.version));
+
+        final Predicate predicate = spec.toPredicate(targetRoot, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), targetRoot, cb));
+
+        final List<TargetExportEntry> entries = entityManager.createQuery(query)
+                .setFirstResult(pageable.getOffset()).setMaxResults(pageable.getPageSize()).getResultList().stream()
+                .map(JpaTargetManagement::toExportEntry).collect(Collectors.toList());
+
+        if (withControllerAttributes && !entries.isEmpty()) {
+            final Map<Long, Map<String, String>> attributes = findControllerAttributes(
+                    entries.stream().map(TargetExportEntry::getId).collect(Collectors.toList()));
+            entries.forEach(entry -> entry
+                    .setControllerAttributes(attributes.getOrDefault(entry.getId(), Collections.emptyMap())));
+        }
+
+        return new SliceImpl<>(entries, pageable, entries.size() == pageable.getPageSize());
+    }
+
+    private static TargetExportEntry toExportEntry(final Object[] row) {
+        final TargetExportEntry entry = new TargetExportEntry((Long) row[0], (String) row[1]);
+        entry.setName((String) row[2]);
+        entry.setDescription((String) row[3]);
+        entry.setAddress((String) row[4]);
+        entry.setUpdateStatus((TargetUpdateStatus) row[5]);
+        entry.setLastTargetQuery((Long) row[6]);
+        entry.setInstallationDate((Long) row[7]);
+        entry.setCreatedBy((String) row[8]);
+        entry.setCreatedAt((Long) row[9]);
+        entry.setLastModifiedBy((String) row[10]);
+        entry.setLastModifiedAt((Long) row[11]);
+        entry.setAssignedDistributionSet((String) row[12], (String) row[13]);
+        entry.setInstalledDistributionSet((String) row[14], (String) row[15]);
+        return entry;
+    }
+
+    private Map<Long, Map<String, String>> findControllerAttributes(final List<Long> targetIds) {
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        final Root<JpaTarget> targetRoot = query.from(JpaTarget.class);
+        final MapJoin<JpaTarget, String, String> attributes = targetRoot.join(JpaTarget_.controllerAttributes);
+        query.multiselect(targetRoot.get(JpaTarget_.id), attributes.key(), attributes.value())
+                .where(targetRoot.get(JpaTarget_.id).in(targetIds));
+
+        final Map<Long, Map<String, String>> result = new HashMap<>();
+        for (final Object[] row : entityManager.createQuery(query).getResultList()) {
+            result.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((String) row[1], (String) row[2]);
+        }
+        return result;
+    }
+
     @Override
     @Modifying
     @Transactional(isolation = Isolation.READ_UNCOMMITTED)
@@ -179,8 +276,8 @@ public class JpaTargetManagement implements TargetManagement {
 
         targetRepository.deleteByIdIn(targetIDs);
 
-        targetIDs.forEach(targetId -> eventPublisher.publishEvent(new TargetDeletedEvent(tenantAware.getCurrentTenant(),
-                targetId, JpaTarget.class.getName(), applicationContext.getId())));
+        targets.forEach(target -> eventPublisher.publishEvent(new TargetDeletedEvent(tenantAware.getCurrentTenant(),
+                target.getId(), target.getControllerId(), JpaTarget.class.getName(), applicationContext.getId())));
     }
 
     @Override
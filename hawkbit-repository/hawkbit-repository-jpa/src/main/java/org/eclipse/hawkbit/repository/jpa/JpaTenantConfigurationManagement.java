@@ -11,9 +11,12 @@ package org.eclipse.hawkbit.repository.jpa;
 import java.io.Serializable;
 
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.event.remote.TenantConfigurationChangedEvent;
+import org.eclipse.hawkbit.repository.jpa.executor.AfterTransactionCommitExecutor;
 import org.eclipse.hawkbit.repository.jpa.model.JpaTenantConfiguration;
 import org.eclipse.hawkbit.repository.model.TenantConfiguration;
 import org.eclipse.hawkbit.repository.model.TenantConfigurationValue;
+import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
 import org.eclipse.hawkbit.tenancy.configuration.validator.TenantConfigurationValidatorException;
@@ -21,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.support.ConfigurableConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.data.jpa.repository.Modifying;
@@ -44,6 +48,15 @@ public class JpaTenantConfigurationManagement implements TenantConfigurationMana
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AfterTransactionCommitExecutor afterCommit;
+
+    @Autowired
+    private TenantAware tenantAware;
+
     private static final ConfigurableConversionService conversionService = new DefaultConversionService();
 
     @Override
@@ -149,6 +162,7 @@ public class JpaTenantConfigurationManagement implements TenantConfigurationMana
 
         final JpaTenantConfiguration updatedTenantConfiguration = tenantConfigurationRepository
                 .save(tenantConfiguration);
+        publishChangedEvent(configurationKey.getKeyName());
 
         @SuppressWarnings("unchecked")
         final Class<T> clazzT = (Class<T>) value.getClass();
@@ -166,5 +180,12 @@ public class JpaTenantConfigurationManagement implements TenantConfigurationMana
     @Modifying
     public void deleteConfiguration(final String configurationKeyName) {
         tenantConfigurationRepository.deleteByKey(configurationKeyName);
+        publishChangedEvent(configurationKeyName);
+    }
+
+    private void publishChangedEvent(final String configurationKeyName) {
+        final String tenant = tenantAware.getCurrentTenant();
+        afterCommit.afterCommit(() -> eventPublisher.publishEvent(
+                new TenantConfigurationChangedEvent(tenant, configurationKeyName, applicationContext.getId())));
     }
 }
@@ -15,12 +15,15 @@ import javax.persistence.Entity;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
+import org.eclipse.hawkbit.repository.jpa.specifications.KeysetSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.Specifications;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.stereotype.Repository;
@@ -77,6 +80,48 @@ public class NoCountPagingRepository {
         return noCountDao.findAll(pageable);
     }
 
+    /**
+     * Searches for the page of the given {@link KeysetPageRequest} without the
+     * need for an extra count query, i.e. the total elements of the returned
+     * {@link Page} are not counted.
+     *
+     * @param spec
+     *            to search for, can be {@literal null}
+     * @param pageable
+     *            information including the last key of the previous page
+     * @param domainClass
+     *            of the {@link Entity}
+     *
+     * @return {@link Page} of data
+     */
+    public <T, I extends Serializable> Page<T> seek(final Specification<T> spec, final KeysetPageRequest pageable,
+            final Class<T> domainClass) {
+        return seek(spec, pageable, domainClass, null);
+    }
+
+    /**
+     * Searches for the page of the given {@link KeysetPageRequest} without the
+     * need for an extra count query, i.e. the total elements of the returned
+     * {@link Page} are not counted.
+     *
+     * @param spec
+     *            to search for, can be {@literal null}
+     * @param pageable
+     *            information including the last key of the previous page
+     * @param domainClass
+     *            of the {@link Entity}
+     * @param entityGraph
+     *            name of the entity graph to load, can be {@literal null}
+     *
+     * @return {@link Page} of data
+     */
+    public <T, I extends Serializable> Page<T> seek(final Specification<T> spec, final KeysetPageRequest pageable,
+            final Class<T> domainClass, final String entityGraph) {
+        final SimpleJpaNoCountRepository<T, I> noCountDao = new SimpleJpaNoCountRepository<>(domainClass, em,
+                entityGraph);
+        return noCountDao.findAll(Specifications.where(spec).and(KeysetSpecifications.seek(pageable)), pageable);
+    }
+
     /**
      * Repository implementation with disabled count query.
      * 
@@ -89,6 +134,12 @@ public class NoCountPagingRepository {
      */
     public static class SimpleJpaNoCountRepository<T, I extends Serializable> extends SimpleJpaRepository<T, I> {
 
+        private static final String LOAD_GRAPH_HINT = "javax.persistence.loadgraph";
+
+        private final EntityManager em;
+
+        private final String entityGraph;
+
         /**
          * Constructor.
          *
@@ -98,11 +149,31 @@ public class NoCountPagingRepository {
          *            {@link EntityManager} instance for the queries
          */
         public SimpleJpaNoCountRepository(final Class<T> domainClass, final EntityManager em) {
+            this(domainClass, em, null);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param domainClass
+         *            of the {@link Entity}
+         * @param em
+         *            {@link EntityManager} instance for the queries
+         * @param entityGraph
+         *            name of the entity graph to load, can be {@literal null}
+         */
+        public SimpleJpaNoCountRepository(final Class<T> domainClass, final EntityManager em,
+                final String entityGraph) {
             super(domainClass, em);
+            this.em = em;
+            this.entityGraph = entityGraph;
         }
 
         @Override
         protected Page<T> readPage(final TypedQuery<T> query, final Pageable pageable, final Specification<T> spec) {
+            if (entityGraph != null) {
+                query.setHint(LOAD_GRAPH_HINT, em.getEntityGraph(entityGraph));
+            }
             query.setFirstResult(pageable.getOffset());
             query.setMaxResults(pageable.getPageSize());
 
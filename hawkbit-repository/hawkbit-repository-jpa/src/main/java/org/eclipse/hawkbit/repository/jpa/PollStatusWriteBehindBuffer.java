@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties.PollStatusWriteBehind;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+
+/**
+ * In memory write-behind buffer for {@link Target#getLastTargetQuery()}
+ * updates. Polls that do not change anything else on the target are collected
+ * per tenant and written periodically in batched bulk updates instead of one
+ * entity update per poll.
+ *
+ * The delay between two flushes can be configured using the property from
+ * {#PROP_FLUSH_DELAY_PLACEHOLDER}.
+ */
+public class PollStatusWriteBehindBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PollStatusWriteBehindBuffer.class);
+
+    private static final String PROP_FLUSH_DELAY_PLACEHOLDER = "${hawkbit.server.repository.pollStatusWriteBehind.flushInterval:10000}";
+
+    private final Map<String, Map<String, Long>> pending = new ConcurrentHashMap<>();
+
+    private final TargetRepository targetRepository;
+
+    private final SystemSecurityContext systemSecurityContext;
+
+    private final PollStatusWriteBehind properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param targetRepository
+     *            to write the buffered poll times
+     * @param systemSecurityContext
+     *            to run the flush as system for the specific tenant
+     * @param transactionManager
+     *            to run the batches in their own transactions
+     * @param properties
+     *            write-behind configuration
+     */
+    public PollStatusWriteBehindBuffer(final TargetRepository targetRepository,
+            final SystemSecurityContext systemSecurityContext, final PlatformTransactionManager transactionManager,
+            final PollStatusWriteBehind properties) {
+        this.targetRepository = targetRepository;
+        this.systemSecurityContext = systemSecurityContext;
+        this.properties = properties;
+
+        final DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setName("flushPollStatus");
+        def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate = new TransactionTemplate(transactionManager, def);
+    }
+
+    /**
+     * Buffers the poll time of the given target. Newer poll times of the same
+     * target replace older ones that have not been written yet.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target
+     * @param lastTargetQuery
+     *            poll time to store
+     * @return <code>true</code> if the update has been buffered,
+     *         <code>false</code> if the buffer of the tenant is full and the
+     *         caller has to write the update synchronously
+     */
+    public boolean offer(final String tenant, final String controllerId, final long lastTargetQuery) {
+        final Map<String, Long> tenantPending = pending.computeIfAbsent(tenant, key -> new ConcurrentHashMap<>());
+
+        if (tenantPending.size() >= properties.getMaxPending() && !tenantPending.containsKey(controllerId)) {
+            LOGGER.debug("Poll status buffer of tenant {} is full, falling back to synchronous write.", tenant);
+            return false;
+        }
+
+        tenantPending.merge(controllerId, lastTargetQuery, Math::max);
+        return true;
+    }
+
+    /**
+     * @param tenant
+     *            to check
+     * @return number of poll times of the tenant that are not written yet
+     */
+    public int getPendingCount(final String tenant) {
+        final Map<String, Long> tenantPending = pending.get(tenant);
+        return tenantPending == null ? 0 : tenantPending.size();
+    }
+
+    /**
+     * Writes all buffered poll times. Called by the spring scheduling
+     * mechanism.
+     */
+    @Scheduled(initialDelayString = PROP_FLUSH_DELAY_PLACEHOLDER, fixedDelayString = PROP_FLUSH_DELAY_PLACEHOLDER)
+    public void flush() {
+        pending.keySet().forEach(this::flush);
+    }
+
+    /**
+     * Writes all buffered poll times before shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void flush(final String tenant) {
+        final List<Entry<String, Long>> drained = drain(tenant);
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        // every target is written with its own poll time, i.e. one update per
+        // distinct poll time, packed into transactions of up to the max batch
+        // size
+        final Map<Long, List<String>> byPollTime = drained.stream().collect(Collectors.groupingBy(Entry::getValue,
+                TreeMap::new, Collectors.mapping(Entry::getKey, Collectors.toList())));
+
+        final List<List<Entry<Long, List<String>>>> batches = new ArrayList<>();
+        List<Entry<Long, List<String>>> batch = new ArrayList<>();
+        int batchSize = 0;
+        for (final Entry<Long, List<String>> group : byPollTime.entrySet()) {
+            for (final List<String> controllerIds : Lists.partition(group.getValue(),
+                    properties.getMaxBatchSize())) {
+                if (batchSize + controllerIds.size() > properties.getMaxBatchSize()) {
+                    batches.add(batch);
+                    batch = new ArrayList<>();
+                    batchSize = 0;
+                }
+                batch.add(new SimpleImmutableEntry<>(group.getKey(), controllerIds));
+                batchSize += controllerIds.size();
+            }
+        }
+        batches.add(batch);
+
+        batches.forEach(updates -> write(tenant, updates));
+
+        LOGGER.debug("Written poll status of {} targets of tenant {}.", drained.size(), tenant);
+    }
+
+    private void write(final String tenant, final List<Entry<Long, List<String>>> updates) {
+        try {
+            systemSecurityContext.runAsSystemAsTenant(() -> transactionTemplate.execute(status -> {
+                updates.forEach(update -> targetRepository.setLastTargetQuery(update.getKey(), update.getValue()));
+                return null;
+            }), tenant);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Failed to write poll status of {} targets of tenant {}.",
+                    updates.stream().mapToInt(update -> update.getValue().size()).sum(), tenant, e);
+        }
+    }
+
+    private List<Entry<String, Long>> drain(final String tenant) {
+        final Map<String, Long> tenantPending = pending.get(tenant);
+        if (tenantPending == null) {
+            return new ArrayList<>();
+        }
+
+        final List<Entry<String, Long>> drained = new ArrayList<>(tenantPending.size());
+        for (final Entry<String, Long> entry : tenantPending.entrySet()) {
+            final String controllerId = entry.getKey();
+            final Long lastTargetQuery = entry.getValue();
+
+            // only removed if not updated concurrently, otherwise the newer
+            // value is written with the next flush
+            if (tenantPending.remove(controllerId, lastTargetQuery)) {
+                drained.add(new SimpleImmutableEntry<>(controllerId, lastTargetQuery));
+            }
+        }
+
+        return drained;
+    }
+}
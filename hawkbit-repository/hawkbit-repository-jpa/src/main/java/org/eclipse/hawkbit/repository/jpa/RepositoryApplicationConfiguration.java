@@ -53,7 +53,10 @@ import org.eclipse.hawkbit.repository.jpa.model.helper.EntityInterceptorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityTokenGeneratorHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SystemSecurityContextHolder;
 import org.eclipse.hawkbit.repository.jpa.model.helper.TenantAwareHolder;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutBulkWriter;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutHandlingTracker;
 import org.eclipse.hawkbit.repository.jpa.rollout.RolloutScheduler;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutSchedulerProperties;
 import org.eclipse.hawkbit.repository.jpa.rsql.RsqlParserValidationOracle;
 import org.eclipse.hawkbit.repository.model.DistributionSet;
 import org.eclipse.hawkbit.repository.model.DistributionSetType;
@@ -108,7 +111,7 @@ import com.google.common.collect.Maps;
 @Configuration
 @ComponentScan
 @EnableConfigurationProperties({ RepositoryProperties.class, ControllerPollProperties.class,
-        TenantConfigurationProperties.class })
+        TenantConfigurationProperties.class, RolloutSchedulerProperties.class })
 @EnableScheduling
 @EntityScan("org.eclipse.hawkbit.repository.jpa.model")
 public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
@@ -426,6 +429,32 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
                 lockRegistry);
     }
 
+    /**
+     * {@link RolloutHandlingTracker} bean.
+     *
+     * @param rolloutSchedulerProperties
+     *            the rollout scheduler configuration
+     * @return a new {@link RolloutHandlingTracker}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    RolloutHandlingTracker rolloutHandlingTracker(final RolloutSchedulerProperties rolloutSchedulerProperties) {
+        return new RolloutHandlingTracker(rolloutSchedulerProperties);
+    }
+
+    /**
+     * {@link RolloutBulkWriter} bean.
+     *
+     * @param rolloutSchedulerProperties
+     *            the rollout scheduler configuration
+     * @return a new {@link RolloutBulkWriter}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    RolloutBulkWriter rolloutBulkWriter(final RolloutSchedulerProperties rolloutSchedulerProperties) {
+        return new RolloutBulkWriter(rolloutSchedulerProperties);
+    }
+
     /**
      * {@link JpaRolloutGroupManagement} bean.
      *
@@ -459,6 +488,74 @@ public class RepositoryApplicationConfiguration extends JpaBaseConfiguration {
         return new JpaControllerManagement();
     }
 
+    /**
+     * {@link PollStatusWriteBehindBuffer} bean.
+     *
+     * @param targetRepository
+     *            to write the buffered poll times
+     * @param systemSecurityContext
+     *            to run the flush as system
+     * @param transactionManager
+     *            to run the flush batches
+     * @param repositoryProperties
+     *            for the write-behind configuration
+     * @return a new {@link PollStatusWriteBehindBuffer}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.pollStatusWriteBehind", name = "enabled")
+    PollStatusWriteBehindBuffer pollStatusWriteBehindBuffer(final TargetRepository targetRepository,
+            final SystemSecurityContext systemSecurityContext, final PlatformTransactionManager transactionManager,
+            final RepositoryProperties repositoryProperties) {
+        return new PollStatusWriteBehindBuffer(targetRepository, systemSecurityContext, transactionManager,
+                repositoryProperties.getPollStatusWriteBehind());
+    }
+
+    /**
+     * {@link DownloadProgressAggregator} bean.
+     *
+     * @param eventPublisher
+     *            to publish the aggregated events
+     * @param context
+     *            for the application ID
+     * @return a new {@link DownloadProgressAggregator}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.downloadProgressAggregation", name = "enabled")
+    DownloadProgressAggregator downloadProgressAggregator(final ApplicationEventPublisher eventPublisher,
+            final ApplicationContext context) {
+        return new DownloadProgressAggregator(eventPublisher, context.getId());
+    }
+
+    /**
+     * {@link ControllerPollCache} bean.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     * @return a new {@link ControllerPollCache}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.pollCache", name = "enabled")
+    ControllerPollCache controllerPollCache(final RepositoryProperties repositoryProperties) {
+        return new ControllerPollCache(repositoryProperties.getPollCache());
+    }
+
+    /**
+     * {@link ArtifactAssignmentCache} bean.
+     *
+     * @param repositoryProperties
+     *            for the cache configuration
+     * @return a new {@link ArtifactAssignmentCache}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "hawkbit.server.repository.artifactAssignmentCache", name = "enabled")
+    ArtifactAssignmentCache artifactAssignmentCache(final RepositoryProperties repositoryProperties) {
+        return new ArtifactAssignmentCache(repositoryProperties.getArtifactAssignmentCache());
+    }
+
     /**
      * {@link JpaArtifactManagement} bean.
      *
@@ -56,6 +56,23 @@ public interface TargetRepository extends BaseEntityRepository<JpaTarget, Long>,
             @Param("set") JpaDistributionSet set, @Param("lastModifiedAt") Long modifiedAt,
             @Param("lastModifiedBy") String modifiedBy, @Param("targets") Collection<Long> targets);
 
+    /**
+     * Sets {@link JpaTarget#getLastTargetQuery()} for a batch of targets in one
+     * bulk statement. Targets which already have a more recent poll time stored
+     * are not touched.
+     *
+     * @param lastTargetQuery
+     *            poll time to set
+     * @param controllerIds
+     *            of the targets to update
+     * @return number of updated targets
+     */
+    @Modifying
+    @Transactional(isolation = Isolation.READ_UNCOMMITTED)
+    @Query("UPDATE JpaTarget t SET t.lastTargetQuery = :lastTargetQuery WHERE t.controllerId IN :controllerIds AND (t.lastTargetQuery IS NULL OR t.lastTargetQuery < :lastTargetQuery)")
+    int setLastTargetQuery(@Param("lastTargetQuery") Long lastTargetQuery,
+            @Param("controllerIds") Collection<String> controllerIds);
+
     /**
      * Loads {@link Target} by given ID.
      *
@@ -65,6 +82,16 @@ public interface TargetRepository extends BaseEntityRepository<JpaTarget, Long>,
      */
     Optional<Target> findByControllerId(String controllerID);
 
+    /**
+     * Retrieves the ID of the {@link Target} with the given controller ID.
+     *
+     * @param controllerId
+     *            of the target
+     * @return the ID of the target or <code>null</code> if it does not exist
+     */
+    @Query("SELECT t.id FROM JpaTarget t WHERE t.controllerId=:controllerId")
+    Long findIdByControllerId(@Param("controllerId") String controllerId);
+
     @Query("SELECT t.controllerAttributes FROM JpaTarget t WHERE t.controllerId=:controllerId")
     Map<String, String> getControllerAttributes(@Param("controllerId") String controllerId);
 
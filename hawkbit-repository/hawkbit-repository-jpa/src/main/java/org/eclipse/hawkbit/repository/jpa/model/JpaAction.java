@@ -47,6 +47,7 @@ import org.eclipse.persistence.descriptors.DescriptorEvent;
  */
 @Table(name = "sp_action", indexes = { @Index(name = "sp_idx_action_01", columnList = "tenant,distribution_set"),
         @Index(name = "sp_idx_action_02", columnList = "tenant,target,active"),
+        @Index(name = "sp_idx_action_03", columnList = "tenant,target,distribution_set"),
         @Index(name = "sp_idx_action_prim", columnList = "tenant,id") })
 @NamedEntityGraphs({ @NamedEntityGraph(name = "Action.ds", attributeNodes = { @NamedAttributeNode("distributionSet") }),
         @NamedEntityGraph(name = "Action.all", attributeNodes = { @NamedAttributeNode("distributionSet"),
@@ -32,6 +32,7 @@ import org.hibernate.validator.constraints.NotEmpty;
  */
 @Table(name = "sp_artifact", indexes = { @Index(name = "sp_idx_artifact_01", columnList = "tenant,software_module"),
         @Index(name = "sp_idx_artifact_02", columnList = "tenant,sha1_hash"),
+        @Index(name = "sp_idx_artifact_03", columnList = "tenant,software_module,sha1_hash"),
         @Index(name = "sp_idx_artifact_prim", columnList = "tenant,id") })
 @Entity
 // exception squid:S2160 - BaseEntity equals/hashcode is handling correctly for
@@ -47,6 +47,7 @@ import javax.validation.constraints.Size;
 import org.eclipse.hawkbit.im.authentication.SpPermission;
 import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetEventSnapshot;
 import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityChecker;
 import org.eclipse.hawkbit.repository.jpa.model.helper.SecurityTokenGeneratorHolder;
@@ -380,7 +381,8 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
     @Override
     public void fireCreateEvent(final DescriptorEvent descriptorEvent) {
         EventPublisherHolder.getInstance().getEventPublisher()
-                .publishEvent(new TargetCreatedEvent(this, EventPublisherHolder.getInstance().getApplicationId()));
+                .publishEvent(new TargetCreatedEvent(this, createEventSnapshot(),
+                        EventPublisherHolder.getInstance().getApplicationId()));
     }
 
     @Override
@@ -391,12 +393,17 @@ public class JpaTarget extends AbstractJpaNamedEntity implements Target, EventAw
     @Override
     public void fireUpdateEvent(final DescriptorEvent descriptorEvent) {
         EventPublisherHolder.getInstance().getEventPublisher()
-                .publishEvent(new TargetUpdatedEvent(this, EventPublisherHolder.getInstance().getApplicationId()));
+                .publishEvent(new TargetUpdatedEvent(this, createEventSnapshot(),
+                        EventPublisherHolder.getInstance().getApplicationId()));
+    }
+
+    private TargetEventSnapshot createEventSnapshot() {
+        return EventPublisherHolder.getInstance().isEmbedEventSnapshots() ? new TargetEventSnapshot(this) : null;
     }
 
     @Override
     public void fireDeleteEvent(final DescriptorEvent descriptorEvent) {
         EventPublisherHolder.getInstance().getEventPublisher().publishEvent(new TargetDeletedEvent(getTenant(), getId(),
-                getClass().getName(), EventPublisherHolder.getInstance().getApplicationId()));
+                getControllerId(), getClass().getName(), EventPublisherHolder.getInstance().getApplicationId()));
     }
 }
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+
+import org.eclipse.hawkbit.repository.model.Action.ActionType;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.tenancy.TenantAware;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+
+/**
+ * Writes the target assignments of rollout groups and the scheduled actions of
+ * rollouts with batched JDBC inserts on the connection of the current
+ * transaction. This bypasses the JPA entity lifecycle, i.e. no entity
+ * listeners are called and no entity events are published.
+ *
+ * Has to be called within a transaction.
+ */
+public class RolloutBulkWriter {
+
+    private static final String INSERT_ROLLOUT_TARGET_GROUP = "INSERT INTO sp_rollouttargetgroup (rolloutGroup_Id, target_id) VALUES (?, ?)";
+
+    private static final String INSERT_ACTION = "INSERT INTO sp_action (tenant, created_at, created_by, last_modified_at, last_modified_by, optlock_revision, action_type, active, forced_time, status, distribution_set, target, rollout, rolloutgroup) VALUES (?, ?, ?, ?, ?, 1, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TenantAware tenantAware;
+
+    @Autowired(required = false)
+    private AuditorAware<String> auditorProvider;
+
+    private final RolloutSchedulerProperties properties;
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            for the JDBC batch size
+     */
+    public RolloutBulkWriter(final RolloutSchedulerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Assigns the given targets to the rollout group.
+     *
+     * @param rolloutGroupId
+     *            of the group
+     * @param targetIds
+     *            of the targets to assign
+     */
+    public void insertRolloutTargetGroups(final long rolloutGroupId, final Collection<Long> targetIds) {
+        executeBatch(INSERT_ROLLOUT_TARGET_GROUP, targetIds, (statement, targetId) -> {
+            statement.setLong(1, rolloutGroupId);
+            statement.setLong(2, targetId);
+        });
+    }
+
+    /**
+     * Creates an inactive action in status {@link Status#SCHEDULED} for each
+     * of the given targets.
+     *
+     * @param targetIds
+     *            of the targets to create the actions for
+     * @param distributionSetId
+     *            to assign
+     * @param actionType
+     *            of the actions
+     * @param forcedTime
+     *            of the actions
+     * @param rolloutId
+     *            the actions belong to
+     * @param rolloutGroupId
+     *            the actions belong to
+     */
+    public void insertScheduledActions(final Collection<Long> targetIds, final long distributionSetId,
+            final ActionType actionType, final long forcedTime, final long rolloutId, final long rolloutGroupId) {
+        final String tenant = tenantAware.getCurrentTenant().toUpperCase();
+        final String currentUser = auditorProvider != null ? auditorProvider.getCurrentAuditor() : null;
+        final long now = System.currentTimeMillis();
+
+        executeBatch(INSERT_ACTION, targetIds, (statement, targetId) -> {
+            statement.setString(1, tenant);
+            statement.setLong(2, now);
+            statement.setString(3, currentUser);
+            statement.setLong(4, now);
+            statement.setString(5, currentUser);
+            statement.setString(6, actionType.name());
+            statement.setBoolean(7, false);
+            statement.setLong(8, forcedTime);
+            statement.setInt(9, Status.SCHEDULED.ordinal());
+            statement.setLong(10, distributionSetId);
+            statement.setLong(11, targetId);
+            statement.setLong(12, rolloutId);
+            statement.setLong(13, rolloutGroupId);
+        });
+    }
+
+    private void executeBatch(final String sql, final Collection<Long> targetIds, final StatementBinder binder) {
+        final Connection connection = entityManager.unwrap(Connection.class);
+        if (connection == null) {
+            throw new IllegalStateException("Bulk inserts require an active transaction");
+        }
+
+        final int batchSize = Math.max(1, properties.getBulkBatchSize());
+        try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (final Long targetId : targetIds) {
+                binder.bind(statement, targetId);
+                statement.addBatch();
+                if (++pending == batchSize) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        } catch (final SQLException e) {
+            throw new PersistenceException("Bulk insert failed: " + sql, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement statement, Long targetId) throws SQLException;
+    }
+}
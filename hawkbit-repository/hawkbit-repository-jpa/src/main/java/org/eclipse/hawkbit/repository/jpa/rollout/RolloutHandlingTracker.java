@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.eclipse.hawkbit.repository.event.remote.RolloutActionsCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.AbstractActionEvent;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Keeps track of changes on {@link Rollout}s that require a re-evaluation of
+ * their group conditions by {@link RolloutManagement#handleRollouts()} and
+ * collects handling statistics per rollout.
+ *
+ * A rollout is marked dirty if one of its actions has been created or updated.
+ * Rollouts that are not dirty are still re-evaluated after
+ * {@link RolloutSchedulerProperties#getFullCheckInterval()} as a fallback.
+ */
+public class RolloutHandlingTracker {
+
+    private final RolloutSchedulerProperties properties;
+
+    private final Map<String, Set<Long>> dirtyRollouts = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<Long, RolloutHandlingStatistics>> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            the rollout scheduler configuration
+     */
+    public RolloutHandlingTracker(final RolloutSchedulerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Marks the rollout of the action as dirty.
+     *
+     * @param event
+     *            of the created or updated action
+     */
+    @EventListener(classes = AbstractActionEvent.class)
+    public void onActionEvent(final AbstractActionEvent event) {
+        if (event.getRolloutId() != null) {
+            markDirty(event.getTenant(), event.getRolloutId());
+        }
+    }
+
+    /**
+     * Marks the rollout of the actions created in bulk as dirty.
+     *
+     * @param event
+     *            of the created actions
+     */
+    @EventListener(classes = RolloutActionsCreatedEvent.class)
+    public void onRolloutActionsCreated(final RolloutActionsCreatedEvent event) {
+        markDirty(event.getTenant(), event.getRolloutId());
+    }
+
+    /**
+     * Marks the given rollout as dirty, i.e. it is re-evaluated by the next
+     * handler run.
+     *
+     * @param tenant
+     *            of the rollout
+     * @param rolloutId
+     *            of the rollout
+     */
+    public void markDirty(final String tenant, final Long rolloutId) {
+        dirtyRollouts.computeIfAbsent(normalize(tenant), key -> ConcurrentHashMap.newKeySet()).add(rolloutId);
+    }
+
+    /**
+     * Checks if the given running rollout needs to be evaluated and resets
+     * the dirty flag if so. The caller has to mark the rollout dirty again if
+     * the evaluation fails.
+     *
+     * @param tenant
+     *            of the rollout
+     * @param rolloutId
+     *            of the rollout
+     * @return <code>true</code> if the rollout has to be evaluated
+     */
+    public boolean checkAndResetDirty(final String tenant, final Long rolloutId) {
+        if (!properties.isEventDriven()) {
+            return true;
+        }
+
+        final Set<Long> dirty = dirtyRollouts.get(normalize(tenant));
+        if (dirty != null && dirty.remove(rolloutId)) {
+            return true;
+        }
+
+        final RolloutHandlingStatistics stats = getStatistics(tenant, rolloutId);
+        return stats == null
+                || System.currentTimeMillis() - stats.getLastHandledAt() >= properties.getFullCheckInterval();
+    }
+
+    /**
+     * Records a handler run of the given rollout.
+     *
+     * @param tenant
+     *            of the rollout
+     * @param rolloutId
+     *            of the rollout
+     * @param durationMillis
+     *            the handler needed
+     */
+    public void recordHandling(final String tenant, final Long rolloutId, final long durationMillis) {
+        statistics.computeIfAbsent(normalize(tenant), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(rolloutId, key -> new RolloutHandlingStatistics()).record(durationMillis);
+    }
+
+    /**
+     * Removes all tracking information of rollouts of the tenant that are not
+     * handled anymore, e.g. because they are finished or deleted.
+     *
+     * @param tenant
+     *            of the rollouts
+     * @param handledRollouts
+     *            IDs of the rollouts that are still handled
+     */
+    public void retain(final String tenant, final Collection<Long> handledRollouts) {
+        final Map<Long, RolloutHandlingStatistics> tenantStatistics = statistics.get(normalize(tenant));
+        if (tenantStatistics != null) {
+            tenantStatistics.keySet().retainAll(handledRollouts);
+        }
+        final Set<Long> dirty = dirtyRollouts.get(normalize(tenant));
+        if (dirty != null) {
+            dirty.retainAll(handledRollouts);
+        }
+    }
+
+    /**
+     * @param tenant
+     *            of the rollout
+     * @param rolloutId
+     *            of the rollout
+     * @return handling statistics of the rollout or <code>null</code> if it
+     *         has not been handled yet
+     */
+    public RolloutHandlingStatistics getStatistics(final String tenant, final Long rolloutId) {
+        final Map<Long, RolloutHandlingStatistics> tenantStatistics = statistics.get(normalize(tenant));
+        return tenantStatistics == null ? null : tenantStatistics.get(rolloutId);
+    }
+
+    /**
+     * @param tenant
+     *            of the rollouts
+     * @return handling statistics of all currently handled rollouts of the
+     *         tenant
+     */
+    public Map<Long, RolloutHandlingStatistics> getStatistics(final String tenant) {
+        final Map<Long, RolloutHandlingStatistics> tenantStatistics = statistics.get(normalize(tenant));
+        return tenantStatistics == null ? Collections.emptyMap() : Collections.unmodifiableMap(tenantStatistics);
+    }
+
+    private static String normalize(final String tenant) {
+        return tenant.toUpperCase();
+    }
+
+    /**
+     * Latency statistics of the handler runs of one rollout.
+     *
+     */
+    public static class RolloutHandlingStatistics {
+        private long count;
+        private long totalDurationMillis;
+        private long maxDurationMillis;
+        private long lastDurationMillis;
+        private long lastHandledAt;
+
+        private synchronized void record(final long durationMillis) {
+            count++;
+            totalDurationMillis += durationMillis;
+            maxDurationMillis = Math.max(maxDurationMillis, durationMillis);
+            lastDurationMillis = durationMillis;
+            lastHandledAt = System.currentTimeMillis();
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getTotalDurationMillis() {
+            return totalDurationMillis;
+        }
+
+        public synchronized long getMaxDurationMillis() {
+            return maxDurationMillis;
+        }
+
+        public synchronized long getLastDurationMillis() {
+            return lastDurationMillis;
+        }
+
+        public synchronized long getAverageDurationMillis() {
+            return count == 0 ? 0 : totalDurationMillis / count;
+        }
+
+        public synchronized long getLastHandledAt() {
+            return lastHandledAt;
+        }
+    }
+}
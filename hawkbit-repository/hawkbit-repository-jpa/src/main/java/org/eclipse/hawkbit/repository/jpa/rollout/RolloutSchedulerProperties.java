@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import org.eclipse.hawkbit.repository.RolloutManagement;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the {@link RolloutScheduler} and the rollout handling in
+ * {@link RolloutManagement#handleRollouts()}.
+ *
+ */
+@ConfigurationProperties("hawkbit.rollout.scheduler")
+public class RolloutSchedulerProperties {
+
+    /**
+     * Set to <code>false</code> to disable the rollout scheduler.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay in milliseconds between two runs of the rollout scheduler.
+     */
+    private long fixedDelay = 2_000;
+
+    /**
+     * Number of rollouts of a tenant that are handled in parallel. A value of
+     * 1 handles the rollouts one after another in the calling thread.
+     */
+    private int threads = 1;
+
+    /**
+     * Set to <code>true</code> to re-evaluate running rollouts only if one of
+     * their actions has been created or updated since the last evaluation.
+     */
+    private boolean eventDriven = false;
+
+    /**
+     * Maximum time in milliseconds a running rollout is not re-evaluated in
+     * event driven mode, i.e. a fallback for missed events.
+     */
+    private long fullCheckInterval = 60_000;
+
+    /**
+     * Set to <code>true</code> to create the target assignments of rollout
+     * groups and the scheduled actions of rollouts with batched JDBC inserts.
+     * In this mode no ActionCreatedEvent is published per action but one
+     * RolloutActionsCreatedEvent per batch.
+     */
+    private boolean bulkPersistence = false;
+
+    /**
+     * Number of rows that are sent to the database in one JDBC batch in bulk
+     * persistence mode.
+     */
+    private int bulkBatchSize = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getFixedDelay() {
+        return fixedDelay;
+    }
+
+    public void setFixedDelay(final long fixedDelay) {
+        this.fixedDelay = fixedDelay;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public boolean isEventDriven() {
+        return eventDriven;
+    }
+
+    public void setEventDriven(final boolean eventDriven) {
+        this.eventDriven = eventDriven;
+    }
+
+    public long getFullCheckInterval() {
+        return fullCheckInterval;
+    }
+
+    public void setFullCheckInterval(final long fullCheckInterval) {
+        this.fullCheckInterval = fullCheckInterval;
+    }
+
+    public boolean isBulkPersistence() {
+        return bulkPersistence;
+    }
+
+    public void setBulkPersistence(final boolean bulkPersistence) {
+        this.bulkPersistence = bulkPersistence;
+    }
+
+    public int getBulkBatchSize() {
+        return bulkBatchSize;
+    }
+
+    public void setBulkBatchSize(final int bulkBatchSize) {
+        this.bulkBatchSize = bulkBatchSize;
+    }
+}
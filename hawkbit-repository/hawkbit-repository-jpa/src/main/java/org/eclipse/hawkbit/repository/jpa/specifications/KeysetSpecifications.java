@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.specifications;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+
+import org.eclipse.hawkbit.repository.KeysetPageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications class for {@link KeysetPageRequest}s. The specifications are
+ * used as where clause for the keyset (seek) pagination.
+ */
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+        // utility class
+    }
+
+    /**
+     * {@link Specification} for retrieving the entities behind the last key of
+     * the given {@link KeysetPageRequest}, i.e. {@code (key, id) > (lastKey,
+     * lastId)} for ascending order. As JPQL lacks row value comparison the
+     * predicate is expanded to
+     * {@code key > lastKey OR (key = lastKey AND id > lastId)}.
+     *
+     * @param pageRequest
+     *            the request that holds the last key
+     * @return the {@link Specification}, or <code>null</code> if the request
+     *         is not seeking
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static <T> Specification<T> seek(final KeysetPageRequest pageRequest) {
+        if (!pageRequest.isSeeking()) {
+            return null;
+        }
+
+        final boolean ascending = pageRequest.getKeyDirection() == Direction.ASC;
+        final String keyProperty = pageRequest.getKeyProperty();
+        final Long lastId = pageRequest.getLastId();
+
+        return (root, query, cb) -> {
+            final Path<Long> id = root.get(KeysetPageRequest.ID_PROPERTY);
+            if (KeysetPageRequest.ID_PROPERTY.equals(keyProperty)) {
+                return behind(cb, id, lastId, ascending);
+            }
+
+            final Path<Comparable> key = root.get(keyProperty);
+            final Comparable lastKey = pageRequest.getLastKey();
+            return cb.or(behind(cb, key, lastKey, ascending),
+                    cb.and(cb.equal(key, lastKey), behind(cb, id, lastId, ascending)));
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate behind(final CriteriaBuilder cb,
+            final Expression<? extends Y> expression, final Y value, final boolean ascending) {
+        return ascending ? cb.greaterThan(expression, value) : cb.lessThan(expression, value);
+    }
+}
@@ -0,0 +1,2 @@
+CREATE INDEX sp_idx_action_03 ON sp_action (tenant, target, distribution_set);
+CREATE INDEX sp_idx_artifact_03 ON sp_artifact (tenant, software_module, sha1_hash);
@@ -47,6 +47,26 @@ public class TargetEventTest extends AbstractRemoteEntityEventTest<Target> {
         assertThat(underTest.getActionId()).isNotNull();
     }
 
+    @Test
+    @Description("Verifies that the embedded target snapshot is transferred and used instead of reloading the target")
+    public void testTargetUpdatedEventWithSnapshot() {
+        final Target target = createEntity();
+        final TargetUpdatedEvent event = new TargetUpdatedEvent(target, new TargetEventSnapshot(target), "node");
+
+        assertSnapshot(target, (TargetUpdatedEvent) createProtoStuffEvent(event));
+        assertSnapshot(target, (TargetUpdatedEvent) createJacksonEvent(event));
+    }
+
+    private static void assertSnapshot(final Target target, final TargetUpdatedEvent underTest) {
+        assertThat(underTest.getEntity()).isInstanceOf(TargetEventSnapshot.class);
+        assertThat(underTest.getEntity().getId()).isEqualTo(target.getId());
+        assertThat(underTest.getEntity().getControllerId()).isEqualTo(target.getControllerId());
+        assertThat(underTest.getEntity().getName()).isEqualTo(target.getName());
+        assertThat(underTest.getEntity().getUpdateStatus()).isEqualTo(target.getUpdateStatus());
+        assertThat(underTest.getEntity().getOptLockRevision()).isEqualTo(target.getOptLockRevision());
+        assertThat(underTest.getEntity().getSecurityToken()).isEqualTo(target.getSecurityToken());
+    }
+
     @Override
     protected Target createEntity() {
         return testdataFactory.createTarget("12345");
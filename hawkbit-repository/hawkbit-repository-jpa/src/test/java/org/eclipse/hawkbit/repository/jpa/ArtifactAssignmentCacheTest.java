@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties;
+import org.eclipse.hawkbit.repository.event.remote.TargetAssignDistributionSetEvent;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Artifact Assignment Cache")
+public class ArtifactAssignmentCacheTest {
+
+    private static final String TENANT = "default";
+
+    private final ArtifactAssignmentCache underTest = new ArtifactAssignmentCache(
+            new RepositoryProperties.ArtifactAssignmentCache());
+
+    @Test
+    @Description("Verifies that the assigned artifacts of a target are cached until an assignment to the target.")
+    public void artifactsAreCachedUntilAssignment() {
+        underTest.putTargetId(TENANT, "4711", 1L);
+        underTest.putAssignedArtifacts(TENANT, 1L, Collections.singleton("sha1"), underTest.stamp());
+        assertThat(underTest.getAssignedArtifacts("DEFAULT", 1L)).containsExactly("sha1");
+
+        underTest.onTargetAssignDistributionSet(
+                new TargetAssignDistributionSetEvent(TENANT, 2L, 3L, "4711", "application"));
+        assertThat(underTest.getAssignedArtifacts(TENANT, 1L)).isNull();
+        assertThat(underTest.getTargetId(TENANT, "4711")).isEqualTo(1L);
+
+        assertThat(underTest.getAssignedArtifactStats().hitCount()).isEqualTo(1);
+        assertThat(underTest.getAssignedArtifactStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Description("Verifies that artifacts loaded before an assignment of an uncached target are not cached.")
+    public void artifactsLoadedBeforeAssignmentAreNotCached() {
+        final long stamp = underTest.stamp();
+        underTest.onTargetAssignDistributionSet(
+                new TargetAssignDistributionSetEvent(TENANT, 2L, 3L, "4711", "application"));
+
+        underTest.putAssignedArtifacts(TENANT, 1L, Collections.singleton("sha1"), stamp);
+        assertThat(underTest.getAssignedArtifacts(TENANT, 1L)).isNull();
+    }
+
+    @Test
+    @Description("Verifies that all entries of a target are removed by its deletion.")
+    public void deletionRemovesAllEntriesOfTarget() {
+        underTest.putTargetId(TENANT, "4711", 1L);
+        underTest.putAssignedArtifacts(TENANT, 1L, Collections.singleton("sha1"), underTest.stamp());
+        underTest.putTargetId(TENANT, "4712", 2L);
+
+        underTest.onTargetDeleted(new TargetDeletedEvent(TENANT, 1L, JpaTarget.class.getName(), "application"));
+
+        assertThat(underTest.getTargetId(TENANT, "4711")).isNull();
+        assertThat(underTest.getAssignedArtifacts(TENANT, 1L)).isNull();
+        assertThat(underTest.getTargetId(TENANT, "4712")).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties.PollCache;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantConfigurationChangedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetEventSnapshot;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.repository.jpa.model.JpaTarget;
+import org.eclipse.hawkbit.repository.model.Action;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Controller Poll Cache")
+public class ControllerPollCacheTest {
+
+    private static final String TENANT = "default";
+
+    private static final String ADDRESS = "http://127.0.0.1";
+
+    private final ControllerPollCache underTest = new ControllerPollCache(new PollCache());
+
+    @Test
+    @Description("Verifies that the action state of a target is cached until the target is invalidated.")
+    public void actionStateIsCachedUntilTargetIsInvalidated() {
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).isNull();
+
+        underTest.putOldestActiveAction(TENANT, "4711", 11L, Optional.empty(), underTest.stamp());
+        assertThat(underTest.getOldestActiveActionId("DEFAULT", "4711")).isEmpty();
+
+        underTest.invalidateTarget(TENANT, "4711");
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).isNull();
+
+        assertThat(underTest.getActiveActionStats().hitCount()).isEqualTo(1);
+        assertThat(underTest.getActiveActionStats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    @Description("Verifies that the action state of a target is invalidated by an update of the cached action only.")
+    public void actionStateIsInvalidatedByCachedAction() {
+        underTest.putOldestActiveAction(TENANT, "4711", 11L, Optional.of(action(1L, 1)), underTest.stamp());
+
+        underTest.invalidateAction(TENANT, 2L);
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).contains(1L);
+
+        underTest.invalidateAction(TENANT, 1L);
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).isNull();
+    }
+
+    @Test
+    @Description("Verifies that the action state of a target is invalidated by the deletion of the target.")
+    public void actionStateIsInvalidatedByTargetDeletion() {
+        underTest.putOldestActiveAction(TENANT, "4711", 11L, Optional.empty(), underTest.stamp());
+
+        underTest.onTargetDeleted(new TargetDeletedEvent(TENANT, 12L, JpaTarget.class.getName(), "app"));
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).isEmpty();
+
+        underTest.onTargetDeleted(new TargetDeletedEvent(TENANT, 11L, JpaTarget.class.getName(), "app"));
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).isNull();
+    }
+
+    @Test
+    @Description("Verifies that a state loaded before an invalidation is not cached.")
+    public void stateLoadedBeforeInvalidationIsNotCached() {
+        final long stamp = underTest.stamp();
+        underTest.invalidateTarget(TENANT, "4711");
+
+        underTest.putOldestActiveAction(TENANT, "4711", 11L, Optional.empty(), stamp);
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).isNull();
+    }
+
+    @Test
+    @Description("Verifies that a poll response state is attached to the action state it has been calculated from "
+            + "only and is returned for the cached address only.")
+    public void pollResponseStateIsCachedWithActionState() {
+        final Target target = target(true);
+        underTest.putPollResponseState(TENANT, target, null, "state");
+        assertThat(underTest.getPollResponseState(TENANT, "4711", ADDRESS)).isEmpty();
+
+        underTest.putOldestActiveAction(TENANT, "4711", 11L, Optional.of(action(1L, 2)), underTest.stamp());
+        underTest.putPollResponseState(TENANT, target, null, "state");
+        underTest.putPollResponseState(TENANT, target, action(1L, 3), "state");
+        assertThat(underTest.getPollResponseState(TENANT, "4711", ADDRESS)).isEmpty();
+
+        underTest.putPollResponseState(TENANT, target, action(1L, 2), "state");
+        assertThat(underTest.getPollResponseState(TENANT, "4711", ADDRESS)).contains("state");
+        assertThat(underTest.getPollResponseState(TENANT, "4711", null)).contains("state");
+        assertThat(underTest.getPollResponseState(TENANT, "4711", "http://127.0.0.2")).isEmpty();
+
+        underTest.invalidateAction(TENANT, 1L);
+        assertThat(underTest.getPollResponseState(TENANT, "4711", ADDRESS)).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that a poll response state is dropped if the controller attribute request flag of the "
+            + "target or the polling time of the tenant is changed.")
+    public void pollResponseStateIsDroppedByTargetAndPollingTimeChanges() {
+        underTest.putOldestActiveAction(TENANT, "4711", 11L, Optional.empty(), underTest.stamp());
+        underTest.putPollResponseState(TENANT, target(true), null, "state");
+
+        underTest.onTargetUpdated(new TargetUpdatedEvent(target(true), new TargetEventSnapshot(target(true)), "app"));
+        assertThat(underTest.getPollResponseState(TENANT, "4711", ADDRESS)).contains("state");
+
+        underTest.onTargetUpdated(
+                new TargetUpdatedEvent(target(false), new TargetEventSnapshot(target(false)), "app"));
+        assertThat(underTest.getPollResponseState(TENANT, "4711", ADDRESS)).isEmpty();
+
+        underTest.putPollResponseState(TENANT, target(false), null, "state");
+        underTest.onTenantConfigurationChanged(new TenantConfigurationChangedEvent(TENANT,
+                TenantConfigurationKey.POLLING_TIME_INTERVAL, "app"));
+        assertThat(underTest.getPollResponseState(TENANT, "4711", ADDRESS)).isEmpty();
+        assertThat(underTest.getOldestActiveActionId(TENANT, "4711")).isEmpty();
+    }
+
+    @Test
+    @Description("Verifies that the polling time is loaded once per tenant.")
+    public void pollingTimeIsCachedPerTenant() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        assertThat(underTest.getPollingTime(TENANT, () -> "00:05:00" + loads.incrementAndGet())).isEqualTo("00:05:001");
+        assertThat(underTest.getPollingTime(TENANT, () -> "00:05:00" + loads.incrementAndGet())).isEqualTo("00:05:001");
+        assertThat(underTest.getPollingTime("other", () -> "00:05:00" + loads.incrementAndGet()))
+                .isEqualTo("00:05:002");
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(underTest.getPollingTimeStats().hitCount()).isEqualTo(1);
+    }
+
+    private static Action action(final Long id, final int revision) {
+        final Action action = mock(Action.class);
+        when(action.getId()).thenReturn(id);
+        when(action.getOptLockRevision()).thenReturn(revision);
+        return action;
+    }
+
+    private static Target target(final boolean requestControllerAttributes) {
+        final Target target = mock(Target.class);
+        when(target.getId()).thenReturn(11L);
+        when(target.getTenant()).thenReturn(TENANT);
+        when(target.getControllerId()).thenReturn("4711");
+        when(target.getAddress()).thenReturn(URI.create(ADDRESS));
+        when(target.isRequestControllerAttributes()).thenReturn(requestControllerAttributes);
+        return target;
+    }
+}
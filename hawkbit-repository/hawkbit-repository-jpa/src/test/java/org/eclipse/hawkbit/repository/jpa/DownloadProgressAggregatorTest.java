@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import org.eclipse.hawkbit.repository.event.remote.DownloadProgressEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Download Progress Aggregation")
+@RunWith(MockitoJUnitRunner.class)
+public class DownloadProgressAggregatorTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
+    @Captor
+    private ArgumentCaptor<DownloadProgressEvent> eventCaptor;
+
+    private DownloadProgressAggregator underTest;
+
+    @Before
+    public void before() {
+        underTest = new DownloadProgressAggregator(eventPublisherMock, "node");
+    }
+
+    @Test
+    @Description("Verifies that the progress reports of a tenant are published as one aggregated event.")
+    public void progressIsAggregatedPerTenant() {
+        underTest.add("tenant1", 100);
+        underTest.add("tenant1", 200);
+        underTest.add("tenant2", 50);
+
+        underTest.publish();
+
+        verify(eventPublisherMock, times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues()).extracting("tenant", "shippedBytesSinceLast")
+                .containsOnly(tuple("tenant1", 300L), tuple("tenant2", 50L));
+    }
+
+    @Test
+    @Description("Verifies that nothing is published without progress and the served bytes counter is kept.")
+    public void nothingPublishedWithoutProgress() {
+        underTest.add("tenant1", 100);
+        underTest.publish();
+        underTest.publish();
+
+        verify(eventPublisherMock, times(1)).publishEvent(eventCaptor.capture());
+        assertThat(underTest.getBytesServed("tenant1")).isEqualTo(100);
+        assertThat(underTest.getBytesServed()).containsEntry("tenant1", 100L);
+        assertThat(underTest.getBytesServed("tenant2")).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that an aggregator without progress does not publish anything.")
+    public void emptyAggregatorDoesNotPublish() {
+        underTest.publish();
+
+        verifyZeroInteractions(eventPublisherMock);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+import org.eclipse.hawkbit.repository.RepositoryProperties.PollStatusWriteBehind;
+import org.eclipse.hawkbit.security.SystemSecurityContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Poll Status Write-Behind")
+@RunWith(MockitoJUnitRunner.class)
+public class PollStatusWriteBehindBufferTest {
+
+    private static final String TENANT = "DEFAULT";
+
+    @Mock
+    private TargetRepository targetRepositoryMock;
+
+    @Mock
+    private SystemSecurityContext systemSecurityContextMock;
+
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    @Captor
+    private ArgumentCaptor<Collection<String>> controllerIdsCaptor;
+
+    private final PollStatusWriteBehind properties = new PollStatusWriteBehind();
+
+    private PollStatusWriteBehindBuffer underTest;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        when(systemSecurityContextMock.runAsSystemAsTenant(any(Callable.class), eq(TENANT)))
+                .thenAnswer(invocation -> ((Callable<?>) invocation.getArguments()[0]).call());
+        underTest = new PollStatusWriteBehindBuffer(targetRepositoryMock, systemSecurityContextMock,
+                transactionManagerMock, properties);
+    }
+
+    @Test
+    @Description("Verifies that multiple polls of the same target are coalesced into one update with the latest poll time.")
+    public void pollsOfSameTargetAreCoalesced() {
+        assertThat(underTest.offer(TENANT, "target1", 1000L)).isTrue();
+        assertThat(underTest.offer(TENANT, "target1", 3000L)).isTrue();
+        assertThat(underTest.offer(TENANT, "target1", 2000L)).isTrue();
+        assertThat(underTest.getPendingCount(TENANT)).isEqualTo(1);
+
+        underTest.flush();
+
+        verify(targetRepositoryMock).setLastTargetQuery(eq(3000L), controllerIdsCaptor.capture());
+        assertThat(controllerIdsCaptor.getValue()).containsOnly("target1");
+        assertThat(underTest.getPendingCount(TENANT)).isEqualTo(0);
+    }
+
+    @Test
+    @Description("Verifies that the buffered poll times are written in batches of the configured maximum size.")
+    public void flushIsSplitIntoBatches() {
+        properties.setMaxBatchSize(2);
+        underTest.offer(TENANT, "target1", 1000L);
+        underTest.offer(TENANT, "target2", 1000L);
+        underTest.offer(TENANT, "target3", 1000L);
+
+        underTest.flush();
+
+        verify(targetRepositoryMock, times(2)).setLastTargetQuery(eq(1000L), controllerIdsCaptor.capture());
+        assertThat(controllerIdsCaptor.getAllValues().get(0)).hasSize(2);
+        assertThat(controllerIdsCaptor.getAllValues().get(1)).hasSize(1);
+        verify(transactionManagerMock, times(2)).getTransaction(any());
+    }
+
+    @Test
+    @Description("Verifies that every target is written with its own poll time and not with the most recent poll "
+            + "time of its batch.")
+    public void targetsAreWrittenWithTheirOwnPollTime() {
+        underTest.offer(TENANT, "target1", 1000L);
+        underTest.offer(TENANT, "target2", 2000L);
+        underTest.offer(TENANT, "target3", 1000L);
+
+        underTest.flush();
+
+        verify(targetRepositoryMock).setLastTargetQuery(eq(1000L), controllerIdsCaptor.capture());
+        assertThat(controllerIdsCaptor.getValue()).containsOnly("target1", "target3");
+        verify(targetRepositoryMock).setLastTargetQuery(eq(2000L), controllerIdsCaptor.capture());
+        assertThat(controllerIdsCaptor.getValue()).containsOnly("target2");
+        // both updates are written in one transaction
+        verify(transactionManagerMock, times(1)).getTransaction(any());
+    }
+
+    @Test
+    @Description("Verifies that a full buffer rejects new targets so that the caller falls back to a synchronous write.")
+    public void fullBufferRejectsNewTargets() {
+        properties.setMaxPending(1);
+
+        assertThat(underTest.offer(TENANT, "target1", 1000L)).isTrue();
+        assertThat(underTest.offer(TENANT, "target2", 1000L)).isFalse();
+        // already buffered targets can still be updated
+        assertThat(underTest.offer(TENANT, "target1", 2000L)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that an empty buffer does not hit the database.")
+    public void emptyFlushDoesNotWrite() {
+        underTest.flush();
+
+        verifyZeroInteractions(targetRepositoryMock);
+        verify(systemSecurityContextMock, times(0)).runAsSystemAsTenant(any(Callable.class), anyString());
+    }
+}
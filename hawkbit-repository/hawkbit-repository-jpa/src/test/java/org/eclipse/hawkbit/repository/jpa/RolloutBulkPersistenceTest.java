@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hawkbit.repository.event.remote.RolloutActionsCreatedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
+import org.eclipse.hawkbit.repository.jpa.model.JpaAction;
+import org.eclipse.hawkbit.repository.jpa.rollout.RolloutSchedulerProperties;
+import org.eclipse.hawkbit.repository.model.Action.Status;
+import org.eclipse.hawkbit.repository.model.DistributionSet;
+import org.eclipse.hawkbit.repository.model.Rollout;
+import org.eclipse.hawkbit.repository.model.Rollout.RolloutStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.data.domain.PageRequest;
+
+import com.jayway.awaitility.Awaitility;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Component Tests - Repository")
+@Stories("Rollout Management")
+public class RolloutBulkPersistenceTest extends AbstractJpaIntegrationTest {
+
+    @Autowired
+    private RolloutSchedulerProperties rolloutSchedulerProperties;
+
+    private final AtomicInteger actionCreatedEvents = new AtomicInteger();
+
+    private final AtomicInteger rolloutActionsCreatedEvents = new AtomicInteger();
+
+    private final ApplicationListener<ApplicationEvent> eventCounter = event -> {
+        if (event instanceof ActionCreatedEvent) {
+            actionCreatedEvents.incrementAndGet();
+        } else if (event instanceof RolloutActionsCreatedEvent) {
+            rolloutActionsCreatedEvents.incrementAndGet();
+        }
+    };
+
+    @Before
+    public void enableBulkPersistence() {
+        rolloutSchedulerProperties.setBulkPersistence(true);
+        ((ConfigurableApplicationContext) context).addApplicationListener(eventCounter);
+    }
+
+    @After
+    public void disableBulkPersistence() {
+        rolloutSchedulerProperties.setBulkPersistence(false);
+        context.getBean(ApplicationEventMulticaster.class).removeApplicationListener(eventCounter);
+    }
+
+    @Test
+    @Description("Verifies that a rollout is created and started in bulk persistence mode with one coarse grained "
+            + "event per created batch of actions instead of an event per action.")
+    public void createAndStartRolloutInBulk() {
+        final DistributionSet ds = testdataFactory.createDistributionSet("bulk");
+        testdataFactory.createTargets(20, "bulk-", "bulk");
+        final Rollout rollout = testdataFactory.createRolloutByVariables("bulk", "bulk", 4, "controllerId==bulk-*", ds,
+                "50", "80");
+
+        assertThat(rollout.getStatus()).isEqualTo(RolloutStatus.READY);
+        assertThat(rolloutTargetGroupRepository.count()).isEqualTo(20L);
+
+        rolloutManagement.startRollout(rollout.getId());
+        rolloutManagement.handleRollouts();
+
+        assertThat(actionRepository.countByRolloutIdAndStatus(rollout.getId(), Status.RUNNING)).isEqualTo(5L);
+        assertThat(actionRepository.countByRolloutIdAndStatus(rollout.getId(), Status.SCHEDULED)).isEqualTo(15L);
+
+        final JpaAction scheduled = actionRepository
+                .findByRolloutIdAndStatus(new PageRequest(0, 1), rollout.getId(), Status.SCHEDULED).getContent()
+                .get(0);
+        assertThat(scheduled.getTenant()).isEqualToIgnoringCase(tenantAware.getCurrentTenant());
+        assertThat(scheduled.getDistributionSet().getId()).isEqualTo(ds.getId());
+        assertThat(scheduled.getRolloutGroup()).isNotNull();
+        assertThat(scheduled.getCreatedAt()).isNotNull();
+        assertThat(scheduled.isActive()).isFalse();
+
+        // one event per group as each group fits into one batch
+        Awaitility.await().atMost(5, TimeUnit.SECONDS).until(rolloutActionsCreatedEvents::get, equalTo(4));
+        assertThat(actionCreatedEvents.get()).isZero();
+    }
+}
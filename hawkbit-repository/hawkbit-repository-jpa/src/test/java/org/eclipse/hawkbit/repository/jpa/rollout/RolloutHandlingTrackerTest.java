@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.repository.jpa.rollout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Repository")
+@Stories("Rollout Management")
+public class RolloutHandlingTrackerTest {
+
+    private static final String TENANT = "default";
+
+    private final RolloutSchedulerProperties properties = new RolloutSchedulerProperties();
+
+    private RolloutHandlingTracker underTest;
+
+    @Before
+    public void before() {
+        properties.setEventDriven(true);
+        properties.setFullCheckInterval(60_000);
+        underTest = new RolloutHandlingTracker(properties);
+    }
+
+    @Test
+    @Description("Verifies that a running rollout is only re-evaluated after it has been marked dirty.")
+    public void rolloutIsEvaluatedOnlyIfDirty() {
+        // never handled before
+        assertThat(underTest.checkAndResetDirty(TENANT, 1L)).isTrue();
+        underTest.recordHandling(TENANT, 1L, 10);
+
+        assertThat(underTest.checkAndResetDirty(TENANT, 1L)).isFalse();
+
+        underTest.markDirty("DEFAULT", 1L);
+        assertThat(underTest.checkAndResetDirty(TENANT, 1L)).isTrue();
+        underTest.recordHandling(TENANT, 1L, 20);
+        assertThat(underTest.checkAndResetDirty(TENANT, 1L)).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that every rollout is evaluated on each run if the event driven mode is disabled.")
+    public void rolloutIsAlwaysEvaluatedIfNotEventDriven() {
+        properties.setEventDriven(false);
+        underTest.recordHandling(TENANT, 1L, 10);
+
+        assertThat(underTest.checkAndResetDirty(TENANT, 1L)).isTrue();
+        assertThat(underTest.checkAndResetDirty(TENANT, 1L)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that a rollout which is not dirty is still evaluated after the full check interval.")
+    public void rolloutIsEvaluatedAfterFullCheckInterval() {
+        properties.setFullCheckInterval(0);
+        underTest.recordHandling(TENANT, 1L, 10);
+
+        assertThat(underTest.checkAndResetDirty(TENANT, 1L)).isTrue();
+    }
+
+    @Test
+    @Description("Verifies the handling statistics and that they are removed for rollouts that are not handled anymore.")
+    public void statisticsAreRecordedAndCleanedUp() {
+        underTest.recordHandling(TENANT, 1L, 10);
+        underTest.recordHandling(TENANT, 1L, 30);
+        underTest.recordHandling(TENANT, 2L, 5);
+
+        assertThat(underTest.getStatistics(TENANT, 1L).getCount()).isEqualTo(2);
+        assertThat(underTest.getStatistics(TENANT, 1L).getMaxDurationMillis()).isEqualTo(30);
+        assertThat(underTest.getStatistics(TENANT, 1L).getAverageDurationMillis()).isEqualTo(20);
+        assertThat(underTest.getStatistics(TENANT, 1L).getLastDurationMillis()).isEqualTo(30);
+
+        underTest.retain(TENANT, Arrays.asList(2L));
+        assertThat(underTest.getStatistics(TENANT)).containsOnlyKeys(2L);
+
+        underTest.retain(TENANT, Collections.emptyList());
+        assertThat(underTest.getStatistics(TENANT)).isEmpty();
+    }
+}
@@ -297,10 +297,10 @@ public abstract class AbstractIntegrationTest implements EnvironmentAware {
 
     protected DefaultMockMvcBuilder createMvcWebAppContext() {
         return MockMvcBuilders.webAppContextSetup(context)
-                .addFilter(new DosFilter(100, 10, "127\\.0\\.0\\.1|\\[0:0:0:0:0:0:0:1\\]", "(^192\\.168\\.)",
-                        "X-Forwarded-For"))
+                .addFilter(new DosFilter(100, 10, "127.0.0.1,::1", "192.168.0.0/16", "X-Forwarded-For"))
                 .addFilter(new ExcludePathAwareShallowETagFilter(
-                        "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download", "/*/controller/artifacts/**"));
+                        "/rest/v1/softwaremodules/{smId}/artifacts/{artId}/download", "/*/controller/artifacts/**",
+                        "/*/controller/v1/*"));
     }
 
     private static CIMySqlTestDatabase tesdatabase;
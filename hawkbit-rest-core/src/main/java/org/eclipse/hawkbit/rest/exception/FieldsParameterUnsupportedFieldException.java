@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.exception;
+
+import org.eclipse.hawkbit.exception.AbstractServerRtException;
+import org.eclipse.hawkbit.exception.SpServerError;
+
+/**
+ * Exception used by the REST API in case of invalid field name in the fields
+ * (projection) parameter.
+ */
+public class FieldsParameterUnsupportedFieldException extends AbstractServerRtException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new FieldsParameterUnsupportedFieldException with
+     * {@link SpServerError#SP_REST_FIELDS_PARAM_INVALID_FIELD} error.
+     */
+    public FieldsParameterUnsupportedFieldException() {
+        super(SpServerError.SP_REST_FIELDS_PARAM_INVALID_FIELD);
+    }
+}
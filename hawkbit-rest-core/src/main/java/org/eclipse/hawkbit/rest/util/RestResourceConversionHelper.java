@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +22,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.FileChannelArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.RangedStreamArtifact;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.model.ActionStatus;
 import org.eclipse.hawkbit.repository.model.Artifact;
@@ -30,6 +34,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
 import com.google.common.math.DoubleMath;
 import com.google.common.net.HttpHeaders;
 
@@ -169,9 +174,8 @@ public final class RestResourceConversionHelper {
         response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
         response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(r.getLength()));
 
-        try (InputStream inputStream = file.getFileInputStream()) {
-            copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
-                    r.getLength());
+        try {
+            copyRange(file, response.getOutputStream(), controllerManagement, statusId, r);
         } catch (final IOException e) {
             LOG.error("fullfileRequest of file ({}) failed!", artifact.getFilename(), e);
             throw new FileSteamingFailedException(artifact.getFilename());
@@ -236,7 +240,7 @@ public final class RestResourceConversionHelper {
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
         for (final ByteRange r : ranges) {
-            try (InputStream inputStream = file.getFileInputStream()) {
+            try {
 
                 // Add multipart boundary and header fields for every range.
                 response.getOutputStream().println();
@@ -245,8 +249,7 @@ public final class RestResourceConversionHelper {
                         .println("Content-Range: bytes " + r.getStart() + "-" + r.getEnd() + "/" + r.getTotal());
 
                 // Copy single part range of multi part range.
-                copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
-                        r.getLength());
+                copyRange(file, response.getOutputStream(), controllerManagement, statusId, r);
             } catch (final IOException e) {
                 throwFileStreamingFailedException(artifact, e);
             }
@@ -273,33 +276,53 @@ public final class RestResourceConversionHelper {
         response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(r.getLength()));
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 
-        try (InputStream inputStream = file.getFileInputStream()) {
-            copyStreams(inputStream, response.getOutputStream(), controllerManagement, statusId, r.getStart(),
-                    r.getLength());
+        try {
+            copyRange(file, response.getOutputStream(), controllerManagement, statusId, r);
         } catch (final IOException e) {
             LOG.error("standardRangeRequest of file ({}) failed!", artifact.getFilename(), e);
             throw new FileSteamingFailedException(artifact.getFilename());
         }
     }
 
-    private static long copyStreams(final InputStream from, final OutputStream to,
-            final ControllerManagement controllerManagement, final Long statusId, final long start, final long length)
+    private static long copyRange(final DbArtifact file, final OutputStream to,
+            final ControllerManagement controllerManagement, final Long statusId, final ByteRange range)
             throws IOException {
+        final DownloadProgress progress = new DownloadProgress(controllerManagement, statusId, range.getLength());
+
+        // the servlet output stream is no file channel, i.e. the content is
+        // copied through a buffer either way. The file channel only saves
+        // skipping through the stream until the start of the range.
+        if (file instanceof FileChannelArtifact && range.getStart() > 0) {
+            try (FileChannel channel = ((FileChannelArtifact) file).openFileChannel()) {
+                return copyStreams(Channels.newInputStream(channel.position(range.getStart())), to, progress, 0,
+                        range.getLength());
+            }
+        }
+
+        if (file instanceof RangedStreamArtifact) {
+            try (InputStream inputStream = ((RangedStreamArtifact) file).getFileInputStream(range.getStart(),
+                    range.getLength())) {
+                return copyStreams(inputStream, to, progress, 0, range.getLength());
+            }
+        }
+
+        try (InputStream inputStream = file.getFileInputStream()) {
+            return copyStreams(inputStream, to, progress, range.getStart(), range.getLength());
+        }
+    }
+
+    private static long copyStreams(final InputStream from, final OutputStream to, final DownloadProgress progress,
+            final long start, final long length) throws IOException {
         Preconditions.checkNotNull(from);
         Preconditions.checkNotNull(to);
         final byte[] buf = new byte[BUFFER_SIZE];
         long total = 0;
-        int progressPercent = 1;
 
         // skipp until start is reached
-        long skipped = 0;
-        do {
-            skipped += from.skip(start);
-        } while (skipped < start);
+        ByteStreams.skipFully(from, start);
 
         long toRead = length;
         boolean toContinue = true;
-        long shippedSinceLastEvent = 0;
 
         while (toContinue) {
             final int r = from.read(buf);
@@ -311,26 +334,54 @@ public final class RestResourceConversionHelper {
             if (toRead > 0) {
                 to.write(buf, 0, r);
                 total += r;
-                shippedSinceLastEvent += r;
+                progress.shipped(r);
             } else {
                 to.write(buf, 0, (int) toRead + r);
                 total += toRead + r;
-                shippedSinceLastEvent += toRead + r;
+                progress.shipped(toRead + r);
                 toContinue = false;
             }
+        }
+        return total;
+    }
 
-            if (controllerManagement != null) {
-                final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, RoundingMode.DOWN);
+    /**
+     * Reports the download progress to the {@link ControllerManagement} every
+     * 10 percent of the shipped range.
+     */
+    private static final class DownloadProgress {
+        private final ControllerManagement controllerManagement;
+        private final Long statusId;
+        private final long length;
+
+        private long total;
+        private long shippedSinceLastEvent;
+        private int progressPercent = 1;
+
+        private DownloadProgress(final ControllerManagement controllerManagement, final Long statusId,
+                final long length) {
+            this.controllerManagement = controllerManagement;
+            this.statusId = statusId;
+            this.length = length;
+        }
 
-                // every 10 percent an event
-                if (newPercent == 100 || newPercent > progressPercent + 10) {
-                    progressPercent = newPercent;
-                    controllerManagement.downloadProgress(statusId, length, shippedSinceLastEvent, total);
-                    shippedSinceLastEvent = 0;
-                }
+        private void shipped(final long bytes) {
+            total += bytes;
+            shippedSinceLastEvent += bytes;
+
+            if (controllerManagement == null) {
+                return;
+            }
+
+            final int newPercent = DoubleMath.roundToInt(total * 100.0 / length, RoundingMode.DOWN);
+
+            // every 10 percent an event
+            if (newPercent == 100 || newPercent > progressPercent + 10) {
+                progressPercent = newPercent;
+                controllerManagement.downloadProgress(statusId, length, shippedSinceLastEvent, total);
+                shippedSinceLastEvent = 0;
             }
         }
-        return total;
     }
 
     /**
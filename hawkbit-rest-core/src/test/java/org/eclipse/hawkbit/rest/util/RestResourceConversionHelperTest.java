@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.hawkbit.artifact.repository.model.DbArtifact;
+import org.eclipse.hawkbit.artifact.repository.model.FileChannelArtifact;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.model.Artifact;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.google.common.base.Throwables;
+import com.google.common.net.HttpHeaders;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Rest Core")
+@Stories("Artifact download")
+public class RestResourceConversionHelperTest {
+
+    private static final int CONTENT_LENGTH = 10_000;
+
+    private static final long STATUS_ID = 1L;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final Artifact artifact = mock(Artifact.class);
+
+    private final ControllerManagement controllerManagement = mock(ControllerManagement.class);
+
+    private byte[] content;
+
+    private TestFileChannelArtifact file;
+
+    @Before
+    public void setup() throws IOException {
+        when(artifact.getFilename()).thenReturn("artifact.bin");
+        when(artifact.getSha1Hash()).thenReturn("sha1");
+        when(artifact.getCreatedAt()).thenReturn(System.currentTimeMillis());
+
+        // printable content, i.e. the multipart body can be checked as string
+        content = new byte[CONTENT_LENGTH];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        file = createArtifact(content);
+    }
+
+    @Test
+    @Description("Verifies that a full download is streamed completely and reports the download progress.")
+    public void fullDownload() {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ResponseEntity<InputStream> result = RestResourceConversionHelper.writeFileResponse(artifact, response,
+                new MockHttpServletRequest(), file, controllerManagement, STATUS_ID);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(file.openedChannels.get()).as("full download is streamed").isEqualTo(0);
+        verify(controllerManagement, atLeastOnce()).downloadProgress(eq(STATUS_ID), eq((long) CONTENT_LENGTH),
+                anyLong(), eq((long) CONTENT_LENGTH));
+    }
+
+    @Test
+    @Description("Verifies that a range download is read from the positioned file channel and reports the "
+            + "download progress of the range.")
+    public void rangeDownloadIsReadFromFileChannel() {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ResponseEntity<InputStream> result = RestResourceConversionHelper.writeFileResponse(artifact, response,
+                rangeRequest("bytes=5000-5999"), file, controllerManagement, STATUS_ID);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5000-5999/" + CONTENT_LENGTH);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 5000, 6000));
+        assertThat(file.openedChannels.get()).isEqualTo(1);
+        verify(controllerManagement, atLeastOnce()).downloadProgress(eq(STATUS_ID), eq(1000L), anyLong(),
+                eq(1000L));
+    }
+
+    @Test
+    @Description("Verifies that the ranges of a multipart range download are served completely, the ranges "
+            + "behind the start of the file from the positioned file channel.")
+    public void multipartRangeDownload() throws IOException {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        final ResponseEntity<InputStream> result = RestResourceConversionHelper.writeFileResponse(artifact, response,
+                rangeRequest("bytes=0-99,9000-"), file, controllerManagement, STATUS_ID);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        final String body = response.getContentAsString();
+        assertThat(body).contains("Content-Range: bytes 0-99/" + CONTENT_LENGTH + "\r\n"
+                + new String(content, 0, 100, StandardCharsets.US_ASCII));
+        assertThat(body).contains("Content-Range: bytes 9000-9999/" + CONTENT_LENGTH + "\r\n"
+                + new String(content, 9000, 1000, StandardCharsets.US_ASCII));
+        assertThat(body).endsWith("--" + ByteRange.MULTIPART_BOUNDARY + "--");
+        assertThat(file.openedChannels.get()).as("only the second range is read from the channel").isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest rangeRequest(final String range) {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", range);
+        return request;
+    }
+
+    private TestFileChannelArtifact createArtifact(final byte[] bytes) throws IOException {
+        final File binary = tempFolder.newFile();
+        Files.write(binary.toPath(), bytes);
+        return new TestFileChannelArtifact(binary);
+    }
+
+    /**
+     * Artifact in the local file-system which is served through the stream
+     * path only, buffered as the file-system repository does.
+     */
+    private static class TestStreamArtifact extends DbArtifact {
+        protected final File file;
+
+        private TestStreamArtifact(final File file) {
+            this.file = file;
+            setSize(file.length());
+        }
+
+        @Override
+        public InputStream getFileInputStream() {
+            try {
+                return new BufferedInputStream(new FileInputStream(file));
+            } catch (final FileNotFoundException e) {
+                throw Throwables.propagate(e);
+            }
+        }
+    }
+
+    /**
+     * Artifact in the local file-system which counts the opened file
+     * channels.
+     */
+    private static final class TestFileChannelArtifact extends TestStreamArtifact implements FileChannelArtifact {
+        private final AtomicInteger openedChannels = new AtomicInteger();
+
+        private TestFileChannelArtifact(final File file) {
+            super(file);
+        }
+
+        @Override
+        public FileChannel openFileChannel() throws IOException {
+            openedChannels.incrementAndGet();
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+    }
+}
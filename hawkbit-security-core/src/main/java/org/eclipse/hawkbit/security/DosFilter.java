@@ -9,9 +9,7 @@
 package org.eclipse.hawkbit.security;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -25,36 +23,94 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-
 /**
  * Filter for protection against denial of service attacks. It reduces the
  * maximum number of request per seconds which can be separately configured for
  * read (GET) and write (PUT/POST/DELETE) requests.
+ *
+ * The requests are counted per client in token buckets, see
+ * {@link TokenBucketRateLimiter}. The client is identified by its IP address
+ * by default. Optionally DDI requests can be counted per tenant or per target
+ * (see {@link ClientKey}). White and black list are matched by
+ * {@link IpAddressRangeMatcher}s.
  */
 public class DosFilter extends OncePerRequestFilter {
 
+    /**
+     * Defines by which key the requests of a client are counted.
+     */
+    public enum ClientKey {
+        /**
+         * Count requests per client IP address.
+         */
+        IP,
+
+        /**
+         * Count DDI requests per tenant, other requests per IP address.
+         */
+        TENANT,
+
+        /**
+         * Count DDI requests per tenant and controller ID, other requests per
+         * IP address.
+         */
+        CONTROLLER;
+    }
+
+    /**
+     * Default maximum number of clients that are tracked per request type.
+     */
+    public static final long DEFAULT_MAX_TRACKED_CLIENTS = 100_000;
+
     private static final Logger LOG = LoggerFactory.getLogger(DosFilter.class);
     private static final Logger LOG_DOS = LoggerFactory.getLogger(SecurityConstants.SECURITY_LOG_PREFIX + ".dos");
     private static final Logger LOG_BLACKLIST = LoggerFactory
             .getLogger(SecurityConstants.SECURITY_LOG_PREFIX + ".blacklist");
 
-    private final Pattern ipAdressBlacklist;
+    private static final String DDI_CONTROLLER_PATH = "/controller/v1/";
+
+    private final IpAddressRangeMatcher blacklist;
 
-    private final Cache<String, AtomicInteger> readCountCache = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.SECONDS).build();
+    private final IpAddressRangeMatcher whitelist;
 
-    private final Cache<String, AtomicInteger> writeCountCache = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.SECONDS).build();
+    private final TokenBucketRateLimiter readLimiter;
+
+    private final TokenBucketRateLimiter writeLimiter;
 
     private final Integer maxRead;
     private final Integer maxWrite;
 
-    private final Pattern whitelist;
-
     private final String forwardHeader;
 
+    private final ClientKey clientKey;
+
+    private final AtomicLong blacklistRejections = new AtomicLong();
+
+    /**
+     * Filter constructor including configuration.
+     *
+     * @param maxRead
+     *            Maximum number of allowed REST read/GET requests per second
+     *            per client
+     * @param maxWrite
+     *            Maximum number of allowed REST write/(PUT/POST/etc.) requests
+     *            per second per client
+     * @param ipDosWhiteList
+     *            white list of peer IP addresses for DOS filter as comma
+     *            separated CIDR ranges (or regular expression)
+     * @param ipBlackList
+     *            black listed IP addresses as comma separated CIDR ranges (or
+     *            regular expression)
+     * @param forwardHeader
+     *            the header containing the forwarded IP address e.g.
+     *            {@code x-forwarded-for}
+     */
+    public DosFilter(final Integer maxRead, final Integer maxWrite, final String ipDosWhiteList,
+            final String ipBlackList, final String forwardHeader) {
+        this(maxRead, maxWrite, ipDosWhiteList, ipBlackList, forwardHeader, ClientKey.IP,
+                DEFAULT_MAX_TRACKED_CLIENTS);
+    }
+
     /**
      * Filter constructor including configuration.
      *
@@ -64,33 +120,34 @@ public class DosFilter extends OncePerRequestFilter {
      * @param maxWrite
      *            Maximum number of allowed REST write/(PUT/POST/etc.) requests
      *            per second per client
-     * @param ipDosWhiteListPattern
-     *            {@link Pattern} with with white list of peer IP addresses for
-     *            DOS filter
-     * @param ipBlackListPattern
-     *            {@link Pattern} with black listed IP addresses
+     * @param ipDosWhiteList
+     *            white list of peer IP addresses for DOS filter as comma
+     *            separated CIDR ranges (or regular expression)
+     * @param ipBlackList
+     *            black listed IP addresses as comma separated CIDR ranges (or
+     *            regular expression)
      * @param forwardHeader
      *            the header containing the forwarded IP address e.g.
      *            {@code x-forwarded-for}
+     * @param clientKey
+     *            defines by which key the requests are counted
+     * @param maxTrackedClients
+     *            maximum number of clients that are tracked per request type
      */
-    public DosFilter(final Integer maxRead, final Integer maxWrite, final String ipDosWhiteListPattern,
-            final String ipBlackListPattern, final String forwardHeader) {
+    public DosFilter(final Integer maxRead, final Integer maxWrite, final String ipDosWhiteList,
+            final String ipBlackList, final String forwardHeader, final ClientKey clientKey,
+            final long maxTrackedClients) {
 
         this.maxRead = maxRead;
         this.maxWrite = maxWrite;
         this.forwardHeader = forwardHeader;
+        this.clientKey = clientKey;
 
-        if (ipBlackListPattern != null && !ipBlackListPattern.isEmpty()) {
-            ipAdressBlacklist = Pattern.compile(ipBlackListPattern);
-        } else {
-            ipAdressBlacklist = null;
-        }
+        blacklist = IpAddressRangeMatcher.compile(ipBlackList);
+        whitelist = IpAddressRangeMatcher.compile(ipDosWhiteList);
 
-        if (ipDosWhiteListPattern != null && !ipDosWhiteListPattern.isEmpty()) {
-            whitelist = Pattern.compile(ipDosWhiteListPattern);
-        } else {
-            whitelist = null;
-        }
+        readLimiter = new TokenBucketRateLimiter(maxRead, maxTrackedClients);
+        writeLimiter = new TokenBucketRateLimiter(maxWrite, maxTrackedClients);
     }
 
     @Override
@@ -106,14 +163,15 @@ public class DosFilter extends OncePerRequestFilter {
         } else {
             processChain = checkAgainstBlacklist(response, ip);
 
-            if (processChain && (whitelist == null || !whitelist.matcher(ip).find())) {
+            if (processChain && (whitelist == null || !whitelist.matches(ip))) {
+                final String key = getClientKey(request, ip);
                 // read request
-                if (HttpMethod.valueOf(request.getMethod()) == HttpMethod.GET) {
-                    processChain = handleReadRequest(response, ip);
+                if (HttpMethod.GET.matches(request.getMethod())) {
+                    processChain = handleReadRequest(response, key);
                 }
                 // write request
                 else {
-                    processChain = handleWriteRequest(response, ip);
+                    processChain = handleWriteRequest(response, key);
                 }
             }
         }
@@ -123,19 +181,62 @@ public class DosFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * @return number of read requests rejected since startup
+     */
+    public long getRejectedReadRequests() {
+        return readLimiter.getRejectedCount();
+    }
+
+    /**
+     * @return number of write requests rejected since startup
+     */
+    public long getRejectedWriteRequests() {
+        return writeLimiter.getRejectedCount();
+    }
+
+    /**
+     * @return number of requests of black listed clients rejected since
+     *         startup
+     */
+    public long getRejectedBlacklistRequests() {
+        return blacklistRejections.get();
+    }
+
     /**
      * @return false if the given ip address is on the blacklist and further
      *         processing of the request if forbidden
      */
     private boolean checkAgainstBlacklist(final HttpServletResponse response, final String ip) {
-        if (ipAdressBlacklist != null && ipAdressBlacklist.matcher(ip).find()) {
+        if (blacklist != null && blacklist.matches(ip)) {
             LOG_BLACKLIST.info("Blacklisted client ({}) tries to access the server!", ip);
+            blacklistRejections.incrementAndGet();
             response.setStatus(HttpStatus.FORBIDDEN.value());
             return false;
         }
         return true;
     }
 
+    private String getClientKey(final HttpServletRequest request, final String ip) {
+        if (clientKey == ClientKey.IP) {
+            return ip;
+        }
+
+        // DDI paths: /{tenant}/controller/v1/{controllerId}/...
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        final int controllerPathIndex = path.indexOf(DDI_CONTROLLER_PATH);
+        if (controllerPathIndex <= 1 || path.lastIndexOf('/', controllerPathIndex - 1) != 0) {
+            return ip;
+        }
+        if (clientKey == ClientKey.TENANT) {
+            return path.substring(0, controllerPathIndex);
+        }
+
+        final int controllerIdStart = controllerPathIndex + DDI_CONTROLLER_PATH.length();
+        final int controllerIdEnd = path.indexOf('/', controllerIdStart);
+        return controllerIdEnd < 0 ? path : path.substring(0, controllerIdEnd);
+    }
+
     private static boolean checkIpFails(final String ip) {
         return ip == null || ip.length() == 0 || "unknown".equalsIgnoreCase(ip);
     }
@@ -146,35 +247,25 @@ public class DosFilter extends OncePerRequestFilter {
         return false;
     }
 
-    private boolean handleWriteRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = writeCountCache.getIfPresent(ip);
-
-        if (count == null) {
-            writeCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxWrite) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured WRITE request threshold ({})!", ip,
+    private boolean handleWriteRequest(final HttpServletResponse response, final String key) {
+        if (!writeLimiter.tryAcquire(key)) {
+            LOG_DOS.info("Registered DOS attack! Client {} is above configured WRITE request threshold ({})!", key,
                     maxWrite);
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
+            return false;
         }
 
-        return processChain;
+        return true;
     }
 
-    private boolean handleReadRequest(final HttpServletResponse response, final String ip) {
-        boolean processChain = true;
-        final AtomicInteger count = readCountCache.getIfPresent(ip);
-
-        if (count == null) {
-            readCountCache.put(ip, new AtomicInteger());
-        } else if (count.getAndIncrement() > maxRead) {
-            LOG_DOS.info("Registered DOS attack! Client {} is above configured READ request threshold ({})!", ip,
+    private boolean handleReadRequest(final HttpServletResponse response, final String key) {
+        if (!readLimiter.tryAcquire(key)) {
+            LOG_DOS.info("Registered DOS attack! Client {} is above configured READ request threshold ({})!", key,
                     maxRead);
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            processChain = false;
+            return false;
         }
 
-        return processChain;
+        return true;
     }
 }
@@ -19,6 +19,7 @@ public class HawkbitSecurityProperties {
 
     private final Clients clients = new Clients();
     private final Dos dos = new Dos();
+    private final AuthenticationCache authenticationCache = new AuthenticationCache();
 
     public Dos getDos() {
         return dos;
@@ -28,6 +29,58 @@ public class HawkbitSecurityProperties {
         return clients;
     }
 
+    public AuthenticationCache getAuthenticationCache() {
+        return authenticationCache;
+    }
+
+    /**
+     * Configuration of the cache of controller authentication decisions, i.e.
+     * of the enabled authentication modes per tenant and of the hashes of
+     * target and gateway security tokens.
+     *
+     */
+    public static class AuthenticationCache {
+
+        /**
+         * Set to <code>true</code> to cache authentication decisions.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of cached target security tokens.
+         */
+        private long maxSize = 100_000;
+
+        /**
+         * Time in milliseconds after which a cached entry expires.
+         */
+        private long ttl = 60_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(final long ttl) {
+            this.ttl = ttl;
+        }
+    }
+
     /**
      * Security configuration related to clients.
      *
@@ -35,7 +88,9 @@ public class HawkbitSecurityProperties {
     public static class Clients {
 
         /**
-         * Blacklisted client (IP addresses) for for DDI and Management API.
+         * Blacklisted client (IP addresses) for for DDI and Management API
+         * (comma separated list of CIDR ranges, a regular expression is
+         * supported for backwards compatibility).
          */
         private String blacklist = "";
 
@@ -122,10 +177,11 @@ public class HawkbitSecurityProperties {
         public static class Filter {
 
             /**
-             * White list of peer IP addresses for DOS filter (regular
-             * expression).
+             * White list of peer IP addresses for DOS filter (comma separated
+             * list of CIDR ranges, a regular expression is supported for
+             * backwards compatibility).
              */
-            private String whitelist = "10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|192\\.168\\.\\d{1,3}\\.\\d{1,3}|169\\.254\\.\\d{1,3}\\.\\d{1,3}|127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}|172\\.1[6-9]{1}\\.\\d{1,3}\\.\\d{1,3}|172\\.2[0-9]{1}\\.\\d{1,3}\\.\\d{1,3}|172\\.3[0-1]{1}\\.\\d{1,3}\\.\\d{1,3}";
+            private String whitelist = "10.0.0.0/8,192.168.0.0/16,169.254.0.0/16,127.0.0.0/8,172.16.0.0/12";
 
             /**
              * # Maximum number of allowed REST read/GET requests per second per
@@ -139,6 +195,18 @@ public class HawkbitSecurityProperties {
              */
             int maxWrite = 50;
 
+            /**
+             * Key by which the requests of a client are counted, i.e. per IP
+             * address or for DDI requests per tenant or per controller.
+             */
+            private DosFilter.ClientKey clientKey = DosFilter.ClientKey.IP;
+
+            /**
+             * Maximum number of clients that are tracked at the same time per
+             * request type.
+             */
+            private long maxTrackedClients = DosFilter.DEFAULT_MAX_TRACKED_CLIENTS;
+
             public String getWhitelist() {
                 return whitelist;
             }
@@ -163,6 +231,22 @@ public class HawkbitSecurityProperties {
                 this.maxWrite = maxWrite;
             }
 
+            public DosFilter.ClientKey getClientKey() {
+                return clientKey;
+            }
+
+            public void setClientKey(final DosFilter.ClientKey clientKey) {
+                this.clientKey = clientKey;
+            }
+
+            public long getMaxTrackedClients() {
+                return maxTrackedClients;
+            }
+
+            public void setMaxTrackedClients(final long maxTrackedClients) {
+                this.maxTrackedClients = maxTrackedClients;
+            }
+
         }
     }
 }
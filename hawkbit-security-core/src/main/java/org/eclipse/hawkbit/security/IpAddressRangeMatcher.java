@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Splitter;
+import com.google.common.net.InetAddresses;
+
+/**
+ * Matches IP addresses against a precompiled list of address ranges in CIDR
+ * notation, e.g. {@code 10.0.0.0/8,192.168.0.0/16,::1}. Single addresses
+ * without prefix length match exactly that address. Addresses are parsed
+ * literally, i.e. no name resolution takes place.
+ *
+ * For backwards compatibility an expression which is not a list of CIDR
+ * ranges is interpreted as regular expression which is searched in the IP
+ * address string.
+ */
+public final class IpAddressRangeMatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IpAddressRangeMatcher.class);
+
+    private static final Splitter LIST_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final List<AddressRange> ranges;
+
+    private final Pattern pattern;
+
+    private IpAddressRangeMatcher(final List<AddressRange> ranges, final Pattern pattern) {
+        this.ranges = ranges;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Compiles the given expression.
+     *
+     * @param expression
+     *            comma separated list of CIDR ranges or a regular expression
+     * @return the compiled matcher or <code>null</code> if the expression is
+     *         empty
+     */
+    public static IpAddressRangeMatcher compile(final String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return null;
+        }
+
+        final List<AddressRange> ranges = new ArrayList<>();
+        for (final String entry : LIST_SPLITTER.split(expression)) {
+            final AddressRange range = AddressRange.parse(entry);
+            if (range == null) {
+                LOG.info("{} is not a list of CIDR ranges, using it as regular expression", expression);
+                return new IpAddressRangeMatcher(null, Pattern.compile(expression));
+            }
+            ranges.add(range);
+        }
+        return new IpAddressRangeMatcher(ranges, null);
+    }
+
+    /**
+     * @param ip
+     *            address to check, IPv6 addresses might be enclosed in
+     *            brackets
+     * @return <code>true</code> if the address is in one of the ranges
+     */
+    public boolean matches(final String ip) {
+        if (pattern != null) {
+            return pattern.matcher(ip).find();
+        }
+
+        final byte[] address = parseAddress(ip);
+        if (address == null) {
+            return false;
+        }
+        for (final AddressRange range : ranges) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] parseAddress(final String ip) {
+        final String literal = ip.startsWith("[") && ip.endsWith("]") ? ip.substring(1, ip.length() - 1) : ip;
+        if (!InetAddresses.isInetAddress(literal)) {
+            return null;
+        }
+        return InetAddresses.forString(literal).getAddress();
+    }
+
+    private static final class AddressRange {
+        private final byte[] network;
+        private final int prefixLength;
+
+        private AddressRange(final byte[] network, final int prefixLength) {
+            this.network = network;
+            this.prefixLength = prefixLength;
+        }
+
+        private static AddressRange parse(final String cidr) {
+            final int slash = cidr.indexOf('/');
+            final byte[] network = parseAddress(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (network == null) {
+                return null;
+            }
+
+            final int maxPrefixLength = network.length * Byte.SIZE;
+            if (slash < 0) {
+                return new AddressRange(network, maxPrefixLength);
+            }
+
+            final int prefixLength;
+            try {
+                prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+            } catch (final NumberFormatException e) {
+                LOG.trace("Invalid prefix length in {}", cidr, e);
+                return null;
+            }
+            if (prefixLength < 0 || prefixLength > maxPrefixLength) {
+                return null;
+            }
+            return new AddressRange(network, prefixLength);
+        }
+
+        private boolean contains(final byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            final int fullBytes = prefixLength / Byte.SIZE;
+            for (int i = 0; i < fullBytes; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            final int remainingBits = prefixLength % Byte.SIZE;
+            if (remainingBits == 0) {
+                return true;
+            }
+            final int mask = (0xFF << (Byte.SIZE - remainingBits)) & 0xFF;
+            return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Rate limiter which grants a number of permits per second and key (e.g. per
+ * client IP address) based on a token bucket with a capacity of one second of
+ * permits.
+ *
+ * The bucket of a key is represented by a single {@link AtomicLong} holding the
+ * time at which the bucket is completely refilled (generic cell rate
+ * algorithm), which is updated lock-free. The buckets are kept in a bounded
+ * map which is internally lock striped. Buckets that have not been accessed
+ * for a refill period are evicted as they are full again anyway.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long nanosPerPermit;
+
+    private final long burstNanos;
+
+    private final Ticker ticker;
+
+    private final LoadingCache<String, AtomicLong> buckets;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param permitsPerSecond
+     *            number of permits granted per second and key, this is also
+     *            the number of permits that can be acquired in a burst
+     * @param maxKeys
+     *            maximum number of keys that are tracked at the same time
+     */
+    public TokenBucketRateLimiter(final int permitsPerSecond, final long maxKeys) {
+        this(permitsPerSecond, maxKeys, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param permitsPerSecond
+     *            number of permits granted per second and key, this is also
+     *            the number of permits that can be acquired in a burst
+     * @param maxKeys
+     *            maximum number of keys that are tracked at the same time
+     * @param ticker
+     *            time source
+     */
+    public TokenBucketRateLimiter(final int permitsPerSecond, final long maxKeys, final Ticker ticker) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond has to be positive but was " + permitsPerSecond);
+        }
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstNanos = nanosPerPermit * permitsPerSecond;
+        this.ticker = ticker;
+        this.buckets = CacheBuilder.newBuilder().maximumSize(maxKeys)
+                .expireAfterAccess(burstNanos, TimeUnit.NANOSECONDS).ticker(ticker)
+                .build(new CacheLoader<String, AtomicLong>() {
+                    @Override
+                    public AtomicLong load(final String key) {
+                        return new AtomicLong(Long.MIN_VALUE);
+                    }
+                });
+    }
+
+    /**
+     * Acquires a permit for the given key if available.
+     *
+     * @param key
+     *            to acquire the permit for
+     * @return <code>true</code> if the permit has been granted,
+     *         <code>false</code> if the bucket of the key is empty
+     */
+    public boolean tryAcquire(final String key) {
+        final AtomicLong refilledAt = buckets.getUnchecked(key);
+        final long now = ticker.read();
+
+        while (true) {
+            final long current = refilledAt.get();
+            final long next = Math.max(current, now) + nanosPerPermit;
+            if (next - now > burstNanos) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (refilledAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return number of rejected permit requests since startup
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return approximate number of currently tracked keys
+     */
+    public long getTrackedKeyCount() {
+        return buckets.size();
+    }
+}
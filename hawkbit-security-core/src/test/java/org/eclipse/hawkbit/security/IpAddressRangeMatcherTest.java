@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Denial of Service protection filter")
+public class IpAddressRangeMatcherTest {
+
+    @Test
+    @Description("Verifies matching of IPv4 and IPv6 addresses against CIDR ranges.")
+    public void matchesCidrRanges() {
+        final IpAddressRangeMatcher underTest = IpAddressRangeMatcher
+                .compile("10.0.0.0/8, 172.16.0.0/12,192.168.1.1,::1,fd00::/8");
+
+        assertThat(underTest.matches("10.1.2.3")).isTrue();
+        assertThat(underTest.matches("110.1.2.3")).isFalse();
+        assertThat(underTest.matches("172.31.255.255")).isTrue();
+        assertThat(underTest.matches("172.32.0.1")).isFalse();
+        assertThat(underTest.matches("192.168.1.1")).isTrue();
+        assertThat(underTest.matches("192.168.1.2")).isFalse();
+        assertThat(underTest.matches("[0:0:0:0:0:0:0:1]")).isTrue();
+        assertThat(underTest.matches("fd12::1")).isTrue();
+        assertThat(underTest.matches("fe80::1")).isFalse();
+        assertThat(underTest.matches("unknown")).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that expressions which are not CIDR lists are handled as regular expression.")
+    public void fallsBackToRegularExpression() {
+        final IpAddressRangeMatcher underTest = IpAddressRangeMatcher
+                .compile("127\\.0\\.0\\.1|\\[0:0:0:0:0:0:0:1\\]|10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}");
+
+        assertThat(underTest.matches("127.0.0.1")).isTrue();
+        assertThat(underTest.matches("[0:0:0:0:0:0:0:1]")).isTrue();
+        assertThat(underTest.matches("10.0.0.1")).isTrue();
+        assertThat(underTest.matches("192.168.0.1")).isFalse();
+    }
+
+    @Test
+    @Description("Verifies that empty expressions result in no matcher.")
+    public void emptyExpressionResultsInNoMatcher() {
+        assertThat(IpAddressRangeMatcher.compile(null)).isNull();
+        assertThat(IpAddressRangeMatcher.compile(" ")).isNull();
+    }
+}
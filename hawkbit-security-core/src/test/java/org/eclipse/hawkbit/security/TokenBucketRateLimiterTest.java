@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Denial of Service protection filter")
+public class TokenBucketRateLimiterTest {
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    private final TokenBucketRateLimiter underTest = new TokenBucketRateLimiter(10, 100, ticker);
+
+    @Test
+    @Description("Verifies that a burst of one second of permits is granted and further requests are rejected.")
+    public void burstIsLimitedToPermitsPerSecond() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.tryAcquire("client")).isTrue();
+        }
+        assertThat(underTest.tryAcquire("client")).isFalse();
+        assertThat(underTest.getRejectedCount()).isEqualTo(1);
+
+        // other clients have their own bucket
+        assertThat(underTest.tryAcquire("other")).isTrue();
+    }
+
+    @Test
+    @Description("Verifies that the bucket is refilled over time, also for clients that are steadily sending requests.")
+    public void bucketIsRefilledContinuously() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.tryAcquire("client")).isTrue();
+        }
+        assertThat(underTest.tryAcquire("client")).isFalse();
+
+        ticker.advance(100, TimeUnit.MILLISECONDS);
+        assertThat(underTest.tryAcquire("client")).isTrue();
+        assertThat(underTest.tryAcquire("client")).isFalse();
+
+        ticker.advance(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            assertThat(underTest.tryAcquire("client")).isTrue();
+        }
+        assertThat(underTest.tryAcquire("client")).isFalse();
+    }
+
+    private static final class FakeTicker extends Ticker {
+        private long nanos = 42;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        private void advance(final long time, final TimeUnit unit) {
+            nanos += unit.toNanos(time);
+        }
+    }
+}
@@ -29,12 +29,20 @@ public abstract class AbstractControllerAuthenticationFilter implements PreAuthe
     protected final TenantAware tenantAware;
     private final SecurityConfigurationKeyTenantRunner configurationKeyTenantRunner;
     protected final SystemSecurityContext systemSecurityContext;
+    protected final ControllerAuthenticationCache authenticationCache;
 
     protected AbstractControllerAuthenticationFilter(final TenantConfigurationManagement systemManagement,
             final TenantAware tenantAware, final SystemSecurityContext systemSecurityContext) {
+        this(systemManagement, tenantAware, systemSecurityContext, null);
+    }
+
+    protected AbstractControllerAuthenticationFilter(final TenantConfigurationManagement systemManagement,
+            final TenantAware tenantAware, final SystemSecurityContext systemSecurityContext,
+            final ControllerAuthenticationCache authenticationCache) {
         this.tenantConfigurationManagement = systemManagement;
         this.tenantAware = tenantAware;
         this.systemSecurityContext = systemSecurityContext;
+        this.authenticationCache = authenticationCache;
         this.configurationKeyTenantRunner = new SecurityConfigurationKeyTenantRunner();
     }
 
@@ -42,6 +50,10 @@ public abstract class AbstractControllerAuthenticationFilter implements PreAuthe
 
     @Override
     public boolean isEnable(final TenantSecurityToken secruityToken) {
+        if (authenticationCache != null) {
+            return authenticationCache.isEnabled(secruityToken.getTenant(), getTenantConfigurationKey(),
+                    () -> tenantAware.runAsTenant(secruityToken.getTenant(), configurationKeyTenantRunner));
+        }
         return tenantAware.runAsTenant(secruityToken.getTenant(), configurationKeyTenantRunner);
     }
 
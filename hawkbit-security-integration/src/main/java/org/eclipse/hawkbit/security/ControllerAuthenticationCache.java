@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantConfigurationChangedEvent;
+import org.eclipse.hawkbit.repository.event.remote.entity.TargetUpdatedEvent;
+import org.eclipse.hawkbit.security.HawkbitSecurityProperties.AuthenticationCache;
+import org.springframework.context.event.EventListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Caches the decisions that are needed to authenticate controllers, i.e. if an
+ * authentication mode is enabled for a tenant, the gateway security token of a
+ * tenant and the security tokens of the targets. Security tokens are never
+ * cached in plain text but as SHA-256 hash which is compared with the hash of
+ * the presented token.
+ *
+ * Target entries are invalidated by {@link TargetUpdatedEvent}s and
+ * {@link TargetDeletedEvent}s, tenant entries by
+ * {@link TenantConfigurationChangedEvent}s. All entries expire after
+ * {@link AuthenticationCache#getTtl()} as a fallback.
+ */
+public class ControllerAuthenticationCache {
+
+    private final Cache<String, Boolean> authenticationModes;
+
+    private final Cache<String, TokenHash> tenantTokens;
+
+    private final Cache<String, TargetCredentials> targetCredentials;
+
+    /**
+     * Index of the cached target IDs to the keys of the targets.
+     */
+    private final Map<String, String> targetIndex = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param properties
+     *            the cache configuration
+     */
+    public ControllerAuthenticationCache(final AuthenticationCache properties) {
+        this.authenticationModes = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).recordStats().build();
+        this.tenantTokens = CacheBuilder.newBuilder().expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS)
+                .recordStats().build();
+        this.targetCredentials = CacheBuilder.newBuilder().maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl(), TimeUnit.MILLISECONDS).recordStats()
+                .removalListener(this::onTargetCredentialsRemoval).build();
+    }
+
+    /**
+     * Returns if an authentication mode is enabled for the tenant from the
+     * cache or loads it.
+     *
+     * @param tenant
+     *            to check
+     * @param configurationKey
+     *            of the authentication mode
+     * @param loader
+     *            to load the configuration value in case it is not cached
+     * @return <code>true</code> if the authentication mode is enabled
+     */
+    public boolean isEnabled(final String tenant, final String configurationKey, final Supplier<Boolean> loader) {
+        final String key = configurationKey(tenant, configurationKey);
+        final Boolean cached = authenticationModes.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final long stamp = invalidations.get();
+        final Boolean enabled = loader.get();
+        if (enabled == null) {
+            return false;
+        }
+        authenticationModes.put(key, enabled);
+        if (invalidations.get() != stamp) {
+            authenticationModes.invalidate(key);
+        }
+        return enabled;
+    }
+
+    /**
+     * Checks if the given token matches a security token of the tenant, e.g.
+     * the gateway security token. The hash of the tenant token is taken from
+     * the cache or loaded. A mismatch is verified with a freshly loaded token
+     * as the cached token might have been changed in the meantime.
+     *
+     * @param tenant
+     *            of the token
+     * @param configurationKey
+     *            of the tenant token
+     * @param presentedToken
+     *            to check, might be <code>null</code>
+     * @param loader
+     *            to load the tenant token in case it is not cached
+     * @return <code>true</code> if the presented token matches the tenant
+     *         token
+     */
+    public boolean matchesTenantToken(final String tenant, final String configurationKey,
+            final String presentedToken, final Supplier<String> loader) {
+        final String key = configurationKey(tenant, configurationKey);
+        final TokenHash cached = tenantTokens.getIfPresent(key);
+        if (cached != null && (presentedToken == null || cached.matches(presentedToken))) {
+            return cached.matches(presentedToken);
+        }
+
+        final long stamp = invalidations.get();
+        final TokenHash loaded = TokenHash.of(loader.get());
+        tenantTokens.put(key, loaded);
+        if (invalidations.get() != stamp) {
+            tenantTokens.invalidate(key);
+        }
+        return loaded.matches(presentedToken);
+    }
+
+    /**
+     * Returns the credentials of a target from the cache or loads them. The
+     * target is identified by its controller ID or, if not given, by its ID.
+     *
+     * @param tenant
+     *            of the target
+     * @param controllerId
+     *            of the target, might be <code>null</code> if the target ID is
+     *            given
+     * @param targetId
+     *            of the target, only used if no controller ID is given
+     * @param loader
+     *            to load the credentials in case they are not cached
+     * @return the credentials or <code>null</code> if the target does not exist
+     */
+    public TargetCredentials getTargetCredentials(final String tenant, final String controllerId, final Long targetId,
+            final Supplier<TargetCredentials> loader) {
+        final String key = controllerId != null ? targetKey(tenant, controllerId)
+                : targetIndex.get(targetIdKey(tenant, targetId));
+        if (key != null) {
+            final TargetCredentials cached = targetCredentials.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final long stamp = invalidations.get();
+        final TargetCredentials loaded = loader.get();
+        if (loaded != null) {
+            putTargetCredentials(tenant, loaded, stamp);
+        }
+        return loaded;
+    }
+
+    private void putTargetCredentials(final String tenant, final TargetCredentials credentials, final long stamp) {
+        final String key = targetKey(tenant, credentials.getControllerId());
+        targetIndex.put(targetIdKey(tenant, credentials.getTargetId()), key);
+        targetCredentials.put(key, credentials);
+
+        // an invalidation might have been missed in between
+        if (invalidations.get() != stamp) {
+            targetCredentials.invalidate(key);
+        }
+    }
+
+    /**
+     * Invalidates the cached credentials of the given target.
+     *
+     * @param tenant
+     *            of the target
+     * @param targetId
+     *            of the target
+     */
+    public void invalidateTarget(final String tenant, final Long targetId) {
+        invalidations.incrementAndGet();
+        final String key = targetIndex.remove(targetIdKey(tenant, targetId));
+        if (key != null) {
+            targetCredentials.invalidate(key);
+        }
+    }
+
+    /**
+     * Invalidates the cached authentication mode or token of the given
+     * configuration key.
+     *
+     * @param tenant
+     *            of the configuration
+     * @param configurationKey
+     *            of the configuration
+     */
+    public void invalidateConfiguration(final String tenant, final String configurationKey) {
+        invalidations.incrementAndGet();
+        final String key = configurationKey(tenant, configurationKey);
+        authenticationModes.invalidate(key);
+        tenantTokens.invalidate(key);
+    }
+
+    /**
+     * Invalidates the credentials of the updated target.
+     *
+     * @param event
+     *            of the target update
+     */
+    @EventListener(classes = TargetUpdatedEvent.class)
+    public void onTargetUpdated(final TargetUpdatedEvent event) {
+        invalidateTarget(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Invalidates the credentials of the deleted target.
+     *
+     * @param event
+     *            of the target deletion
+     */
+    @EventListener(classes = TargetDeletedEvent.class)
+    public void onTargetDeleted(final TargetDeletedEvent event) {
+        invalidateTarget(event.getTenant(), event.getEntityId());
+    }
+
+    /**
+     * Invalidates the changed authentication mode or token of the tenant.
+     *
+     * @param event
+     *            of the configuration change
+     */
+    @EventListener(classes = TenantConfigurationChangedEvent.class)
+    public void onTenantConfigurationChanged(final TenantConfigurationChangedEvent event) {
+        invalidateConfiguration(event.getTenant(), event.getConfigurationKey());
+    }
+
+    /**
+     * @return hit and miss statistics of the authentication mode cache
+     */
+    public CacheStats getAuthenticationModeStats() {
+        return authenticationModes.stats();
+    }
+
+    /**
+     * @return hit and miss statistics of the tenant token cache
+     */
+    public CacheStats getTenantTokenStats() {
+        return tenantTokens.stats();
+    }
+
+    /**
+     * @return hit and miss statistics of the target credentials cache
+     */
+    public CacheStats getTargetCredentialsStats() {
+        return targetCredentials.stats();
+    }
+
+    /**
+     * @return number of repository lookups that have been saved by the cache
+     *         since startup
+     */
+    public long getSavedLookupCount() {
+        return authenticationModes.stats().hitCount() + tenantTokens.stats().hitCount()
+                + targetCredentials.stats().hitCount();
+    }
+
+    private void onTargetCredentialsRemoval(final RemovalNotification<String, TargetCredentials> notification) {
+        // a replaced entry is replaced with the same target
+        final TargetCredentials credentials = notification.getValue();
+        if (notification.getCause() != RemovalCause.REPLACED && credentials != null) {
+            final String tenant = notification.getKey().substring(0, notification.getKey().indexOf('/'));
+            targetIndex.remove(targetIdKey(tenant, credentials.getTargetId()), notification.getKey());
+        }
+    }
+
+    private static String configurationKey(final String tenant, final String configurationKey) {
+        return tenant.toUpperCase() + "/" + configurationKey;
+    }
+
+    private static String targetKey(final String tenant, final String controllerId) {
+        return tenant.toUpperCase() + "/" + controllerId;
+    }
+
+    private static String targetIdKey(final String tenant, final Long targetId) {
+        return tenant.toUpperCase() + "/" + targetId;
+    }
+
+    /**
+     * The cached credentials of a target.
+     */
+    public static final class TargetCredentials {
+
+        private final String controllerId;
+
+        private final Long targetId;
+
+        private final TokenHash securityToken;
+
+        private TargetCredentials(final String controllerId, final Long targetId, final TokenHash securityToken) {
+            this.controllerId = controllerId;
+            this.targetId = targetId;
+            this.securityToken = securityToken;
+        }
+
+        /**
+         * Creates the credentials of a target.
+         *
+         * @param controllerId
+         *            of the target
+         * @param targetId
+         *            of the target
+         * @param securityToken
+         *            of the target, only its hash is kept
+         * @return the credentials
+         */
+        public static TargetCredentials of(final String controllerId, final Long targetId,
+                final String securityToken) {
+            return new TargetCredentials(controllerId, targetId, TokenHash.of(securityToken));
+        }
+
+        public String getControllerId() {
+            return controllerId;
+        }
+
+        public Long getTargetId() {
+            return targetId;
+        }
+
+        /**
+         * @param presentedToken
+         *            to check, might be <code>null</code>
+         * @return <code>true</code> if the presented token matches the
+         *         security token of the target
+         */
+        public boolean matches(final String presentedToken) {
+            return securityToken.matches(presentedToken);
+        }
+    }
+
+    private static final class TokenHash {
+
+        private static final TokenHash NONE = new TokenHash(null);
+
+        private final HashCode hash;
+
+        private TokenHash(final HashCode hash) {
+            this.hash = hash;
+        }
+
+        private static TokenHash of(final String token) {
+            if (token == null) {
+                return NONE;
+            }
+            return new TokenHash(Hashing.sha256().hashString(token, StandardCharsets.UTF_8));
+        }
+
+        private boolean matches(final String token) {
+            if (hash == null || token == null) {
+                return false;
+            }
+            // constant time comparison
+            return MessageDigest.isEqual(hash.asBytes(),
+                    Hashing.sha256().hashString(token, StandardCharsets.UTF_8).asBytes());
+        }
+    }
+}
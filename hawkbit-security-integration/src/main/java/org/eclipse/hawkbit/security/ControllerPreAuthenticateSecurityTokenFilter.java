@@ -14,6 +14,7 @@ import org.eclipse.hawkbit.dmf.json.model.TenantSecurityToken;
 import org.eclipse.hawkbit.repository.ControllerManagement;
 import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
 import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.security.ControllerAuthenticationCache.TargetCredentials;
 import org.eclipse.hawkbit.tenancy.TenantAware;
 import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
 import org.slf4j.Logger;
@@ -57,7 +58,34 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
             final TenantConfigurationManagement tenantConfigurationManagement,
             final ControllerManagement controllerManagement, final TenantAware tenantAware,
             final SystemSecurityContext systemSecurityContext) {
-        super(tenantConfigurationManagement, tenantAware, systemSecurityContext);
+        this(tenantConfigurationManagement, controllerManagement, tenantAware, systemSecurityContext, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param tenantConfigurationManagement
+     *            the tenant management service to retrieve configuration
+     *            properties
+     * @param controllerManagement
+     *            the controller management to retrieve the specific target
+     *            security token to verify
+     * @param tenantAware
+     *            the tenant aware service to get configuration for the specific
+     *            tenant
+     * @param systemSecurityContext
+     *            the system security context to get access to tenant
+     *            configuration
+     * @param authenticationCache
+     *            to cache the authentication decisions, might be
+     *            <code>null</code>
+     */
+    public ControllerPreAuthenticateSecurityTokenFilter(
+            final TenantConfigurationManagement tenantConfigurationManagement,
+            final ControllerManagement controllerManagement, final TenantAware tenantAware,
+            final SystemSecurityContext systemSecurityContext,
+            final ControllerAuthenticationCache authenticationCache) {
+        super(tenantConfigurationManagement, tenantAware, systemSecurityContext, authenticationCache);
         this.controllerManagement = controllerManagement;
     }
 
@@ -78,6 +106,10 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
 
     @Override
     public HeaderAuthentication getPreAuthenticatedCredentials(final TenantSecurityToken securityToken) {
+        if (authenticationCache != null) {
+            return getCachedCredentials(securityToken);
+        }
+
         final Optional<Target> target = systemSecurityContext.runAsSystemAsTenant(() -> {
             if (securityToken.getTargetId() != null) {
                 return controllerManagement.findByTargetId(securityToken.getTargetId());
@@ -90,10 +122,58 @@ public class ControllerPreAuthenticateSecurityTokenFilter extends AbstractContro
                 .orElse(null);
     }
 
+    /**
+     * Verifies the presented token with the hash of the target security token
+     * from the cache. The credentials contain the presented token if it
+     * matches, otherwise no token.
+     */
+    private HeaderAuthentication getCachedCredentials(final TenantSecurityToken securityToken) {
+        TargetCredentials credentials = getTargetCredentials(securityToken);
+        if (credentials == null) {
+            return null;
+        }
+
+        final String presentedToken = getPresentedToken(securityToken);
+        if (presentedToken != null && !credentials.matches(presentedToken)) {
+            // the security token might have been changed in the meantime
+            authenticationCache.invalidateTarget(securityToken.getTenant(), credentials.getTargetId());
+            credentials = getTargetCredentials(securityToken);
+            if (credentials == null) {
+                return null;
+            }
+        }
+
+        return new HeaderAuthentication(credentials.getControllerId(),
+                credentials.matches(presentedToken) ? presentedToken : null);
+    }
+
+    private TargetCredentials getTargetCredentials(final TenantSecurityToken securityToken) {
+        return authenticationCache.getTargetCredentials(securityToken.getTenant(), securityToken.getControllerId(),
+                securityToken.getTargetId(), () -> systemSecurityContext.runAsSystemAsTenant(() -> {
+                    final Optional<Target> target = securityToken.getControllerId() != null
+                            ? controllerManagement.findByControllerId(securityToken.getControllerId())
+                            : controllerManagement.findByTargetId(securityToken.getTargetId());
+                    return target.map(t -> TargetCredentials.of(t.getControllerId(), t.getId(), t.getSecurityToken()))
+                            .orElse(null);
+                }, securityToken.getTenant()));
+    }
+
+    private static String getPresentedToken(final TenantSecurityToken securityToken) {
+        final String authHeader = securityToken.getHeader(TenantSecurityToken.AUTHORIZATION_HEADER);
+        if ((authHeader != null) && authHeader.startsWith(TARGET_SECURITY_TOKEN_AUTH_SCHEME)) {
+            return authHeader.substring(OFFSET_TARGET_TOKEN);
+        }
+        return null;
+    }
+
     private String resolveControllerId(final TenantSecurityToken securityToken) {
         if (securityToken.getControllerId() != null) {
             return securityToken.getControllerId();
         }
+        if (authenticationCache != null) {
+            final TargetCredentials credentials = getTargetCredentials(securityToken);
+            return credentials == null ? null : credentials.getControllerId();
+        }
         final Optional<Target> foundTarget = systemSecurityContext.runAsSystemAsTenant(
                 () -> controllerManagement.findByTargetId(securityToken.getTargetId()), securityToken.getTenant());
         if (!foundTarget.isPresent()) {
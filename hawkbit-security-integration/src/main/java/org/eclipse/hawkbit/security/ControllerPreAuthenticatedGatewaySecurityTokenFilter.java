@@ -52,7 +52,30 @@ public class ControllerPreAuthenticatedGatewaySecurityTokenFilter extends Abstra
     public ControllerPreAuthenticatedGatewaySecurityTokenFilter(
             final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
             final SystemSecurityContext systemSecurityContext) {
-        super(tenantConfigurationManagement, tenantAware, systemSecurityContext);
+        this(tenantConfigurationManagement, tenantAware, systemSecurityContext, null);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param tenantConfigurationManagement
+     *            the tenant management service to retrieve configuration
+     *            properties
+     * @param tenantAware
+     *            the tenant aware service to get configuration for the specific
+     *            tenant
+     * @param systemSecurityContext
+     *            the system security context to get access to tenant
+     *            configuration
+     * @param authenticationCache
+     *            to cache the authentication decisions, might be
+     *            <code>null</code>
+     */
+    public ControllerPreAuthenticatedGatewaySecurityTokenFilter(
+            final TenantConfigurationManagement tenantConfigurationManagement, final TenantAware tenantAware,
+            final SystemSecurityContext systemSecurityContext,
+            final ControllerAuthenticationCache authenticationCache) {
+        super(tenantConfigurationManagement, tenantAware, systemSecurityContext, authenticationCache);
     }
 
     @Override
@@ -72,11 +95,29 @@ public class ControllerPreAuthenticatedGatewaySecurityTokenFilter extends Abstra
 
     @Override
     public HeaderAuthentication getPreAuthenticatedCredentials(final TenantSecurityToken secruityToken) {
+        if (authenticationCache != null) {
+            // the credentials contain the presented token if it matches the
+            // hash of the gateway token, otherwise no token
+            final String presentedToken = getPresentedToken(secruityToken);
+            final boolean matches = authenticationCache.matchesTenantToken(secruityToken.getTenant(),
+                    TenantConfigurationKey.AUTHENTICATION_MODE_GATEWAY_SECURITY_TOKEN_KEY, presentedToken,
+                    () -> tenantAware.runAsTenant(secruityToken.getTenant(), gatewaySecurityTokenKeyConfigRunner));
+            return new HeaderAuthentication(secruityToken.getControllerId(), matches ? presentedToken : null);
+        }
+
         final String gatewayToken = tenantAware.runAsTenant(secruityToken.getTenant(),
                 gatewaySecurityTokenKeyConfigRunner);
         return new HeaderAuthentication(secruityToken.getControllerId(), gatewayToken);
     }
 
+    private static String getPresentedToken(final TenantSecurityToken secruityToken) {
+        final String authHeader = secruityToken.getHeader(TenantSecurityToken.AUTHORIZATION_HEADER);
+        if ((authHeader != null) && authHeader.startsWith(GATEWAY_SECURITY_TOKEN_AUTH_SCHEME)) {
+            return authHeader.substring(OFFSET_GATEWAY_TOKEN);
+        }
+        return null;
+    }
+
     @Override
     protected String getTenantConfigurationKey() {
         return TenantConfigurationKey.AUTHENTICATION_MODE_GATEWAY_SECURITY_TOKEN_ENABLED;
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2015 Bosch Software Innovations GmbH and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.hawkbit.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.eclipse.hawkbit.dmf.json.model.TenantSecurityToken;
+import org.eclipse.hawkbit.repository.ControllerManagement;
+import org.eclipse.hawkbit.repository.TenantConfigurationManagement;
+import org.eclipse.hawkbit.repository.event.remote.TargetDeletedEvent;
+import org.eclipse.hawkbit.repository.event.remote.TenantConfigurationChangedEvent;
+import org.eclipse.hawkbit.repository.model.Target;
+import org.eclipse.hawkbit.repository.model.TenantConfigurationValue;
+import org.eclipse.hawkbit.tenancy.configuration.TenantConfigurationProperties.TenantConfigurationKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import ru.yandex.qatools.allure.annotations.Description;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Stories;
+
+@Features("Unit Tests - Security")
+@Stories("Controller authentication cache")
+@RunWith(MockitoJUnitRunner.class)
+public class ControllerAuthenticationCacheTest {
+
+    private static final String TENANT = "DEFAULT";
+    private static final String CONTROLLER_ID = "4711";
+    private static final Long TARGET_ID = 1L;
+    private static final String TOKEN = "b3f1d2a8c7e6";
+
+    private static final TenantConfigurationValue<Boolean> CONFIG_VALUE_TRUE = TenantConfigurationValue
+            .<Boolean> builder().value(Boolean.TRUE).build();
+
+    @Mock
+    private TenantConfigurationManagement tenantConfigurationManagementMock;
+
+    @Mock
+    private ControllerManagement controllerManagementMock;
+
+    @Mock
+    private Target targetMock;
+
+    private ControllerAuthenticationCache authenticationCache;
+
+    private ControllerPreAuthenticateSecurityTokenFilter underTest;
+
+    @Before
+    public void before() {
+        when(targetMock.getControllerId()).thenReturn(CONTROLLER_ID);
+        when(targetMock.getId()).thenReturn(TARGET_ID);
+        when(targetMock.getSecurityToken()).thenReturn(TOKEN);
+        when(controllerManagementMock.findByControllerId(CONTROLLER_ID)).thenReturn(Optional.of(targetMock));
+        when(tenantConfigurationManagementMock.getConfigurationValue(
+                TenantConfigurationKey.AUTHENTICATION_MODE_TARGET_SECURITY_TOKEN_ENABLED, Boolean.class))
+                        .thenReturn(CONFIG_VALUE_TRUE);
+
+        final SecurityContextTenantAware tenantAware = new SecurityContextTenantAware();
+        authenticationCache = new ControllerAuthenticationCache(new HawkbitSecurityProperties.AuthenticationCache());
+        underTest = new ControllerPreAuthenticateSecurityTokenFilter(tenantConfigurationManagementMock,
+                controllerManagementMock, tenantAware, new SystemSecurityContext(tenantAware), authenticationCache);
+    }
+
+    @Test
+    @Description("Verifies that the target security token is loaded once and further authentications are "
+            + "verified against the cached hash.")
+    public void targetSecurityTokenIsVerifiedFromCache() {
+        final TenantSecurityToken securityToken = createSecurityToken(TOKEN);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(underTest.getPreAuthenticatedCredentials(securityToken))
+                    .isEqualTo(underTest.getPreAuthenticatedPrincipal(securityToken));
+        }
+
+        verify(controllerManagementMock, times(1)).findByControllerId(CONTROLLER_ID);
+        assertThat(authenticationCache.getTargetCredentialsStats().hitCount()).isEqualTo(2L);
+        assertThat(authenticationCache.getSavedLookupCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @Description("Verifies that a wrong target security token is rejected and that a changed target security "
+            + "token is verified against the repository.")
+    public void changedTargetSecurityTokenIsReloaded() {
+        assertThat(underTest.getPreAuthenticatedCredentials(createSecurityToken(TOKEN)))
+                .isEqualTo(underTest.getPreAuthenticatedPrincipal(createSecurityToken(TOKEN)));
+
+        final TenantSecurityToken wrongToken = createSecurityToken("wrong");
+        assertThat(underTest.getPreAuthenticatedCredentials(wrongToken))
+                .isNotEqualTo(underTest.getPreAuthenticatedPrincipal(wrongToken));
+
+        when(targetMock.getSecurityToken()).thenReturn("changed");
+        final TenantSecurityToken changedToken = createSecurityToken("changed");
+        assertThat(underTest.getPreAuthenticatedCredentials(changedToken))
+                .isEqualTo(underTest.getPreAuthenticatedPrincipal(changedToken));
+    }
+
+    @Test
+    @Description("Verifies that the target security token is loaded again after the target has been deleted.")
+    public void targetDeletionInvalidatesCache() {
+        final TenantSecurityToken securityToken = createSecurityToken(TOKEN);
+        underTest.getPreAuthenticatedCredentials(securityToken);
+
+        authenticationCache.onTargetDeleted(new TargetDeletedEvent(TENANT, TARGET_ID, Target.class.getName(), "app"));
+        underTest.getPreAuthenticatedCredentials(securityToken);
+
+        verify(controllerManagementMock, times(2)).findByControllerId(CONTROLLER_ID);
+    }
+
+    @Test
+    @Description("Verifies that the enabled authentication mode is cached until the configuration is changed.")
+    public void authenticationModeIsCachedUntilConfigurationChanged() {
+        final TenantSecurityToken securityToken = createSecurityToken(TOKEN);
+        assertThat(underTest.isEnable(securityToken)).isTrue();
+        assertThat(underTest.isEnable(securityToken)).isTrue();
+
+        authenticationCache.onTenantConfigurationChanged(new TenantConfigurationChangedEvent(TENANT,
+                TenantConfigurationKey.AUTHENTICATION_MODE_TARGET_SECURITY_TOKEN_ENABLED, "app"));
+        assertThat(underTest.isEnable(securityToken)).isTrue();
+
+        verify(tenantConfigurationManagementMock, times(2)).getConfigurationValue(
+                TenantConfigurationKey.AUTHENTICATION_MODE_TARGET_SECURITY_TOKEN_ENABLED, Boolean.class);
+        assertThat(authenticationCache.getAuthenticationModeStats().hitCount()).isEqualTo(1L);
+    }
+
+    private static TenantSecurityToken createSecurityToken(final String token) {
+        final TenantSecurityToken securityToken = new TenantSecurityToken(TENANT, CONTROLLER_ID, null);
+        securityToken.putHeader(TenantSecurityToken.AUTHORIZATION_HEADER, "TargetToken " + token);
+        return securityToken;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.hawkbit.im.authentication.TenantAwareAuthenticationDetails;
 import org.eclipse.hawkbit.repository.event.TenantAwareEvent;
+import org.eclipse.hawkbit.repository.event.remote.RolloutActionsCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionCreatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.ActionUpdatedEvent;
 import org.eclipse.hawkbit.repository.event.remote.entity.RolloutGroupCreatedEvent;
@@ -283,6 +284,9 @@ public class DelayedEventBusPushStrategy implements EventPushStrategy, Applicati
         } else if (event instanceof ActionUpdatedEvent) {
             rolloutId = ((ActionUpdatedEvent) event).getRolloutId();
             rolloutGroupId = ((ActionUpdatedEvent) event).getRolloutGroupId();
+        } else if (event instanceof RolloutActionsCreatedEvent) {
+            rolloutId = ((RolloutActionsCreatedEvent) event).getRolloutId();
+            rolloutGroupId = ((RolloutActionsCreatedEvent) event).getRolloutGroupId();
         } else if (event instanceof RolloutUpdatedEvent) {
             rolloutId = ((RolloutUpdatedEvent) event).getEntityId();
         } else if (event instanceof RolloutGroupCreatedEvent) {